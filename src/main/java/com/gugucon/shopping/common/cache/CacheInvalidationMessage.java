@@ -0,0 +1,54 @@
+package com.gugucon.shopping.common.cache;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 다른 인스턴스의 로컬 캐시를 비우기 위해 Redis 채널로 보내는 메시지.
+ * "보낸 인스턴스|캐시 이름|키1,키2,..." 형식이며, 키가 비어 있으면 캐시 전체를 비운다.
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Getter
+public class CacheInvalidationMessage {
+
+    public static final String CHANNEL = "cache:invalidation";
+
+    private static final String DELIMITER = "|";
+    private static final String KEY_DELIMITER = ",";
+
+    private final String origin;
+    private final String cacheName;
+    private final List<String> keys;
+
+    public static CacheInvalidationMessage ofKeys(final String origin,
+                                                  final String cacheName,
+                                                  final Collection<?> keys) {
+        return new CacheInvalidationMessage(origin, cacheName, keys.stream().map(String::valueOf).toList());
+    }
+
+    public static CacheInvalidationMessage ofAll(final String origin, final String cacheName) {
+        return new CacheInvalidationMessage(origin, cacheName, List.of());
+    }
+
+    public static CacheInvalidationMessage parse(final String message) {
+        final String[] parts = message.split("\\" + DELIMITER, 3);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("malformed cache invalidation message : " + message);
+        }
+        final List<String> keys = parts[2].isEmpty() ? List.of() : Arrays.asList(parts[2].split(KEY_DELIMITER));
+        return new CacheInvalidationMessage(parts[0], parts[1], keys);
+    }
+
+    public boolean isAll() {
+        return keys.isEmpty();
+    }
+
+    public String serialize() {
+        return origin + DELIMITER + cacheName + DELIMITER + String.join(KEY_DELIMITER, keys);
+    }
+}
@@ -0,0 +1,36 @@
+package com.gugucon.shopping.common.cache;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * L2 에 저장한 값과 그 만료 시각(epoch millis). 만료 시각을 값과 함께 읽으므로 남은 TTL 을 Redis 에 따로 묻지 않는다.
+ * 만료 시각 없이 저장된 값은 만료 시각을 알 수 없는 것으로 본다.
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Getter
+public class ExpiringValue {
+
+    public static final long UNKNOWN_EXPIRY = Long.MAX_VALUE;
+
+    private final Object value;
+    private final long expiresAt;
+
+    public static ExpiringValue of(final Object value, final long expiresAt) {
+        return new ExpiringValue(value, expiresAt);
+    }
+
+    /**
+     * L2 에서 읽은 값을 만료 시각과 함께 돌려준다. 값이 없으면 null 이다.
+     */
+    public static ExpiringValue from(final Object stored) {
+        if (stored == null) {
+            return null;
+        }
+        if (stored instanceof final ExpiringValue expiringValue) {
+            return expiringValue.value == null ? null : expiringValue;
+        }
+        return new ExpiringValue(stored, UNKNOWN_EXPIRY);
+    }
+}
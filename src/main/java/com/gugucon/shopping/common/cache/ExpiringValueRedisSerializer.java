@@ -0,0 +1,60 @@
+package com.gugucon.shopping.common.cache;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * 값 앞에 [표시 1바이트][만료 시각 8바이트] 를 붙여 저장하고, 읽을 때 ExpiringValue 로 돌려준다.
+ * 만료 시각은 저장하는 시점에 ttl 을 더해 정하므로 Redis 키의 TTL 과 같다. 표시가 없는 이전 값은 만료 시각 없이 읽는다.
+ */
+public class ExpiringValueRedisSerializer implements RedisSerializer<Object> {
+
+    private static final byte EXPIRY_HEADER = (byte) 0xFE;
+    private static final int HEADER_BYTES = 1 + Long.BYTES;
+
+    private final RedisSerializer<Object> delegate;
+    private final Duration ttl;
+
+    public ExpiringValueRedisSerializer(final RedisSerializer<Object> delegate, final Duration ttl) {
+        this.delegate = delegate;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public byte[] serialize(final Object value) throws SerializationException {
+        if (value == null) {
+            return null;
+        }
+        final ExpiringValue expiringValue = value instanceof final ExpiringValue stamped
+                ? stamped
+                : ExpiringValue.of(value, System.currentTimeMillis() + ttl.toMillis());
+        final byte[] bytes = delegate.serialize(expiringValue.getValue());
+        if (bytes == null) {
+            return null;
+        }
+        return ByteBuffer.allocate(HEADER_BYTES + bytes.length)
+                .put(EXPIRY_HEADER)
+                .putLong(expiringValue.getExpiresAt())
+                .put(bytes)
+                .array();
+    }
+
+    @Override
+    public Object deserialize(final byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != EXPIRY_HEADER) {
+            return ExpiringValue.from(delegate.deserialize(bytes));
+        }
+        if (bytes.length < HEADER_BYTES) {
+            throw new SerializationException("malformed expiring value");
+        }
+        final long expiresAt = ByteBuffer.wrap(bytes, 1, Long.BYTES).getLong();
+        return ExpiringValue.of(delegate.deserialize(Arrays.copyOfRange(bytes, HEADER_BYTES, bytes.length)), expiresAt);
+    }
+}
@@ -0,0 +1,344 @@
+package com.gugucon.shopping.common.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 인스턴스 안의 Caffeine 캐시(L1) 를 Redis 캐시(L2) 앞에 둔다.
+ * 값을 바꾸거나 지우면 L2 에 반영한 뒤 다른 인스턴스가 자신의 L1 을 비우도록 무효화 메시지를 보낸다.
+ * L1 의 키는 L2 와 같이 문자열로 바꿔서 저장하므로 무효화 메시지의 키로 바로 지울 수 있다.
+ * <p>
+ * L1 의 값은 localTtl 이 지나거나, L2 의 만료가 refreshAhead 만큼 남았거나, 캐시 전체가 비워지면 오래된 값이 된다.
+ * 오래된 값이 읽히면 그대로 돌려주고 백그라운드에서 L2 를 다시 읽거나 다시 계산해 넣으며, L1 에서는 localHardTtl 이 지나야 사라진다.
+ * 따라서 자주 읽히는 키는 만료되어 요청이 기다리는 일이 없다. L2 의 만료 시각은 값과 함께 저장된 것을 사용한다.
+ */
+@Slf4j
+public class TwoTierCache implements org.springframework.cache.Cache {
+
+    private final org.springframework.cache.Cache remote;
+    private final Cache<String, LocalEntry> local;
+    private final String origin;
+    private final Consumer<CacheInvalidationMessage> publisher;
+    private final Duration remoteTtl;
+    private final Duration localTtl;
+    private final Duration localHardTtl;
+    private final Duration refreshAhead;
+    private final Executor refreshExecutor;
+
+    private final Set<String> refreshingKeys = ConcurrentHashMap.newKeySet();
+    private volatile long staleBefore = Long.MIN_VALUE;
+
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder localMisses = new LongAdder();
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder remoteMisses = new LongAdder();
+    private final LongAdder staleServes = new LongAdder();
+    private final LongAdder refreshCount = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+    private final LongAdder refreshNanos = new LongAdder();
+
+    /**
+     * @param remoteTtl    L2 에 값을 넣을 때의 TTL
+     * @param localTtl     L1 의 값을 오래된 것으로 보기까지의 시간
+     * @param localHardTtl L1 에서 값이 사라지기까지의 시간, localTtl 보다 짧으면 localTtl 을 사용한다
+     * @param refreshAhead L2 만료가 이만큼 남은 값부터 미리 다시 계산한다
+     */
+    public TwoTierCache(final org.springframework.cache.Cache remote,
+                        final Cache<String, LocalEntry> local,
+                        final String origin,
+                        final Consumer<CacheInvalidationMessage> publisher,
+                        final Duration remoteTtl,
+                        final Duration localTtl,
+                        final Duration localHardTtl,
+                        final Duration refreshAhead,
+                        final Executor refreshExecutor) {
+        this.remote = remote;
+        this.local = local;
+        this.origin = origin;
+        this.publisher = publisher;
+        this.remoteTtl = remoteTtl;
+        this.localTtl = localTtl;
+        this.localHardTtl = localHardTtl.compareTo(localTtl) < 0 ? localTtl : localHardTtl;
+        this.refreshAhead = refreshAhead;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    /**
+     * L1 의 값마다 localHardTtl 이 지나면 사라지도록 하는 Caffeine 만료 정책.
+     */
+    public static Expiry<String, LocalEntry> localExpiry() {
+        return new LocalEntryExpiry();
+    }
+
+    @Override
+    public String getName() {
+        return remote.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    // 다시 계산할 방법이 없으므로 오래된 L1 값은 쓰지 않고 L2 에서 읽는다.
+    @Override
+    public ValueWrapper get(final Object key) {
+        final String localKey = toLocalKey(key);
+        final LocalEntry entry = local.getIfPresent(localKey);
+        if (entry != null && !entry.isStale(System.currentTimeMillis(), staleBefore)) {
+            localHits.increment();
+            return new SimpleValueWrapper(entry.value);
+        }
+        localMisses.increment();
+        final ExpiringValue remoteValue = getRemote(key);
+        if (remoteValue == null) {
+            remoteMisses.increment();
+            return null;
+        }
+        remoteHits.increment();
+        local.put(localKey, toLocalEntry(remoteValue));
+        return new SimpleValueWrapper(remoteValue.getValue());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(final Object key, final Class<T> type) {
+        final ValueWrapper wrapper = get(key);
+        final Object value = wrapper == null ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(final Object key, final Callable<T> valueLoader) {
+        final String localKey = toLocalKey(key);
+        final LocalEntry entry = local.getIfPresent(localKey);
+        if (entry != null) {
+            localHits.increment();
+            if (entry.isStale(System.currentTimeMillis(), staleBefore)) {
+                staleServes.increment();
+                refreshAsync(key, valueLoader);
+            }
+            return (T) entry.value;
+        }
+        localMisses.increment();
+        final ExpiringValue remoteValue = getRemote(key);
+        if (remoteValue != null) {
+            remoteHits.increment();
+            local.put(localKey, toLocalEntry(remoteValue));
+            return (T) remoteValue.getValue();
+        }
+        remoteMisses.increment();
+        // L2 에서 동시에 같은 키를 불러오는 것은 RedisCache 가 막아 준다. 그 사이 다른 요청이 넣은 값이면 만료 시각과 함께 읽힌다.
+        final ExpiringValue loaded = ExpiringValue.from(remote.get(key, valueLoader));
+        if (loaded == null) {
+            return null;
+        }
+        local.put(localKey, loaded.getExpiresAt() == ExpiringValue.UNKNOWN_EXPIRY ? fresh(loaded.getValue())
+                                                                                   : toLocalEntry(loaded));
+        return (T) loaded.getValue();
+    }
+
+    @Override
+    public void put(final Object key, final Object value) {
+        remote.put(key, value);
+        local.put(toLocalKey(key), fresh(value));
+        publisher.accept(CacheInvalidationMessage.ofKeys(origin, getName(), List.of(key)));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(final Object key, final Object value) {
+        final ValueWrapper existing = remote.putIfAbsent(key, value);
+        local.invalidate(toLocalKey(key));
+        if (existing == null) {
+            publisher.accept(CacheInvalidationMessage.ofKeys(origin, getName(), List.of(key)));
+            return null;
+        }
+        final ExpiringValue existingValue = ExpiringValue.from(existing.get());
+        return existingValue == null ? null : new SimpleValueWrapper(existingValue.getValue());
+    }
+
+    @Override
+    public void evict(final Object key) {
+        remote.evict(key);
+        local.invalidate(toLocalKey(key));
+        publisher.accept(CacheInvalidationMessage.ofKeys(origin, getName(), List.of(key)));
+    }
+
+    /**
+     * L2 는 비우고, L1 의 값은 오래된 것으로 표시만 해서 다시 계산되는 동안 계속 쓸 수 있게 한다.
+     */
+    @Override
+    public void clear() {
+        remote.clear();
+        staleBefore = System.currentTimeMillis();
+        publisher.accept(CacheInvalidationMessage.ofAll(origin, getName()));
+    }
+
+    /**
+     * 다른 인스턴스가 보낸 무효화 메시지를 L1 에만 반영한다. 자신이 보낸 메시지는 이미 반영했으므로 무시한다.
+     */
+    public void invalidateLocal(final CacheInvalidationMessage message) {
+        if (origin.equals(message.getOrigin())) {
+            return;
+        }
+        if (message.isAll()) {
+            staleBefore = System.currentTimeMillis();
+            return;
+        }
+        local.invalidateAll(message.getKeys());
+    }
+
+    public long getLocalHitCount() {
+        return localHits.sum();
+    }
+
+    public long getLocalMissCount() {
+        return localMisses.sum();
+    }
+
+    public long getRemoteHitCount() {
+        return remoteHits.sum();
+    }
+
+    public long getRemoteMissCount() {
+        return remoteMisses.sum();
+    }
+
+    public long getLocalSize() {
+        return local.estimatedSize();
+    }
+
+    public long getStaleServeCount() {
+        return staleServes.sum();
+    }
+
+    public long getRefreshCount() {
+        return refreshCount.sum();
+    }
+
+    public long getRefreshFailureCount() {
+        return refreshFailures.sum();
+    }
+
+    public double getRefreshTotalNanos() {
+        return refreshNanos.sum();
+    }
+
+    private <T> void refreshAsync(final Object key, final Callable<T> valueLoader) {
+        final String localKey = toLocalKey(key);
+        if (!refreshingKeys.add(localKey)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> refresh(key, localKey, valueLoader));
+        } catch (RejectedExecutionException e) {
+            refreshingKeys.remove(localKey);
+        }
+    }
+
+    /**
+     * L2 에 만료까지 refreshAhead 보다 많이 남은 값이 있으면 L1 에만 다시 넣고, 없으면 다시 계산해 두 계층에 넣는다.
+     */
+    private <T> void refresh(final Object key, final String localKey, final Callable<T> valueLoader) {
+        final long start = System.nanoTime();
+        try {
+            final ExpiringValue remoteValue = getRemote(key);
+            if (remoteValue != null
+                    && remoteValue.getExpiresAt() - refreshAhead.toMillis() > System.currentTimeMillis()) {
+                local.put(localKey, toLocalEntry(remoteValue));
+                return;
+            }
+            final T value = valueLoader.call();
+            if (value != null) {
+                put(key, value);
+            }
+        } catch (Exception e) {
+            refreshFailures.increment();
+            log.warn("failed to refresh cache entry, cache : {}, key : {}", getName(), localKey, e);
+        } finally {
+            refreshCount.increment();
+            refreshNanos.add(System.nanoTime() - start);
+            refreshingKeys.remove(localKey);
+        }
+    }
+
+    private ExpiringValue getRemote(final Object key) {
+        final ValueWrapper wrapper = remote.get(key);
+        return wrapper == null ? null : ExpiringValue.from(wrapper.get());
+    }
+
+    private LocalEntry fresh(final Object value) {
+        return toLocalEntry(ExpiringValue.of(value, System.currentTimeMillis() + remoteTtl.toMillis()));
+    }
+
+    private LocalEntry toLocalEntry(final ExpiringValue remoteValue) {
+        final long now = System.currentTimeMillis();
+        final long refreshAt = Math.min(now + localTtl.toMillis(),
+                                        remoteValue.getExpiresAt() - refreshAhead.toMillis());
+        return new LocalEntry(remoteValue.getValue(), now, refreshAt, now + localHardTtl.toMillis());
+    }
+
+    private String toLocalKey(final Object key) {
+        return String.valueOf(key);
+    }
+
+    public static final class LocalEntry {
+
+        private final Object value;
+        private final long loadedAt;
+        private final long refreshAt;
+        private final long expiresAt;
+
+        private LocalEntry(final Object value, final long loadedAt, final long refreshAt, final long expiresAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+            this.refreshAt = refreshAt;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isStale(final long now, final long staleBefore) {
+            return now >= refreshAt || loadedAt <= staleBefore;
+        }
+    }
+
+    private static final class LocalEntryExpiry implements Expiry<String, LocalEntry> {
+
+        @Override
+        public long expireAfterCreate(final String key, final LocalEntry entry, final long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(entry.expiresAt - System.currentTimeMillis(), 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(final String key,
+                                      final LocalEntry entry,
+                                      final long currentTime,
+                                      final long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(final String key,
+                                    final LocalEntry entry,
+                                    final long currentTime,
+                                    final long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
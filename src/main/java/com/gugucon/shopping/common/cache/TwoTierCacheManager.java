@@ -0,0 +1,175 @@
+package com.gugucon.shopping.common.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * RedisCacheManager 가 만든 캐시마다 Caffeine L1 을 앞에 둔 TwoTierCache 를 돌려준다.
+ * L1 은 W-TinyLFU 로 자주 쓰이는 키만 남기며, 무효화 메시지를 놓치더라도 localTtl 이 지나면 L2 에서 다시 읽는다.
+ * 오래된 값은 다시 읽는 동안 계속 쓸 수 있도록 localHardTtl 이 지나야 L1 에서 사라진다.
+ * 만료가 가까운 값을 미리 다시 계산하는 작업은 refreshExecutor 에서 실행한다.
+ */
+@Slf4j
+public class TwoTierCacheManager implements CacheManager, MessageListener, MeterBinder {
+
+    private final RedisCacheManager redisCacheManager;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final long localMaxSize;
+    private final Duration localTtl;
+    private final Duration localHardTtl;
+    private final Duration refreshAhead;
+    private final Executor refreshExecutor;
+    private final String origin = UUID.randomUUID().toString();
+    private final Map<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+    private final Map<String, List<Runnable>> remoteClearListeners = new ConcurrentHashMap<>();
+
+    public TwoTierCacheManager(final RedisCacheManager redisCacheManager,
+                               final StringRedisTemplate stringRedisTemplate,
+                               final long localMaxSize,
+                               final Duration localTtl,
+                               final Duration localHardTtl,
+                               final Duration refreshAhead,
+                               final Executor refreshExecutor) {
+        this.redisCacheManager = redisCacheManager;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.localMaxSize = localMaxSize;
+        this.localTtl = localTtl;
+        this.localHardTtl = localHardTtl;
+        this.refreshAhead = refreshAhead;
+        this.refreshExecutor = refreshExecutor;
+        redisCacheManager.getCacheNames().forEach(this::getCache);
+    }
+
+    @Override
+    public Cache getCache(final String name) {
+        final TwoTierCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        final Cache remote = redisCacheManager.getCache(name);
+        if (remote == null) {
+            return null;
+        }
+        final RedisCacheConfiguration configuration = redisCacheManager.getCacheConfigurations().get(name);
+        return caches.computeIfAbsent(name, key -> new TwoTierCache(
+                remote,
+                Caffeine.newBuilder()
+                        .maximumSize(localMaxSize)
+                        .expireAfter(TwoTierCache.localExpiry())
+                        .build(),
+                origin,
+                this::publish,
+                configuration.getTtl(),
+                localTtl,
+                localHardTtl,
+                refreshAhead,
+                refreshExecutor));
+    }
+
+    /**
+     * 다른 인스턴스가 cacheName 캐시 전체를 비웠을 때 이 인스턴스에서 함께 비워야 하는 로컬 자원을 등록한다.
+     */
+    public void addRemoteClearListener(final String cacheName, final Runnable listener) {
+        remoteClearListeners.computeIfAbsent(cacheName, name -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return redisCacheManager.getCacheNames();
+    }
+
+    @Override
+    public void onMessage(final Message message, final byte[] pattern) {
+        final CacheInvalidationMessage invalidation;
+        try {
+            invalidation = CacheInvalidationMessage.parse(new String(message.getBody(), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            log.warn(e.getMessage());
+            return;
+        }
+        final TwoTierCache cache = caches.get(invalidation.getCacheName());
+        if (cache != null) {
+            cache.invalidateLocal(invalidation);
+        }
+        if (invalidation.isAll() && !origin.equals(invalidation.getOrigin())) {
+            remoteClearListeners.getOrDefault(invalidation.getCacheName(), List.of()).forEach(Runnable::run);
+        }
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        caches.values().forEach(cache -> {
+            registerTier(registry, cache, "l1", TwoTierCache::getLocalHitCount, TwoTierCache::getLocalMissCount);
+            registerTier(registry, cache, "l2", TwoTierCache::getRemoteHitCount, TwoTierCache::getRemoteMissCount);
+            Gauge.builder("cache.tier.size", cache, TwoTierCache::getLocalSize)
+                    .tags("cache", cache.getName(), "tier", "l1")
+                    .register(registry);
+            FunctionCounter.builder("cache.stale.serves", cache, TwoTierCache::getStaleServeCount)
+                    .description("stale values served while being refreshed in the background")
+                    .tags("cache", cache.getName())
+                    .register(registry);
+            FunctionTimer.builder("cache.refresh", cache,
+                                  TwoTierCache::getRefreshCount,
+                                  TwoTierCache::getRefreshTotalNanos,
+                                  TimeUnit.NANOSECONDS)
+                    .description("background refresh latency")
+                    .tags("cache", cache.getName())
+                    .register(registry);
+            FunctionCounter.builder("cache.refresh.failures", cache, TwoTierCache::getRefreshFailureCount)
+                    .tags("cache", cache.getName())
+                    .register(registry);
+        });
+    }
+
+    private void registerTier(final MeterRegistry registry,
+                              final TwoTierCache cache,
+                              final String tier,
+                              final ToDoubleFunction<TwoTierCache> hits,
+                              final ToDoubleFunction<TwoTierCache> misses) {
+        FunctionCounter.builder("cache.tier.gets", cache, hits)
+                .tags("cache", cache.getName(), "tier", tier, "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.tier.gets", cache, misses)
+                .tags("cache", cache.getName(), "tier", tier, "result", "miss")
+                .register(registry);
+        Gauge.builder("cache.tier.hit.ratio", cache, value -> {
+                    final double hitCount = hits.applyAsDouble(value);
+                    final double total = hitCount + misses.applyAsDouble(value);
+                    return total == 0 ? 0 : hitCount / total;
+                })
+                .tags("cache", cache.getName(), "tier", tier)
+                .register(registry);
+    }
+
+    private void publish(final CacheInvalidationMessage message) {
+        try {
+            stringRedisTemplate.convertAndSend(CacheInvalidationMessage.CHANNEL, message.serialize());
+        } catch (RuntimeException e) {
+            log.warn("failed to publish cache invalidation, cache : {}", message.getCacheName(), e);
+        }
+    }
+}
@@ -1,5 +1,12 @@
 package com.gugucon.shopping.common.config;
 
+import com.gugucon.shopping.common.cache.CacheInvalidationMessage;
+import com.gugucon.shopping.common.cache.ExpiringValueRedisSerializer;
+import com.gugucon.shopping.common.cache.TwoTierCacheManager;
+import com.gugucon.shopping.item.infrastructure.ProductIdsRedisSerializer;
+import com.gugucon.shopping.item.infrastructure.RecommendationSnapshot;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -7,9 +14,13 @@ import org.springframework.context.annotation.Profile;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
 import java.time.Duration;
+import java.util.concurrent.Executor;
 
 import static org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair.fromSerializer;
 
@@ -18,15 +29,46 @@ import static org.springframework.data.redis.serializer.RedisSerializationContex
 @Profile("!test")
 public class CacheConfig {
 
+    public static final String RECOMMENDATION_CACHE_NAME = "rec";
+    public static final Duration RECOMMENDATION_CACHE_TTL = Duration.ofDays(3);
+    public static final RedisSerializer<Object> RECOMMENDATION_CACHE_SERIALIZER =
+            new ExpiringValueRedisSerializer(new ProductIdsRedisSerializer(), RECOMMENDATION_CACHE_TTL);
+
     @Bean
-    public RedisCacheManager redisCacheManager(RedisConnectionFactory redisConnectionFactory) {
+    public TwoTierCacheManager cacheManager(RedisConnectionFactory redisConnectionFactory,
+                                            StringRedisTemplate stringRedisTemplate,
+                                            @Value("${cache.local.max-size:10000}") long localMaxSize,
+                                            @Value("${cache.local.ttl-seconds:300}") long localTtlSeconds,
+                                            @Value("${cache.local.hard-ttl-seconds:3600}") long localHardTtlSeconds,
+                                            @Value("${cache.refresh-ahead-hours:6}") long refreshAheadHours,
+                                            @Qualifier("threadPoolTaskExecutor") Executor refreshExecutor) {
         final RedisCacheConfiguration recommendationCacheConfiguration = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofDays(3))
+                .entryTtl(RECOMMENDATION_CACHE_TTL)
                 .disableCachingNullValues()
-                .serializeValuesWith(fromSerializer(new GenericJackson2JsonRedisSerializer()));
+                .serializeValuesWith(fromSerializer(RECOMMENDATION_CACHE_SERIALIZER));
 
-        return RedisCacheManager.builder(redisConnectionFactory)
-                .withCacheConfiguration("rec", recommendationCacheConfiguration)
+        final RedisCacheManager redisCacheManager = RedisCacheManager.builder(redisConnectionFactory)
+                .withCacheConfiguration(RECOMMENDATION_CACHE_NAME, recommendationCacheConfiguration)
                 .build();
+        redisCacheManager.afterPropertiesSet();
+        return new TwoTierCacheManager(redisCacheManager,
+                                       stringRedisTemplate,
+                                       localMaxSize,
+                                       Duration.ofSeconds(localTtlSeconds),
+                                       Duration.ofSeconds(localHardTtlSeconds),
+                                       Duration.ofHours(refreshAheadHours),
+                                       refreshExecutor);
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory redisConnectionFactory,
+                                                                            TwoTierCacheManager cacheManager,
+                                                                            RecommendationSnapshot recommendationSnapshot) {
+        // 추천 스냅샷은 인스턴스마다 로컬 파일에 있으므로, 다른 인스턴스가 추천 캐시를 모두 비우면 이 인스턴스의 스냅샷도 비운다.
+        cacheManager.addRemoteClearListener(RECOMMENDATION_CACHE_NAME, recommendationSnapshot::clear);
+        final RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(CacheInvalidationMessage.CHANNEL));
+        return container;
     }
 }
@@ -0,0 +1,19 @@
+package com.gugucon.shopping.common.dto.response;
+
+import java.util.List;
+import lombok.Getter;
+
+@Getter
+public class CappedPagedResponse<T> extends PagedResponse<T> {
+
+    private final boolean hasMorePages;
+
+    public CappedPagedResponse(final List<T> contents,
+                               final int totalPage,
+                               final int currentPage,
+                               final int size,
+                               final boolean hasMorePages) {
+        super(contents, totalPage, currentPage, size);
+        this.hasMorePages = hasMorePages;
+    }
+}
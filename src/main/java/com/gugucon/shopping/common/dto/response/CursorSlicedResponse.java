@@ -0,0 +1,18 @@
+package com.gugucon.shopping.common.dto.response;
+
+import java.util.List;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class CursorSlicedResponse<T> {
+
+    private List<T> contents;
+    private boolean hasNextPage;
+    private String nextCursor;
+    private int size;
+}
@@ -0,0 +1,20 @@
+package com.gugucon.shopping.common.dto.response;
+
+import java.util.List;
+import lombok.Getter;
+
+@Getter
+public class FacetedPagedResponse<T, F> extends CappedPagedResponse<T> {
+
+    private final F facets;
+
+    public FacetedPagedResponse(final List<T> contents,
+                                final int totalPage,
+                                final int currentPage,
+                                final int size,
+                                final boolean hasMorePages,
+                                final F facets) {
+        super(contents, totalPage, currentPage, size, hasMorePages);
+        this.facets = facets;
+    }
+}
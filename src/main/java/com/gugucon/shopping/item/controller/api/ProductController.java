@@ -1,10 +1,13 @@
 package com.gugucon.shopping.item.controller.api;
 
+import com.gugucon.shopping.common.dto.response.CursorSlicedResponse;
 import com.gugucon.shopping.common.dto.response.PagedResponse;
 import com.gugucon.shopping.item.infrastructure.SearchCondition;
 import com.gugucon.shopping.common.dto.response.SlicedResponse;
 import com.gugucon.shopping.item.dto.response.ProductDetailResponse;
 import com.gugucon.shopping.item.dto.response.ProductResponse;
+import com.gugucon.shopping.item.dto.response.ProductSuggestionResponse;
+import com.gugucon.shopping.item.service.ProductExportService;
 import com.gugucon.shopping.item.service.ProductService;
 import com.gugucon.shopping.member.domain.vo.BirthYearRange;
 import com.gugucon.shopping.member.domain.vo.Gender;
@@ -13,20 +16,32 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.data.web.SortDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/v1/products")
 @RequiredArgsConstructor
 public class ProductController {
 
+    private static final String GZIP = "gzip";
+    private static final int GZIP_BUFFER_SIZE = 8192;
+
     private final ProductService productService;
+    private final ProductExportService productExportService;
 
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
@@ -35,6 +50,23 @@ public class ProductController {
         return productService.readAllProducts(pageable);
     }
 
+    @GetMapping("/scroll")
+    @ResponseStatus(HttpStatus.OK)
+    public CursorSlicedResponse<ProductResponse> scrollProducts(
+            @RequestParam(required = false) final String cursor,
+            @SortDefault(sort = "id", direction = Direction.DESC) final Pageable pageable) {
+        return productService.scrollProducts(cursor, pageable);
+    }
+
+    @GetMapping("/search/scroll")
+    @ResponseStatus(HttpStatus.OK)
+    public CursorSlicedResponse<ProductResponse> scrollSearchedProducts(
+            @RequestParam final String keyword,
+            @RequestParam(required = false) final String cursor,
+            @SortDefault(sort = "id", direction = Direction.DESC) final Pageable pageable) {
+        return productService.scrollSearchedProducts(keyword, cursor, pageable);
+    }
+
     @GetMapping("/search")
     @ResponseStatus(HttpStatus.OK)
     public PagedResponse<ProductResponse> searchProducts(@RequestParam final String keyword,
@@ -53,6 +85,36 @@ public class ProductController {
         return productService.searchProducts(searchCondition);
     }
 
+    @GetMapping("/suggest")
+    @ResponseStatus(HttpStatus.OK)
+    public List<ProductSuggestionResponse> suggestProducts(@RequestParam final String keyword,
+                                                           @RequestParam(defaultValue = "10") final int size) {
+        return productService.suggestProducts(keyword, size);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(defaultValue = "0") final long after,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) final String acceptEncoding) {
+        final boolean gzip = acceptEncoding != null && acceptEncoding.contains(GZIP);
+        final StreamingResponseBody body = outputStream -> {
+            if (!gzip) {
+                productExportService.export(after, outputStream);
+                return;
+            }
+            try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream, GZIP_BUFFER_SIZE, true)) {
+                productExportService.export(after, gzipOutputStream);
+            }
+        };
+        final ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        return response.body(body);
+    }
+
     @GetMapping("/{productId}")
     @ResponseStatus(HttpStatus.OK)
     public ProductDetailResponse getProductDetail(@PathVariable final Long productId) {
@@ -12,7 +12,8 @@ public enum SortKey {
     ID_DESC(DESC, "id"),
     PRICE_DESC(DESC, "price"),
     PRICE_ASC(ASC, "price"),
-    RATE(DESC, "rate");
+    RATE(DESC, "rate"),
+    TRENDING(DESC, "trending");
 
     private final Direction direction;
     private final String key;
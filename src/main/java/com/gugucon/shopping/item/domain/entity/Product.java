@@ -5,6 +5,7 @@ import com.gugucon.shopping.common.domain.vo.Money;
 import com.gugucon.shopping.common.domain.vo.Quantity;
 import com.gugucon.shopping.common.exception.ErrorCode;
 import com.gugucon.shopping.common.exception.ShoppingException;
+import com.gugucon.shopping.item.domain.event.ProductSaveEvent;
 import jakarta.persistence.AttributeOverride;
 import jakarta.persistence.Column;
 import jakarta.persistence.Embedded;
@@ -20,6 +21,10 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.springframework.data.domain.DomainEvents;
+
+import java.util.Collection;
+import java.util.List;
 
 @Entity
 @Table(name = "products")
@@ -72,4 +77,9 @@ public class Product extends BaseTimeEntity {
     public boolean canReduceStockBy(final Quantity quantity) {
         return !stock.isLessThan(quantity);
     }
+
+    @DomainEvents
+    protected Collection<Object> domainEvents() {
+        return List.of(ProductSaveEvent.from(this));
+    }
 }
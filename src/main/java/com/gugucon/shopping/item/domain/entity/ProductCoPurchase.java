@@ -0,0 +1,43 @@
+package com.gugucon.shopping.item.domain.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "product_co_purchases")
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Builder
+@Getter
+public class ProductCoPurchase {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    private Long productId;
+
+    @NotNull
+    private Long coProductId;
+
+    @NotNull
+    private Long count;
+
+    public static ProductCoPurchase of(final Long productId, final Long coProductId) {
+        return ProductCoPurchase.builder()
+                .productId(productId)
+                .coProductId(coProductId)
+                .count(0L)
+                .build();
+    }
+}
@@ -0,0 +1,82 @@
+package com.gugucon.shopping.item.domain.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "recommendation_warm_partitions")
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Builder
+@Getter
+public class RecommendationWarmPartition {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    private String runKey;
+
+    @NotNull
+    private Integer partitionNumber;
+
+    @NotNull
+    private Long startProductId;
+
+    @NotNull
+    private Long endProductId;
+
+    @Enumerated(EnumType.STRING)
+    @NotNull
+    private WarmStatus status;
+
+    private String owner;
+
+    private LocalDateTime leaseExpiresAt;
+
+    private Long checkpointProductId;
+
+    @NotNull
+    private Long productCount;
+
+    public static RecommendationWarmPartition of(final String runKey,
+                                                 final int partitionNumber,
+                                                 final long startProductId,
+                                                 final long endProductId) {
+        return RecommendationWarmPartition.builder()
+                .runKey(runKey)
+                .partitionNumber(partitionNumber)
+                .startProductId(startProductId)
+                .endProductId(endProductId)
+                .status(WarmStatus.PENDING)
+                .productCount(0L)
+                .build();
+    }
+
+    public boolean isClaimableAt(final LocalDateTime now) {
+        return status == WarmStatus.PENDING || (status == WarmStatus.RUNNING && leaseExpiresAt.isBefore(now));
+    }
+
+    /**
+     * 이전 실행이 중간에 멈췄다면 마지막 checkpoint 다음 상품부터 이어서 처리한다.
+     */
+    public long getResumeProductId() {
+        return checkpointProductId == null ? startProductId : checkpointProductId + 1;
+    }
+
+    public enum WarmStatus {PENDING, RUNNING, DONE}
+}
@@ -0,0 +1,18 @@
+package com.gugucon.shopping.item.domain.event;
+
+import com.gugucon.shopping.item.domain.entity.Product;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Getter
+public class ProductSaveEvent {
+
+    private Long productId;
+    private String name;
+
+    public static ProductSaveEvent from(final Product product) {
+        return new ProductSaveEvent(product.getId(), product.getName());
+    }
+}
@@ -0,0 +1,23 @@
+package com.gugucon.shopping.item.domain.event;
+
+import com.gugucon.shopping.order.domain.entity.Order;
+import com.gugucon.shopping.order.domain.entity.OrderItem;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Getter
+public class ProductStockChangeEvent {
+
+    private List<Long> productIds;
+
+    public static ProductStockChangeEvent from(final Order order) {
+        final List<Long> productIds = order.getOrderItems().stream()
+                .map(OrderItem::getProductId)
+                .toList();
+        return new ProductStockChangeEvent(productIds);
+    }
+}
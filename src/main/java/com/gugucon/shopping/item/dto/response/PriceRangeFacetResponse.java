@@ -0,0 +1,23 @@
+package com.gugucon.shopping.item.dto.response;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class PriceRangeFacetResponse {
+
+    private Long minPrice;
+    private Long maxPrice;
+    private long count;
+
+    /**
+     * minPrice 이상 maxPrice 미만인 가격 구간을 나타낸다. 경계가 없는 쪽은 null 이다.
+     */
+    public static PriceRangeFacetResponse of(final Long minPrice, final Long maxPrice, final long count) {
+        return new PriceRangeFacetResponse(minPrice, maxPrice, count);
+    }
+}
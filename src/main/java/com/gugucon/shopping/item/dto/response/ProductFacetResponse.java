@@ -0,0 +1,21 @@
+package com.gugucon.shopping.item.dto.response;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ProductFacetResponse {
+
+    private List<PriceRangeFacetResponse> priceRanges;
+    private long inStockCount;
+
+    public static ProductFacetResponse of(final List<PriceRangeFacetResponse> priceRanges, final long inStockCount) {
+        return new ProductFacetResponse(priceRanges, inStockCount);
+    }
+}
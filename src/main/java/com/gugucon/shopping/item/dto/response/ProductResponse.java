@@ -1,6 +1,7 @@
 package com.gugucon.shopping.item.dto.response;
 
 import com.gugucon.shopping.item.domain.entity.Product;
+import com.gugucon.shopping.item.repository.dto.ProductSummaryDto;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -26,4 +27,14 @@ public final class ProductResponse {
                 product.getPrice().getValue()
         );
     }
+
+    public static ProductResponse from(final ProductSummaryDto product) {
+        return new ProductResponse(
+                product.getId(),
+                product.getName(),
+                product.getImageFileName(),
+                product.getStock(),
+                product.getPrice()
+        );
+    }
 }
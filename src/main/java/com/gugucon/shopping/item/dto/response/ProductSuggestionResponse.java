@@ -0,0 +1,19 @@
+package com.gugucon.shopping.item.dto.response;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ProductSuggestionResponse {
+
+    private Long id;
+    private String name;
+
+    public static ProductSuggestionResponse of(final Long id, final String name) {
+        return new ProductSuggestionResponse(id, name);
+    }
+}
@@ -0,0 +1,302 @@
+package com.gugucon.shopping.item.infrastructure;
+
+import com.gugucon.shopping.item.repository.dto.ProductIdOrderIdPairDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * 상품마다 함께 구매된 상품별 횟수를 상품 id 오름차순의 조밀한 인덱스를 키로 하는 open addressing 맵에 담는다.
+ * 주문 단위로 상품 목록을 만들어 반영한 뒤 바로 버리므로, 사용하는 메모리는 원본 (상품, 주문) 쌍의 수가 아니라
+ * 서로 다른 동시 구매 쌍의 수에 비례한다.
+ */
+final class CoPurchaseMatrix {
+
+    private static final CoPurchaseCounts EMPTY_COUNTS = new CoPurchaseCounts();
+
+    private final long[] productIds;
+    private final CoPurchaseCounts[] rows;
+
+    private CoPurchaseMatrix(final long[] productIds, final CoPurchaseCounts[] rows) {
+        this.productIds = productIds;
+        this.rows = rows;
+    }
+
+    /**
+     * @param sortedProductIds     오름차순으로 정렬된 상품 id
+     * @param pairsSortedByOrderId 주문 id 순으로 정렬된 (상품 id, 주문 id) 쌍. 같은 주문의 상품은 연속해야 한다.
+     */
+    static CoPurchaseMatrix build(final long[] sortedProductIds,
+                                  final Stream<ProductIdOrderIdPairDto> pairsSortedByOrderId) {
+        return build(sortedProductIds, 0, sortedProductIds.length, pairsSortedByOrderId);
+    }
+
+    /**
+     * 인덱스가 fromIndex 이상 toIndex 미만인 상품에 대해서만 함께 구매된 횟수를 센다.
+     * 함께 구매된 상품은 범위와 무관하게 모든 상품이 대상이다.
+     */
+    static CoPurchaseMatrix build(final long[] sortedProductIds,
+                                  final int fromIndex,
+                                  final int toIndex,
+                                  final Stream<ProductIdOrderIdPairDto> pairsSortedByOrderId) {
+        final Builder builder = new Builder(sortedProductIds, fromIndex, toIndex);
+        pairsSortedByOrderId.forEach(builder::add);
+        return builder.build();
+    }
+
+    int size() {
+        return productIds.length;
+    }
+
+    long getProductId(final int index) {
+        return productIds[index];
+    }
+
+    long getPairCount() {
+        long pairCount = 0;
+        for (CoPurchaseCounts row : rows) {
+            pairCount += row.size;
+        }
+        return pairCount;
+    }
+
+    long getMemoryBytes() {
+        long memoryBytes = (long) productIds.length * Long.BYTES;
+        for (CoPurchaseCounts row : rows) {
+            memoryBytes += (long) row.keys.length * Integer.BYTES * 2;
+        }
+        return memoryBytes;
+    }
+
+    /**
+     * 인덱스 상품과 가장 많이 함께 구매된 상품 id 를 횟수 내림차순, id 오름차순으로 최대 limit 개 반환한다.
+     */
+    List<Long> findTopCoPurchased(final int index, final int limit) {
+        final CoPurchaseCounts row = rows[index];
+        if (row.size == 0) {
+            return Collections.emptyList();
+        }
+
+        final TopKHeap heap = new TopKHeap(limit);
+        for (int slot = 0; slot < row.keys.length; slot++) {
+            if (row.keys[slot] != CoPurchaseCounts.EMPTY_KEY) {
+                heap.offer(row.counts[slot], row.keys[slot] - 1);
+            }
+        }
+
+        final int[] sortedIndexes = heap.drainBestFirst();
+        final List<Long> topProductIds = new ArrayList<>(sortedIndexes.length);
+        for (int neighborIndex : sortedIndexes) {
+            topProductIds.add(productIds[neighborIndex]);
+        }
+        return topProductIds;
+    }
+
+    private static final class Builder {
+
+        private final long[] productIds;
+        private final int fromIndex;
+        private final int toIndex;
+        private final CoPurchaseCounts[] rows;
+        private int[] orderItemIndexes = new int[16];
+        private int orderSize = 0;
+        private Long currentOrderId = null;
+
+        private Builder(final long[] productIds, final int fromIndex, final int toIndex) {
+            this.productIds = productIds;
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+            this.rows = new CoPurchaseCounts[productIds.length];
+            Arrays.fill(rows, EMPTY_COUNTS);
+        }
+
+        private void add(final ProductIdOrderIdPairDto pair) {
+            final int index = Arrays.binarySearch(productIds, pair.getProductId());
+            if (index < 0) {
+                return;
+            }
+            if (!Objects.equals(currentOrderId, pair.getOrderId())) {
+                flushOrder();
+                currentOrderId = pair.getOrderId();
+            }
+            if (orderSize == orderItemIndexes.length) {
+                orderItemIndexes = Arrays.copyOf(orderItemIndexes, orderSize * 2);
+            }
+            orderItemIndexes[orderSize++] = index;
+        }
+
+        private void flushOrder() {
+            for (int i = 0; i < orderSize; i++) {
+                for (int j = i + 1; j < orderSize; j++) {
+                    increment(orderItemIndexes[i], orderItemIndexes[j]);
+                    increment(orderItemIndexes[j], orderItemIndexes[i]);
+                }
+            }
+            orderSize = 0;
+        }
+
+        private void increment(final int index, final int neighborIndex) {
+            if (index < fromIndex || index >= toIndex) {
+                return;
+            }
+            if (rows[index] == EMPTY_COUNTS) {
+                rows[index] = new CoPurchaseCounts();
+            }
+            rows[index].increment(neighborIndex);
+        }
+
+        private CoPurchaseMatrix build() {
+            flushOrder();
+            return new CoPurchaseMatrix(productIds, rows);
+        }
+    }
+
+    /**
+     * 상품 인덱스 → 횟수를 담는 선형 탐사 open addressing 맵. 0 을 빈 칸으로 쓰기 위해 키에는 인덱스 + 1 을 저장한다.
+     */
+    private static final class CoPurchaseCounts {
+
+        private static final int EMPTY_KEY = 0;
+        private static final int INITIAL_CAPACITY = 4;
+
+        private int[] keys;
+        private int[] counts;
+        private int size = 0;
+
+        private CoPurchaseCounts() {
+            this(0);
+        }
+
+        private CoPurchaseCounts(final int capacity) {
+            this.keys = new int[capacity];
+            this.counts = new int[capacity];
+        }
+
+        private void increment(final int index) {
+            if ((size + 1) * 2 > keys.length) {
+                resize(Math.max(INITIAL_CAPACITY, keys.length * 2));
+            }
+            final int key = index + 1;
+            int slot = slotOf(key, keys.length);
+            while (keys[slot] != EMPTY_KEY && keys[slot] != key) {
+                slot = (slot + 1) & (keys.length - 1);
+            }
+            if (keys[slot] == EMPTY_KEY) {
+                keys[slot] = key;
+                size++;
+            }
+            counts[slot]++;
+        }
+
+        private void resize(final int capacity) {
+            final int[] oldKeys = keys;
+            final int[] oldCounts = counts;
+            keys = new int[capacity];
+            counts = new int[capacity];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] == EMPTY_KEY) {
+                    continue;
+                }
+                int slot = slotOf(oldKeys[i], capacity);
+                while (keys[slot] != EMPTY_KEY) {
+                    slot = (slot + 1) & (capacity - 1);
+                }
+                keys[slot] = oldKeys[i];
+                counts[slot] = oldCounts[i];
+            }
+        }
+
+        private static int slotOf(final int key, final int capacity) {
+            final int hash = key * 0x9E3779B9;
+            return (hash ^ (hash >>> 16)) & (capacity - 1);
+        }
+    }
+
+    /**
+     * 크기가 제한된 최소 힙. 루트에는 남아 있는 후보 중 가장 나쁜 (횟수가 적고, 같다면 인덱스가 큰) 상품이 있다.
+     */
+    private static final class TopKHeap {
+
+        private final int[] counts;
+        private final int[] indexes;
+        private int size = 0;
+
+        private TopKHeap(final int capacity) {
+            this.counts = new int[capacity];
+            this.indexes = new int[capacity];
+        }
+
+        private void offer(final int count, final int index) {
+            if (size < counts.length) {
+                counts[size] = count;
+                indexes[size] = index;
+                siftUp(size++);
+                return;
+            }
+            if (size == 0 || !isWorse(counts[0], indexes[0], count, index)) {
+                return;
+            }
+            counts[0] = count;
+            indexes[0] = index;
+            siftDown(0);
+        }
+
+        private int[] drainBestFirst() {
+            final int[] result = new int[size];
+            for (int i = size - 1; i >= 0; i--) {
+                result[i] = indexes[0];
+                size--;
+                swap(0, size);
+                siftDown(0);
+            }
+            return result;
+        }
+
+        private void siftUp(int position) {
+            while (position > 0) {
+                final int parent = (position - 1) >>> 1;
+                if (!isWorse(counts[position], indexes[position], counts[parent], indexes[parent])) {
+                    return;
+                }
+                swap(position, parent);
+                position = parent;
+            }
+        }
+
+        private void siftDown(int position) {
+            while (true) {
+                final int left = position * 2 + 1;
+                if (left >= size) {
+                    return;
+                }
+                final int right = left + 1;
+                int worst = left;
+                if (right < size && isWorse(counts[right], indexes[right], counts[left], indexes[left])) {
+                    worst = right;
+                }
+                if (!isWorse(counts[worst], indexes[worst], counts[position], indexes[position])) {
+                    return;
+                }
+                swap(position, worst);
+                position = worst;
+            }
+        }
+
+        private boolean isWorse(final int count, final int index, final int otherCount, final int otherIndex) {
+            return count < otherCount || (count == otherCount && index > otherIndex);
+        }
+
+        private void swap(final int i, final int j) {
+            final int count = counts[i];
+            final int index = indexes[i];
+            counts[i] = counts[j];
+            indexes[i] = indexes[j];
+            counts[j] = count;
+            indexes[j] = index;
+        }
+    }
+}
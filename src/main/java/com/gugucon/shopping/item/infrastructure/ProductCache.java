@@ -12,6 +12,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
@@ -21,10 +22,15 @@ public class ProductCache {
     public static final int RECOMMENDATION_SIZE = 30;
 
     private final ProductRepository productRepository;
+    private final RecommendationSnapshot recommendationSnapshot;
 
     @Cacheable(cacheNames = "rec", key = "#productId", sync = true)
     public ProductIds getRecommendationIds(final Long productId) {
         log.info("cache method invoked");
+        final Optional<List<Long>> snapshotIds = recommendationSnapshot.find(productId);
+        if (snapshotIds.isPresent()) {
+            return ProductIds.from(snapshotIds.get());
+        }
         final Pageable pageable = Pageable.ofSize(RECOMMENDATION_SIZE)
                 .withPage(0);
         final List<Long> recommendationIds = productRepository.findRecommendedProducts(productId, pageable)
@@ -41,5 +47,6 @@ public class ProductCache {
     @CacheEvict(cacheNames = "rec", allEntries = true)
     public void clearAll() {
         log.info("cache eviction invoked");
+        recommendationSnapshot.clear();
     }
 }
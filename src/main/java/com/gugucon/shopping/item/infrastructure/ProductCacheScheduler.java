@@ -2,6 +2,7 @@ package com.gugucon.shopping.item.infrastructure;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
@@ -11,16 +12,26 @@ import org.springframework.stereotype.Component;
 public class ProductCacheScheduler {
 
     private final ProductCache productCache;
-    private final ProductCacheWarmer productCacheWarmer;
+    private final RecommendationWarmJob recommendationWarmJob;
 
-    @Scheduled(cron = "0 0 3 * * *")
+    // 주문이 완료될 때마다 ProductCoPurchaseService 가 해당 상품의 추천 목록을 갱신하므로 매일 비울 필요가 없다.
+    //@Scheduled(cron = "0 0 3 * * *")
     public void triggerCacheClearing() {
         log.info("cache eviction invoked");
         productCache.clearAll();
     }
 
-    //@Scheduled(fixedRate = 1, timeUnit = TimeUnit.DAYS)
+    // warm 작업은 오래 걸리므로 하나뿐인 스케줄러 스레드를 붙잡지 않도록 다른 스레드에서 실행한다.
+    @Async("threadPoolTaskExecutor")
+    @Scheduled(cron = "${product.recommendation.warm.cron:0 0 4 * * *}")
     public void triggerRecommendationCacheWarming() {
-        productCacheWarmer.warmRecommendationCache();
+        recommendationWarmJob.run();
+    }
+
+    // 작업 중 인스턴스가 죽으면 임대가 끝난 파티션을 다음 날 작업까지 기다리지 않고 이어서 처리한다.
+    @Async("threadPoolTaskExecutor")
+    @Scheduled(fixedDelayString = "${product.recommendation.warm.resume-interval-ms:60000}")
+    public void triggerExpiredRecommendationWarmResuming() {
+        recommendationWarmJob.resumeExpired();
     }
 }
@@ -5,67 +5,166 @@ import com.gugucon.shopping.item.repository.dto.ProductIdOrderIdPairDto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.*;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class ProductCacheWarmer {
 
+    private static final int PUBLISH_BATCH_SIZE = 1000;
+
     private final ProductRepository productRepository;
-    private final ProductCache productCache;
+    private final RecommendationCacheWriter recommendationCacheWriter;
+    private final RecommendationSnapshot recommendationSnapshot;
 
+    @Transactional(readOnly = true)
     public void warmRecommendationCache() {
         log.info("recommendation cache warmer method invoked");
         final long start = System.currentTimeMillis();
+        resetPeakHeapUsage();
 
-        final List<Long> productIds = productRepository.findAllId();
+        final long[] productIds = findAllSortedProductIds();
+        final CoPurchaseMatrix coPurchaseMatrix;
+        try (Stream<ProductIdOrderIdPairDto> pairs = productRepository.streamAllIdWithOrderId()) {
+            coPurchaseMatrix = CoPurchaseMatrix.build(productIds, pairs);
+        }
+        logMatrix(coPurchaseMatrix, start);
 
-        final List<ProductIdOrderIdPairDto> productIdOrderIdPairs = productRepository.findAllIdWithOrderId();
+        final long publishStart = System.currentTimeMillis();
+        publish(coPurchaseMatrix, 0, coPurchaseMatrix.size());
+        logThroughput(coPurchaseMatrix.size(), publishStart);
+        writeSnapshot(productIds, coPurchaseMatrix, 0, coPurchaseMatrix.size());
 
-        final Map<Long, List<Long>> orderIdToProductIds = productIdOrderIdPairs.stream()
-                .collect(Collectors.groupingBy(ProductIdOrderIdPairDto::getOrderId,
-                                               Collectors.mapping(ProductIdOrderIdPairDto::getProductId,
-                                                                  Collectors.toList())));
+        log.info("recommendation cache warmed, total elapsed time : {} ms", System.currentTimeMillis() - start);
+    }
 
-        final Map<Long, List<Long>> idToOrderedWithIds = new HashMap<>();
-        for (Long productId : productIds) {
-            idToOrderedWithIds.put(productId, new ArrayList<>());
+    /**
+     * id 가 fromProductId 이상 toProductId 이하인 상품의 추천 목록만 계산해 캐시에 넣는다.
+     * productIds 는 {@link #findAllSortedProductIds()} 로 읽은 전체 상품 id 로, 한 번의 warm 실행에서 모든 파티션이 함께 쓴다.
+     * checkpointInterval 개의 상품을 넣을 때마다 checkpoint 를 호출하며, checkpoint 가 false 를 반환하면 중단한다.
+     *
+     * @return 이번 호출에서 추천 목록을 넣은 상품 수
+     */
+    @Transactional(readOnly = true)
+    public int warmRecommendationCache(final long[] productIds,
+                                       final long fromProductId,
+                                       final long toProductId,
+                                       final int checkpointInterval,
+                                       final Checkpoint checkpoint) {
+        final long start = System.currentTimeMillis();
+        resetPeakHeapUsage();
+        final int fromIndex = lowerBound(productIds, fromProductId);
+        final int toIndex = lowerBound(productIds, toProductId + 1);
+
+        final CoPurchaseMatrix coPurchaseMatrix;
+        try (Stream<ProductIdOrderIdPairDto> pairs =
+                     productRepository.streamAllIdWithOrderIdOfOrdersContaining(fromProductId, toProductId)) {
+            coPurchaseMatrix = CoPurchaseMatrix.build(productIds, fromIndex, toIndex, pairs);
         }
+        logMatrix(coPurchaseMatrix, start);
 
-        for (List<Long> productIdsInOneOrder : orderIdToProductIds.values()) {
-            final int size = productIdsInOneOrder.size();
-            for (int i = 0; i < size; i++) {
-                final Long pId1 = productIdsInOneOrder.get(i);
-                for (int j = i + 1; j < size; j++) {
-                    final Long pId2 = productIdsInOneOrder.get(j);
-                    idToOrderedWithIds.get(pId1).add(pId2);
-                    idToOrderedWithIds.get(pId2).add(pId1);
-                }
+        final long publishStart = System.currentTimeMillis();
+        int warmedCount = 0;
+        int warmedEnd = fromIndex;
+        for (int chunkStart = fromIndex; chunkStart < toIndex; chunkStart += checkpointInterval) {
+            final int chunkEnd = Math.min(chunkStart + checkpointInterval, toIndex);
+            publish(coPurchaseMatrix, chunkStart, chunkEnd);
+            warmedCount += chunkEnd - chunkStart;
+            warmedEnd = chunkEnd;
+            if (!checkpoint.save(productIds[chunkEnd - 1], warmedCount)) {
+                log.warn("recommendation cache warming stopped at product {}", productIds[chunkEnd - 1]);
+                break;
             }
         }
+        logThroughput(warmedCount, publishStart);
+        writeSnapshot(productIds, coPurchaseMatrix, fromIndex, warmedEnd);
+        return warmedCount;
+    }
 
-        productIds.stream()
-                .parallel()
-                .forEach(productId -> singleWork(productId, idToOrderedWithIds));
+    @Transactional(readOnly = true)
+    public long[] findAllSortedProductIds() {
+        return productRepository.findAllId()
+                .stream()
+                .mapToLong(Long::longValue)
+                .sorted()
+                .toArray();
+    }
 
-        log.info("recommendation cache warmed, total elapsed time : {} ms", System.currentTimeMillis() - start);
+    private int lowerBound(final long[] sortedProductIds, final long productId) {
+        final int position = Arrays.binarySearch(sortedProductIds, productId);
+        return position >= 0 ? position : -position - 1;
     }
 
-    private void singleWork(final Long productId, final Map<Long, List<Long>> idToOrderedWith) {
-        final List<Long> recommendationIds = idToOrderedWith.get(productId)
-                .stream()
-                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()))
-                .entrySet()
-                .stream()
-                .sorted(Comparator.comparingLong(Map.Entry<Long, Long>::getValue).reversed())
-                .map(Map.Entry::getKey)
-                .limit(ProductCache.RECOMMENDATION_SIZE)
-                .toList();
+    private void publish(final CoPurchaseMatrix coPurchaseMatrix, final int fromIndex, final int toIndex) {
+        for (int batchStart = fromIndex; batchStart < toIndex; batchStart += PUBLISH_BATCH_SIZE) {
+            final int batchEnd = Math.min(batchStart + PUBLISH_BATCH_SIZE, toIndex);
+            final List<List<Long>> recommendationIds = IntStream.range(batchStart, batchEnd)
+                    .parallel()
+                    .mapToObj(index -> coPurchaseMatrix.findTopCoPurchased(index, ProductCache.RECOMMENDATION_SIZE))
+                    .toList();
+            final Map<Long, List<Long>> batch = new LinkedHashMap<>();
+            for (int index = batchStart; index < batchEnd; index++) {
+                batch.put(coPurchaseMatrix.getProductId(index), recommendationIds.get(index - batchStart));
+            }
+            recommendationCacheWriter.writeAll(batch);
+        }
+    }
+
+    private void writeSnapshot(final long[] productIds,
+                               final CoPurchaseMatrix coPurchaseMatrix,
+                               final int fromIndex,
+                               final int toIndex) {
+        recommendationSnapshot.write(productIds, fromIndex, toIndex,
+                                     index -> coPurchaseMatrix.findTopCoPurchased(index, ProductCache.RECOMMENDATION_SIZE));
+    }
+
+    private void logThroughput(final int publishedCount, final long publishStart) {
+        final long elapsedMillis = Math.max(System.currentTimeMillis() - publishStart, 1);
+        log.info("recommendation lists published, keys : {}, elapsed time : {} ms, throughput : {} keys/s",
+                 publishedCount, elapsedMillis, publishedCount * 1000L / elapsedMillis);
+    }
+
+    private void logMatrix(final CoPurchaseMatrix coPurchaseMatrix, final long start) {
+        log.info("co-purchase matrix built, products : {}, pairs : {}, matrix : {} bytes, peak heap : {} bytes, " +
+                         "elapsed time : {} ms",
+                 coPurchaseMatrix.size(), coPurchaseMatrix.getPairCount(), coPurchaseMatrix.getMemoryBytes(),
+                 getPeakHeapBytes(), System.currentTimeMillis() - start);
+    }
+
+    // 최고 사용량은 JVM 전체 값이라, 실행을 시작할 때 초기화해 이번 실행 동안의 최고치만 남긴다.
+    private void resetPeakHeapUsage() {
+        ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    // 풀마다 최고치에 이른 시점이 달라 합은 실제 최고 사용량의 상한이다.
+    private long getPeakHeapBytes() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .mapToLong(pool -> pool.getPeakUsage().getUsed())
+                .sum();
+    }
+
+    @FunctionalInterface
+    public interface Checkpoint {
 
-        productCache.setRecommendationIds(productId, recommendationIds);
+        /**
+         * @param lastProductId 추천 목록을 넣은 마지막 상품 id
+         * @param warmedCount   이번 호출에서 지금까지 추천 목록을 넣은 상품 수
+         * @return 계속 진행해도 된다면 true
+         */
+        boolean save(long lastProductId, int warmedCount);
     }
 }
@@ -0,0 +1,86 @@
+package com.gugucon.shopping.item.infrastructure;
+
+import com.gugucon.shopping.common.exception.ErrorCode;
+import com.gugucon.shopping.common.exception.ShoppingException;
+import com.gugucon.shopping.item.domain.SortKey;
+import com.gugucon.shopping.item.repository.dto.ProductSummaryDto;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
+
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Getter
+public final class ProductCursor {
+
+    private static final Set<SortKey> SUPPORTED_SORT_KEYS = Set.of(SortKey.ID_DESC,
+                                                                   SortKey.PRICE_DESC,
+                                                                   SortKey.PRICE_ASC);
+    private static final String DELIMITER = ":";
+    private static final int TOKEN_COUNT = 3;
+
+    private final SortKey sortKey;
+    private final long lastPrice;
+    private final long lastId;
+
+    public static ProductCursor of(final SortKey sortKey, final String encodedCursor) {
+        validateSortKey(sortKey);
+        if (encodedCursor == null || encodedCursor.isBlank()) {
+            return first(sortKey);
+        }
+        final ProductCursor decoded = decode(encodedCursor);
+        if (decoded.sortKey != sortKey) {
+            throw new ShoppingException(ErrorCode.INVALID_CURSOR);
+        }
+        return decoded;
+    }
+
+    public static ProductCursor next(final SortKey sortKey, final ProductSummaryDto lastProduct) {
+        return new ProductCursor(sortKey, lastProduct.getPrice(), lastProduct.getId());
+    }
+
+    public String encode() {
+        final String joined = String.join(DELIMITER, sortKey.name(), String.valueOf(lastPrice), String.valueOf(lastId));
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(joined.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean isSortedById() {
+        return sortKey == SortKey.ID_DESC;
+    }
+
+    public boolean isSortedByPriceDesc() {
+        return sortKey == SortKey.PRICE_DESC;
+    }
+
+    // 가격 오름차순은 (price, id) 색인을 그대로 따라가도록 같은 가격 안에서도 id 오름차순으로 넘긴다.
+    private static ProductCursor first(final SortKey sortKey) {
+        if (sortKey == SortKey.PRICE_ASC) {
+            return new ProductCursor(sortKey, Long.MIN_VALUE, Long.MIN_VALUE);
+        }
+        return new ProductCursor(sortKey, Long.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    private static ProductCursor decode(final String encodedCursor) {
+        try {
+            final String decoded = new String(Base64.getUrlDecoder().decode(encodedCursor), StandardCharsets.UTF_8);
+            final String[] tokens = decoded.split(DELIMITER);
+            if (tokens.length != TOKEN_COUNT) {
+                throw new ShoppingException(ErrorCode.INVALID_CURSOR);
+            }
+            return new ProductCursor(SortKey.valueOf(tokens[0]), Long.parseLong(tokens[1]), Long.parseLong(tokens[2]));
+        } catch (IllegalArgumentException e) {
+            throw new ShoppingException(ErrorCode.INVALID_CURSOR);
+        }
+    }
+
+    private static void validateSortKey(final SortKey sortKey) {
+        if (!SUPPORTED_SORT_KEYS.contains(sortKey)) {
+            throw new ShoppingException(ErrorCode.INVALID_SORT);
+        }
+    }
+}
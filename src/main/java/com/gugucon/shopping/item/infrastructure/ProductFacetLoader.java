@@ -0,0 +1,41 @@
+package com.gugucon.shopping.item.infrastructure;
+
+import com.gugucon.shopping.item.domain.event.ProductSaveEvent;
+import com.gugucon.shopping.item.domain.event.ProductStockChangeEvent;
+import com.gugucon.shopping.item.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductFacetLoader {
+
+    private final ProductRepository productRepository;
+    private final ProductFacetStore productFacetStore;
+
+    @Async("threadPoolTaskExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        final long start = System.currentTimeMillis();
+        productFacetStore.load(productRepository.findAllFacets());
+        log.info("product facet store load finished, total elapsed time : {} ms", System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handle(final ProductSaveEvent productSaveEvent) {
+        productFacetStore.put(productRepository.findAllFacetsByIdIn(List.of(productSaveEvent.getProductId())));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handle(final ProductStockChangeEvent productStockChangeEvent) {
+        productFacetStore.put(productRepository.findAllFacetsByIdIn(productStockChangeEvent.getProductIds()));
+    }
+}
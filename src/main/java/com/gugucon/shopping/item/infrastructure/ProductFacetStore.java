@@ -0,0 +1,171 @@
+package com.gugucon.shopping.item.infrastructure;
+
+import com.gugucon.shopping.item.dto.response.PriceRangeFacetResponse;
+import com.gugucon.shopping.item.dto.response.ProductFacetResponse;
+import com.gugucon.shopping.item.repository.dto.ProductFacetDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 검색 결과 facet 계산을 위해 상품 가격과 재고 여부를 상품 id 를 인덱스로 하는 열 단위 배열에 보관한다.
+ * 후보 상품 id 를 한 번 훑으면서 가격 구간별 개수와 재고가 있는 상품 수를 함께 센다.
+ * 결제, 취소마다 불리는 갱신은 해당 상품 칸만 원자적으로 바꾸고, 상품 id 가 용량을 넘을 때만 큰 배열로 복사해 바꿔 끼운다.
+ */
+@Component
+@Slf4j
+public class ProductFacetStore {
+
+    private static final int INITIAL_PRODUCT_CAPACITY = 1024;
+
+    private final long[] priceBounds;
+    private volatile Columns columns = new Columns(INITIAL_PRODUCT_CAPACITY);
+    private volatile boolean ready = false;
+
+    public ProductFacetStore(
+            @Value("${product.search.facet.price-bounds:10000,30000,50000,100000}") final long[] priceBounds) {
+        this.priceBounds = Arrays.stream(priceBounds).distinct().sorted().toArray();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public synchronized void load(final List<ProductFacetDto> products) {
+        final long maxProductId = products.stream()
+                .mapToLong(ProductFacetDto::getId)
+                .max()
+                .orElse(0L);
+        final Columns loaded = new Columns(capacityFor(maxProductId, INITIAL_PRODUCT_CAPACITY));
+        products.forEach(product -> loaded.set(toIndex(product.getId()), product.getPrice(), product.getStock()));
+        columns = loaded;
+        ready = true;
+        log.info("product facet store loaded, products : {}", products.size());
+    }
+
+    public synchronized void put(final List<ProductFacetDto> products) {
+        final long maxProductId = products.stream()
+                .mapToLong(ProductFacetDto::getId)
+                .max()
+                .orElse(0L);
+        Columns current = columns;
+        if (maxProductId >= current.capacity()) {
+            current = current.copyOf(capacityFor(maxProductId, current.capacity()));
+            columns = current;
+        }
+        final Columns target = current;
+        products.forEach(product -> target.set(toIndex(product.getId()), product.getPrice(), product.getStock()));
+    }
+
+    public ProductFacetResponse count(final List<Long> candidateIds) {
+        final Columns current = columns;
+        final long[] bucketCounts = new long[priceBounds.length + 1];
+        long inStockCount = 0;
+        for (Long productId : candidateIds) {
+            final int index = toIndex(productId);
+            if (index >= current.capacity() || !current.isPresent(index)) {
+                continue;
+            }
+            bucketCounts[bucketOf(current.price(index))]++;
+            if (current.isInStock(index)) {
+                inStockCount++;
+            }
+        }
+        return ProductFacetResponse.of(toPriceRanges(bucketCounts), inStockCount);
+    }
+
+    private int bucketOf(final long price) {
+        final int position = Arrays.binarySearch(priceBounds, price);
+        return position >= 0 ? position + 1 : -position - 1;
+    }
+
+    private List<PriceRangeFacetResponse> toPriceRanges(final long[] bucketCounts) {
+        final List<PriceRangeFacetResponse> priceRanges = new ArrayList<>(bucketCounts.length);
+        for (int i = 0; i < bucketCounts.length; i++) {
+            final Long minPrice = i == 0 ? null : priceBounds[i - 1];
+            final Long maxPrice = i == priceBounds.length ? null : priceBounds[i];
+            priceRanges.add(PriceRangeFacetResponse.of(minPrice, maxPrice, bucketCounts[i]));
+        }
+        return priceRanges;
+    }
+
+    private int capacityFor(final long productId, final int initialCapacity) {
+        int capacity = initialCapacity;
+        while (capacity <= productId) {
+            capacity = Math.multiplyExact(capacity, 2);
+        }
+        return capacity;
+    }
+
+    private int toIndex(final Long productId) {
+        return Math.toIntExact(productId);
+    }
+
+    private static final class Columns {
+
+        private final AtomicLongArray prices;
+        private final AtomicLongArray presentWords;
+        private final AtomicLongArray inStockWords;
+
+        private Columns(final int capacity) {
+            this.prices = new AtomicLongArray(capacity);
+            this.presentWords = new AtomicLongArray(wordCountOf(capacity));
+            this.inStockWords = new AtomicLongArray(wordCountOf(capacity));
+        }
+
+        private int capacity() {
+            return prices.length();
+        }
+
+        // 쓰기는 ProductFacetStore 의 락 안에서만 일어나므로, 워드를 읽고 바꿔 쓰는 동안 다른 쓰기와 겹치지 않는다.
+        // 읽는 쪽이 present 를 보면 가격도 보이도록 present 를 마지막에 켠다.
+        private void set(final int index, final long price, final int stock) {
+            prices.set(index, price);
+            setBit(inStockWords, index, stock > 0);
+            setBit(presentWords, index, true);
+        }
+
+        private boolean isPresent(final int index) {
+            return getBit(presentWords, index);
+        }
+
+        private long price(final int index) {
+            return prices.get(index);
+        }
+
+        private boolean isInStock(final int index) {
+            return getBit(inStockWords, index);
+        }
+
+        private Columns copyOf(final int capacity) {
+            final Columns copied = new Columns(capacity);
+            for (int i = 0; i < prices.length(); i++) {
+                copied.prices.set(i, prices.get(i));
+            }
+            for (int i = 0; i < presentWords.length(); i++) {
+                copied.inStockWords.set(i, inStockWords.get(i));
+                copied.presentWords.set(i, presentWords.get(i));
+            }
+            return copied;
+        }
+
+        private static int wordCountOf(final int capacity) {
+            return (capacity + Long.SIZE - 1) / Long.SIZE;
+        }
+
+        private static boolean getBit(final AtomicLongArray words, final int index) {
+            return (words.get(index / Long.SIZE) & (1L << index)) != 0;
+        }
+
+        private static void setBit(final AtomicLongArray words, final int index, final boolean value) {
+            final int wordIndex = index / Long.SIZE;
+            final long word = words.get(wordIndex);
+            words.set(wordIndex, value ? word | (1L << index) : word & ~(1L << index));
+        }
+    }
+}
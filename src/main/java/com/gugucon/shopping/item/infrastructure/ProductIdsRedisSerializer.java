@@ -0,0 +1,101 @@
+package com.gugucon.shopping.item.infrastructure;
+
+import com.gugucon.shopping.item.dto.response.ProductIds;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * rec 캐시의 ProductIds 를 [버전 1바이트][개수 varint][이전 id 와의 차이를 zigzag varint] 형식으로 직렬화한다.
+ * 추천 목록은 id 순으로 정렬되어 있지 않으므로 차이가 음수일 수 있어 zigzag 로 부호를 접는다.
+ * 이전 형식인 JSON 값도 읽을 수 있어, 기존 캐시 항목은 TTL 이 지나며 자연스럽게 바뀐다.
+ */
+public class ProductIdsRedisSerializer implements RedisSerializer<Object> {
+
+    private static final byte VERSION = 1;
+    private static final byte JSON_OBJECT_START = '{';
+    private static final int MAX_VARINT_BYTES = 10;
+
+    private final GenericJackson2JsonRedisSerializer legacySerializer = new GenericJackson2JsonRedisSerializer();
+
+    @Override
+    public byte[] serialize(final Object value) throws SerializationException {
+        if (value == null) {
+            return null;
+        }
+        if (!(value instanceof final ProductIds productIds)) {
+            throw new SerializationException("cannot serialize " + value.getClass().getName() + " as ProductIds");
+        }
+        final List<Long> contents = productIds.getContents();
+        final ByteBuffer buffer = ByteBuffer.allocate(1 + MAX_VARINT_BYTES * (contents.size() + 1));
+        buffer.put(VERSION);
+        writeVarint(buffer, contents.size());
+        long previous = 0;
+        for (final Long id : contents) {
+            writeVarint(buffer, zigzag(id - previous));
+            previous = id;
+        }
+        final byte[] bytes = new byte[buffer.position()];
+        buffer.flip().get(bytes);
+        return bytes;
+    }
+
+    @Override
+    public Object deserialize(final byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] == JSON_OBJECT_START) {
+            return legacySerializer.deserialize(bytes);
+        }
+        if (bytes[0] != VERSION) {
+            throw new SerializationException("unknown ProductIds encoding version : " + bytes[0]);
+        }
+        try {
+            final ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, bytes.length - 1);
+            final int size = Math.toIntExact(readVarint(buffer));
+            final List<Long> contents = new ArrayList<>(size);
+            long previous = 0;
+            for (int i = 0; i < size; i++) {
+                previous += unzigzag(readVarint(buffer));
+                contents.add(previous);
+            }
+            return ProductIds.from(contents);
+        } catch (BufferUnderflowException | ArithmeticException e) {
+            throw new SerializationException("malformed ProductIds value", e);
+        }
+    }
+
+    private static void writeVarint(final ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static long readVarint(final ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            final byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new SerializationException("varint is too long");
+    }
+
+    private static long zigzag(final long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(final long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,240 @@
+package com.gugucon.shopping.item.infrastructure;
+
+import com.gugucon.shopping.item.repository.dto.ProductNameDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@Slf4j
+public class ProductNameIndex {
+
+    private static final String INDEX_MODE = "index";
+    private static final int TRIGRAM = 3;
+    private static final int BIGRAM = 2;
+    private static final long[] EMPTY_POSTING = new long[0];
+
+    private final boolean enabled;
+    private volatile Map<String, long[]> postings = new ConcurrentHashMap<>();
+    private volatile Map<Long, String> names = new ConcurrentHashMap<>();
+    private volatile boolean ready = false;
+
+    public ProductNameIndex(@Value("${product.search.mode:index}") final String searchMode) {
+        this.enabled = INDEX_MODE.equalsIgnoreCase(searchMode);
+    }
+
+    public boolean isAvailable() {
+        return enabled && ready;
+    }
+
+    public synchronized void rebuild(final List<ProductNameDto> products) {
+        final Map<String, LongArray> builders = new HashMap<>();
+        final List<ProductNameDto> sortedProducts = new ArrayList<>(products);
+        sortedProducts.sort(Comparator.comparing(ProductNameDto::getId));
+
+        final Map<Long, String> newNames = new ConcurrentHashMap<>();
+        for (ProductNameDto product : sortedProducts) {
+            final String normalizedName = normalize(product.getName());
+            newNames.put(product.getId(), normalizedName);
+            for (String gram : extractGrams(normalizedName)) {
+                builders.computeIfAbsent(gram, key -> new LongArray()).addIfLast(product.getId());
+            }
+        }
+
+        final Map<String, long[]> newPostings = new ConcurrentHashMap<>();
+        builders.forEach((gram, builder) -> newPostings.put(gram, builder.toArray()));
+        names = newNames;
+        postings = newPostings;
+        ready = true;
+        log.info("product name index built, products : {}, grams : {}", names.size(), postings.size());
+    }
+
+    public synchronized void upsert(final Long productId, final String name) {
+        final String normalizedName = normalize(name);
+        final String previousName = names.put(productId, normalizedName);
+        final Set<String> previousGrams = previousName == null ? Collections.emptySet() : extractGrams(previousName);
+        final Set<String> currentGrams = extractGrams(normalizedName);
+
+        previousGrams.stream()
+                .filter(gram -> !currentGrams.contains(gram))
+                .forEach(gram -> removePosting(gram, productId));
+        currentGrams.stream()
+                .filter(gram -> !previousGrams.contains(gram))
+                .forEach(gram -> addPosting(gram, productId));
+    }
+
+    public synchronized void remove(final Long productId) {
+        final String previousName = names.remove(productId);
+        if (previousName == null) {
+            return;
+        }
+        extractGrams(previousName).forEach(gram -> removePosting(gram, productId));
+    }
+
+    /**
+     * 검색어를 포함하는 상품 id 목록을 id 내림차순으로 반환한다.
+     * 색인을 사용할 수 없거나 색인으로 풀 수 없는 검색어라면 빈 Optional 을 반환하며, 이 경우 LIKE 검색을 사용해야 한다.
+     */
+    public Optional<List<Long>> findCandidateIds(final String keyword) {
+        if (!isAvailable()) {
+            return Optional.empty();
+        }
+        final String normalizedKeyword = normalize(keyword);
+        final Optional<Set<String>> queryGrams = extractQueryGrams(normalizedKeyword);
+        if (queryGrams.isEmpty()) {
+            return Optional.empty();
+        }
+
+        final Map<Long, String> currentNames = names;
+        final long[] candidates = intersect(queryGrams.get());
+        final List<Long> matchedIds = new ArrayList<>();
+        for (int i = candidates.length - 1; i >= 0; i--) {
+            final String name = currentNames.get(candidates[i]);
+            if (name != null && name.contains(normalizedKeyword)) {
+                matchedIds.add(candidates[i]);
+            }
+        }
+        return Optional.of(matchedIds);
+    }
+
+    private long[] intersect(final Set<String> grams) {
+        final Map<String, long[]> currentPostings = postings;
+        final List<long[]> lists = grams.stream()
+                .map(gram -> currentPostings.getOrDefault(gram, EMPTY_POSTING))
+                .sorted(Comparator.comparingInt(posting -> posting.length))
+                .toList();
+
+        final long[] shortest = lists.get(0);
+        final LongArray result = new LongArray();
+        for (long productId : shortest) {
+            if (containsInAll(lists, productId)) {
+                result.addIfLast(productId);
+            }
+        }
+        return result.toArray();
+    }
+
+    private boolean containsInAll(final List<long[]> lists, final long productId) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (Arrays.binarySearch(lists.get(i), productId) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void addPosting(final String gram, final long productId) {
+        postings.compute(gram, (key, posting) -> {
+            final long[] current = posting == null ? EMPTY_POSTING : posting;
+            final int position = Arrays.binarySearch(current, productId);
+            if (position >= 0) {
+                return current;
+            }
+            final int insertionPoint = -position - 1;
+            final long[] updated = new long[current.length + 1];
+            System.arraycopy(current, 0, updated, 0, insertionPoint);
+            updated[insertionPoint] = productId;
+            System.arraycopy(current, insertionPoint, updated, insertionPoint + 1, current.length - insertionPoint);
+            return updated;
+        });
+    }
+
+    private void removePosting(final String gram, final long productId) {
+        postings.computeIfPresent(gram, (key, posting) -> {
+            final int position = Arrays.binarySearch(posting, productId);
+            if (position < 0) {
+                return posting;
+            }
+            if (posting.length == 1) {
+                return null;
+            }
+            final long[] updated = new long[posting.length - 1];
+            System.arraycopy(posting, 0, updated, 0, position);
+            System.arraycopy(posting, position + 1, updated, position, posting.length - position - 1);
+            return updated;
+        });
+    }
+
+    /*
+    한글은 음절 하나가 라틴 문자 여러 개 분량의 정보를 담고 있어 두 글자 검색어가 흔하다.
+    따라서 모든 문자에 대해 2-gram, 3-gram 을 색인하고, 한글 음절은 1-gram 까지 색인한다.
+     */
+    private Set<String> extractGrams(final String normalizedName) {
+        final Set<String> grams = new LinkedHashSet<>();
+        final int length = normalizedName.length();
+        for (int i = 0; i < length; i++) {
+            final char current = normalizedName.charAt(i);
+            if (isHangulSyllable(current)) {
+                grams.add(String.valueOf(current));
+            }
+            if (i + BIGRAM <= length) {
+                grams.add(normalizedName.substring(i, i + BIGRAM));
+            }
+            if (i + TRIGRAM <= length) {
+                grams.add(normalizedName.substring(i, i + TRIGRAM));
+            }
+        }
+        return grams;
+    }
+
+    private Optional<Set<String>> extractQueryGrams(final String normalizedKeyword) {
+        final int length = normalizedKeyword.length();
+        if (length == 0) {
+            return Optional.empty();
+        }
+        if (length == 1) {
+            return isHangulSyllable(normalizedKeyword.charAt(0))
+                    ? Optional.of(Set.of(normalizedKeyword))
+                    : Optional.empty();
+        }
+
+        final int gramSize = Math.min(length, TRIGRAM);
+        final Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + gramSize <= length; i++) {
+            grams.add(normalizedKeyword.substring(i, i + gramSize));
+        }
+        return Optional.of(grams);
+    }
+
+    private boolean isHangulSyllable(final char character) {
+        return Character.UnicodeBlock.of(character) == Character.UnicodeBlock.HANGUL_SYLLABLES;
+    }
+
+    private String normalize(final String value) {
+        return Normalizer.normalize(value, Normalizer.Form.NFC).toLowerCase(Locale.ROOT);
+    }
+
+    private static final class LongArray {
+
+        private long[] values = new long[4];
+        private int size = 0;
+
+        void addIfLast(final long value) {
+            if (size > 0 && values[size - 1] == value) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.gugucon.shopping.item.infrastructure;
+
+import com.gugucon.shopping.item.domain.event.ProductSaveEvent;
+import com.gugucon.shopping.item.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductNameIndexer {
+
+    private final ProductRepository productRepository;
+    private final ProductNameIndex productNameIndex;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        log.info("product name index build invoked");
+        final long start = System.currentTimeMillis();
+        productNameIndex.rebuild(productRepository.findAllIdAndName());
+        log.info("product name index build finished, total elapsed time : {} ms", System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handle(final ProductSaveEvent productSaveEvent) {
+        productNameIndex.upsert(productSaveEvent.getProductId(), productSaveEvent.getName());
+    }
+}
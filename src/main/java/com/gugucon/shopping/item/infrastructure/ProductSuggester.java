@@ -0,0 +1,54 @@
+package com.gugucon.shopping.item.infrastructure;
+
+import com.gugucon.shopping.item.dto.response.ProductSuggestionResponse;
+import com.gugucon.shopping.item.repository.ProductRepository;
+import com.gugucon.shopping.stat.domain.event.ProductRankRefreshEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+@Component
+@Slf4j
+public class ProductSuggester {
+
+    private final ProductRepository productRepository;
+    private final int topK;
+    private volatile ProductSuggestionTrie trie = ProductSuggestionTrie.empty();
+
+    public ProductSuggester(final ProductRepository productRepository,
+                            @Value("${product.suggest.top-k:10}") final int topK) {
+        this.productRepository = productRepository;
+        this.topK = topK;
+    }
+
+    public List<ProductSuggestionResponse> suggest(final String keyword, final int size) {
+        return trie.suggest(keyword, Math.min(size, topK));
+    }
+
+    @Async("threadPoolTaskExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    @Async("threadPoolTaskExecutor")
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handle(final ProductRankRefreshEvent productRankRefreshEvent) {
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        final long start = System.currentTimeMillis();
+        final ProductSuggestionTrie newTrie = ProductSuggestionTrie.build(productRepository.findAllForSuggestion(),
+                                                                          topK);
+        trie = newTrie;
+        log.info("product suggestion trie built, products : {}, total elapsed time : {} ms",
+                 newTrie.size(), System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,21 @@
+package com.gugucon.shopping.item.infrastructure;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+@Component
+@RequiredArgsConstructor
+public class ProductSuggestionScheduler {
+
+    private final ProductSuggester productSuggester;
+
+    @Scheduled(fixedDelayString = "${product.suggest.refresh-minutes:10}",
+               initialDelayString = "${product.suggest.refresh-minutes:10}",
+               timeUnit = TimeUnit.MINUTES)
+    public void triggerRebuild() {
+        productSuggester.rebuild();
+    }
+}
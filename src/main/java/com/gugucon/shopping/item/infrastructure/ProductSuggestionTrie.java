@@ -0,0 +1,220 @@
+package com.gugucon.shopping.item.infrastructure;
+
+import com.gugucon.shopping.item.dto.response.ProductSuggestionResponse;
+import com.gugucon.shopping.item.repository.dto.ProductSuggestionDto;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 상품 이름의 각 단어 시작 위치부터의 접미사를 담는 압축 접두사 트리.
+ * 각 노드는 하위 트리에서 주문 수가 많은 상위 K 개 상품을 미리 계산해 두므로 조회는 검색어 길이에만 비례한다.
+ * 생성 후에는 변경되지 않으므로 여러 스레드에서 동시에 읽어도 안전하다.
+ */
+public final class ProductSuggestionTrie {
+
+    private static final int[] EMPTY_TOP = new int[0];
+    private static final ProductSuggestionTrie EMPTY = new ProductSuggestionTrie(
+            new long[0], new String[0], new Node(new char[0], new String[0], new Node[0], EMPTY_TOP));
+
+    private final long[] ids;
+    private final String[] names;
+    private final Node root;
+
+    private ProductSuggestionTrie(final long[] ids, final String[] names, final Node root) {
+        this.ids = ids;
+        this.names = names;
+        this.root = root;
+    }
+
+    public static ProductSuggestionTrie empty() {
+        return EMPTY;
+    }
+
+    public static ProductSuggestionTrie build(final List<ProductSuggestionDto> products, final int topK) {
+        final int size = products.size();
+        final long[] ids = new long[size];
+        final String[] names = new String[size];
+        final long[] weights = new long[size];
+        final List<Key> keys = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            final ProductSuggestionDto product = products.get(i);
+            ids[i] = product.getId();
+            names[i] = product.getName();
+            weights[i] = product.getOrderCount() == null ? 0 : product.getOrderCount();
+            addKeys(keys, normalize(product.getName()), i);
+        }
+        keys.sort(Comparator.comparing(Key::text));
+
+        final Builder builder = new Builder(keys, ids, weights, topK);
+        final Node root = builder.build(0, keys.size(), 0);
+        return new ProductSuggestionTrie(ids, names, root);
+    }
+
+    public List<ProductSuggestionResponse> suggest(final String prefix, final int limit) {
+        final String normalizedPrefix = normalize(prefix);
+        if (normalizedPrefix.isBlank()) {
+            return Collections.emptyList();
+        }
+
+        Node node = root;
+        int position = 0;
+        while (position < normalizedPrefix.length()) {
+            final int childIndex = Arrays.binarySearch(node.firstChars, normalizedPrefix.charAt(position));
+            if (childIndex < 0) {
+                return Collections.emptyList();
+            }
+            final String label = node.labels[childIndex];
+            final int length = Math.min(label.length(), normalizedPrefix.length() - position);
+            if (!normalizedPrefix.regionMatches(position, label, 0, length)) {
+                return Collections.emptyList();
+            }
+            position += length;
+            node = node.children[childIndex];
+        }
+
+        final int count = Math.min(limit, node.top.length);
+        final List<ProductSuggestionResponse> suggestions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final int product = node.top[i];
+            suggestions.add(ProductSuggestionResponse.of(ids[product], names[product]));
+        }
+        return suggestions;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    private static void addKeys(final List<Key> keys, final String normalizedName, final int product) {
+        final int length = normalizedName.length();
+        for (int i = 0; i < length; i++) {
+            final boolean wordStart = i == 0 || Character.isWhitespace(normalizedName.charAt(i - 1));
+            if (wordStart && !Character.isWhitespace(normalizedName.charAt(i))) {
+                keys.add(new Key(normalizedName.substring(i), product));
+            }
+        }
+    }
+
+    private static String normalize(final String value) {
+        return Normalizer.normalize(value, Normalizer.Form.NFC).toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Key {
+
+        private final String text;
+        private final int product;
+
+        private Key(final String text, final int product) {
+            this.text = text;
+            this.product = product;
+        }
+
+        private String text() {
+            return text;
+        }
+
+        private int product() {
+            return product;
+        }
+    }
+
+    private static final class Node {
+
+        private final char[] firstChars;
+        private final String[] labels;
+        private final Node[] children;
+        private final int[] top;
+
+        private Node(final char[] firstChars, final String[] labels, final Node[] children, final int[] top) {
+            this.firstChars = firstChars;
+            this.labels = labels;
+            this.children = children;
+            this.top = top;
+        }
+    }
+
+    private static final class Builder {
+
+        private final List<Key> keys;
+        private final long[] ids;
+        private final long[] weights;
+        private final int topK;
+
+        private Builder(final List<Key> keys, final long[] ids, final long[] weights, final int topK) {
+            this.keys = keys;
+            this.ids = ids;
+            this.weights = weights;
+            this.topK = topK;
+        }
+
+        /*
+        정렬된 키 중 [from, to) 구간은 앞의 depth 글자가 모두 같다.
+        depth 위치의 글자로 묶은 각 그룹의 공통 접두사를 하나의 간선으로 압축한다.
+         */
+        private Node build(final int from, final int to, final int depth) {
+            final List<Integer> candidates = new ArrayList<>();
+            int index = from;
+            while (index < to && keys.get(index).text().length() == depth) {
+                candidates.add(keys.get(index).product());
+                index++;
+            }
+
+            final List<Character> firstChars = new ArrayList<>();
+            final List<String> labels = new ArrayList<>();
+            final List<Node> children = new ArrayList<>();
+            while (index < to) {
+                final char first = keys.get(index).text().charAt(depth);
+                int groupEnd = index + 1;
+                while (groupEnd < to && keys.get(groupEnd).text().charAt(depth) == first) {
+                    groupEnd++;
+                }
+                final String firstKey = keys.get(index).text();
+                final int edgeEnd = depth + commonPrefixLength(firstKey, keys.get(groupEnd - 1).text(), depth);
+                final Node child = build(index, groupEnd, edgeEnd);
+
+                firstChars.add(first);
+                labels.add(firstKey.substring(depth, edgeEnd));
+                children.add(child);
+                for (int product : child.top) {
+                    candidates.add(product);
+                }
+                index = groupEnd;
+            }
+
+            final char[] chars = new char[firstChars.size()];
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = firstChars.get(i);
+            }
+            return new Node(chars, labels.toArray(String[]::new), children.toArray(Node[]::new), selectTop(candidates));
+        }
+
+        private int commonPrefixLength(final String first, final String last, final int from) {
+            final int limit = Math.min(first.length(), last.length());
+            int position = from;
+            while (position < limit && first.charAt(position) == last.charAt(position)) {
+                position++;
+            }
+            return position - from;
+        }
+
+        private int[] selectTop(final List<Integer> candidates) {
+            if (candidates.isEmpty()) {
+                return EMPTY_TOP;
+            }
+            return candidates.stream()
+                    .distinct()
+                    .sorted(Comparator.comparingLong((Integer product) -> weights[product]).reversed()
+                                    .thenComparing(Comparator.comparingLong((Integer product) -> ids[product])
+                                                           .reversed()))
+                    .limit(topK)
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+    }
+}
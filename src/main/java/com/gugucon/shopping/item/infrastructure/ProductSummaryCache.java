@@ -0,0 +1,64 @@
+package com.gugucon.shopping.item.infrastructure;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.gugucon.shopping.item.dto.response.ProductDetailResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 추천 목록 등에 보여줄 상품 정보를 id 로 찾는 인스턴스 내부 캐시.
+ * 재고와 가격이 바뀌면 ProductSummaryCacheUpdater 가 값을 바로 바꾸지만, 다른 인스턴스에서 바뀐 값은
+ * stale-seconds 가 지나 만료된 뒤에 반영되므로 그만큼 오래된 값을 보여줄 수 있다.
+ */
+@Component
+public class ProductSummaryCache {
+
+    private static final String CACHE_NAME = "productSummary";
+
+    private final Cache<Long, ProductDetailResponse> cache;
+
+    public ProductSummaryCache(@Value("${product.summary-cache.max-size:100000}") final long maxSize,
+                               @Value("${product.summary-cache.stale-seconds:30}") final long staleSeconds,
+                               final MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(staleSeconds))
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * 캐시에 없는 상품은 loader 로 한 번에 불러온다. loader 가 돌려주지 않은 상품은 결과에서 빠진다.
+     */
+    public Map<Long, ProductDetailResponse> getAll(
+            final Collection<Long> productIds,
+            final Function<Set<? extends Long>, Map<Long, ProductDetailResponse>> loader) {
+        return cache.getAll(productIds, loader);
+    }
+
+    public List<Long> findCachedIds(final Collection<Long> productIds) {
+        return productIds.stream()
+                .filter(productId -> cache.getIfPresent(productId) != null)
+                .toList();
+    }
+
+    public void putAll(final Collection<ProductDetailResponse> products) {
+        products.forEach(product -> cache.put(product.getId(), product));
+    }
+
+    public void evictAll(final Collection<Long> productIds) {
+        cache.invalidateAll(productIds);
+    }
+}
@@ -0,0 +1,43 @@
+package com.gugucon.shopping.item.infrastructure;
+
+import com.gugucon.shopping.item.domain.event.ProductSaveEvent;
+import com.gugucon.shopping.item.domain.event.ProductStockChangeEvent;
+import com.gugucon.shopping.item.dto.response.ProductDetailResponse;
+import com.gugucon.shopping.item.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class ProductSummaryCacheUpdater {
+
+    private final ProductRepository productRepository;
+    private final ProductSummaryCache productSummaryCache;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handle(final ProductSaveEvent productSaveEvent) {
+        writeThrough(List.of(productSaveEvent.getProductId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handle(final ProductStockChangeEvent productStockChangeEvent) {
+        writeThrough(productStockChangeEvent.getProductIds());
+    }
+
+    // 캐시에 있던 상품만 다시 읽어 넣는다. 사라진 상품은 캐시에서도 지운다.
+    private void writeThrough(final Collection<Long> productIds) {
+        final List<Long> cachedIds = productSummaryCache.findCachedIds(productIds);
+        if (cachedIds.isEmpty()) {
+            return;
+        }
+        productSummaryCache.evictAll(cachedIds);
+        productSummaryCache.putAll(productRepository.findAllById(cachedIds)
+                                           .stream()
+                                           .map(ProductDetailResponse::from)
+                                           .toList());
+    }
+}
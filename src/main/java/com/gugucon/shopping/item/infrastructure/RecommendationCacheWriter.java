@@ -0,0 +1,54 @@
+package com.gugucon.shopping.item.infrastructure;
+
+import com.gugucon.shopping.common.cache.CacheInvalidationMessage;
+import com.gugucon.shopping.item.dto.response.ProductIds;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.cache.CacheKeyPrefix;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static com.gugucon.shopping.common.config.CacheConfig.RECOMMENDATION_CACHE_NAME;
+import static com.gugucon.shopping.common.config.CacheConfig.RECOMMENDATION_CACHE_SERIALIZER;
+import static com.gugucon.shopping.common.config.CacheConfig.RECOMMENDATION_CACHE_TTL;
+
+/**
+ * 추천 목록 여러 개를 한 번의 파이프라인으로 rec 캐시에 넣는다.
+ * RedisCacheManager 와 같은 키 형식, 직렬화 방식, TTL 을 사용하므로 ProductCache 에서 그대로 읽을 수 있다.
+ * 캐시를 거치지 않고 쓰므로, 모든 인스턴스가 L1 에서 해당 키를 지우도록 같은 파이프라인에서 무효화 메시지를 보낸다.
+ */
+@Component
+@RequiredArgsConstructor
+public class RecommendationCacheWriter {
+
+    private static final String KEY_PREFIX = CacheKeyPrefix.simple().compute(RECOMMENDATION_CACHE_NAME);
+    private static final String ORIGIN = "warmer";
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public void writeAll(final Map<Long, List<Long>> recommendationIds) {
+        if (recommendationIds.isEmpty()) {
+            return;
+        }
+        final Expiration expiration = Expiration.from(RECOMMENDATION_CACHE_TTL);
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            recommendationIds.forEach((productId, ids) -> connection.stringCommands().set(
+                    (KEY_PREFIX + productId).getBytes(StandardCharsets.UTF_8),
+                    RECOMMENDATION_CACHE_SERIALIZER.serialize(ProductIds.from(ids)),
+                    expiration,
+                    SetOption.upsert()));
+            connection.publish(
+                    CacheInvalidationMessage.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                    CacheInvalidationMessage.ofKeys(ORIGIN, RECOMMENDATION_CACHE_NAME, recommendationIds.keySet())
+                            .serialize()
+                            .getBytes(StandardCharsets.UTF_8));
+            return null;
+        });
+    }
+}
@@ -0,0 +1,318 @@
+package com.gugucon.shopping.item.infrastructure;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * warm 작업이 계산한 추천 목록을 로컬 파일에 남겨, 재시작하거나 Redis 가 비워졌을 때 DB 대신 읽는다.
+ * 파티션마다 하나의 세그먼트 파일을 쓰며, 시작할 때 모든 세그먼트를 메모리 매핑해서 바로 사용한다.
+ * 새 세그먼트를 쓰면 상품 id 범위가 겹치는 이전 세그먼트는 지우고, max-age 보다 오래된 세그먼트는 읽지 않는다.
+ * <p>
+ * 스냅샷은 인스턴스마다 따로 있으며 이 인스턴스가 warm 한 파티션만 담는다. 다른 인스턴스가 처리한 파티션의 상품은
+ * 스냅샷에 없어 DB 에서 계산하고, 주문 완료로 갱신한 추천 목록도 반영하지 않으므로 Redis 가 비워지면 다음 warm 전까지는
+ * warm 시점의 목록을 돌려준다. 추천 캐시 전체를 비우면 무효화 메시지를 받은 모든 인스턴스가 각자의 스냅샷을 비운다.
+ * <p>
+ * 세그먼트 형식 : [magic][version][상품마다 (개수 int, 추천 상품 id long...)][상품 id long...][위치 long...]
+ * [색인 위치 long][상품 수 int][앞의 모든 바이트의 CRC32 long]
+ */
+@Component
+@Slf4j
+public class RecommendationSnapshot {
+
+    private static final int MAGIC = 0x52534E50;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = Integer.BYTES * 2;
+    private static final int FOOTER_BYTES = Long.BYTES + Integer.BYTES + Long.BYTES;
+    private static final String SEGMENT_PREFIX = "recommendations-";
+    private static final String SEGMENT_SUFFIX = ".rsnap";
+
+    private final Path directory;
+    private final Duration maxAge;
+    private volatile List<Segment> segments = List.of();
+
+    public RecommendationSnapshot(
+            @Value("${product.recommendation.snapshot.directory:snapshot}") final String directory,
+            @Value("${product.recommendation.snapshot.max-age-hours:36}") final long maxAgeHours) {
+        this.directory = Path.of(directory);
+        this.maxAge = Duration.ofHours(maxAgeHours);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        final long start = System.currentTimeMillis();
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        final List<Segment> loaded = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(this::isSegment)
+                    .forEach(file -> open(file).ifPresent(segment -> {
+                        if (isExpired(segment, System.currentTimeMillis())) {
+                            delete(segment.getFile());
+                            return;
+                        }
+                        loaded.add(segment);
+                    }));
+        } catch (IOException e) {
+            log.warn("failed to list recommendation snapshot directory {}", directory, e);
+            return;
+        }
+        loaded.sort(Comparator.comparingLong(Segment::getLastModified).reversed());
+        segments = List.copyOf(loaded);
+        log.info("recommendation snapshot loaded, segments : {}, products : {}, elapsed time : {} ms",
+                 loaded.size(), loaded.stream().mapToLong(Segment::getSize).sum(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 가장 최근에 쓰인 세그먼트부터 찾는다. 스냅샷에 없거나 오래된 세그먼트에만 있는 상품이면 빈 값을 반환한다.
+     */
+    public Optional<List<Long>> find(final long productId) {
+        final long now = System.currentTimeMillis();
+        for (final Segment segment : segments) {
+            if (isExpired(segment, now)) {
+                break;
+            }
+            final List<Long> recommendationIds = segment.find(productId);
+            if (recommendationIds != null) {
+                return Optional.of(recommendationIds);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * sortedProductIds 중 인덱스가 fromIndex 이상 toIndex 미만인 상품의 추천 목록을 하나의 세그먼트로 쓴다.
+     * 임시 파일에 쓴 뒤 옮기므로 읽는 쪽에서 쓰다 만 파일을 보지 않는다.
+     */
+    public void write(final long[] sortedProductIds,
+                      final int fromIndex,
+                      final int toIndex,
+                      final IntFunction<List<Long>> recommendationIdsAt) {
+        if (fromIndex >= toIndex) {
+            return;
+        }
+        final long start = System.currentTimeMillis();
+        final Path target = directory.resolve(SEGMENT_PREFIX + sortedProductIds[fromIndex] + "-"
+                                                      + sortedProductIds[toIndex - 1] + SEGMENT_SUFFIX);
+        try {
+            Files.createDirectories(directory);
+            final Path temp = Files.createTempFile(directory, SEGMENT_PREFIX, ".tmp");
+            writeSegment(temp, sortedProductIds, fromIndex, toIndex, recommendationIdsAt);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("failed to write recommendation snapshot {}", target, e);
+            return;
+        }
+        open(target).ifPresent(this::replace);
+        log.info("recommendation snapshot written, file : {}, products : {}, elapsed time : {} ms",
+                 target.getFileName(), toIndex - fromIndex, System.currentTimeMillis() - start);
+    }
+
+    private void writeSegment(final Path file,
+                              final long[] sortedProductIds,
+                              final int fromIndex,
+                              final int toIndex,
+                              final IntFunction<List<Long>> recommendationIdsAt) throws IOException {
+        final int count = toIndex - fromIndex;
+        final long[] positions = new long[count];
+        final CRC32 crc = new CRC32();
+        try (OutputStream fileOut = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16);
+             DataOutputStream raw = new DataOutputStream(fileOut)) {
+            final DataOutputStream out = new DataOutputStream(new CheckedOutputStream(raw, crc));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            long position = HEADER_BYTES;
+            for (int i = 0; i < count; i++) {
+                final List<Long> recommendationIds = recommendationIdsAt.apply(fromIndex + i);
+                positions[i] = position;
+                out.writeInt(recommendationIds.size());
+                for (final Long recommendationId : recommendationIds) {
+                    out.writeLong(recommendationId);
+                }
+                position += Integer.BYTES + (long) Long.BYTES * recommendationIds.size();
+            }
+            final long indexPosition = position;
+            for (int i = 0; i < count; i++) {
+                out.writeLong(sortedProductIds[fromIndex + i]);
+            }
+            for (final long itemPosition : positions) {
+                out.writeLong(itemPosition);
+            }
+            out.writeLong(indexPosition);
+            out.writeInt(count);
+            out.flush();
+            raw.writeLong(crc.getValue());
+        }
+    }
+
+    private Optional<Segment> open(final Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long fileSize = channel.size();
+            if (fileSize < HEADER_BYTES + FOOTER_BYTES || fileSize > Integer.MAX_VALUE) {
+                throw new IOException("invalid size " + fileSize);
+            }
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("invalid magic number");
+            }
+            if (buffer.getInt(Integer.BYTES) != VERSION) {
+                throw new IOException("unsupported version " + buffer.getInt(Integer.BYTES));
+            }
+            final int checksumPosition = (int) fileSize - Long.BYTES;
+            final CRC32 crc = new CRC32();
+            crc.update(buffer.slice(0, checksumPosition));
+            if (crc.getValue() != buffer.getLong(checksumPosition)) {
+                throw new IOException("checksum mismatch");
+            }
+            final int countPosition = checksumPosition - Integer.BYTES;
+            final int count = buffer.getInt(countPosition);
+            final long indexPosition = buffer.getLong(countPosition - Long.BYTES);
+            return Optional.of(new Segment(file, buffer, (int) indexPosition, count,
+                                           Files.getLastModifiedTime(file).toMillis()));
+        } catch (IOException | RuntimeException e) {
+            log.warn("ignoring unreadable recommendation snapshot {} : {}", file, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 추천 캐시를 모두 비울 때 함께 호출해, 비운 뒤에 스냅샷의 이전 추천 목록이 다시 캐시에 들어가지 않게 한다.
+     * 비운 인스턴스는 ProductCache 에서, 나머지 인스턴스는 캐시 무효화 메시지를 받았을 때 호출한다.
+     */
+    public synchronized void clear() {
+        final List<Segment> cleared = segments;
+        segments = List.of();
+        cleared.forEach(segment -> delete(segment.getFile()));
+        log.info("recommendation snapshot cleared, segments : {}", cleared.size());
+    }
+
+    // 새 세그먼트와 상품 id 범위가 겹치는 이전 세그먼트는 새 세그먼트가 대신하므로 지운다.
+    private synchronized void replace(final Segment segment) {
+        final List<Segment> replaced = new ArrayList<>();
+        replaced.add(segment);
+        for (final Segment existing : segments) {
+            if (existing.getFile().equals(segment.getFile())) {
+                continue;
+            }
+            if (existing.overlaps(segment)) {
+                delete(existing.getFile());
+                continue;
+            }
+            replaced.add(existing);
+        }
+        segments = List.copyOf(replaced);
+    }
+
+    private boolean isExpired(final Segment segment, final long now) {
+        return segment.getLastModified() < now - maxAge.toMillis();
+    }
+
+    // 매핑된 버퍼는 파일을 지운 뒤에도 읽을 수 있으므로, 읽는 중인 요청이 있어도 지울 수 있다.
+    private void delete(final Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("failed to delete recommendation snapshot {}", file, e);
+        }
+    }
+
+    private boolean isSegment(final Path file) {
+        final String fileName = file.getFileName().toString();
+        return fileName.startsWith(SEGMENT_PREFIX) && fileName.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static final class Segment {
+
+        private final Path file;
+        private final ByteBuffer buffer;
+        private final int indexPosition;
+        private final int size;
+        private final long lastModified;
+
+        private Segment(final Path file,
+                        final ByteBuffer buffer,
+                        final int indexPosition,
+                        final int size,
+                        final long lastModified) {
+            this.file = file;
+            this.buffer = buffer;
+            this.indexPosition = indexPosition;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        private Path getFile() {
+            return file;
+        }
+
+        private int getSize() {
+            return size;
+        }
+
+        private long getLastModified() {
+            return lastModified;
+        }
+
+        private boolean overlaps(final Segment other) {
+            return getFirstProductId() <= other.getLastProductId() && other.getFirstProductId() <= getLastProductId();
+        }
+
+        private long getFirstProductId() {
+            return buffer.getLong(indexPosition);
+        }
+
+        private long getLastProductId() {
+            return buffer.getLong(indexPosition + (size - 1) * Long.BYTES);
+        }
+
+        private List<Long> find(final long productId) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                final int mid = (low + high) >>> 1;
+                final long midProductId = buffer.getLong(indexPosition + mid * Long.BYTES);
+                if (midProductId < productId) {
+                    low = mid + 1;
+                } else if (midProductId > productId) {
+                    high = mid - 1;
+                } else {
+                    return read((int) buffer.getLong(indexPosition + (size + mid) * Long.BYTES));
+                }
+            }
+            return null;
+        }
+
+        private List<Long> read(final int position) {
+            final int length = buffer.getInt(position);
+            final List<Long> recommendationIds = new ArrayList<>(length);
+            for (int i = 0; i < length; i++) {
+                recommendationIds.add(buffer.getLong(position + Integer.BYTES + i * Long.BYTES));
+            }
+            return recommendationIds;
+        }
+    }
+}
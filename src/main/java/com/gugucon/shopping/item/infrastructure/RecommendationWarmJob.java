@@ -0,0 +1,152 @@
+package com.gugucon.shopping.item.infrastructure;
+
+import com.gugucon.shopping.item.domain.entity.RecommendationWarmPartition;
+import com.gugucon.shopping.item.repository.ProductRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 추천 캐시 warm 작업을 상품 id 범위 파티션으로 나눠, 여러 인스턴스가 임대한 파티션을 하나씩 처리한다.
+ * 처리 도중 인스턴스가 죽으면 임대가 끝난 뒤 다른 인스턴스가 마지막 checkpoint 부터 이어서 처리한다.
+ */
+@Component
+@Slf4j
+public class RecommendationWarmJob {
+
+    private static final String PARTITION_DURATION_METRIC = "recommendation.warm.partition.duration";
+    private static final String PARTITION_PRODUCTS_METRIC = "recommendation.warm.partition.products";
+
+    private final ProductRepository productRepository;
+    private final ProductCacheWarmer productCacheWarmer;
+    private final RecommendationWarmLease recommendationWarmLease;
+    private final MeterRegistry meterRegistry;
+    private final long partitionSize;
+    private final int checkpointInterval;
+    private final Duration leaseDuration;
+    private final String owner;
+    private final AtomicBoolean resuming = new AtomicBoolean(false);
+
+    public RecommendationWarmJob(final ProductRepository productRepository,
+                                 final ProductCacheWarmer productCacheWarmer,
+                                 final RecommendationWarmLease recommendationWarmLease,
+                                 final MeterRegistry meterRegistry,
+                                 @Value("${product.recommendation.warm.partition-size:50000}") final long partitionSize,
+                                 @Value("${product.recommendation.warm.checkpoint-interval:1000}") final int checkpointInterval,
+                                 @Value("${product.recommendation.warm.lease-minutes:10}") final long leaseMinutes) {
+        this.productRepository = productRepository;
+        this.productCacheWarmer = productCacheWarmer;
+        this.recommendationWarmLease = recommendationWarmLease;
+        this.meterRegistry = meterRegistry;
+        this.partitionSize = partitionSize;
+        this.checkpointInterval = checkpointInterval;
+        this.leaseDuration = Duration.ofMinutes(leaseMinutes);
+        this.owner = createOwner();
+    }
+
+    public void run() {
+        final String runKey = LocalDate.now().toString();
+        log.info("recommendation warm job started, run : {}, owner : {}", runKey, owner);
+        createPartitionsIfAbsent(runKey);
+
+        final int warmedPartitionCount = warmClaimablePartitions(runKey);
+        log.info("recommendation warm job finished, run : {}, partitions warmed by this instance : {}",
+                 runKey, warmedPartitionCount);
+    }
+
+    /**
+     * 오늘 작업에서 임대가 끝난 채 남은 파티션을 이어서 처리한다. 파티션을 새로 만들지는 않으며, 이미 이어서 처리하는 중이면 건너뛴다.
+     */
+    public void resumeExpired() {
+        if (!resuming.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            final String runKey = LocalDate.now().toString();
+            final int warmedPartitionCount = warmClaimablePartitions(runKey);
+            if (warmedPartitionCount > 0) {
+                log.info("recommendation warm job resumed, run : {}, partitions warmed by this instance : {}",
+                         runKey, warmedPartitionCount);
+            }
+        } finally {
+            resuming.set(false);
+        }
+    }
+
+    private int warmClaimablePartitions(final String runKey) {
+        int warmedPartitionCount = 0;
+        long[] productIds = null;
+        Optional<RecommendationWarmPartition> partition;
+        while ((partition = recommendationWarmLease.claimNext(runKey, owner, leaseDuration)).isPresent()) {
+            // 전체 상품 id 는 파티션을 처음 임대했을 때 한 번만 읽어, 이번 실행의 모든 파티션이 함께 쓴다.
+            if (productIds == null) {
+                productIds = productCacheWarmer.findAllSortedProductIds();
+            }
+            warm(partition.get(), productIds);
+            warmedPartitionCount++;
+        }
+        return warmedPartitionCount;
+    }
+
+    private void createPartitionsIfAbsent(final String runKey) {
+        final long maxProductId = productRepository.findMaxId().orElse(0L);
+        try {
+            recommendationWarmLease.createPartitionsIfAbsent(runKey, maxProductId, partitionSize);
+        } catch (DataIntegrityViolationException e) {
+            log.info("recommendation warm partitions already created by another instance, run : {}", runKey);
+        }
+    }
+
+    private void warm(final RecommendationWarmPartition partition, final long[] productIds) {
+        final long start = System.currentTimeMillis();
+        final long previousCount = partition.getProductCount();
+        final int warmedCount = productCacheWarmer.warmRecommendationCache(
+                productIds,
+                partition.getResumeProductId(),
+                partition.getEndProductId(),
+                checkpointInterval,
+                (lastProductId, count) -> recommendationWarmLease.checkpoint(partition.getId(),
+                                                                             owner,
+                                                                             lastProductId,
+                                                                             previousCount + count,
+                                                                             leaseDuration));
+        final boolean completed = recommendationWarmLease.complete(partition.getId(), owner);
+        final long elapsedMillis = System.currentTimeMillis() - start;
+        record(partition, warmedCount, elapsedMillis);
+        log.info("recommendation warm partition {} {}, products : {}, elapsed time : {} ms",
+                 partition.getPartitionNumber(), completed ? "completed" : "lost its lease",
+                 warmedCount, elapsedMillis);
+    }
+
+    private void record(final RecommendationWarmPartition partition, final int warmedCount, final long elapsedMillis) {
+        final String partitionTag = String.valueOf(partition.getPartitionNumber());
+        Timer.builder(PARTITION_DURATION_METRIC)
+                .tag("partition", partitionTag)
+                .register(meterRegistry)
+                .record(Duration.ofMillis(elapsedMillis));
+        DistributionSummary.builder(PARTITION_PRODUCTS_METRIC)
+                .tag("partition", partitionTag)
+                .register(meterRegistry)
+                .record(warmedCount);
+    }
+
+    private String createOwner() {
+        try {
+            return InetAddress.getLocalHost().getHostName() + "-" + UUID.randomUUID();
+        } catch (UnknownHostException e) {
+            return UUID.randomUUID().toString();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.gugucon.shopping.item.infrastructure;
+
+import com.gugucon.shopping.item.domain.entity.RecommendationWarmPartition;
+import com.gugucon.shopping.item.domain.entity.RecommendationWarmPartition.WarmStatus;
+import com.gugucon.shopping.item.repository.RecommendationWarmPartitionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+/**
+ * 추천 캐시 warm 작업의 파티션을 여러 인스턴스가 나눠 가지도록 임대를 관리한다.
+ * 각 메서드는 warm 작업의 트랜잭션과 무관하게 곧바로 커밋되어 다른 인스턴스에 보인다.
+ */
+@Component
+@RequiredArgsConstructor
+public class RecommendationWarmLease {
+
+    private final RecommendationWarmPartitionRepository recommendationWarmPartitionRepository;
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void createPartitionsIfAbsent(final String runKey, final long maxProductId, final long partitionSize) {
+        if (recommendationWarmPartitionRepository.existsByRunKey(runKey)) {
+            return;
+        }
+        final long partitionCount = (maxProductId + partitionSize - 1) / partitionSize;
+        final List<RecommendationWarmPartition> partitions = LongStream.range(0, partitionCount)
+                .mapToObj(number -> RecommendationWarmPartition.of(runKey,
+                                                                   (int) number,
+                                                                   number * partitionSize + 1,
+                                                                   (number + 1) * partitionSize))
+                .toList();
+        recommendationWarmPartitionRepository.saveAll(partitions);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Optional<RecommendationWarmPartition> claimNext(final String runKey,
+                                                           final String owner,
+                                                           final Duration leaseDuration) {
+        final LocalDateTime now = LocalDateTime.now();
+        final List<RecommendationWarmPartition> candidates = recommendationWarmPartitionRepository
+                .findAllByRunKeyAndStatusNotOrderByPartitionNumber(runKey, WarmStatus.DONE);
+        for (RecommendationWarmPartition candidate : candidates) {
+            if (candidate.isClaimableAt(now)
+                    && recommendationWarmPartitionRepository.claim(candidate.getId(),
+                                                                  owner,
+                                                                  now,
+                                                                  now.plus(leaseDuration)) == 1) {
+                return Optional.of(candidate);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @return 여전히 임대를 가지고 있어 checkpoint 를 남겼다면 true
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean checkpoint(final Long partitionId,
+                              final String owner,
+                              final long lastProductId,
+                              final long productCount,
+                              final Duration leaseDuration) {
+        return recommendationWarmPartitionRepository.checkpoint(partitionId,
+                                                                owner,
+                                                                lastProductId,
+                                                                productCount,
+                                                                LocalDateTime.now().plus(leaseDuration)) == 1;
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean complete(final Long partitionId, final String owner) {
+        return recommendationWarmPartitionRepository.complete(partitionId, owner) == 1;
+    }
+}
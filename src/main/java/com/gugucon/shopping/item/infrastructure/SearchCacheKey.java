@@ -0,0 +1,45 @@
+package com.gugucon.shopping.item.infrastructure;
+
+import com.gugucon.shopping.item.domain.SortKey;
+import com.gugucon.shopping.member.domain.vo.BirthYearRange;
+import com.gugucon.shopping.member.domain.vo.Gender;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.data.domain.Pageable;
+
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@EqualsAndHashCode
+@Getter
+@ToString
+public final class SearchCacheKey {
+
+    private final String keyword;
+    private final SortKey sortKey;
+    private final BirthYearRange birthYearRange;
+    private final Gender gender;
+    private final int page;
+    private final int size;
+
+    /*
+    주문 수, 평점 순 검색은 대소문자를 구분하므로 검색어는 그대로 키에 두고,
+    연령대/성별 필터는 통계 정렬에서만 결과에 영향을 주므로 그 외 정렬에서는 키에서 제외한다.
+     */
+    public static SearchCacheKey from(final SearchCondition searchCondition) {
+        final Pageable pageable = searchCondition.getPageable();
+        final boolean filtered = searchCondition.hasValidFilters()
+                && (searchCondition.isSortedByRate()
+                || searchCondition.isSortedByOrderCount()
+                || searchCondition.isSortedByTrending());
+        return new SearchCacheKey(
+                searchCondition.getKeyword(),
+                SortKeyUtils.map(pageable.getSort()),
+                filtered ? searchCondition.getBirthYearRange() : null,
+                filtered ? searchCondition.getGender() : null,
+                pageable.getPageNumber(),
+                pageable.getPageSize()
+        );
+    }
+}
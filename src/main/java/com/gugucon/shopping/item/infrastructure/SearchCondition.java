@@ -19,6 +19,8 @@ public class SearchCondition {
 
     private static final SortKey SORT_BY_RATE = SortKey.RATE;
     private static final SortKey SORT_BY_ORDER_COUNT = SortKey.ORDER_COUNT_DESC;
+    private static final SortKey SORT_BY_ID = SortKey.ID_DESC;
+    private static final SortKey SORT_BY_TRENDING = SortKey.TRENDING;
 
     private final String keyword;
     private final BirthYearRange birthYearRange;
@@ -45,6 +47,14 @@ public class SearchCondition {
         return getSortKey().equals(SORT_BY_ORDER_COUNT);
     }
 
+    public boolean isSortedByTrending() {
+        return getSortKey().equals(SORT_BY_TRENDING);
+    }
+
+    public boolean isSortedById() {
+        return getSortKey().equals(SORT_BY_ID);
+    }
+
     public boolean hasValidFilters() {
         return birthYearRange != null && gender != null;
     }
@@ -0,0 +1,17 @@
+package com.gugucon.shopping.item.infrastructure;
+
+import java.util.Arrays;
+
+public enum SearchCountMode {
+
+    EXACT,
+    CACHED,
+    ESTIMATED;
+
+    public static SearchCountMode from(final String name) {
+        return Arrays.stream(values())
+                .filter(mode -> mode.name().equalsIgnoreCase(name))
+                .findAny()
+                .orElseThrow(() -> new IllegalArgumentException("unknown search count mode : " + name));
+    }
+}
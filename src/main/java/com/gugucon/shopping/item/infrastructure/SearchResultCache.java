@@ -0,0 +1,86 @@
+package com.gugucon.shopping.item.infrastructure;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.gugucon.shopping.common.dto.response.PagedResponse;
+import com.gugucon.shopping.item.dto.response.ProductResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+@Component
+@Slf4j
+public class SearchResultCache {
+
+    private static final String CACHE_NAME = "productSearch";
+
+    private final int maxPage;
+    private final Cache<SearchCacheKey, PagedResponse<ProductResponse>> cache;
+    private final Map<Long, Set<SearchCacheKey>> keysByProductId = new ConcurrentHashMap<>();
+
+    public SearchResultCache(@Value("${product.search.cache.max-page:3}") final int maxPage,
+                             @Value("${product.search.cache.max-size:10000}") final long maxSize,
+                             @Value("${product.search.cache.ttl-seconds:60}") final long ttlSeconds,
+                             final MeterRegistry meterRegistry) {
+        this.maxPage = maxPage;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .executor(Runnable::run)
+                .removalListener(this::unlink)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public PagedResponse<ProductResponse> get(final SearchCondition searchCondition,
+                                              final Supplier<PagedResponse<ProductResponse>> loader) {
+        if (searchCondition.getPageable().getPageNumber() >= maxPage) {
+            return loader.get();
+        }
+        return cache.get(SearchCacheKey.from(searchCondition), key -> link(key, loader.get()));
+    }
+
+    public void evictByProductIds(final Collection<Long> productIds) {
+        productIds.stream()
+                .map(keysByProductId::remove)
+                .filter(Objects::nonNull)
+                .forEach(cache::invalidateAll);
+    }
+
+    public void clearAll() {
+        cache.invalidateAll();
+        log.info("search result cache cleared");
+    }
+
+    private PagedResponse<ProductResponse> link(final SearchCacheKey key,
+                                                final PagedResponse<ProductResponse> response) {
+        response.getContents().forEach(product -> keysByProductId
+                .computeIfAbsent(product.getId(), id -> ConcurrentHashMap.newKeySet())
+                .add(key));
+        return response;
+    }
+
+    private void unlink(final SearchCacheKey key,
+                        final PagedResponse<ProductResponse> response,
+                        final RemovalCause cause) {
+        if (response == null) {
+            return;
+        }
+        response.getContents().forEach(product -> keysByProductId.computeIfPresent(product.getId(), (id, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        }));
+    }
+}
@@ -0,0 +1,30 @@
+package com.gugucon.shopping.item.infrastructure;
+
+import com.gugucon.shopping.item.domain.event.ProductSaveEvent;
+import com.gugucon.shopping.item.domain.event.ProductStockChangeEvent;
+import com.gugucon.shopping.stat.domain.event.ProductRankRefreshEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class SearchResultCacheInvalidator {
+
+    private final SearchResultCache searchResultCache;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handle(final ProductSaveEvent productSaveEvent) {
+        searchResultCache.clearAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handle(final ProductStockChangeEvent productStockChangeEvent) {
+        searchResultCache.evictByProductIds(productStockChangeEvent.getProductIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handle(final ProductRankRefreshEvent productRankRefreshEvent) {
+        searchResultCache.clearAll();
+    }
+}
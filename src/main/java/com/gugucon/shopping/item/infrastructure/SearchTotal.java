@@ -0,0 +1,21 @@
+package com.gugucon.shopping.item.infrastructure;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Getter
+public final class SearchTotal {
+
+    private final long count;
+    private final boolean capped;
+
+    public static SearchTotal exact(final long count) {
+        return new SearchTotal(count, false);
+    }
+
+    public static SearchTotal capped(final long cap) {
+        return new SearchTotal(cap, true);
+    }
+}
@@ -0,0 +1,131 @@
+package com.gugucon.shopping.item.infrastructure;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.gugucon.shopping.item.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+public class SearchTotalCounter {
+
+    private static final String CACHE_NAME = "productSearchCount";
+    private static final String KEY_DELIMITER = "|";
+
+    private final ProductRepository productRepository;
+    private final SearchCountMode mode;
+    private final int maxPage;
+    private final Cache<String, Long> cache;
+
+    public SearchTotalCounter(final ProductRepository productRepository,
+                              @Value("${product.search.count.mode:exact}") final String mode,
+                              @Value("${product.search.count.max-page:1000}") final int maxPage,
+                              @Value("${product.search.count.max-size:10000}") final long maxSize,
+                              @Value("${product.search.count.ttl-seconds:300}") final long ttlSeconds,
+                              final MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.mode = SearchCountMode.from(mode);
+        this.maxPage = maxPage;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public SearchTotal count(final SearchCondition searchCondition) {
+        return switch (mode) {
+            case EXACT -> SearchTotal.exact(countExactly(searchCondition));
+            case CACHED -> SearchTotal.exact(cache.get(createKey(searchCondition),
+                                                       key -> countExactly(searchCondition)));
+            case ESTIMATED -> estimate(searchCondition);
+        };
+    }
+
+    /*
+    최대 페이지 수 만큼의 상품보다 하나 더 세어 본 뒤, 그 이상이면 정확한 개수 대신 최대 페이지까지만 있다고 응답한다.
+     */
+    private SearchTotal estimate(final SearchCondition searchCondition) {
+        final long cap = (long) maxPage * searchCondition.getPageable().getPageSize();
+        final long count = countUpTo(searchCondition, cap + 1);
+        return count > cap ? SearchTotal.capped(cap) : SearchTotal.exact(count);
+    }
+
+    private long countExactly(final SearchCondition searchCondition) {
+        final String keyword = searchCondition.getKeyword();
+        if (isFilteredByOrderStats(searchCondition)) {
+            return productRepository.countByNameFilterWithBirthYearRangeAndGenderOfOrderStats(
+                    keyword,
+                    searchCondition.getBirthYearRange(),
+                    searchCondition.getGender()
+            );
+        }
+        if (isFilteredByRateStats(searchCondition)) {
+            return productRepository.countByNameFilterWithBirthYearRangeAndGenderOfRateStats(
+                    keyword,
+                    searchCondition.getBirthYearRange(),
+                    searchCondition.getGender()
+            );
+        }
+        if (isSortedByStats(searchCondition)) {
+            return productRepository.countByNameCaseSensitive(keyword);
+        }
+        return productRepository.countByName(keyword);
+    }
+
+    private long countUpTo(final SearchCondition searchCondition, final long limit) {
+        final String keyword = searchCondition.getKeyword();
+        if (isFilteredByOrderStats(searchCondition)) {
+            return productRepository.countByNameFilterWithBirthYearRangeAndGenderOfOrderStatsUpTo(
+                    keyword,
+                    searchCondition.getBirthYearRange().name(),
+                    searchCondition.getGender().name(),
+                    limit
+            );
+        }
+        if (isFilteredByRateStats(searchCondition)) {
+            return productRepository.countByNameFilterWithBirthYearRangeAndGenderOfRateStatsUpTo(
+                    keyword,
+                    searchCondition.getBirthYearRange().name(),
+                    searchCondition.getGender().name(),
+                    limit
+            );
+        }
+        if (isSortedByStats(searchCondition)) {
+            return productRepository.countByNameCaseSensitiveUpTo(keyword, limit);
+        }
+        return productRepository.countByNameUpTo(keyword, limit);
+    }
+
+    private String createKey(final SearchCondition searchCondition) {
+        if (isFilteredByOrderStats(searchCondition) || isFilteredByRateStats(searchCondition)) {
+            return String.join(KEY_DELIMITER,
+                               searchCondition.getKeyword(),
+                               isFilteredByOrderStats(searchCondition) ? "order" : "rate",
+                               searchCondition.getBirthYearRange().name(),
+                               searchCondition.getGender().name());
+        }
+        if (isSortedByStats(searchCondition)) {
+            return String.join(KEY_DELIMITER, searchCondition.getKeyword(), "stats");
+        }
+        return searchCondition.getKeyword();
+    }
+
+    private boolean isFilteredByOrderStats(final SearchCondition searchCondition) {
+        return searchCondition.hasValidFilters() && searchCondition.isSortedByOrderCount();
+    }
+
+    private boolean isFilteredByRateStats(final SearchCondition searchCondition) {
+        return searchCondition.hasValidFilters() && searchCondition.isSortedByRate();
+    }
+
+    // 필터 없이 주문 수, 평점 순으로 정렬하는 검색은 이름을 대소문자를 구분해 찾는다.
+    private boolean isSortedByStats(final SearchCondition searchCondition) {
+        return searchCondition.isSortedByOrderCount() || searchCondition.isSortedByRate();
+    }
+}
@@ -0,0 +1,81 @@
+package com.gugucon.shopping.item.repository;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * DB 마다 다르게 써야 하는 함께 구매한 횟수 upsert 구문. (상품, 함께 구매한 상품) 행이 없으면 새로 만들고 있으면 횟수를 더한다.
+ * <p>
+ * 행마다 [상품 id, 함께 구매한 상품 id, 횟수] 순서로 값을 넣으며, 완료된 주문으로 채우는 구문은 마지막 수정 시각의 상한을 받는다.
+ */
+enum CoPurchaseSqlDialect {
+
+    MARIADB {
+        @Override
+        String pairUpsert(final int rows) {
+            return "INSERT INTO product_co_purchases (product_id, co_product_id, count) " +
+                    "VALUES " + repeat("(?, ?, ?)", rows) + " " +
+                    "ON DUPLICATE KEY UPDATE count = count + VALUES(count)";
+        }
+
+        @Override
+        String completedOrderUpsert() {
+            return "INSERT INTO product_co_purchases (product_id, co_product_id, count) " +
+                    COMPLETED_ORDER_PAIRS + " " +
+                    "ON DUPLICATE KEY UPDATE count = count + VALUES(count)";
+        }
+    },
+
+    // MERGE 를 지원하는 그 밖의 DB(테스트의 H2) 용. 파라미터만으로는 타입을 알 수 없어 CAST 로 지정한다.
+    STANDARD {
+        @Override
+        String pairUpsert(final int rows) {
+            return "MERGE INTO product_co_purchases t USING (VALUES " +
+                    repeat("(CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS BIGINT))", rows) +
+                    ") AS d (product_id, co_product_id, count) " +
+                    MERGE_ON_PAIR;
+        }
+
+        @Override
+        String completedOrderUpsert() {
+            return "MERGE INTO product_co_purchases t USING (" + COMPLETED_ORDER_PAIRS + ") " +
+                    "AS d (product_id, co_product_id, count) " +
+                    MERGE_ON_PAIR;
+        }
+    };
+
+    private static final String COMPLETED_ORDER_PAIRS =
+            "SELECT oi.product_id, co_oi.product_id, COUNT(*) " +
+                    "FROM orders o " +
+                    "INNER JOIN order_items oi ON oi.order_id = o.id " +
+                    "INNER JOIN order_items co_oi ON co_oi.order_id = o.id AND co_oi.product_id != oi.product_id " +
+                    "WHERE o.status = 'COMPLETED' AND o.last_modified_at < ? " +
+                    "GROUP BY oi.product_id, co_oi.product_id";
+    private static final String MERGE_ON_PAIR =
+            "ON t.product_id = d.product_id AND t.co_product_id = d.co_product_id " +
+                    "WHEN MATCHED THEN UPDATE SET count = t.count + d.count " +
+                    "WHEN NOT MATCHED THEN INSERT (product_id, co_product_id, count) " +
+                    "VALUES (d.product_id, d.co_product_id, d.count)";
+
+    abstract String pairUpsert(final int rows);
+
+    abstract String completedOrderUpsert();
+
+    static CoPurchaseSqlDialect of(final JdbcTemplate jdbcTemplate) {
+        final String productName = Objects.requireNonNull(jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()))
+                .toLowerCase(Locale.ROOT);
+        if (productName.contains("mariadb") || productName.contains("mysql")) {
+            return MARIADB;
+        }
+        return STANDARD;
+    }
+
+    private static String repeat(final String row, final int rows) {
+        return String.join(", ", Collections.nCopies(rows, row));
+    }
+}
@@ -0,0 +1,111 @@
+package com.gugucon.shopping.item.repository;
+
+import com.gugucon.shopping.item.repository.dto.CoPurchaseBackfillDto;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 함께 구매한 횟수를 upsert 로 더해, 같은 상품 쌍을 동시에 갱신해도 행을 두 번 만들지 않는다.
+ * <p>
+ * 기존 완료 주문으로 채우는 작업의 상태는 id 가 1 인 행 하나에 둔다. 기준 시각 전에 수정된 주문은 채우는 작업이,
+ * 그 뒤의 주문은 주문 완료 이벤트가 더하므로 같은 주문을 두 번 세지 않는다.
+ */
+@Repository
+public class ProductCoPurchaseCountRepository {
+
+    // 한 문장에 넣는 행 수. 파라미터 개수 제한을 넘지 않도록 나눠서 반영한다.
+    private static final int UPSERT_CHUNK_SIZE = 500;
+
+    private static final String SELECT_BACKFILL =
+            "SELECT cutoff, completed FROM product_co_purchase_backfill WHERE id = 1";
+    private static final String SELECT_BACKFILL_FOR_UPDATE =
+            "SELECT cutoff, completed FROM product_co_purchase_backfill WHERE id = 1 FOR UPDATE";
+    private static final String INSERT_BACKFILL =
+            "INSERT INTO product_co_purchase_backfill (id, cutoff, completed) VALUES (1, ?, ?)";
+    private static final String COMPLETE_BACKFILL =
+            "UPDATE product_co_purchase_backfill SET completed = TRUE WHERE id = 1";
+    private static final String COUNT_CO_PURCHASES =
+            "SELECT COUNT(*) FROM product_co_purchases";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CoPurchaseSqlDialect dialect;
+
+    public ProductCoPurchaseCountRepository(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dialect = CoPurchaseSqlDialect.of(jdbcTemplate);
+    }
+
+    public Optional<CoPurchaseBackfillDto> findBackfill() {
+        return findBackfill(SELECT_BACKFILL);
+    }
+
+    /**
+     * 채우는 작업의 상태 행이 없으면 기준 시각으로 만든다. 상태 행 없이 이미 횟수가 쌓여 있으면 채운 것으로 본다.
+     */
+    @Transactional
+    public void createBackfillIfAbsent(final LocalDateTime cutoff) {
+        if (findBackfill().isPresent()) {
+            return;
+        }
+        final Long coPurchaseCount = jdbcTemplate.queryForObject(COUNT_CO_PURCHASES, Long.class);
+        try {
+            jdbcTemplate.update(INSERT_BACKFILL, Timestamp.valueOf(cutoff), coPurchaseCount != null && coPurchaseCount > 0);
+        } catch (DuplicateKeyException e) {
+            // 다른 인스턴스가 먼저 만들었으면 그 기준 시각을 따른다.
+        }
+    }
+
+    /**
+     * 상태 행을 잠근 채로 기준 시각 전에 완료된 주문의 상품 쌍을 더하고 완료로 표시한다. 이미 채웠으면 아무것도 하지 않는다.
+     */
+    @Transactional
+    public int backfill() {
+        final Optional<CoPurchaseBackfillDto> backfill = findBackfill(SELECT_BACKFILL_FOR_UPDATE);
+        if (backfill.isEmpty() || backfill.get().isCompleted()) {
+            return 0;
+        }
+        final int pairCount = jdbcTemplate.update(dialect.completedOrderUpsert(),
+                                                  Timestamp.valueOf(backfill.get().getCutoff()));
+        jdbcTemplate.update(COMPLETE_BACKFILL);
+        return pairCount;
+    }
+
+    /**
+     * 주문에 함께 담긴 상품 쌍마다 횟수를 1 올린다. 상품 id 는 오름차순이어야 같은 행을 같은 순서로 잠근다.
+     */
+    public void increaseCounts(final List<Long> sortedProductIds) {
+        final List<long[]> pairs = new ArrayList<>();
+        for (Long productId : sortedProductIds) {
+            sortedProductIds.stream()
+                    .filter(coProductId -> !coProductId.equals(productId))
+                    .forEach(coProductId -> pairs.add(new long[]{productId, coProductId}));
+        }
+        for (int from = 0; from < pairs.size(); from += UPSERT_CHUNK_SIZE) {
+            final List<long[]> chunk = pairs.subList(from, Math.min(from + UPSERT_CHUNK_SIZE, pairs.size()));
+            jdbcTemplate.update(dialect.pairUpsert(chunk.size()), statement -> {
+                int index = 1;
+                for (final long[] pair : chunk) {
+                    statement.setLong(index++, pair[0]);
+                    statement.setLong(index++, pair[1]);
+                    statement.setLong(index++, 1L);
+                }
+            });
+        }
+    }
+
+    private Optional<CoPurchaseBackfillDto> findBackfill(final String sql) {
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new CoPurchaseBackfillDto(
+                        rs.getTimestamp("cutoff").toLocalDateTime(),
+                        rs.getBoolean("completed")))
+                .stream()
+                .findFirst();
+    }
+}
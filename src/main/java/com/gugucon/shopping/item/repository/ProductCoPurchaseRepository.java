@@ -0,0 +1,17 @@
+package com.gugucon.shopping.item.repository;
+
+import com.gugucon.shopping.item.domain.entity.ProductCoPurchase;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ProductCoPurchaseRepository extends JpaRepository<ProductCoPurchase, Long> {
+
+    @Query("SELECT pc.coProductId FROM ProductCoPurchase pc " +
+            "WHERE pc.productId = :productId " +
+            "ORDER BY pc.count DESC, pc.coProductId DESC")
+    List<Long> findTopCoProductIds(@Param("productId") final Long productId, final Pageable pageable);
+}
@@ -0,0 +1,54 @@
+package com.gugucon.shopping.item.repository;
+
+import com.gugucon.shopping.item.repository.dto.ProductExportDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.Consumer;
+
+@Repository
+@RequiredArgsConstructor
+public class ProductExportRepository {
+
+    private static final String SELECT_PRODUCTS_AFTER_ID =
+            "SELECT id, name, description, image_file_name, price, stock, last_modified_at FROM products " +
+            "WHERE id > ? ORDER BY id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * id 가 afterId 보다 큰 상품을 id 오름차순으로 최대 limit 개 읽어 한 행씩 consumer 에 넘긴다.
+     * 결과를 목록으로 모으지 않으므로 limit 과 무관하게 한 행 분량의 메모리만 사용한다.
+     *
+     * @return 마지막으로 넘긴 상품 id, 읽은 상품이 없다면 afterId
+     */
+    public long forEachAfter(final long afterId, final int limit, final Consumer<ProductExportDto> consumer) {
+        final long[] lastId = {afterId};
+        jdbcTemplate.query(connection -> {
+            final PreparedStatement statement = connection.prepareStatement(SELECT_PRODUCTS_AFTER_ID);
+            statement.setFetchSize(limit);
+            statement.setLong(1, afterId);
+            statement.setInt(2, limit);
+            return statement;
+        }, resultSet -> {
+            final ProductExportDto product = toDto(resultSet);
+            consumer.accept(product);
+            lastId[0] = product.getId();
+        });
+        return lastId[0];
+    }
+
+    private ProductExportDto toDto(final ResultSet resultSet) throws SQLException {
+        return new ProductExportDto(resultSet.getLong("id"),
+                                    resultSet.getString("name"),
+                                    resultSet.getString("description"),
+                                    resultSet.getString("image_file_name"),
+                                    resultSet.getLong("price"),
+                                    resultSet.getInt("stock"),
+                                    resultSet.getTimestamp("last_modified_at").toLocalDateTime());
+    }
+}
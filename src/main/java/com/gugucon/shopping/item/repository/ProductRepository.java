@@ -1,11 +1,17 @@
 package com.gugucon.shopping.item.repository;
 
 import com.gugucon.shopping.item.domain.entity.Product;
+import com.gugucon.shopping.item.repository.dto.ProductFacetDto;
 import com.gugucon.shopping.item.repository.dto.ProductIdOrderIdPairDto;
+import com.gugucon.shopping.item.repository.dto.ProductNameDto;
+import com.gugucon.shopping.item.repository.dto.ProductSuggestionDto;
+import com.gugucon.shopping.item.repository.dto.ProductSummaryDto;
 import com.gugucon.shopping.member.domain.vo.BirthYearRange;
 import com.gugucon.shopping.member.domain.vo.Gender;
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
@@ -13,11 +19,14 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
@@ -26,22 +35,141 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("select p from Product p where p.id = :id")
     Optional<Product> findByIdWithExclusiveLock(final Long id);
 
-    Page<Product> findAllByNameContainingIgnoreCase(final @NotNull String name, final Pageable pageable);
+    @Query(value = "select new com.gugucon.shopping.item.repository.dto.ProductSummaryDto(" +
+            "p.id, p.name, p.imageFileName, p.stock.value, p.price.value) from Product p",
+            countQuery = "select count(p.id) from Product p")
+    Page<ProductSummaryDto> findAllSummaries(final Pageable pageable);
 
-    @Query("select p from Product p " +
-            "left join OrderStat os on p.id = os.productId " +
+    @Query("select new com.gugucon.shopping.item.repository.dto.ProductSummaryDto(" +
+            "p.id, p.name, p.imageFileName, p.stock.value, p.price.value) from Product p " +
+            "where p.id in :ids")
+    List<ProductSummaryDto> findAllSummariesByIdIn(@Param("ids") final Collection<Long> ids);
+
+    @Query("select new com.gugucon.shopping.item.repository.dto.ProductFacetDto(p.id, p.price.value, p.stock.value) " +
+            "from Product p")
+    List<ProductFacetDto> findAllFacets();
+
+    @Query("select new com.gugucon.shopping.item.repository.dto.ProductFacetDto(p.id, p.price.value, p.stock.value) " +
+            "from Product p where p.id in :ids")
+    List<ProductFacetDto> findAllFacetsByIdIn(@Param("ids") final Collection<Long> ids);
+
+    @Query("select new com.gugucon.shopping.item.repository.dto.ProductSummaryDto(" +
+            "p.id, p.name, p.imageFileName, p.stock.value, p.price.value) from Product p " +
+            "where upper(p.name) like upper(concat('%', :name, '%'))")
+    Slice<ProductSummaryDto> findAllByNameContainingIgnoreCase(@Param("name") final @NotNull String name,
+                                                               final Pageable pageable);
+
+    // 랭킹 행은 상품마다 하나씩 항상 있으므로, 랭킹 테이블의 (order_count, product_id) 인덱스 순서대로 읽는다.
+    @Query("select new com.gugucon.shopping.item.repository.dto.ProductSummaryDto(" +
+            "p.id, p.name, p.imageFileName, p.stock.value, p.price.value) from ProductRank pr " +
+            "join Product p on p.id = pr.productId " +
             "where p.name like %:keyword% " +
-            "group by p.id " +
-            "order by sum(os.count) desc ")
-    Page<Product> findAllByNameSortByOrderCountDesc(@Param("keyword") final String keyword, final Pageable pageable);
+            "order by pr.orderCount desc, pr.productId desc")
+    Slice<ProductSummaryDto> findAllByNameSortByOrderCountDesc(@Param("keyword") final String keyword,
+                                                               final Pageable pageable);
+
+    // 별점이 없는 상품은 average_score 가 NULL 이라 내림차순에서 맨 뒤에 온다.
+    @Query("select new com.gugucon.shopping.item.repository.dto.ProductSummaryDto(" +
+            "p.id, p.name, p.imageFileName, p.stock.value, p.price.value) from ProductRank pr " +
+            "join Product p on p.id = pr.productId " +
+            "where p.name like %:keyword% " +
+            "order by pr.averageScore desc, pr.productId desc")
+    Slice<ProductSummaryDto> findAllByNameSortByRateDesc(@Param("keyword") final String keyword,
+                                                         final Pageable pageable);
+
+    @Query(value = "select new com.gugucon.shopping.item.repository.dto.ProductSummaryDto(" +
+            "p.id, p.name, p.imageFileName, p.stock.value, p.price.value) from Product p " +
+            "where p.id in :ids",
+            countQuery = "select count(p.id) from Product p where p.id in :ids")
+    Page<ProductSummaryDto> findAllByIdIn(@Param("ids") final Collection<Long> ids, final Pageable pageable);
 
-    @Query(value = "select p from Product p " +
-            "left join RateStat rs on rs.productId = p.id " +
+    @Query(value = "select new com.gugucon.shopping.item.repository.dto.ProductSummaryDto(" +
+            "p.id, p.name, p.imageFileName, p.stock.value, p.price.value) from ProductRank pr " +
+            "join Product p on p.id = pr.productId " +
+            "where pr.productId in :ids " +
+            "order by pr.orderCount desc, pr.productId desc",
+            countQuery = "select count(p.id) from Product p where p.id in :ids")
+    Page<ProductSummaryDto> findAllByIdInSortByOrderCountDesc(@Param("ids") final Collection<Long> ids,
+                                                              final Pageable pageable);
+
+    @Query(value = "select new com.gugucon.shopping.item.repository.dto.ProductSummaryDto(" +
+            "p.id, p.name, p.imageFileName, p.stock.value, p.price.value) from ProductRank pr " +
+            "join Product p on p.id = pr.productId " +
+            "where pr.productId in :ids " +
+            "order by pr.averageScore desc, pr.productId desc",
+            countQuery = "select count(p.id) from Product p where p.id in :ids")
+    Page<ProductSummaryDto> findAllByIdInSortByRateDesc(@Param("ids") final Collection<Long> ids,
+                                                        final Pageable pageable);
+
+    @Query("select new com.gugucon.shopping.item.repository.dto.ProductSummaryDto(" +
+            "p.id, p.name, p.imageFileName, p.stock.value, p.price.value) from Product p " +
+            "where p.id < :id " +
+            "order by p.id desc")
+    Slice<ProductSummaryDto> findAllByIdLessThanOrderByIdDesc(@Param("id") final Long id, final Pageable pageable);
+
+    @Query("select new com.gugucon.shopping.item.repository.dto.ProductSummaryDto(" +
+            "p.id, p.name, p.imageFileName, p.stock.value, p.price.value) from Product p " +
+            "where p.price.value < :price or (p.price.value = :price and p.id < :id) " +
+            "order by p.price.value desc, p.id desc")
+    Slice<ProductSummaryDto> findAllAfterSortByPriceDesc(@Param("price") final Long price,
+                                                         @Param("id") final Long id,
+                                                         final Pageable pageable);
+
+    @Query("select new com.gugucon.shopping.item.repository.dto.ProductSummaryDto(" +
+            "p.id, p.name, p.imageFileName, p.stock.value, p.price.value) from Product p " +
+            "where p.price.value > :price or (p.price.value = :price and p.id > :id) " +
+            "order by p.price.value asc, p.id asc")
+    Slice<ProductSummaryDto> findAllAfterSortByPriceAsc(@Param("price") final Long price,
+                                                        @Param("id") final Long id,
+                                                        final Pageable pageable);
+
+    @Query("select new com.gugucon.shopping.item.repository.dto.ProductSummaryDto(" +
+            "p.id, p.name, p.imageFileName, p.stock.value, p.price.value) from Product p " +
+            "where p.name like %:keyword% and p.id < :id " +
+            "order by p.id desc")
+    Slice<ProductSummaryDto> findAllByNameAfterSortByIdDesc(@Param("keyword") final String keyword,
+                                                            @Param("id") final Long id,
+                                                            final Pageable pageable);
+
+    @Query("select new com.gugucon.shopping.item.repository.dto.ProductSummaryDto(" +
+            "p.id, p.name, p.imageFileName, p.stock.value, p.price.value) from Product p " +
             "where p.name like %:keyword% " +
-            "group by p.id " +
-            "order by sum(rs.totalScore) / sum(rs.count) desc",
-            countQuery = "select count(p.id) from Product p where p.name like %:keyword%")
-    Page<Product> findAllByNameSortByRateDesc(@Param("keyword") final String keyword, final Pageable pageable);
+            "and (p.price.value < :price or (p.price.value = :price and p.id < :id)) " +
+            "order by p.price.value desc, p.id desc")
+    Slice<ProductSummaryDto> findAllByNameAfterSortByPriceDesc(@Param("keyword") final String keyword,
+                                                               @Param("price") final Long price,
+                                                               @Param("id") final Long id,
+                                                               final Pageable pageable);
+
+    @Query("select new com.gugucon.shopping.item.repository.dto.ProductSummaryDto(" +
+            "p.id, p.name, p.imageFileName, p.stock.value, p.price.value) from Product p " +
+            "where p.name like %:keyword% " +
+            "and (p.price.value > :price or (p.price.value = :price and p.id > :id)) " +
+            "order by p.price.value asc, p.id asc")
+    Slice<ProductSummaryDto> findAllByNameAfterSortByPriceAsc(@Param("keyword") final String keyword,
+                                                              @Param("price") final Long price,
+                                                              @Param("id") final Long id,
+                                                              final Pageable pageable);
+
+    @Query("select new com.gugucon.shopping.item.repository.dto.ProductSummaryDto(" +
+            "p.id, p.name, p.imageFileName, p.stock.value, p.price.value) from Product p " +
+            "where p.id in :ids " +
+            "and (p.price.value < :price or (p.price.value = :price and p.id < :id)) " +
+            "order by p.price.value desc, p.id desc")
+    Slice<ProductSummaryDto> findAllByIdInAfterSortByPriceDesc(@Param("ids") final Collection<Long> ids,
+                                                               @Param("price") final Long price,
+                                                               @Param("id") final Long id,
+                                                               final Pageable pageable);
+
+    @Query("select new com.gugucon.shopping.item.repository.dto.ProductSummaryDto(" +
+            "p.id, p.name, p.imageFileName, p.stock.value, p.price.value) from Product p " +
+            "where p.id in :ids " +
+            "and (p.price.value > :price or (p.price.value = :price and p.id > :id)) " +
+            "order by p.price.value asc, p.id asc")
+    Slice<ProductSummaryDto> findAllByIdInAfterSortByPriceAsc(@Param("ids") final Collection<Long> ids,
+                                                              @Param("price") final Long price,
+                                                              @Param("id") final Long id,
+                                                              final Pageable pageable);
 
     @Query("UPDATE Product p " +
             "SET p.stock.value = p.stock.value + :value " +
@@ -49,30 +177,123 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Modifying
     void increaseStockByIdAndValue(@Param("id") final Long id, @Param("value") final Integer value);
 
-    @Query("SELECT p FROM Product p " +
+    @Query("SELECT new com.gugucon.shopping.item.repository.dto.ProductSummaryDto(" +
+            "p.id, p.name, p.imageFileName, p.stock.value, p.price.value) FROM Product p " +
             "LEFT JOIN OrderStat os ON p.id = os.productId " +
             "WHERE os.birthYearRange = :birthYearRange " +
             "AND os.gender = :gender " +
             "AND p.name LIKE %:keyword% " +
             "ORDER BY os.count DESC")
-    Page<Product> findAllByNameFilterWithBirthYearRangeAndGenderSortByOrderCountDesc(
+    Slice<ProductSummaryDto> findAllByNameFilterWithBirthYearRangeAndGenderSortByOrderCountDesc(
             @Param("keyword") final String keyword,
             @Param("birthYearRange") final BirthYearRange birthYearRange,
             @Param("gender") final Gender gender,
             final Pageable pageable);
 
-    @Query("SELECT p FROM Product p " +
+    @Query("SELECT new com.gugucon.shopping.item.repository.dto.ProductSummaryDto(" +
+            "p.id, p.name, p.imageFileName, p.stock.value, p.price.value) FROM Product p " +
             "LEFT JOIN RateStat rs ON p.id = rs.productId " +
             "WHERE rs.birthYearRange = :birthYearRange " +
             "AND rs.gender = :gender " +
             "AND p.name LIKE %:keyword% " +
-            "ORDER BY rs.totalScore / rs.count DESC")
-    Page<Product> findAllByNameFilterWithBirthYearRangeAndGenderSortByRateDesc(
+            "ORDER BY rs.averageScore DESC")
+    Slice<ProductSummaryDto> findAllByNameFilterWithBirthYearRangeAndGenderSortByRateDesc(
             @Param("keyword") final String keyword,
             @Param("birthYearRange") final BirthYearRange birthYearRange,
             @Param("gender") final Gender gender,
             final Pageable pageable);
 
+    @Query("SELECT p.id FROM Product p " +
+            "JOIN OrderStat os ON p.id = os.productId " +
+            "WHERE os.birthYearRange = :birthYearRange " +
+            "AND os.gender = :gender " +
+            "AND p.id IN :ids " +
+            "ORDER BY os.count DESC, p.id DESC")
+    List<Long> findAllIdsByIdInFilterWithBirthYearRangeAndGenderSortByOrderCountDesc(
+            @Param("ids") final Collection<Long> ids,
+            @Param("birthYearRange") final BirthYearRange birthYearRange,
+            @Param("gender") final Gender gender);
+
+    @Query("SELECT p.id FROM Product p " +
+            "JOIN RateStat rs ON p.id = rs.productId " +
+            "WHERE rs.birthYearRange = :birthYearRange " +
+            "AND rs.gender = :gender " +
+            "AND p.id IN :ids " +
+            "ORDER BY rs.averageScore DESC, p.id DESC")
+    List<Long> findAllIdsByIdInFilterWithBirthYearRangeAndGenderSortByRateDesc(
+            @Param("ids") final Collection<Long> ids,
+            @Param("birthYearRange") final BirthYearRange birthYearRange,
+            @Param("gender") final Gender gender);
+
+    @Query("select p.id from Product p where p.id in :ids and upper(p.name) like upper(concat('%', :name, '%'))")
+    List<Long> findAllIdsByIdInAndNameContainingIgnoreCase(@Param("ids") final List<Long> ids,
+                                                           @Param("name") final String name);
+
+    @Query("select count(p.id) from Product p where upper(p.name) like upper(concat('%', :keyword, '%'))")
+    long countByName(@Param("keyword") final String keyword);
+
+    @Query(value = "select count(*) from (" +
+            "select p.id from products p " +
+            "where upper(p.name) like upper(concat('%', :keyword, '%')) " +
+            "limit :limit) capped", nativeQuery = true)
+    long countByNameUpTo(@Param("keyword") final String keyword, @Param("limit") final long limit);
+
+    // 주문 수, 평점 순 검색과 같은 조건(대소문자 구분)으로 센다. 랭킹 행은 상품마다 하나뿐이라 조인하지 않아도 개수가 같다.
+    @Query("select count(p.id) from Product p where p.name like %:keyword%")
+    long countByNameCaseSensitive(@Param("keyword") final String keyword);
+
+    @Query(value = "select count(*) from (" +
+            "select p.id from products p " +
+            "where p.name like concat('%', :keyword, '%') " +
+            "limit :limit) capped", nativeQuery = true)
+    long countByNameCaseSensitiveUpTo(@Param("keyword") final String keyword, @Param("limit") final long limit);
+
+    @Query("SELECT count(p.id) FROM Product p " +
+            "LEFT JOIN OrderStat os ON p.id = os.productId " +
+            "WHERE os.birthYearRange = :birthYearRange " +
+            "AND os.gender = :gender " +
+            "AND p.name LIKE %:keyword%")
+    long countByNameFilterWithBirthYearRangeAndGenderOfOrderStats(
+            @Param("keyword") final String keyword,
+            @Param("birthYearRange") final BirthYearRange birthYearRange,
+            @Param("gender") final Gender gender);
+
+    @Query(value = "select count(*) from (" +
+            "select p.id from products p " +
+            "join order_stats os on p.id = os.product_id " +
+            "where os.birth_year_range = :birthYearRange " +
+            "and os.gender = :gender " +
+            "and p.name like concat('%', :keyword, '%') " +
+            "limit :limit) capped", nativeQuery = true)
+    long countByNameFilterWithBirthYearRangeAndGenderOfOrderStatsUpTo(
+            @Param("keyword") final String keyword,
+            @Param("birthYearRange") final String birthYearRange,
+            @Param("gender") final String gender,
+            @Param("limit") final long limit);
+
+    @Query("SELECT count(p.id) FROM Product p " +
+            "LEFT JOIN RateStat rs ON p.id = rs.productId " +
+            "WHERE rs.birthYearRange = :birthYearRange " +
+            "AND rs.gender = :gender " +
+            "AND p.name LIKE %:keyword%")
+    long countByNameFilterWithBirthYearRangeAndGenderOfRateStats(
+            @Param("keyword") final String keyword,
+            @Param("birthYearRange") final BirthYearRange birthYearRange,
+            @Param("gender") final Gender gender);
+
+    @Query(value = "select count(*) from (" +
+            "select p.id from products p " +
+            "join rate_stats rs on p.id = rs.product_id " +
+            "where rs.birth_year_range = :birthYearRange " +
+            "and rs.gender = :gender " +
+            "and p.name like concat('%', :keyword, '%') " +
+            "limit :limit) capped", nativeQuery = true)
+    long countByNameFilterWithBirthYearRangeAndGenderOfRateStatsUpTo(
+            @Param("keyword") final String keyword,
+            @Param("birthYearRange") final String birthYearRange,
+            @Param("gender") final String gender,
+            @Param("limit") final long limit);
+
     @Query(value = "select p.* from order_items oi "
             + "inner join products p on oi.product_id = p.id "
             + "where oi.order_id in ("
@@ -88,9 +309,41 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT new com.gugucon.shopping.item.repository.dto.ProductIdOrderIdPairDto(oi.productId, o.id) " +
             "FROM Order o " +
             "INNER JOIN o.orderItems oi " +
-            "WHERE o.status = 'COMPLETED'")
-    List<ProductIdOrderIdPairDto> findAllIdWithOrderId();
+            "WHERE o.status = 'COMPLETED' " +
+            "ORDER BY o.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<ProductIdOrderIdPairDto> streamAllIdWithOrderId();
+
+    @Query("SELECT new com.gugucon.shopping.item.repository.dto.ProductIdOrderIdPairDto(oi.productId, o.id) " +
+            "FROM Order o " +
+            "INNER JOIN o.orderItems oi " +
+            "WHERE o.status = 'COMPLETED' " +
+            "AND EXISTS (SELECT ro.id FROM Order ro INNER JOIN ro.orderItems roi " +
+            "WHERE ro.id = o.id AND roi.productId BETWEEN :fromProductId AND :toProductId) " +
+            "ORDER BY o.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<ProductIdOrderIdPairDto> streamAllIdWithOrderIdOfOrdersContaining(
+            @Param("fromProductId") final Long fromProductId,
+            @Param("toProductId") final Long toProductId);
 
     @Query("SELECT p.id FROM Product p")
     List<Long> findAllId();
+
+    @Query("SELECT MAX(p.id) FROM Product p")
+    Optional<Long> findMaxId();
+
+    @Query("SELECT new com.gugucon.shopping.item.repository.dto.ProductNameDto(p.id, p.name) FROM Product p")
+    List<ProductNameDto> findAllIdAndName();
+
+    @Query("SELECT new com.gugucon.shopping.item.repository.dto.ProductSuggestionDto(" +
+            "p.id, p.name, pr.orderCount) " +
+            "FROM ProductRank pr " +
+            "JOIN Product p ON p.id = pr.productId")
+    List<ProductSuggestionDto> findAllForSuggestion();
 }
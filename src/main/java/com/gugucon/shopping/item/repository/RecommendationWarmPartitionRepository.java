@@ -0,0 +1,47 @@
+package com.gugucon.shopping.item.repository;
+
+import com.gugucon.shopping.item.domain.entity.RecommendationWarmPartition;
+import com.gugucon.shopping.item.domain.entity.RecommendationWarmPartition.WarmStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface RecommendationWarmPartitionRepository extends JpaRepository<RecommendationWarmPartition, Long> {
+
+    boolean existsByRunKey(final String runKey);
+
+    List<RecommendationWarmPartition> findAllByRunKeyAndStatusNotOrderByPartitionNumber(final String runKey,
+                                                                                      final WarmStatus status);
+
+    // 여러 인스턴스가 같은 파티션을 동시에 가져가지 않도록, 아직 주인이 없거나 임대가 끝난 경우에만 갱신한다.
+    @Query("UPDATE RecommendationWarmPartition p " +
+            "SET p.status = 'RUNNING', p.owner = :owner, p.leaseExpiresAt = :leaseExpiresAt " +
+            "WHERE p.id = :id " +
+            "AND (p.status = 'PENDING' OR (p.status = 'RUNNING' AND p.leaseExpiresAt < :now))")
+    @Modifying
+    int claim(@Param("id") final Long id,
+              @Param("owner") final String owner,
+              @Param("now") final LocalDateTime now,
+              @Param("leaseExpiresAt") final LocalDateTime leaseExpiresAt);
+
+    @Query("UPDATE RecommendationWarmPartition p " +
+            "SET p.checkpointProductId = :checkpointProductId, p.productCount = :productCount, " +
+            "p.leaseExpiresAt = :leaseExpiresAt " +
+            "WHERE p.id = :id AND p.owner = :owner AND p.status = 'RUNNING'")
+    @Modifying
+    int checkpoint(@Param("id") final Long id,
+                   @Param("owner") final String owner,
+                   @Param("checkpointProductId") final Long checkpointProductId,
+                   @Param("productCount") final Long productCount,
+                   @Param("leaseExpiresAt") final LocalDateTime leaseExpiresAt);
+
+    @Query("UPDATE RecommendationWarmPartition p " +
+            "SET p.status = 'DONE', p.leaseExpiresAt = null " +
+            "WHERE p.id = :id AND p.owner = :owner AND p.status = 'RUNNING'")
+    @Modifying
+    int complete(@Param("id") final Long id, @Param("owner") final String owner);
+}
@@ -0,0 +1,13 @@
+package com.gugucon.shopping.item.repository.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@AllArgsConstructor
+@Getter
+public class CoPurchaseBackfillDto {
+    private LocalDateTime cutoff;
+    private boolean completed;
+}
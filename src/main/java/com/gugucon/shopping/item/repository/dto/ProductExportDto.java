@@ -0,0 +1,17 @@
+package com.gugucon.shopping.item.repository.dto;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public class ProductExportDto {
+    private Long id;
+    private String name;
+    private String description;
+    private String imageFileName;
+    private long price;
+    private int stock;
+    private LocalDateTime lastModifiedAt;
+}
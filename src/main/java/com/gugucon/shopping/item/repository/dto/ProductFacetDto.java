@@ -0,0 +1,12 @@
+package com.gugucon.shopping.item.repository.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public class ProductFacetDto {
+    private Long id;
+    private long price;
+    private int stock;
+}
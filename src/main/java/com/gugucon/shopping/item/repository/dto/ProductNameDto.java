@@ -0,0 +1,11 @@
+package com.gugucon.shopping.item.repository.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public class ProductNameDto {
+    private Long id;
+    private String name;
+}
@@ -0,0 +1,12 @@
+package com.gugucon.shopping.item.repository.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public class ProductSuggestionDto {
+    private Long id;
+    private String name;
+    private Long orderCount;
+}
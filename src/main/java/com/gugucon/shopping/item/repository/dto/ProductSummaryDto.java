@@ -0,0 +1,14 @@
+package com.gugucon.shopping.item.repository.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public class ProductSummaryDto {
+    private Long id;
+    private String name;
+    private String imageFileName;
+    private int stock;
+    private long price;
+}
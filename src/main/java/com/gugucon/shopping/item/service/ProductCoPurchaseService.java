@@ -0,0 +1,109 @@
+package com.gugucon.shopping.item.service;
+
+import com.gugucon.shopping.common.exception.ErrorCode;
+import com.gugucon.shopping.common.exception.ShoppingException;
+import com.gugucon.shopping.item.infrastructure.ProductCache;
+import com.gugucon.shopping.item.repository.ProductCoPurchaseCountRepository;
+import com.gugucon.shopping.item.repository.ProductCoPurchaseRepository;
+import com.gugucon.shopping.item.repository.dto.CoPurchaseBackfillDto;
+import com.gugucon.shopping.order.domain.entity.Order;
+import com.gugucon.shopping.order.domain.entity.OrderItem;
+import com.gugucon.shopping.order.domain.event.OrderCompleteEvent;
+import com.gugucon.shopping.order.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@Transactional
+@RequiredArgsConstructor
+@Slf4j
+public class ProductCoPurchaseService {
+
+    private static final Pageable RECOMMENDATION_PAGE = Pageable.ofSize(ProductCache.RECOMMENDATION_SIZE);
+
+    private static final Duration BACKFILL_GRACE = Duration.ofSeconds(1);
+
+    private final ProductCoPurchaseRepository productCoPurchaseRepository;
+    private final ProductCoPurchaseCountRepository productCoPurchaseCountRepository;
+    private final OrderRepository orderRepository;
+    private final ProductCache productCache;
+
+    /**
+     * 다음 정각 초를 기준 시각으로 정해 두고, 기준 시각 전에 완료된 주문이 모두 커밋될 때까지 기다린 뒤 그 주문들로 횟수를 채운다.
+     * 기준 시각 뒤에 완료된 주문은 주문 완료 이벤트가 더한다.
+     */
+    @Async("threadPoolTaskExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void initializeIfEmpty() {
+        productCoPurchaseCountRepository.createBackfillIfAbsent(
+                LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusSeconds(1));
+        final CoPurchaseBackfillDto backfill = productCoPurchaseCountRepository.findBackfill()
+                .orElseThrow(() -> new ShoppingException(ErrorCode.UNKNOWN_ERROR));
+        if (backfill.isCompleted()) {
+            return;
+        }
+        final Duration wait = Duration.between(LocalDateTime.now(), backfill.getCutoff().plus(BACKFILL_GRACE));
+        try {
+            if (!wait.isNegative()) {
+                Thread.sleep(wait.toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("product co-purchase initialization interrupted");
+            return;
+        }
+        final long start = System.currentTimeMillis();
+        final int pairCount = productCoPurchaseCountRepository.backfill();
+        log.info("product co-purchases initialized, pairs : {}, total elapsed time : {} ms",
+                 pairCount, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 완료된 주문에 함께 담긴 상품 쌍의 구매 횟수를 올리고, 주문에 포함된 상품의 추천 목록만 다시 계산해 캐시에 넣는다.
+     * 동시에 완료된 주문끼리 교착 상태에 빠지지 않도록 상품 id 오름차순으로 갱신한다.
+     * 채우는 작업의 기준 시각 전에 완료된 주문은 채우는 작업이 세며, 채우기를 마치기 전에는 추천 목록을 캐시에 넣지 않는다.
+     */
+    @Async("threadPoolTaskExecutor")
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @TransactionalEventListener
+    public void handle(final OrderCompleteEvent orderCompleteEvent) {
+        final Order order = orderRepository.findByIdWithOrderItems(orderCompleteEvent.getOrderId())
+                .orElseThrow(() -> new ShoppingException(ErrorCode.UNKNOWN_ERROR));
+        final List<Long> productIds = order.getOrderItems().stream()
+                .map(OrderItem::getProductId)
+                .distinct()
+                .sorted()
+                .toList();
+
+        final Optional<CoPurchaseBackfillDto> backfill = productCoPurchaseCountRepository.findBackfill();
+        if (backfill.isEmpty()) {
+            return;
+        }
+        if (!order.getLastModifiedAt().isBefore(backfill.get().getCutoff())) {
+            productCoPurchaseCountRepository.increaseCounts(productIds);
+        }
+        if (backfill.get().isCompleted()) {
+            productIds.forEach(productId -> productCache.setRecommendationIds(productId,
+                                                                               findRecommendationIds(productId)));
+        }
+    }
+
+    private List<Long> findRecommendationIds(final Long productId) {
+        return productCoPurchaseRepository.findTopCoProductIds(productId, RECOMMENDATION_PAGE);
+    }
+}
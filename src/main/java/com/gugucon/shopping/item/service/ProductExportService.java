@@ -0,0 +1,70 @@
+package com.gugucon.shopping.item.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gugucon.shopping.item.repository.ProductExportRepository;
+import com.gugucon.shopping.item.repository.dto.ProductExportDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+@Service
+@Slf4j
+public class ProductExportService {
+
+    private static final char LINE_SEPARATOR = '\n';
+
+    private final ProductExportRepository productExportRepository;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    public ProductExportService(final ProductExportRepository productExportRepository,
+                                final ObjectMapper objectMapper,
+                                @Value("${product.export.batch-size:1000}") final int batchSize) {
+        this.productExportRepository = productExportRepository;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * afterId 이후의 상품을 id 오름차순으로 한 줄에 하나씩 JSON 으로 outputStream 에 쓴다.
+     * 배치마다 id 기준 keyset 조회를 하고 그 결과를 곧바로 스트림에 흘려보내므로, 전송 도중 끊기더라도
+     * 마지막으로 받은 id 를 afterId 로 넘겨 이어받을 수 있다.
+     */
+    public void export(final long afterId, final OutputStream outputStream) throws IOException {
+        final long start = System.currentTimeMillis();
+        long exportedCount = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            final int[] batchCount = new int[1];
+            long lastId = afterId;
+            do {
+                batchCount[0] = 0;
+                lastId = productExportRepository.forEachAfter(lastId, batchSize, product -> {
+                    write(generator, product);
+                    batchCount[0]++;
+                });
+                generator.flush();
+                exportedCount += batchCount[0];
+            } while (batchCount[0] == batchSize);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        log.info("product export finished, after id : {}, exported : {}, total elapsed time : {} ms",
+                 afterId, exportedCount, System.currentTimeMillis() - start);
+    }
+
+    private void write(final JsonGenerator generator, final ProductExportDto product) {
+        try {
+            generator.writeObject(product);
+            generator.writeRaw(LINE_SEPARATOR);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
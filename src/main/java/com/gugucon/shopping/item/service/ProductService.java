@@ -1,5 +1,8 @@
 package com.gugucon.shopping.item.service;
 
+import com.gugucon.shopping.common.dto.response.CappedPagedResponse;
+import com.gugucon.shopping.common.dto.response.CursorSlicedResponse;
+import com.gugucon.shopping.common.dto.response.FacetedPagedResponse;
 import com.gugucon.shopping.common.dto.response.PagedResponse;
 import com.gugucon.shopping.common.dto.response.SlicedResponse;
 import com.gugucon.shopping.common.exception.ErrorCode;
@@ -8,22 +11,38 @@ import com.gugucon.shopping.item.domain.entity.Product;
 import com.gugucon.shopping.item.dto.response.ProductDetailResponse;
 import com.gugucon.shopping.item.dto.response.ProductIds;
 import com.gugucon.shopping.item.dto.response.ProductResponse;
+import com.gugucon.shopping.item.dto.response.ProductSuggestionResponse;
 import com.gugucon.shopping.item.infrastructure.ProductCache;
+import com.gugucon.shopping.item.infrastructure.ProductCursor;
+import com.gugucon.shopping.item.infrastructure.ProductFacetStore;
+import com.gugucon.shopping.item.infrastructure.ProductNameIndex;
+import com.gugucon.shopping.item.infrastructure.ProductSuggester;
+import com.gugucon.shopping.item.infrastructure.ProductSummaryCache;
 import com.gugucon.shopping.item.infrastructure.SearchCondition;
+import com.gugucon.shopping.item.infrastructure.SearchResultCache;
+import com.gugucon.shopping.item.infrastructure.SearchTotal;
+import com.gugucon.shopping.item.infrastructure.SearchTotalCounter;
+import com.gugucon.shopping.item.infrastructure.SortKeyUtils;
 import com.gugucon.shopping.item.repository.ProductRepository;
+import com.gugucon.shopping.item.repository.dto.ProductSummaryDto;
+import com.gugucon.shopping.stat.infrastructure.CohortStatCube;
+import com.gugucon.shopping.stat.infrastructure.TrendingStatWindow;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -33,22 +52,166 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ProductService {
 
+    private static final int MAX_CANDIDATE_SIZE = 10_000;
+    private static final int ID_FILTER_CHUNK_SIZE = 1_000;
+
     private final ProductRepository productRepository;
     private final ProductCache productCache;
+    private final ProductNameIndex productNameIndex;
+    private final SearchResultCache searchResultCache;
+    private final SearchTotalCounter searchTotalCounter;
+    private final ProductSuggester productSuggester;
+    private final CohortStatCube cohortStatCube;
+    private final TrendingStatWindow trendingStatWindow;
+    private final ProductFacetStore productFacetStore;
+    private final ProductSummaryCache productSummaryCache;
 
     public PagedResponse<ProductResponse> readAllProducts(final Pageable pageable) {
-        final Page<Product> products = productRepository.findAll(pageable);
+        final Page<ProductSummaryDto> products = productRepository.findAllSummaries(pageable);
         return convertToPage(products);
     }
 
+    public CursorSlicedResponse<ProductResponse> scrollProducts(final String cursor, final Pageable pageable) {
+        final ProductCursor productCursor = ProductCursor.of(SortKeyUtils.map(pageable.getSort()), cursor);
+        final Pageable sizeOnly = Pageable.ofSize(pageable.getPageSize());
+
+        if (productCursor.isSortedById()) {
+            return convertToCursorSlice(
+                    productRepository.findAllByIdLessThanOrderByIdDesc(productCursor.getLastId(), sizeOnly),
+                    productCursor);
+        }
+        if (productCursor.isSortedByPriceDesc()) {
+            return convertToCursorSlice(productRepository.findAllAfterSortByPriceDesc(productCursor.getLastPrice(),
+                                                                                      productCursor.getLastId(),
+                                                                                      sizeOnly),
+                                        productCursor);
+        }
+        return convertToCursorSlice(productRepository.findAllAfterSortByPriceAsc(productCursor.getLastPrice(),
+                                                                                 productCursor.getLastId(),
+                                                                                 sizeOnly),
+                                    productCursor);
+    }
+
+    public CursorSlicedResponse<ProductResponse> scrollSearchedProducts(final String keyword,
+                                                                        final String cursor,
+                                                                        final Pageable pageable) {
+        if (keyword.isBlank()) {
+            throw new ShoppingException(ErrorCode.EMPTY_INPUT);
+        }
+        final ProductCursor productCursor = ProductCursor.of(SortKeyUtils.map(pageable.getSort()), cursor);
+        final Pageable sizeOnly = Pageable.ofSize(pageable.getPageSize());
+
+        final Optional<List<Long>> candidateIds = productNameIndex.findCandidateIds(keyword);
+        if (candidateIds.isPresent() && canScrollAmong(candidateIds.get(), productCursor)) {
+            return convertToCursorSlice(scrollAmong(candidateIds.get(), productCursor, sizeOnly), productCursor);
+        }
+        return convertToCursorSlice(scrollByName(keyword, productCursor, sizeOnly), productCursor);
+    }
+
+    private boolean canScrollAmong(final List<Long> candidateIds, final ProductCursor productCursor) {
+        return productCursor.isSortedById() || candidateIds.size() <= MAX_CANDIDATE_SIZE;
+    }
+
+    private Slice<ProductSummaryDto> scrollAmong(final List<Long> idsSortedByIdDesc,
+                                                 final ProductCursor productCursor,
+                                                 final Pageable sizeOnly) {
+        if (idsSortedByIdDesc.isEmpty()) {
+            return new SliceImpl<>(Collections.emptyList(), sizeOnly, false);
+        }
+        if (productCursor.isSortedById()) {
+            final int fromIndex = findFirstIndexBelow(idsSortedByIdDesc, productCursor.getLastId());
+            final int toIndex = fromIndex + sizeOnly.getPageSize();
+            final List<Long> pagedIds = page(idsSortedByIdDesc, fromIndex, toIndex);
+            final List<ProductSummaryDto> pagedProducts = sort(productRepository.findAllSummariesByIdIn(pagedIds),
+                                                               pagedIds,
+                                                               ProductSummaryDto::getId);
+            return new SliceImpl<>(pagedProducts, sizeOnly, toIndex < idsSortedByIdDesc.size());
+        }
+        if (productCursor.isSortedByPriceDesc()) {
+            return productRepository.findAllByIdInAfterSortByPriceDesc(idsSortedByIdDesc,
+                                                                       productCursor.getLastPrice(),
+                                                                       productCursor.getLastId(),
+                                                                       sizeOnly);
+        }
+        return productRepository.findAllByIdInAfterSortByPriceAsc(idsSortedByIdDesc,
+                                                                  productCursor.getLastPrice(),
+                                                                  productCursor.getLastId(),
+                                                                  sizeOnly);
+    }
+
+    private Slice<ProductSummaryDto> scrollByName(final String keyword,
+                                                  final ProductCursor productCursor,
+                                                  final Pageable sizeOnly) {
+        if (productCursor.isSortedById()) {
+            return productRepository.findAllByNameAfterSortByIdDesc(keyword, productCursor.getLastId(), sizeOnly);
+        }
+        if (productCursor.isSortedByPriceDesc()) {
+            return productRepository.findAllByNameAfterSortByPriceDesc(keyword,
+                                                                       productCursor.getLastPrice(),
+                                                                       productCursor.getLastId(),
+                                                                       sizeOnly);
+        }
+        return productRepository.findAllByNameAfterSortByPriceAsc(keyword,
+                                                                  productCursor.getLastPrice(),
+                                                                  productCursor.getLastId(),
+                                                                  sizeOnly);
+    }
+
+    private int findFirstIndexBelow(final List<Long> idsSortedByIdDesc, final long lastId) {
+        int low = 0;
+        int high = idsSortedByIdDesc.size();
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (idsSortedByIdDesc.get(mid) < lastId) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private CursorSlicedResponse<ProductResponse> convertToCursorSlice(final Slice<ProductSummaryDto> products,
+                                                                       final ProductCursor productCursor) {
+        final List<ProductSummaryDto> contents = products.getContent();
+        final String nextCursor = products.hasNext() && !contents.isEmpty()
+                ? ProductCursor.next(productCursor.getSortKey(), contents.get(contents.size() - 1)).encode()
+                : null;
+        return new CursorSlicedResponse<>(contents.stream().map(ProductResponse::from).toList(),
+                                          products.hasNext(),
+                                          nextCursor,
+                                          products.getSize());
+    }
+
     public PagedResponse<ProductResponse> searchProducts(final SearchCondition searchCondition) {
         searchCondition.validateSort();
         searchCondition.validateKeywordNotBlank();
 
-        return convertToPage(searchProductsByCondition(searchCondition));
+        return searchResultCache.get(searchCondition, () -> searchProductsByCondition(searchCondition));
     }
 
-    private Page<Product> searchProductsByCondition(final SearchCondition searchCondition) {
+    private PagedResponse<ProductResponse> searchProductsByCondition(final SearchCondition searchCondition) {
+        final Optional<List<Long>> candidateIds = productNameIndex.findCandidateIds(searchCondition.getKeyword());
+        if (candidateIds.isPresent() && canSearchAmong(candidateIds.get(), searchCondition)) {
+            return searchProductsAmong(candidateIds.get(), searchCondition);
+        }
+
+        if (searchCondition.isSortedByTrending()) {
+            return convertToCappedPage(searchProductsSortByTrending(searchCondition), false);
+        }
+
+        final Pageable pageable = searchCondition.getPageable();
+        final Slice<ProductSummaryDto> products = searchProductsByName(searchCondition);
+        if (!products.hasNext()) {
+            final long total = pageable.getOffset() + products.getNumberOfElements();
+            return convertToCappedPage(new PageImpl<>(products.getContent(), pageable, total), false);
+        }
+        final SearchTotal total = searchTotalCounter.count(searchCondition);
+        return convertToCappedPage(new PageImpl<>(products.getContent(), pageable, total.getCount()),
+                                   total.isCapped());
+    }
+
+    private Slice<ProductSummaryDto> searchProductsByName(final SearchCondition searchCondition) {
         if (searchCondition.isSortedByRate()) {
             return searchProductsSortByRate(searchCondition);
         }
@@ -58,12 +221,107 @@ public class ProductService {
         return searchProductsSortBy(searchCondition);
     }
 
-    private Page<Product> searchProductsSortBy(final SearchCondition searchCondition) {
+    // 최근 주문 통계는 메모리에서 바로 찾으므로 후보가 많아도 후보 안에서 정렬한다.
+    private boolean canSearchAmong(final List<Long> candidateIds, final SearchCondition searchCondition) {
+        return searchCondition.isSortedById()
+                || searchCondition.isSortedByTrending()
+                || candidateIds.size() <= MAX_CANDIDATE_SIZE;
+    }
+
+    // facet 은 연령대, 성별이나 최근 주문으로 걸러진 뒤 남은 상품으로 센다.
+    private PagedResponse<ProductResponse> searchProductsAmong(final List<Long> candidateIds,
+                                                               final SearchCondition searchCondition) {
+        if (candidateIds.isEmpty()) {
+            return convertToFacetedPage(Page.empty(searchCondition.getPageable()), candidateIds);
+        }
+        if (searchCondition.isSortedById()) {
+            return convertToFacetedPage(pageByOrderedIds(candidateIds, searchCondition.getPageable()), candidateIds);
+        }
+        if (isFilteredAmong(searchCondition)) {
+            final List<Long> filteredIds = filterAmong(candidateIds, searchCondition);
+            return convertToFacetedPage(pageByOrderedIds(filteredIds, createPageable(searchCondition.getPageable())),
+                                        filteredIds);
+        }
+        final Pageable newPageable = createPageable(searchCondition.getPageable());
+        if (searchCondition.isSortedByRate()) {
+            return convertToFacetedPage(productRepository.findAllByIdInSortByRateDesc(candidateIds, newPageable),
+                                        candidateIds);
+        }
+        if (searchCondition.isSortedByOrderCount()) {
+            return convertToFacetedPage(productRepository.findAllByIdInSortByOrderCountDesc(candidateIds, newPageable),
+                                        candidateIds);
+        }
+        return convertToFacetedPage(productRepository.findAllByIdIn(candidateIds, searchCondition.getPageable()),
+                                    candidateIds);
+    }
+
+    private boolean isFilteredAmong(final SearchCondition searchCondition) {
+        return searchCondition.isSortedByTrending()
+                || (searchCondition.hasValidFilters()
+                && (searchCondition.isSortedByRate() || searchCondition.isSortedByOrderCount()));
+    }
+
+    private List<Long> filterAmong(final List<Long> candidateIds, final SearchCondition searchCondition) {
+        if (searchCondition.isSortedByTrending()) {
+            return sortAmongByTrending(candidateIds, searchCondition);
+        }
+        if (searchCondition.isSortedByRate()) {
+            return filterAmongSortByRate(candidateIds, searchCondition);
+        }
+        return filterAmongSortByOrderCount(candidateIds, searchCondition);
+    }
+
+    private Page<ProductSummaryDto> pageByOrderedIds(final List<Long> orderedIds, final Pageable pageable) {
+        final int fromIndex = (int) pageable.getOffset();
+        final int toIndex = fromIndex + pageable.getPageSize();
+        final List<Long> pagedIds = page(orderedIds, fromIndex, toIndex);
+        final List<ProductSummaryDto> pagedProducts = sort(productRepository.findAllSummariesByIdIn(pagedIds),
+                                                           pagedIds,
+                                                           ProductSummaryDto::getId);
+        return new PageImpl<>(pagedProducts, pageable, orderedIds.size());
+    }
+
+    private List<Long> filterAmongSortByOrderCount(final List<Long> candidateIds,
+                                                   final SearchCondition searchCondition) {
+        if (cohortStatCube.isReady()) {
+            return cohortStatCube.sortByOrderCount(candidateIds,
+                                                   searchCondition.getBirthYearRange(),
+                                                   searchCondition.getGender());
+        }
+        return productRepository.findAllIdsByIdInFilterWithBirthYearRangeAndGenderSortByOrderCountDesc(
+                candidateIds,
+                searchCondition.getBirthYearRange(),
+                searchCondition.getGender()
+        );
+    }
+
+    private List<Long> filterAmongSortByRate(final List<Long> candidateIds, final SearchCondition searchCondition) {
+        if (cohortStatCube.isReady()) {
+            return cohortStatCube.sortByRate(candidateIds,
+                                             searchCondition.getBirthYearRange(),
+                                             searchCondition.getGender());
+        }
+        return productRepository.findAllIdsByIdInFilterWithBirthYearRangeAndGenderSortByRateDesc(
+                candidateIds,
+                searchCondition.getBirthYearRange(),
+                searchCondition.getGender()
+        );
+    }
+
+    private List<Long> sortAmongByTrending(final List<Long> candidateIds, final SearchCondition searchCondition) {
+        return searchCondition.hasValidFilters()
+                ? trendingStatWindow.sortByTrending(candidateIds,
+                                                    searchCondition.getBirthYearRange(),
+                                                    searchCondition.getGender())
+                : trendingStatWindow.sortByTrending(candidateIds);
+    }
+
+    private Slice<ProductSummaryDto> searchProductsSortBy(final SearchCondition searchCondition) {
         return productRepository.findAllByNameContainingIgnoreCase(searchCondition.getKeyword(),
                                                                    searchCondition.getPageable());
     }
 
-    private Page<Product> searchProductsSortByOrderCount(final SearchCondition searchCondition) {
+    private Slice<ProductSummaryDto> searchProductsSortByOrderCount(final SearchCondition searchCondition) {
         final Pageable newPageable = createPageable(searchCondition.getPageable());
         if (searchCondition.hasValidFilters()) {
             return productRepository.findAllByNameFilterWithBirthYearRangeAndGenderSortByOrderCountDesc(
@@ -76,7 +334,23 @@ public class ProductService {
         return productRepository.findAllByNameSortByOrderCountDesc(searchCondition.getKeyword(), newPageable);
     }
 
-    private Page<Product> searchProductsSortByRate(final SearchCondition searchCondition) {
+    // 이름 색인을 쓸 수 없으면 최근 7일 동안 주문이 있는 상품 중 이름이 일치하는 상품을 후보로 삼는다.
+    private Page<ProductSummaryDto> searchProductsSortByTrending(final SearchCondition searchCondition) {
+        final List<Long> orderedIds = searchCondition.hasValidFilters()
+                ? trendingStatWindow.findOrderedProductIds(searchCondition.getBirthYearRange(),
+                                                           searchCondition.getGender())
+                : trendingStatWindow.findOrderedProductIds();
+        final List<Long> candidateIds = new ArrayList<>();
+        for (int from = 0; from < orderedIds.size(); from += ID_FILTER_CHUNK_SIZE) {
+            candidateIds.addAll(productRepository.findAllIdsByIdInAndNameContainingIgnoreCase(
+                    orderedIds.subList(from, Math.min(from + ID_FILTER_CHUNK_SIZE, orderedIds.size())),
+                    searchCondition.getKeyword()));
+        }
+        return pageByOrderedIds(sortAmongByTrending(candidateIds, searchCondition),
+                                createPageable(searchCondition.getPageable()));
+    }
+
+    private Slice<ProductSummaryDto> searchProductsSortByRate(final SearchCondition searchCondition) {
         final Pageable newPageable = createPageable(searchCondition.getPageable());
         if (searchCondition.hasValidFilters()) {
             return productRepository.findAllByNameFilterWithBirthYearRangeAndGenderSortByRateDesc(
@@ -94,11 +368,42 @@ public class ProductService {
                 .withPage(pageable.getPageNumber());
     }
 
-    private PagedResponse<ProductResponse> convertToPage(final Page<Product> products) {
+    private PagedResponse<ProductResponse> convertToPage(final Page<ProductSummaryDto> products) {
         final List<ProductResponse> contents = products.map(ProductResponse::from).toList();
         return new PagedResponse<>(contents, products.getTotalPages(), products.getNumber(), products.getSize());
     }
 
+    private PagedResponse<ProductResponse> convertToCappedPage(final Page<ProductSummaryDto> products,
+                                                               final boolean hasMorePages) {
+        final List<ProductResponse> contents = products.map(ProductResponse::from).toList();
+        return new CappedPagedResponse<>(contents,
+                                         products.getTotalPages(),
+                                         products.getNumber(),
+                                         products.getSize(),
+                                         hasMorePages);
+    }
+
+    private PagedResponse<ProductResponse> convertToFacetedPage(final Page<ProductSummaryDto> products,
+                                                                final List<Long> candidateIds) {
+        if (!productFacetStore.isReady()) {
+            return convertToCappedPage(products, false);
+        }
+        final List<ProductResponse> contents = products.map(ProductResponse::from).toList();
+        return new FacetedPagedResponse<>(contents,
+                                          products.getTotalPages(),
+                                          products.getNumber(),
+                                          products.getSize(),
+                                          false,
+                                          productFacetStore.count(candidateIds));
+    }
+
+    public List<ProductSuggestionResponse> suggestProducts(final String keyword, final int size) {
+        if (size < 1) {
+            throw new ShoppingException(ErrorCode.INVALID_SIZE);
+        }
+        return productSuggester.suggest(keyword, size);
+    }
+
     public ProductDetailResponse getProductDetail(final Long productId) {
         final Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new ShoppingException(ErrorCode.INVALID_PRODUCT));
@@ -114,21 +419,36 @@ public class ProductService {
 
     public SlicedResponse<ProductDetailResponse> getRecommendationsViaCache(final Long productId,
                                                                             final Pageable pageable) {
-        validateProductExistence(productId);
+        if (findSummaries(List.of(productId)).isEmpty()) {
+            throw new ShoppingException(ErrorCode.INVALID_PRODUCT);
+        }
         final ProductIds productIds = productCache.getRecommendationIds(productId);
         final List<Long> allRecommendationIds = productIds.getContents();
         final int fromIndex = (int) pageable.getOffset();
         final int toIndex = fromIndex + pageable.getPageSize();
         final List<Long> pagedIds = page(allRecommendationIds, fromIndex, toIndex);
-        final List<Product> pagedRecommendation = sort(productRepository.findAllById(pagedIds), pagedIds);
+        final Map<Long, ProductDetailResponse> summaries = findSummaries(pagedIds);
+        final List<ProductDetailResponse> contents = pagedIds.stream()
+                .map(summaries::get)
+                .filter(Objects::nonNull)
+                .toList();
         final boolean hasNext = toIndex < allRecommendationIds.size();
 
-        return convertToSlice(new SliceImpl<>(pagedRecommendation, pageable, hasNext));
+        return new SlicedResponse<>(contents, hasNext, pageable.getPageNumber(), pageable.getPageSize());
+    }
+
+    private Map<Long, ProductDetailResponse> findSummaries(final List<Long> productIds) {
+        return productSummaryCache.getAll(productIds, missingIds -> productRepository
+                .findAllById(List.copyOf(missingIds))
+                .stream()
+                .collect(Collectors.toMap(Product::getId, ProductDetailResponse::from)));
     }
 
-    private List<Product> sort(final List<Product> unorderedProducts, final List<Long> orderedProductIds) {
-        final Map<Long, Product> idToProduct = unorderedProducts.stream()
-                .collect(Collectors.toMap(Product::getId, Function.identity()));
+    private <T> List<T> sort(final List<T> unorderedProducts,
+                             final List<Long> orderedProductIds,
+                             final Function<T, Long> idExtractor) {
+        final Map<Long, T> idToProduct = unorderedProducts.stream()
+                .collect(Collectors.toMap(idExtractor, Function.identity()));
 
         return orderedProductIds.stream()
                 .map(idToProduct::get)
@@ -6,6 +6,7 @@ import com.gugucon.shopping.common.exception.ErrorCode;
 import com.gugucon.shopping.common.exception.ShoppingException;
 import com.gugucon.shopping.item.domain.entity.CartItem;
 import com.gugucon.shopping.item.domain.entity.Product;
+import com.gugucon.shopping.item.domain.event.ProductStockChangeEvent;
 import com.gugucon.shopping.item.repository.CartItemRepository;
 import com.gugucon.shopping.item.repository.ProductRepository;
 import com.gugucon.shopping.order.domain.entity.Order;
@@ -88,6 +89,7 @@ public class OrderService {
                 .forEach(orderItem -> productRepository.increaseStockByIdAndValue(orderItem.getProductId(),
                         orderItem.getQuantity().getValue()));
         order.cancel();
+        eventPublisher.publishEvent(ProductStockChangeEvent.from(order));
     }
 
     @Transactional
@@ -102,6 +104,7 @@ public class OrderService {
 
         order.startPay(orderPayRequest.getPayType());
         decreaseStock(order);
+        eventPublisher.publishEvent(ProductStockChangeEvent.from(order));
         return OrderPayResponse.from(order);
     }
 
@@ -5,7 +5,12 @@ import com.gugucon.shopping.member.domain.vo.BirthYearRange;
 import com.gugucon.shopping.member.domain.vo.Gender;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
+import com.gugucon.shopping.stat.domain.event.OrderStatSaveEvent;
 import lombok.*;
+import org.springframework.data.domain.DomainEvents;
+
+import java.util.Collection;
+import java.util.List;
 
 @Entity
 @Table(name = "order_stats")
@@ -32,4 +37,9 @@ public class OrderStat extends BaseTimeEntity {
 
     @NotNull
     private Long count;
+
+    @DomainEvents
+    protected Collection<Object> domainEvents() {
+        return List.of(OrderStatSaveEvent.from(this));
+    }
 }
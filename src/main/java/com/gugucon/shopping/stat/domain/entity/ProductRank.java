@@ -0,0 +1,41 @@
+package com.gugucon.shopping.stat.domain.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+@Entity
+@Table(name = "product_ranks")
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Builder
+@Getter
+public class ProductRank {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    private Long productId;
+
+    @NotNull
+    private Long orderCount;
+
+    @NotNull
+    private Long totalScore;
+
+    @NotNull
+    private Long rateCount;
+
+    private Double averageScore;
+
+    public static ProductRank from(final Long productId) {
+        return ProductRank.builder()
+                .productId(productId)
+                .orderCount(0L)
+                .totalScore(0L)
+                .rateCount(0L)
+                .build();
+    }
+}
@@ -5,7 +5,12 @@ import com.gugucon.shopping.member.domain.vo.BirthYearRange;
 import com.gugucon.shopping.member.domain.vo.Gender;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
+import com.gugucon.shopping.stat.domain.event.RateStatSaveEvent;
 import lombok.*;
+import org.springframework.data.domain.DomainEvents;
+
+import java.util.Collection;
+import java.util.List;
 
 @Entity
 @Table(name = "rate_stats")
@@ -35,4 +40,11 @@ public class RateStat extends BaseTimeEntity {
 
     @NotNull
     private Long count;
+
+    private Double averageScore;
+
+    @DomainEvents
+    protected Collection<Object> domainEvents() {
+        return List.of(RateStatSaveEvent.from(this));
+    }
 }
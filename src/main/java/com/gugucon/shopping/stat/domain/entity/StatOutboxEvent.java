@@ -0,0 +1,76 @@
+package com.gugucon.shopping.stat.domain.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 통계에 반영할 주문 완료, 별점 생성 이벤트. 이벤트를 발생시킨 트랜잭션에서 함께 저장하고, 통계에 반영한 트랜잭션에서 지운다.
+ * 인스턴스는 이벤트를 임대한 뒤에만 통계에 넘기며, 반영에 계속 실패한 이벤트는 dead letter 로 남겨 더 이상 읽지 않는다.
+ */
+@Entity
+@Table(name = "stat_outbox_events")
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Builder
+@Getter
+public class StatOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @NotNull
+    private EventType eventType;
+
+    @NotNull
+    private Long aggregateId;
+
+    private Long memberId;
+
+    @NotNull
+    private LocalDateTime createdAt;
+
+    private String owner;
+
+    private LocalDateTime leaseExpiresAt;
+
+    @NotNull
+    private Integer attempts;
+
+    private LocalDateTime deadLetteredAt;
+
+    public static StatOutboxEvent orderCompleted(final Long orderId) {
+        return StatOutboxEvent.builder()
+                .eventType(EventType.ORDER_COMPLETE)
+                .aggregateId(orderId)
+                .createdAt(LocalDateTime.now())
+                .attempts(0)
+                .build();
+    }
+
+    public static StatOutboxEvent rateCreated(final Long rateId, final Long memberId) {
+        return StatOutboxEvent.builder()
+                .eventType(EventType.RATE_CREATE)
+                .aggregateId(rateId)
+                .memberId(memberId)
+                .createdAt(LocalDateTime.now())
+                .attempts(0)
+                .build();
+    }
+
+    public enum EventType {ORDER_COMPLETE, RATE_CREATE}
+}
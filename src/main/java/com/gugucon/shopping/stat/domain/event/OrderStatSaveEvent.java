@@ -0,0 +1,25 @@
+package com.gugucon.shopping.stat.domain.event;
+
+import com.gugucon.shopping.member.domain.vo.BirthYearRange;
+import com.gugucon.shopping.member.domain.vo.Gender;
+import com.gugucon.shopping.stat.domain.entity.OrderStat;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Getter
+public class OrderStatSaveEvent {
+
+    private Long productId;
+    private BirthYearRange birthYearRange;
+    private Gender gender;
+    private Long count;
+
+    public static OrderStatSaveEvent from(final OrderStat orderStat) {
+        return new OrderStatSaveEvent(orderStat.getProductId(),
+                                      orderStat.getBirthYearRange(),
+                                      orderStat.getGender(),
+                                      orderStat.getCount());
+    }
+}
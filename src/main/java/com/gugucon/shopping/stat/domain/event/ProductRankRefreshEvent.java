@@ -0,0 +1,16 @@
+package com.gugucon.shopping.stat.domain.event;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Getter
+public class ProductRankRefreshEvent {
+
+    private int rankCount;
+
+    public static ProductRankRefreshEvent from(final int rankCount) {
+        return new ProductRankRefreshEvent(rankCount);
+    }
+}
@@ -0,0 +1,27 @@
+package com.gugucon.shopping.stat.domain.event;
+
+import com.gugucon.shopping.member.domain.vo.BirthYearRange;
+import com.gugucon.shopping.member.domain.vo.Gender;
+import com.gugucon.shopping.stat.domain.entity.RateStat;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Getter
+public class RateStatSaveEvent {
+
+    private Long productId;
+    private BirthYearRange birthYearRange;
+    private Gender gender;
+    private Long totalScore;
+    private Long count;
+
+    public static RateStatSaveEvent from(final RateStat rateStat) {
+        return new RateStatSaveEvent(rateStat.getProductId(),
+                                     rateStat.getBirthYearRange(),
+                                     rateStat.getGender(),
+                                     rateStat.getTotalScore(),
+                                     rateStat.getCount());
+    }
+}
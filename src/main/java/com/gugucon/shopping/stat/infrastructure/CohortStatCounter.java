@@ -0,0 +1,128 @@
+package com.gugucon.shopping.stat.infrastructure;
+
+import com.gugucon.shopping.member.domain.vo.BirthYearRange;
+import com.gugucon.shopping.member.domain.vo.Gender;
+import com.gugucon.shopping.stat.repository.dto.CohortOrderStatDto;
+import com.gugucon.shopping.stat.repository.dto.CohortRateStatDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * (상품, 연령대, 성별) 별 주문 수와 평점 합계를 모으는 카운터. 여러 스레드가 잠금 없이 동시에 더할 수 있다.
+ */
+final class CohortStatCounter {
+
+    private final Map<CohortKey, LongAdder> orderCounts = new ConcurrentHashMap<>();
+    private final Map<CohortKey, RateAdder> rateSums = new ConcurrentHashMap<>();
+
+    void addOrderCount(final long productId,
+                       final BirthYearRange birthYearRange,
+                       final Gender gender,
+                       final long count) {
+        orderCounts.computeIfAbsent(CohortKey.of(productId, birthYearRange, gender), key -> new LongAdder())
+                .add(count);
+    }
+
+    void addScore(final long productId,
+                  final BirthYearRange birthYearRange,
+                  final Gender gender,
+                  final long totalScore,
+                  final long count) {
+        final RateAdder adder = rateSums.computeIfAbsent(CohortKey.of(productId, birthYearRange, gender),
+                                                         key -> new RateAdder());
+        adder.totalScore.add(totalScore);
+        adder.count.add(count);
+    }
+
+    // 카운터는 지우지 않고 0 으로 되돌려, 자주 바뀌는 키의 카운터를 다시 만들지 않는다.
+    List<CohortOrderStatDto> drainOrderCounts() {
+        final List<CohortOrderStatDto> deltas = new ArrayList<>();
+        orderCounts.forEach((key, adder) -> {
+            final long count = adder.sumThenReset();
+            if (count != 0) {
+                deltas.add(new CohortOrderStatDto(key.productId, key.birthYearRange, key.gender, count));
+            }
+        });
+        return deltas;
+    }
+
+    List<CohortRateStatDto> drainRateSums() {
+        final List<CohortRateStatDto> deltas = new ArrayList<>();
+        rateSums.forEach((key, adder) -> {
+            final long count = adder.count.sumThenReset();
+            final long totalScore = adder.totalScore.sumThenReset();
+            if (count != 0) {
+                deltas.add(new CohortRateStatDto(key.productId, key.birthYearRange, key.gender, totalScore, count));
+            }
+        });
+        return deltas;
+    }
+
+    // 비우지 않고 지금까지 모은 값을 읽는다. 더하는 쪽을 막은 상태에서 호출해야 정확하다.
+    List<CohortOrderStatDto> copyOrderCounts() {
+        final List<CohortOrderStatDto> deltas = new ArrayList<>();
+        orderCounts.forEach((key, adder) -> {
+            final long count = adder.sum();
+            if (count != 0) {
+                deltas.add(new CohortOrderStatDto(key.productId, key.birthYearRange, key.gender, count));
+            }
+        });
+        return deltas;
+    }
+
+    List<CohortRateStatDto> copyRateSums() {
+        final List<CohortRateStatDto> deltas = new ArrayList<>();
+        rateSums.forEach((key, adder) -> {
+            final long count = adder.count.sum();
+            if (count != 0) {
+                deltas.add(new CohortRateStatDto(key.productId, key.birthYearRange, key.gender,
+                                                 adder.totalScore.sum(), count));
+            }
+        });
+        return deltas;
+    }
+
+    private static final class CohortKey {
+
+        private final long productId;
+        private final BirthYearRange birthYearRange;
+        private final Gender gender;
+
+        private CohortKey(final long productId, final BirthYearRange birthYearRange, final Gender gender) {
+            this.productId = productId;
+            this.birthYearRange = birthYearRange;
+            this.gender = gender;
+        }
+
+        private static CohortKey of(final long productId, final BirthYearRange birthYearRange, final Gender gender) {
+            return new CohortKey(productId, birthYearRange, gender);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof final CohortKey other)) {
+                return false;
+            }
+            return productId == other.productId && birthYearRange == other.birthYearRange && gender == other.gender;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(productId, birthYearRange, gender);
+        }
+    }
+
+    private static final class RateAdder {
+
+        private final LongAdder totalScore = new LongAdder();
+        private final LongAdder count = new LongAdder();
+    }
+}
@@ -0,0 +1,272 @@
+package com.gugucon.shopping.stat.infrastructure;
+
+import com.gugucon.shopping.member.domain.vo.BirthYearRange;
+import com.gugucon.shopping.member.domain.vo.Gender;
+import com.gugucon.shopping.stat.repository.dto.CohortOrderStatDto;
+import com.gugucon.shopping.stat.repository.dto.CohortRateStatDto;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * (상품, 연령대, 성별) 별 주문 수와 평점 통계를 상품 id 로 바로 찾아갈 수 있는 원시 타입 배열에 담는다.
+ * 상품 하나당 연령대 x 성별 개수 만큼의 칸을 연속해서 차지하며, 쓰기는 직렬화하고 읽기는 잠금 없이 수행한다.
+ * <p>
+ * 다시 불러오는 동안 더해진 변화량은 따로 기록해 두었다가, 불러온 배열로 바꾼 뒤 같은 잠금 안에서 다시 더한다.
+ */
+@Component
+@Slf4j
+public class CohortStatCube implements MeterBinder {
+
+    private static final int COHORT_SIZE = BirthYearRange.values().length * Gender.values().length;
+    private static final int INITIAL_PRODUCT_CAPACITY = 1024;
+    private static final byte ORDER_STAT_PRESENT = 1;
+    private static final byte RATE_STAT_PRESENT = 2;
+
+    private volatile Cells cells = new Cells(INITIAL_PRODUCT_CAPACITY);
+    private volatile boolean ready = false;
+    private List<Runnable> loadLog;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 불러올 통계를 읽기 전에 호출한다. 이후의 변화량은 load 에서 새 배열에 다시 더한다.
+     */
+    public synchronized void beginLoad() {
+        loadLog = new ArrayList<>();
+    }
+
+    public synchronized void cancelLoad() {
+        loadLog = null;
+    }
+
+    /**
+     * 같은 (상품, 연령대, 성별) 의 통계가 여러 번 주어지면 모두 더한다. 아직 반영하지 않은 변화량을 함께 넘길 수 있다.
+     */
+    public synchronized void load(final List<CohortOrderStatDto> orderStats, final List<CohortRateStatDto> rateStats) {
+        final long maxProductId = Math.max(
+                orderStats.stream().mapToLong(CohortOrderStatDto::getProductId).max().orElse(0),
+                rateStats.stream().mapToLong(CohortRateStatDto::getProductId).max().orElse(0)
+        );
+        final Cells newCells = new Cells(capacityFor(maxProductId, INITIAL_PRODUCT_CAPACITY));
+        orderStats.forEach(stat -> {
+            final int cell = cellOf(stat.getProductId(), stat.getBirthYearRange(), stat.getGender());
+            newCells.addOrderCount(cell, Math.toIntExact(stat.getCount()));
+        });
+        rateStats.forEach(stat -> {
+            final int cell = cellOf(stat.getProductId(), stat.getBirthYearRange(), stat.getGender());
+            newCells.addScore(cell, Math.toIntExact(stat.getTotalScore()), Math.toIntExact(stat.getCount()));
+        });
+        cells = newCells;
+        final List<Runnable> logged = loadLog == null ? List.of() : loadLog;
+        loadLog = null;
+        logged.forEach(Runnable::run);
+        ready = true;
+        log.info("cohort stat cube loaded, order stats : {}, rate stats : {}, replayed deltas : {}, memory : {} bytes",
+                 orderStats.size(), rateStats.size(), logged.size(), getMemoryBytes());
+    }
+
+    public synchronized void putOrderStat(final Long productId,
+                                          final BirthYearRange birthYearRange,
+                                          final Gender gender,
+                                          final long count) {
+        final Cells current = ensureCapacity(productId);
+        final int cell = cellOf(productId, birthYearRange, gender);
+        current.orderCounts[cell] = Math.toIntExact(count);
+        current.presence[cell] |= ORDER_STAT_PRESENT;
+    }
+
+    public synchronized void putRateStat(final Long productId,
+                                         final BirthYearRange birthYearRange,
+                                         final Gender gender,
+                                         final long totalScore,
+                                         final long count) {
+        final Cells current = ensureCapacity(productId);
+        final int cell = cellOf(productId, birthYearRange, gender);
+        current.totalScores[cell] = Math.toIntExact(totalScore);
+        current.rateCounts[cell] = Math.toIntExact(count);
+        current.presence[cell] |= RATE_STAT_PRESENT;
+    }
+
+    public synchronized void increaseOrderCount(final Long productId,
+                                                final BirthYearRange birthYearRange,
+                                                final Gender gender,
+                                                final int count) {
+        addOrderCount(productId, birthYearRange, gender, count);
+        if (loadLog != null) {
+            loadLog.add(() -> addOrderCount(productId, birthYearRange, gender, count));
+        }
+    }
+
+    public synchronized void increaseScore(final Long productId,
+                                           final BirthYearRange birthYearRange,
+                                           final Gender gender,
+                                           final int score) {
+        addScore(productId, birthYearRange, gender, score);
+        if (loadLog != null) {
+            loadLog.add(() -> addScore(productId, birthYearRange, gender, score));
+        }
+    }
+
+    /**
+     * 해당 연령대, 성별의 주문 통계가 있는 후보 상품만 남겨 주문 수 내림차순, id 내림차순으로 정렬한다.
+     */
+    public List<Long> sortByOrderCount(final List<Long> candidateIds,
+                                       final BirthYearRange birthYearRange,
+                                       final Gender gender) {
+        final Cells current = cells;
+        return candidateIds.stream()
+                .filter(productId -> current.has(cellOrNegative(current, productId, birthYearRange, gender),
+                                                 ORDER_STAT_PRESENT))
+                .sorted(Comparator.comparingInt((Long productId) -> current.orderCounts[
+                                cellOf(productId, birthYearRange, gender)]).reversed()
+                                .thenComparing(Comparator.<Long>reverseOrder()))
+                .toList();
+    }
+
+    /**
+     * 해당 연령대, 성별의 평점 통계가 있는 후보 상품만 남겨 평균 평점 내림차순, id 내림차순으로 정렬한다.
+     * 평점이 없는 상품은 평점이 있는 상품 뒤에 온다.
+     */
+    public List<Long> sortByRate(final List<Long> candidateIds,
+                                 final BirthYearRange birthYearRange,
+                                 final Gender gender) {
+        final Cells current = cells;
+        return candidateIds.stream()
+                .filter(productId -> current.has(cellOrNegative(current, productId, birthYearRange, gender),
+                                                 RATE_STAT_PRESENT))
+                .sorted(Comparator.comparingDouble((Long productId) -> current.averageScore(
+                                cellOf(productId, birthYearRange, gender))).reversed()
+                                .thenComparing(Comparator.<Long>reverseOrder()))
+                .toList();
+    }
+
+    public long getMemoryBytes() {
+        final Cells current = cells;
+        final long cellCount = current.presence.length;
+        return cellCount * (Integer.BYTES * 3 + Byte.BYTES);
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        Gauge.builder("stat.cohort.cube.memory", this, CohortStatCube::getMemoryBytes)
+                .description("memory used by the in-memory cohort stat cube")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private void addOrderCount(final Long productId,
+                               final BirthYearRange birthYearRange,
+                               final Gender gender,
+                               final int count) {
+        ensureCapacity(productId).addOrderCount(cellOf(productId, birthYearRange, gender), count);
+    }
+
+    private void addScore(final Long productId,
+                          final BirthYearRange birthYearRange,
+                          final Gender gender,
+                          final int score) {
+        ensureCapacity(productId).addScore(cellOf(productId, birthYearRange, gender), score, 1);
+    }
+
+    private Cells ensureCapacity(final Long productId) {
+        final Cells current = cells;
+        if (productId < current.productCapacity) {
+            return current;
+        }
+        final Cells grown = current.copyOf(capacityFor(productId, current.productCapacity));
+        cells = grown;
+        return grown;
+    }
+
+    private int capacityFor(final long productId, final int currentCapacity) {
+        if (productId >= Integer.MAX_VALUE / COHORT_SIZE) {
+            throw new IllegalStateException("product id is too large for cohort stat cube : " + productId);
+        }
+        long capacity = currentCapacity;
+        while (capacity <= productId) {
+            capacity <<= 1;
+        }
+        return (int) Math.min(capacity, Integer.MAX_VALUE / COHORT_SIZE);
+    }
+
+    private int cellOrNegative(final Cells current,
+                               final Long productId,
+                               final BirthYearRange birthYearRange,
+                               final Gender gender) {
+        if (productId >= current.productCapacity) {
+            return -1;
+        }
+        return cellOf(productId, birthYearRange, gender);
+    }
+
+    private static int cellOf(final long productId, final BirthYearRange birthYearRange, final Gender gender) {
+        return (int) productId * COHORT_SIZE + birthYearRange.ordinal() * Gender.values().length + gender.ordinal();
+    }
+
+    private static final class Cells {
+
+        private final int productCapacity;
+        private final int[] orderCounts;
+        private final int[] totalScores;
+        private final int[] rateCounts;
+        private final byte[] presence;
+
+        private Cells(final int productCapacity) {
+            this(productCapacity,
+                 new int[productCapacity * COHORT_SIZE],
+                 new int[productCapacity * COHORT_SIZE],
+                 new int[productCapacity * COHORT_SIZE],
+                 new byte[productCapacity * COHORT_SIZE]);
+        }
+
+        private Cells(final int productCapacity,
+                      final int[] orderCounts,
+                      final int[] totalScores,
+                      final int[] rateCounts,
+                      final byte[] presence) {
+            this.productCapacity = productCapacity;
+            this.orderCounts = orderCounts;
+            this.totalScores = totalScores;
+            this.rateCounts = rateCounts;
+            this.presence = presence;
+        }
+
+        private Cells copyOf(final int newProductCapacity) {
+            final int length = newProductCapacity * COHORT_SIZE;
+            return new Cells(newProductCapacity,
+                             Arrays.copyOf(orderCounts, length),
+                             Arrays.copyOf(totalScores, length),
+                             Arrays.copyOf(rateCounts, length),
+                             Arrays.copyOf(presence, length));
+        }
+
+        private void addOrderCount(final int cell, final int count) {
+            orderCounts[cell] += count;
+            presence[cell] |= ORDER_STAT_PRESENT;
+        }
+
+        private void addScore(final int cell, final int totalScore, final int count) {
+            totalScores[cell] += totalScore;
+            rateCounts[cell] += count;
+            presence[cell] |= RATE_STAT_PRESENT;
+        }
+
+        private boolean has(final int cell, final byte flag) {
+            return cell >= 0 && (presence[cell] & flag) != 0;
+        }
+
+        private double averageScore(final int cell) {
+            return rateCounts[cell] == 0 ? -1 : (double) totalScores[cell] / rateCounts[cell];
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.gugucon.shopping.stat.infrastructure;
+
+import com.gugucon.shopping.stat.domain.event.OrderStatSaveEvent;
+import com.gugucon.shopping.stat.domain.event.ProductRankRefreshEvent;
+import com.gugucon.shopping.stat.domain.event.RateStatSaveEvent;
+import com.gugucon.shopping.stat.repository.OrderStatRepository;
+import com.gugucon.shopping.stat.repository.RateStatRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CohortStatCubeLoader {
+
+    private final OrderStatRepository orderStatRepository;
+    private final RateStatRepository rateStatRepository;
+    private final CohortStatCube cohortStatCube;
+    private final StatWriteBehindAggregator statWriteBehindAggregator;
+
+    @Async("threadPoolTaskExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        load();
+    }
+
+    @Async("threadPoolTaskExecutor")
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handle(final ProductRankRefreshEvent productRankRefreshEvent) {
+        load();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handle(final OrderStatSaveEvent orderStatSaveEvent) {
+        cohortStatCube.putOrderStat(orderStatSaveEvent.getProductId(),
+                                    orderStatSaveEvent.getBirthYearRange(),
+                                    orderStatSaveEvent.getGender(),
+                                    orderStatSaveEvent.getCount());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handle(final RateStatSaveEvent rateStatSaveEvent) {
+        cohortStatCube.putRateStat(rateStatSaveEvent.getProductId(),
+                                   rateStatSaveEvent.getBirthYearRange(),
+                                   rateStatSaveEvent.getGender(),
+                                   rateStatSaveEvent.getTotalScore(),
+                                   rateStatSaveEvent.getCount());
+    }
+
+    private void load() {
+        final long start = System.currentTimeMillis();
+        statWriteBehindAggregator.reloadCube(orderStatRepository::findAllCohortOrderStats,
+                                             rateStatRepository::findAllCohortRateStats);
+        log.info("cohort stat cube load finished, total elapsed time : {} ms", System.currentTimeMillis() - start);
+    }
+}
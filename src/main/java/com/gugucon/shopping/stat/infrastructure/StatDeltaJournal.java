@@ -0,0 +1,230 @@
+package com.gugucon.shopping.stat.infrastructure;
+
+import com.gugucon.shopping.member.domain.vo.BirthYearRange;
+import com.gugucon.shopping.member.domain.vo.Gender;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * 아직 DB 에 반영하지 않은 통계 변화량을 세그먼트 파일에 덧붙여 기록한다.
+ * 변화량 하나는 [종류 1바이트][연령대 1바이트][성별 1바이트][예비 1바이트][값 int][상품 id long] 의 16바이트다.
+ * 이벤트 하나의 변화량 뒤에는 이벤트 id 를 상품 id 자리에 담은 EVENT 기록을 붙여, 이벤트 단위로 완결 여부를 알 수 있게 한다.
+ * 저널 id 는 디렉터리에 저장해 두어, 재시작한 뒤에도 같은 id 로 반영한 세그먼트를 확인할 수 있다.
+ */
+@Slf4j
+final class StatDeltaJournal {
+
+    static final byte ORDER = 0;
+    static final byte RATE = 1;
+    static final byte EVENT = 2;
+
+    private static final int RECORD_BYTES = 16;
+    private static final String JOURNAL_ID_FILE = "journal-id";
+    private static final String SEGMENT_PREFIX = "deltas-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private final Path directory;
+    private final String journalId;
+    private final long firstSegment;
+    private volatile long currentSegment;
+    private volatile FileChannel channel;
+
+    StatDeltaJournal(final Path directory) {
+        try {
+            this.directory = Files.createDirectories(directory);
+            this.journalId = readOrCreateJournalId();
+            this.firstSegment = findSegments().stream().mapToLong(Long::longValue).max().orElse(0L) + 1;
+            this.currentSegment = firstSegment;
+            this.channel = open(currentSegment);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    String getJournalId() {
+        return journalId;
+    }
+
+    /**
+     * 이벤트 하나의 변화량과 그 뒤의 EVENT 기록을 한 번의 쓰기로 덧붙인다.
+     */
+    void append(final long eventId, final List<Delta> deltas) {
+        final ByteBuffer records = ByteBuffer.allocate(RECORD_BYTES * (deltas.size() + 1));
+        deltas.forEach(delta -> put(records, delta.type, delta.productId, delta.birthYearRange, delta.gender, delta.value));
+        put(records, EVENT, eventId, BirthYearRange.values()[0], Gender.values()[0], 0);
+        records.flip();
+        try {
+            while (records.hasRemaining()) {
+                channel.write(records);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 지금까지 쓰던 세그먼트를 디스크에 내려 쓴 뒤 닫고 새 세그먼트에 쓰기 시작한다. 이 메서드와 append 는 동시에 호출되면 안 된다.
+     * 닫은 세그먼트는 반영할 때까지 남은 변화량의 유일한 기록이므로, 운영체제가 쓰기 전에 종료되어도 잃지 않게 한다.
+     *
+     * @return 닫은 세그먼트 번호
+     */
+    long rotate() {
+        try {
+            final long closedSegment = currentSegment;
+            channel.force(true);
+            channel.close();
+            currentSegment = closedSegment + 1;
+            channel = open(currentSegment);
+            return closedSegment;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 이전 실행에서 남긴 세그먼트 번호를 오름차순으로 반환한다.
+     */
+    List<Long> findPreviousSegments() {
+        return findSegments().stream()
+                .filter(segment -> segment < firstSegment)
+                .sorted()
+                .toList();
+    }
+
+    /**
+     * 세그먼트의 변화량을 순서대로 읽는다. 종료 중 쓰다 만 마지막 변화량은 버린다.
+     */
+    void read(final long segment, final DeltaConsumer consumer) {
+        try {
+            final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segmentPath(segment)));
+            while (buffer.remaining() >= RECORD_BYTES) {
+                final byte type = buffer.get();
+                final BirthYearRange birthYearRange = BirthYearRange.values()[buffer.get()];
+                final Gender gender = Gender.values()[buffer.get()];
+                buffer.get();
+                final int value = buffer.getInt();
+                final long productId = buffer.getLong();
+                consumer.accept(type, productId, birthYearRange, gender, value);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void delete(final long segment) {
+        try {
+            Files.deleteIfExists(segmentPath(segment));
+        } catch (IOException e) {
+            log.warn("failed to delete stat delta journal segment {}", segment, e);
+        }
+    }
+
+    void close() {
+        try {
+            channel.force(true);
+            channel.close();
+        } catch (IOException e) {
+            log.warn("failed to close stat delta journal", e);
+        }
+    }
+
+    private static void put(final ByteBuffer records,
+                            final byte type,
+                            final long id,
+                            final BirthYearRange birthYearRange,
+                            final Gender gender,
+                            final int value) {
+        records.put(type)
+                .put((byte) birthYearRange.ordinal())
+                .put((byte) gender.ordinal())
+                .put((byte) 0)
+                .putInt(value)
+                .putLong(id);
+    }
+
+    private String readOrCreateJournalId() throws IOException {
+        final Path file = directory.resolve(JOURNAL_ID_FILE);
+        if (Files.exists(file)) {
+            return Files.readString(file, StandardCharsets.UTF_8).trim();
+        }
+        final String newJournalId = UUID.randomUUID().toString();
+        Files.writeString(file, newJournalId, StandardCharsets.UTF_8);
+        return newJournalId;
+    }
+
+    private List<Long> findSegments() {
+        try (Stream<Path> files = Files.list(directory)) {
+            final List<Long> segments = new ArrayList<>();
+            files.map(file -> file.getFileName().toString())
+                    .filter(fileName -> fileName.startsWith(SEGMENT_PREFIX) && fileName.endsWith(SEGMENT_SUFFIX))
+                    .map(fileName -> fileName.substring(SEGMENT_PREFIX.length(),
+                                                        fileName.length() - SEGMENT_SUFFIX.length()))
+                    .forEach(segment -> segments.add(Long.parseLong(segment)));
+            return segments;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private FileChannel open(final long segment) throws IOException {
+        return FileChannel.open(segmentPath(segment),
+                                StandardOpenOption.CREATE,
+                                StandardOpenOption.WRITE,
+                                StandardOpenOption.APPEND);
+    }
+
+    private Path segmentPath(final long segment) {
+        return directory.resolve(SEGMENT_PREFIX + segment + SEGMENT_SUFFIX);
+    }
+
+    static final class Delta {
+
+        private final byte type;
+        private final long productId;
+        private final BirthYearRange birthYearRange;
+        private final Gender gender;
+        private final int value;
+
+        private Delta(final byte type,
+                      final long productId,
+                      final BirthYearRange birthYearRange,
+                      final Gender gender,
+                      final int value) {
+            this.type = type;
+            this.productId = productId;
+            this.birthYearRange = birthYearRange;
+            this.gender = gender;
+            this.value = value;
+        }
+
+        static Delta of(final byte type,
+                        final long productId,
+                        final BirthYearRange birthYearRange,
+                        final Gender gender,
+                        final int value) {
+            return new Delta(type, productId, birthYearRange, gender, value);
+        }
+
+        void accept(final DeltaConsumer consumer) {
+            consumer.accept(type, productId, birthYearRange, gender, value);
+        }
+    }
+
+    @FunctionalInterface
+    interface DeltaConsumer {
+
+        void accept(byte type, long productId, BirthYearRange birthYearRange, Gender gender, int value);
+    }
+}
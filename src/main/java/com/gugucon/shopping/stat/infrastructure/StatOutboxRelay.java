@@ -0,0 +1,208 @@
+package com.gugucon.shopping.stat.infrastructure;
+
+import com.gugucon.shopping.order.domain.event.OrderCompleteEvent;
+import com.gugucon.shopping.rate.domain.event.RateCreateEvent;
+import com.gugucon.shopping.stat.domain.entity.StatOutboxEvent;
+import com.gugucon.shopping.stat.domain.entity.StatOutboxEvent.EventType;
+import com.gugucon.shopping.stat.repository.StatOutboxEventRepository;
+import com.gugucon.shopping.stat.service.OrderStatService;
+import com.gugucon.shopping.stat.service.RateStatService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 주문 완료, 별점 생성 이벤트를 이벤트를 발생시킨 트랜잭션 안에서 outbox 테이블에 저장하고,
+ * poll-interval-ms 마다 batch-size 개씩 읽어 통계에 반영한다.
+ * <p>
+ * 반영한 이벤트는 통계 변화량을 DB 에 반영하는 트랜잭션에서 지워지므로, 그 전에 종료되면 다시 읽어 반영한다.
+ * 커밋 직후에도 한 번 읽어 지연을 줄이지만, 이 작업이 거절되더라도 다음 주기에 반영된다.
+ * <p>
+ * 여러 인스턴스가 같은 이벤트를 반영하지 않도록, 이벤트를 lease-seconds 동안 임대한 뒤에만 통계에 넘긴다.
+ * 넘긴 이벤트가 반영되기를 기다리는 동안에는 임대를 연장하고, 종료된 인스턴스의 이벤트는 임대가 끝난 뒤 다른 인스턴스가 가져간다.
+ * 실패한 이벤트는 retry-delay-seconds 부터 두 배씩 늘어나는 시간 뒤에 다시 읽고, max-attempts 번 실패하면 dead letter 로 남겨 더 이상 읽지 않는다.
+ */
+@Component
+@Slf4j
+public class StatOutboxRelay {
+
+    private final StatOutboxEventRepository statOutboxEventRepository;
+    private final OrderStatService orderStatService;
+    private final RateStatService rateStatService;
+    private final StatWriteBehindAggregator statWriteBehindAggregator;
+    private final TrendingStatWindow trendingStatWindow;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration leaseDuration;
+    private final Duration retryDelay;
+    private final String owner;
+    private final Timer lagTimer;
+    private final Counter relayedCounter;
+    private final Counter failureCounter;
+    private final Counter deadLetterCounter;
+    private final AtomicLong backlog = new AtomicLong();
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final Set<Long> relayedEventIds = new HashSet<>();
+
+    public StatOutboxRelay(final StatOutboxEventRepository statOutboxEventRepository,
+                           final OrderStatService orderStatService,
+                           final RateStatService rateStatService,
+                           final StatWriteBehindAggregator statWriteBehindAggregator,
+                           final TrendingStatWindow trendingStatWindow,
+                           @Value("${stat.outbox.batch-size:500}") final int batchSize,
+                           @Value("${stat.outbox.max-attempts:10}") final int maxAttempts,
+                           @Value("${stat.outbox.lease-seconds:60}") final long leaseSeconds,
+                           @Value("${stat.outbox.retry-delay-seconds:1}") final long retryDelaySeconds,
+                           final MeterRegistry meterRegistry) {
+        this.statOutboxEventRepository = statOutboxEventRepository;
+        this.orderStatService = orderStatService;
+        this.rateStatService = rateStatService;
+        this.statWriteBehindAggregator = statWriteBehindAggregator;
+        this.trendingStatWindow = trendingStatWindow;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.leaseDuration = Duration.ofSeconds(leaseSeconds);
+        this.retryDelay = Duration.ofSeconds(retryDelaySeconds);
+        this.owner = createOwner();
+        this.lagTimer = Timer.builder("stat.outbox.lag")
+                .description("time from a stat event being stored in the outbox to being relayed")
+                .register(meterRegistry);
+        this.relayedCounter = Counter.builder("stat.outbox.relayed")
+                .description("stat outbox events relayed to the stat updaters")
+                .register(meterRegistry);
+        this.failureCounter = Counter.builder("stat.outbox.failures")
+                .description("stat outbox events that failed to relay and will be retried")
+                .register(meterRegistry);
+        this.deadLetterCounter = Counter.builder("stat.outbox.dead-lettered")
+                .description("stat outbox events that failed max-attempts times and will not be retried")
+                .register(meterRegistry);
+        Gauge.builder("stat.outbox.backlog", backlog, AtomicLong::get)
+                .description("stat outbox events not applied to the stat tables yet")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void record(final OrderCompleteEvent orderCompleteEvent) {
+        statOutboxEventRepository.save(StatOutboxEvent.orderCompleted(orderCompleteEvent.getOrderId()));
+    }
+
+    @EventListener
+    public void record(final RateCreateEvent rateCreateEvent) {
+        statOutboxEventRepository.save(StatOutboxEvent.rateCreated(rateCreateEvent.getRateId(),
+                                                                   rateCreateEvent.getMemberId()));
+    }
+
+    @Async("threadPoolTaskExecutor")
+    @TransactionalEventListener
+    public void drainAfterCommit(final OrderCompleteEvent orderCompleteEvent) {
+        drain();
+    }
+
+    @Async("threadPoolTaskExecutor")
+    @TransactionalEventListener
+    public void drainAfterCommit(final RateCreateEvent rateCreateEvent) {
+        drain();
+    }
+
+    /**
+     * 커밋 순서가 id 순서와 다를 수 있으므로 매번 처음부터 읽고, 이미 넘겼지만 아직 DB 에 반영되지 않은 이벤트는 건너뛴다.
+     * 반영이 끝난 이벤트는 outbox 에서 지워진 뒤에 대기 목록에서 빠지므로, 읽기 전에 정리해야 다시 넘기지 않는다.
+     * 넘긴 이벤트가 남아 있으면 그 임대를 먼저 연장한다.
+     */
+    @Scheduled(fixedDelayString = "${stat.outbox.poll-interval-ms:500}")
+    public void drain() {
+        if (!statWriteBehindAggregator.isReady() || !trendingStatWindow.isReady() || !drainLock.tryLock()) {
+            return;
+        }
+        try {
+            relayedEventIds.removeIf(eventId -> !statWriteBehindAggregator.isPending(eventId));
+            final LocalDateTime now = LocalDateTime.now();
+            final LocalDateTime leaseExpiresAt = now.plus(leaseDuration);
+            extendLeases(leaseExpiresAt);
+            long lastId = 0L;
+            List<Long> ids;
+            do {
+                ids = statOutboxEventRepository.findClaimableIds(lastId, now, PageRequest.of(0, batchSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                statOutboxEventRepository.claim(ids, owner, leaseExpiresAt, now);
+                statOutboxEventRepository.findAllByIdInAndOwnerOrderById(ids, owner).forEach(this::relay);
+                lastId = ids.get(ids.size() - 1);
+            } while (ids.size() == batchSize);
+            backlog.set(statOutboxEventRepository.countByDeadLetteredAtIsNull());
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    private void relay(final StatOutboxEvent event) {
+        // 변화량을 넘긴 뒤 처리가 실패했더라도 이미 대기 중이면 다시 넘기지 않는다.
+        if (relayedEventIds.contains(event.getId()) || statWriteBehindAggregator.isPending(event.getId())) {
+            return;
+        }
+        try {
+            if (event.getEventType() == EventType.ORDER_COMPLETE) {
+                orderStatService.handle(event);
+            } else {
+                rateStatService.handle(event);
+            }
+        } catch (RuntimeException e) {
+            recordFailure(event, e);
+            return;
+        }
+        relayedEventIds.add(event.getId());
+        relayedCounter.increment();
+        lagTimer.record(Duration.between(event.getCreatedAt(), LocalDateTime.now()));
+    }
+
+    private void extendLeases(final LocalDateTime leaseExpiresAt) {
+        final List<Long> eventIds = List.copyOf(relayedEventIds);
+        for (int from = 0; from < eventIds.size(); from += batchSize) {
+            statOutboxEventRepository.extendLeases(eventIds.subList(from, Math.min(from + batchSize, eventIds.size())),
+                                                   owner,
+                                                   leaseExpiresAt);
+        }
+    }
+
+    private void recordFailure(final StatOutboxEvent event, final RuntimeException cause) {
+        failureCounter.increment();
+        final LocalDateTime now = LocalDateTime.now();
+        final Duration backoff = retryDelay.multipliedBy(1L << Math.min(event.getAttempts(), 16));
+        statOutboxEventRepository.recordFailure(event.getId(), maxAttempts, now, now.plus(backoff));
+        if (event.getAttempts() + 1 >= maxAttempts) {
+            deadLetterCounter.increment();
+            log.error("stat outbox event {} failed {} times and is dead-lettered", event.getId(), maxAttempts, cause);
+            return;
+        }
+        log.warn("failed to relay stat outbox event {}, it will be retried in {}", event.getId(), backoff, cause);
+    }
+
+    private String createOwner() {
+        try {
+            return InetAddress.getLocalHost().getHostName() + "-" + UUID.randomUUID();
+        } catch (UnknownHostException e) {
+            return UUID.randomUUID().toString();
+        }
+    }
+}
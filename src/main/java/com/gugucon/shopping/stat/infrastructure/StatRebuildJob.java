@@ -0,0 +1,283 @@
+package com.gugucon.shopping.stat.infrastructure;
+
+import com.gugucon.shopping.common.exception.ShoppingException;
+import com.gugucon.shopping.member.domain.vo.BirthYearRange;
+import com.gugucon.shopping.stat.repository.StatRebuildRepository;
+import com.gugucon.shopping.stat.repository.dto.CohortSourceStatDto;
+import com.gugucon.shopping.stat.repository.dto.StatRebuildRunDto;
+import com.gugucon.shopping.stat.service.ProductRankService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 주문, 평점 통계 테이블을 원본 주문, 평점 테이블로부터 다시 만든다.
+ * <p>
+ * 원본을 id 범위 청크로 나눠 fork-join 풀에서 동시에 집계하고, 청크마다 _rebuild 테이블에 더한 뒤 마친 청크를 기록한다.
+ * 모든 청크를 마치면 _rebuild 테이블과 통계 테이블을 이름을 바꿔 맞바꾼다.
+ * 처리 도중 인스턴스가 죽으면 임대가 끝난 뒤 다른 인스턴스가 마치지 않은 청크부터 이어서 만든다.
+ * 청크가 실패하면 임대를 바로 놓아 다시 시도하게 하고, max-attempts 번 시도해도 끝나지 않으면 작업을 포기하고 _rebuild 테이블을 비운다.
+ * 작업 중에는 통계 변화량이 DB 에 반영되지 않고 모여 있다가, 맞바꾼 뒤 새 테이블에 반영된다.
+ */
+@Component
+@Slf4j
+public class StatRebuildJob {
+
+    private static final String CHUNK_DURATION_METRIC = "stat.rebuild.chunk.duration";
+    private static final String ROWS_METRIC = "stat.rebuild.rows";
+
+    private final StatRebuildRepository statRebuildRepository;
+    private final StatWriteBehindAggregator statWriteBehindAggregator;
+    private final ProductRankService productRankService;
+    private final MeterRegistry meterRegistry;
+    private final long chunkSize;
+    private final int parallelism;
+    private final Duration leaseDuration;
+    private final int maxAttempts;
+    private final String owner;
+    private final AtomicLong lastRowsPerSecond = new AtomicLong();
+
+    public StatRebuildJob(final StatRebuildRepository statRebuildRepository,
+                          final StatWriteBehindAggregator statWriteBehindAggregator,
+                          final ProductRankService productRankService,
+                          final MeterRegistry meterRegistry,
+                          @Value("${stat.rebuild.chunk-size:100000}") final long chunkSize,
+                          @Value("${stat.rebuild.parallelism:4}") final int parallelism,
+                          @Value("${stat.rebuild.lease-minutes:10}") final long leaseMinutes,
+                          @Value("${stat.rebuild.max-attempts:3}") final int maxAttempts) {
+        this.statRebuildRepository = statRebuildRepository;
+        this.statWriteBehindAggregator = statWriteBehindAggregator;
+        this.productRankService = productRankService;
+        this.meterRegistry = meterRegistry;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.leaseDuration = Duration.ofMinutes(leaseMinutes);
+        this.maxAttempts = maxAttempts;
+        this.owner = createOwner();
+        Gauge.builder("stat.rebuild.throughput", lastRowsPerSecond, AtomicLong::get)
+                .description("source rows per second aggregated by the last stat rebuild on this instance")
+                .baseUnit("rows")
+                .register(meterRegistry);
+    }
+
+    public void run() {
+        createStateIfAbsent();
+        final String runKey = LocalDate.now() + "-" + UUID.randomUUID();
+        final Optional<StatRebuildRunDto> run = statRebuildRepository.start(runKey, owner, leaseExpiresAt(), chunkSize);
+        if (run.isEmpty()) {
+            log.info("stat rebuild is already running, owner : {}", owner);
+            return;
+        }
+        log.info("stat rebuild started, run : {}, owner : {}, max order id : {}, max rate id : {}",
+                 runKey, owner, run.get().getMaxOrderId(), run.get().getMaxRateId());
+        rebuild(run.get());
+    }
+
+    /**
+     * 임대가 끝난 작업이 있으면 넘겨받아 이어서 만든다. max-attempts 번 시도해도 끝나지 않은 작업은 포기한다.
+     */
+    public void resumeAbandoned() {
+        final Optional<String> abortedRunKey = statRebuildRepository.abortExhausted(maxAttempts);
+        if (abortedRunKey.isPresent()) {
+            log.error("stat rebuild aborted after {} attempts, run : {}", maxAttempts, abortedRunKey.get());
+            return;
+        }
+        statRebuildRepository.resume(owner, leaseExpiresAt(), maxAttempts).ifPresent(run -> {
+            log.info("stat rebuild resumed, run : {}, owner : {}", run.getRunKey(), owner);
+            rebuild(run);
+        });
+    }
+
+    private void createStateIfAbsent() {
+        try {
+            statRebuildRepository.createStateIfAbsent();
+        } catch (DataIntegrityViolationException e) {
+            log.info("stat rebuild state already created by another instance");
+        }
+    }
+
+    private void rebuild(final StatRebuildRunDto run) {
+        final long start = System.currentTimeMillis();
+        if (statRebuildRepository.isSwapped(run.getRunKey())) {
+            finish(run, start, 0L);
+            return;
+        }
+        final Set<Long> doneOrderChunks = statRebuildRepository.findDoneChunkNumbers(run.getRunKey(),
+                                                                                     ChunkType.ORDER.name());
+        final Set<Long> doneRateChunks = statRebuildRepository.findDoneChunkNumbers(run.getRunKey(),
+                                                                                    ChunkType.RATE.name());
+        if (doneOrderChunks.isEmpty() && doneRateChunks.isEmpty()) {
+            statRebuildRepository.prepareRebuildTables(run.getRunKey());
+        }
+        final List<Chunk> chunks = new ArrayList<>();
+        addRemainingChunks(chunks, ChunkType.ORDER, run.getMaxOrderId(), run.getChunkSize(), doneOrderChunks);
+        addRemainingChunks(chunks, ChunkType.RATE, run.getMaxRateId(), run.getChunkSize(), doneRateChunks);
+
+        final AtomicLong rowCount = new AtomicLong();
+        final ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.submit(() -> chunks.parallelStream()
+                    .forEach(chunk -> rowCount.addAndGet(aggregate(run, chunk))))
+                    .get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("stat rebuild interrupted, run : {}", run.getRunKey());
+            return;
+        } catch (ExecutionException e) {
+            log.warn("stat rebuild stopped, it will be retried or aborted, run : {}", run.getRunKey(), e.getCause());
+            statRebuildRepository.releaseLease(run.getRunKey(), owner);
+            return;
+        } finally {
+            pool.shutdown();
+        }
+
+        if (!statRebuildRepository.extendLease(run.getRunKey(), owner, leaseExpiresAt())) {
+            log.warn("stat rebuild lost its lease before swapping tables, run : {}", run.getRunKey());
+            return;
+        }
+        statRebuildRepository.swap();
+        finish(run, start, rowCount.get());
+    }
+
+    private long aggregate(final StatRebuildRunDto run, final Chunk chunk) {
+        final long start = System.currentTimeMillis();
+        final List<CohortSourceStatDto> sourceStats = chunk.type == ChunkType.ORDER
+                ? statRebuildRepository.findOrderSourceStats(chunk.fromId, chunk.toId)
+                : statRebuildRepository.findRateSourceStats(chunk.fromId, chunk.toId);
+        final CohortStatCounter counter = new CohortStatCounter();
+        long rowCount = 0L;
+        for (final CohortSourceStatDto sourceStat : sourceStats) {
+            rowCount += sourceStat.getRowCount();
+            final Optional<BirthYearRange> birthYearRange = toBirthYearRange(sourceStat.getBirthYear());
+            if (birthYearRange.isEmpty()) {
+                continue;
+            }
+            if (chunk.type == ChunkType.ORDER) {
+                counter.addOrderCount(sourceStat.getProductId(),
+                                      birthYearRange.get(),
+                                      sourceStat.getGender(),
+                                      sourceStat.getTotal());
+            } else {
+                counter.addScore(sourceStat.getProductId(),
+                                 birthYearRange.get(),
+                                 sourceStat.getGender(),
+                                 sourceStat.getTotal(),
+                                 sourceStat.getRowCount());
+            }
+        }
+        final boolean saved = statRebuildRepository.saveChunk(run.getRunKey(),
+                                                              owner,
+                                                              leaseExpiresAt(),
+                                                              chunk.type.name(),
+                                                              chunk.number,
+                                                              rowCount,
+                                                              counter.drainOrderCounts(),
+                                                              counter.drainRateSums());
+        if (!saved) {
+            throw new IllegalStateException("stat rebuild lost its lease, run : " + run.getRunKey());
+        }
+        record(chunk, rowCount, System.currentTimeMillis() - start);
+        return rowCount;
+    }
+
+    private void finish(final StatRebuildRunDto run, final long start, final long rowCount) {
+        if (!statRebuildRepository.finish(run.getRunKey(), owner)) {
+            log.warn("stat rebuild lost its lease after swapping tables, run : {}", run.getRunKey());
+            return;
+        }
+        // 작업 중에 모아 둔 변화량을 새 테이블에 반영한 뒤, 순위와 통계 큐브를 새 테이블로 다시 만든다.
+        statWriteBehindAggregator.flush();
+        productRankService.rebuild();
+
+        final long elapsedMillis = Math.max(System.currentTimeMillis() - start, 1L);
+        final long rowsPerSecond = rowCount * 1000 / elapsedMillis;
+        lastRowsPerSecond.set(rowsPerSecond);
+        log.info("stat rebuild finished, run : {}, total rows : {}, rows by this instance : {}, " +
+                         "elapsed time : {} ms, {} rows/s",
+                 run.getRunKey(), statRebuildRepository.sumDoneRowCount(run.getRunKey()), rowCount,
+                 elapsedMillis, rowsPerSecond);
+    }
+
+    private void record(final Chunk chunk, final long rowCount, final long elapsedMillis) {
+        final String typeTag = chunk.type.name().toLowerCase(Locale.ROOT);
+        Timer.builder(CHUNK_DURATION_METRIC)
+                .tag("type", typeTag)
+                .register(meterRegistry)
+                .record(Duration.ofMillis(elapsedMillis));
+        Counter.builder(ROWS_METRIC)
+                .tag("type", typeTag)
+                .register(meterRegistry)
+                .increment(rowCount);
+    }
+
+    // 가입할 때 범위를 확인하지만 해가 바뀌며 범위를 벗어난 회원은 이벤트로도 집계되지 않으므로 건너뛴다.
+    private Optional<BirthYearRange> toBirthYearRange(final int birthYear) {
+        try {
+            return Optional.of(BirthYearRange.from(LocalDate.of(birthYear, 1, 1)));
+        } catch (ShoppingException e) {
+            return Optional.empty();
+        }
+    }
+
+    private LocalDateTime leaseExpiresAt() {
+        return LocalDateTime.now().plus(leaseDuration);
+    }
+
+    private static void addRemainingChunks(final List<Chunk> chunks,
+                                           final ChunkType type,
+                                           final long maxId,
+                                           final long chunkSize,
+                                           final Set<Long> doneChunkNumbers) {
+        final long chunkCount = (maxId + chunkSize - 1) / chunkSize;
+        for (long number = 0; number < chunkCount; number++) {
+            if (!doneChunkNumbers.contains(number)) {
+                chunks.add(new Chunk(type, number, number * chunkSize, Math.min((number + 1) * chunkSize, maxId)));
+            }
+        }
+    }
+
+    private String createOwner() {
+        try {
+            return InetAddress.getLocalHost().getHostName() + "-" + UUID.randomUUID();
+        } catch (UnknownHostException e) {
+            return UUID.randomUUID().toString();
+        }
+    }
+
+    private enum ChunkType {ORDER, RATE}
+
+    private static final class Chunk {
+
+        private final ChunkType type;
+        private final long number;
+        private final long fromId;
+        private final long toId;
+
+        private Chunk(final ChunkType type, final long number, final long fromId, final long toId) {
+            this.type = type;
+            this.number = number;
+            this.fromId = fromId;
+            this.toId = toId;
+        }
+    }
+}
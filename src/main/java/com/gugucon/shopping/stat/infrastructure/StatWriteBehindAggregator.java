@@ -0,0 +1,432 @@
+package com.gugucon.shopping.stat.infrastructure;
+
+import com.gugucon.shopping.member.domain.vo.BirthYearRange;
+import com.gugucon.shopping.member.domain.vo.Gender;
+import com.gugucon.shopping.stat.infrastructure.StatDeltaJournal.Delta;
+import com.gugucon.shopping.stat.repository.StatDeltaRepository;
+import com.gugucon.shopping.stat.repository.dto.CohortOrderStatDto;
+import com.gugucon.shopping.stat.repository.dto.CohortRateStatDto;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * 주문, 평점 통계의 변화량을 (상품, 연령대, 성별) 별 카운터에 모았다가 flush-interval-ms 마다,
+ * 또는 max-pending-deltas 개가 쌓이면 한 번의 배치로 DB 에 반영한다.
+ * <p>
+ * 변화량은 카운터에 더하기 전에 저널에 먼저 기록하고, 반영할 때 저널 세그먼트와 outbox 이벤트 삭제를 DB 기록과 함께 커밋한다.
+ * 반영하기 전에 종료되면 다음 시작 때 남은 세그먼트를 다시 반영한다.
+ * 통계 테이블을 다시 만드는 동안에는 DB 가 반영을 거절하므로, 변화량을 계속 모아 두었다가 끝난 뒤 새 테이블에 반영한다.
+ * <p>
+ * 임대가 끝나 다른 인스턴스가 먼저 반영한 이벤트는 DB 가 반영을 거절하므로, 저널에서 그 이벤트를 뺀 변화량을 다시 모아 반영한다.
+ * <p>
+ * 받은 변화량은 저널에 기록한 뒤 통계 큐브에도 더하며, 큐브를 다시 불러올 때는 DB 에 반영한 값과 모아 둔 값을 함께 넘긴다.
+ */
+@Component
+@Slf4j
+public class StatWriteBehindAggregator {
+
+    private final StatDeltaRepository statDeltaRepository;
+    private final CohortStatCube cohortStatCube;
+    private final StatDeltaJournal journal;
+    private final int maxPendingDeltas;
+    private final Timer flushLagTimer;
+
+    private final CohortStatCounter counter = new CohortStatCounter();
+    private final ReentrantReadWriteLock rotationLock = new ReentrantReadWriteLock();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicInteger pendingDeltas = new AtomicInteger();
+    private final AtomicLong oldestPendingAt = new AtomicLong();
+    private final List<Long> unappliedSegments = new ArrayList<>();
+    private final Queue<Long> bufferedEventIds = new ConcurrentLinkedQueue<>();
+    private final Set<Long> inFlightEventIds = ConcurrentHashMap.newKeySet();
+    private volatile boolean ready = false;
+
+    public StatWriteBehindAggregator(final StatDeltaRepository statDeltaRepository,
+                                     final CohortStatCube cohortStatCube,
+                                     @Value("${stat.write-behind.journal-directory:stat-journal}") final String journalDirectory,
+                                     @Value("${stat.write-behind.temporary-journal:false}") final boolean temporaryJournal,
+                                     @Value("${stat.write-behind.max-pending-deltas:1000}") final int maxPendingDeltas,
+                                     final MeterRegistry meterRegistry) {
+        this.statDeltaRepository = statDeltaRepository;
+        this.cohortStatCube = cohortStatCube;
+        this.journal = new StatDeltaJournal(resolveDirectory(journalDirectory, temporaryJournal));
+        this.maxPendingDeltas = maxPendingDeltas;
+        this.flushLagTimer = Timer.builder("stat.write-behind.flush.lag")
+                .description("time from the oldest buffered stat delta to its flush")
+                .register(meterRegistry);
+        Gauge.builder("stat.write-behind.pending", pendingDeltas, AtomicInteger::get)
+                .description("stat deltas buffered in memory and not flushed yet")
+                .register(meterRegistry);
+    }
+
+    public void addOrderCounts(final Long eventId, final List<CohortOrderStatDto> deltas) {
+        add(eventId, deltas.stream()
+                .map(delta -> Delta.of(StatDeltaJournal.ORDER,
+                                       delta.getProductId(),
+                                       delta.getBirthYearRange(),
+                                       delta.getGender(),
+                                       Math.toIntExact(delta.getCount())))
+                .toList());
+    }
+
+    public void addScore(final Long eventId,
+                         final Long productId,
+                         final BirthYearRange birthYearRange,
+                         final Gender gender,
+                         final int score) {
+        add(eventId, List.of(Delta.of(StatDeltaJournal.RATE, productId, birthYearRange, gender, score)));
+    }
+
+    /**
+     * 저널을 다시 반영하기 전에는 outbox 이벤트를 받지 않는다. 저널에 남은 이벤트를 한 번 더 받으면 두 번 세게 된다.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 받았지만 아직 DB 에 반영하지 않은 이벤트인지 확인한다. 반영한 이벤트는 outbox 에서 지운 트랜잭션이 커밋된 뒤에 빠진다.
+     */
+    public boolean isPending(final Long eventId) {
+        return inFlightEventIds.contains(eventId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void replayOnStartup() {
+        flushLock.lock();
+        try {
+            replayPreviousSegments();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${stat.write-behind.flush-interval-ms:1000}")
+    public void flush() {
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            if (!ready) {
+                replayPreviousSegments();
+                return;
+            }
+            final long oldest;
+            final List<CohortOrderStatDto> orderDeltas;
+            final List<CohortRateStatDto> rateDeltas;
+            final List<Long> eventIds = new ArrayList<>();
+            rotationLock.writeLock().lock();
+            try {
+                oldest = oldestPendingAt.getAndSet(0L);
+                if (oldest == 0L) {
+                    return;
+                }
+                pendingDeltas.set(0);
+                unappliedSegments.add(journal.rotate());
+                orderDeltas = counter.drainOrderCounts();
+                rateDeltas = counter.drainRateSums();
+                drainEventIds(eventIds);
+            } finally {
+                rotationLock.writeLock().unlock();
+            }
+            apply(orderDeltas, rateDeltas, eventIds, oldest);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * DB 에 반영한 통계와 아직 반영하지 않고 모아 둔 변화량으로 통계 큐브를 다시 만든다.
+     * 읽는 동안에는 반영하지 않으므로 읽은 값과 모아 둔 값이 겹치지 않고, 읽기 시작한 뒤 받은 변화량은 큐브가 기록해 두었다가 다시 더한다.
+     */
+    public void reloadCube(final Supplier<List<CohortOrderStatDto>> orderStatReader,
+                           final Supplier<List<CohortRateStatDto>> rateStatReader) {
+        flushLock.lock();
+        try {
+            final List<CohortOrderStatDto> pendingOrderDeltas;
+            final List<CohortRateStatDto> pendingRateDeltas;
+            rotationLock.writeLock().lock();
+            try {
+                pendingOrderDeltas = counter.copyOrderCounts();
+                pendingRateDeltas = counter.copyRateSums();
+                cohortStatCube.beginLoad();
+            } finally {
+                rotationLock.writeLock().unlock();
+            }
+            try {
+                final List<CohortOrderStatDto> orderStats = new ArrayList<>(orderStatReader.get());
+                final List<CohortRateStatDto> rateStats = new ArrayList<>(rateStatReader.get());
+                orderStats.addAll(pendingOrderDeltas);
+                rateStats.addAll(pendingRateDeltas);
+                cohortStatCube.load(orderStats, rateStats);
+            } catch (RuntimeException e) {
+                cohortStatCube.cancelLoad();
+                throw e;
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+        journal.close();
+    }
+
+    private void add(final Long eventId, final List<Delta> deltas) {
+        inFlightEventIds.add(eventId);
+        rotationLock.readLock().lock();
+        try {
+            journal.append(eventId, deltas);
+            deltas.forEach(delta -> delta.accept((type, productId, birthYearRange, gender, value) -> accumulate(
+                    counter, type, productId, birthYearRange, gender, value)));
+            deltas.forEach(delta -> delta.accept(this::increaseCube));
+            bufferedEventIds.add(eventId);
+            oldestPendingAt.compareAndSet(0L, System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            inFlightEventIds.remove(eventId);
+            throw e;
+        } finally {
+            rotationLock.readLock().unlock();
+        }
+        if (pendingDeltas.addAndGet(deltas.size() + 1) >= maxPendingDeltas) {
+            flush();
+        }
+    }
+
+    // 통계를 다시 만드는 중이라 반영하지 못하면 준비되지 않은 채로 두고, 다음 flush 에서 남은 세그먼트부터 다시 반영한다.
+    private void replayPreviousSegments() {
+        for (final Long segment : journal.findPreviousSegments()) {
+            if (!statDeltaRepository.isApplied(journal.getJournalId(), segment) && !replay(segment)) {
+                log.info("stat delta journal segment {} is not replayed while stats are being rebuilt", segment);
+                return;
+            }
+            journal.delete(segment);
+        }
+        ready = true;
+    }
+
+    /**
+     * EVENT 기록으로 끝나는 변화량만 반영한다. 그 뒤에 남은 변화량은 쓰다 만 이벤트의 것이고, 그 이벤트는 outbox 에 남아 있다.
+     * EVENT 기록이 하나도 없는 세그먼트는 이벤트 id 를 기록하기 전의 형식이므로 전부 반영한다.
+     * outbox 에 없는 이벤트는 다른 인스턴스가 이미 반영한 것이므로 뺀다.
+     */
+    private boolean replay(final long segment) {
+        final List<Delta> unfinished = new ArrayList<>();
+        final Map<Long, List<Delta>> events = readEvents(segment, unfinished);
+        final List<Delta> finished = new ArrayList<>();
+        if (events.isEmpty()) {
+            finished.addAll(unfinished);
+        } else if (!unfinished.isEmpty()) {
+            log.warn("stat delta journal segment {} ends with {} deltas of an unfinished event", segment, unfinished.size());
+        }
+        final Set<Long> appliedEventIds = events.isEmpty()
+                ? Set.of()
+                : statDeltaRepository.findMissingEventIds(events.keySet());
+        final List<Long> eventIds = new ArrayList<>();
+        events.forEach((eventId, deltas) -> {
+            if (!appliedEventIds.contains(eventId)) {
+                finished.addAll(deltas);
+                eventIds.add(eventId);
+            }
+        });
+        if (!appliedEventIds.isEmpty()) {
+            log.info("stat delta journal segment {} skips {} events already applied", segment, appliedEventIds.size());
+        }
+        final CohortStatCounter replayed = new CohortStatCounter();
+        finished.forEach(delta -> delta.accept((type, productId, birthYearRange, gender, value) ->
+                accumulate(replayed, type, productId, birthYearRange, gender, value)));
+        final boolean applied = statDeltaRepository.apply(journal.getJournalId(),
+                                                          List.of(segment),
+                                                          replayed.drainOrderCounts(),
+                                                          replayed.drainRateSums(),
+                                                          eventIds);
+        if (applied) {
+            // 큐브를 불러오는 것과 같은 잠금 안에서 반영하므로, 불러오기 전이면 불러온 값에, 불러온 뒤면 큐브에 한 번만 더해진다.
+            finished.forEach(delta -> delta.accept(this::increaseCube));
+            log.info("stat delta journal segment {} replayed, events : {}", segment, eventIds.size());
+        }
+        return applied;
+    }
+
+    /**
+     * 세그먼트의 변화량을 EVENT 기록 단위로 묶어 이벤트 id 순서대로 반환한다. 마지막 EVENT 기록 뒤의 변화량은 unfinished 에 담는다.
+     */
+    private Map<Long, List<Delta>> readEvents(final long segment, final List<Delta> unfinished) {
+        final Map<Long, List<Delta>> events = new LinkedHashMap<>();
+        journal.read(segment, (type, id, birthYearRange, gender, value) -> {
+            if (type != StatDeltaJournal.EVENT) {
+                unfinished.add(Delta.of(type, id, birthYearRange, gender, value));
+                return;
+            }
+            events.computeIfAbsent(id, eventId -> new ArrayList<>()).addAll(unfinished);
+            unfinished.clear();
+        });
+        return events;
+    }
+
+    private void apply(final List<CohortOrderStatDto> orderDeltas,
+                       final List<CohortRateStatDto> rateDeltas,
+                       final List<Long> eventIds,
+                       final long oldest) {
+        final List<Long> segments = List.copyOf(unappliedSegments);
+        final boolean applied;
+        try {
+            applied = statDeltaRepository.apply(journal.getJournalId(), segments, orderDeltas, rateDeltas, eventIds);
+        } catch (RuntimeException e) {
+            log.warn("failed to flush stat deltas, segments : {}", segments, e);
+            final Set<Long> appliedEventIds = findAppliedEventIds(eventIds);
+            if (appliedEventIds.isEmpty() || !restoreExcluding(segments, appliedEventIds, eventIds, oldest)) {
+                restore(orderDeltas, rateDeltas, eventIds, oldest);
+            }
+            return;
+        }
+        if (!applied) {
+            // 세그먼트 파일은 남겨 두고, 모은 변화량은 다음 flush 에서 새 세그먼트와 함께 다시 반영한다.
+            log.debug("stat deltas are held while stats are being rebuilt, segments : {}", segments);
+            restore(orderDeltas, rateDeltas, eventIds, oldest);
+            return;
+        }
+        eventIds.forEach(inFlightEventIds::remove);
+        unappliedSegments.clear();
+        segments.forEach(journal::delete);
+        flushLagTimer.record(Duration.ofMillis(System.currentTimeMillis() - oldest));
+    }
+
+    private void restore(final List<CohortOrderStatDto> orderDeltas,
+                         final List<CohortRateStatDto> rateDeltas,
+                         final List<Long> eventIds,
+                         final long oldest) {
+        orderDeltas.forEach(delta -> counter.addOrderCount(delta.getProductId(),
+                                                           delta.getBirthYearRange(),
+                                                           delta.getGender(),
+                                                           delta.getCount()));
+        rateDeltas.forEach(delta -> counter.addScore(delta.getProductId(),
+                                                     delta.getBirthYearRange(),
+                                                     delta.getGender(),
+                                                     delta.getTotalScore(),
+                                                     delta.getCount()));
+        bufferedEventIds.addAll(eventIds);
+        oldestPendingAt.accumulateAndGet(oldest, (current, restored) -> current == 0L ? restored : Math.min(current, restored));
+    }
+
+    private Set<Long> findAppliedEventIds(final List<Long> eventIds) {
+        try {
+            return statDeltaRepository.findMissingEventIds(eventIds);
+        } catch (RuntimeException e) {
+            log.warn("failed to find stat outbox events already applied", e);
+            return Set.of();
+        }
+    }
+
+    /**
+     * 반영하지 못한 세그먼트에서 이미 반영된 이벤트를 뺀 변화량을 다시 모아 둔다. 세그먼트에는 모아 둔 변화량이 이벤트 단위로 모두 기록되어 있다.
+     *
+     * @return 다시 모았다면 true, 세그먼트를 읽지 못했다면 false
+     */
+    private boolean restoreExcluding(final List<Long> segments,
+                                     final Set<Long> appliedEventIds,
+                                     final List<Long> eventIds,
+                                     final long oldest) {
+        final CohortStatCounter remaining = new CohortStatCounter();
+        try {
+            for (final Long segment : segments) {
+                readEvents(segment, new ArrayList<>()).forEach((eventId, deltas) -> {
+                    if (!appliedEventIds.contains(eventId)) {
+                        deltas.forEach(delta -> delta.accept((type, productId, birthYearRange, gender, value) ->
+                                accumulate(remaining, type, productId, birthYearRange, gender, value)));
+                    }
+                });
+            }
+        } catch (RuntimeException e) {
+            log.warn("failed to read stat delta journal segments {}", segments, e);
+            return false;
+        }
+        log.warn("stat outbox events {} are already applied by another instance, their deltas are discarded",
+                 appliedEventIds);
+        appliedEventIds.forEach(inFlightEventIds::remove);
+        restore(remaining.drainOrderCounts(),
+                remaining.drainRateSums(),
+                eventIds.stream().filter(eventId -> !appliedEventIds.contains(eventId)).toList(),
+                oldest);
+        return true;
+    }
+
+    private static void accumulate(final CohortStatCounter counter,
+                                   final byte type,
+                                   final long productId,
+                                   final BirthYearRange birthYearRange,
+                                   final Gender gender,
+                                   final int value) {
+        if (type == StatDeltaJournal.ORDER) {
+            counter.addOrderCount(productId, birthYearRange, gender, value);
+            return;
+        }
+        counter.addScore(productId, birthYearRange, gender, value, 1L);
+    }
+
+    private void increaseCube(final byte type,
+                              final long productId,
+                              final BirthYearRange birthYearRange,
+                              final Gender gender,
+                              final int value) {
+        if (type == StatDeltaJournal.ORDER) {
+            cohortStatCube.increaseOrderCount(productId, birthYearRange, gender, value);
+            return;
+        }
+        cohortStatCube.increaseScore(productId, birthYearRange, gender, value);
+    }
+
+    private void drainEventIds(final List<Long> eventIds) {
+        Long eventId;
+        while ((eventId = bufferedEventIds.poll()) != null) {
+            eventIds.add(eventId);
+        }
+    }
+
+    /**
+     * 저널은 재시작한 뒤 남은 변화량을 다시 반영하는 데 쓰이므로 재시작해도 남는 디렉터리여야 한다.
+     * 임시 디렉터리는 테스트처럼 temporary-journal 을 켠 경우에만 쓴다.
+     */
+    private static Path resolveDirectory(final String journalDirectory, final boolean temporaryJournal) {
+        if (temporaryJournal) {
+            try {
+                return Files.createTempDirectory("stat-journal");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        if (journalDirectory.isBlank()) {
+            throw new IllegalStateException("stat.write-behind.journal-directory must be set to a persistent directory");
+        }
+        return Path.of(journalDirectory);
+    }
+}
@@ -0,0 +1,291 @@
+package com.gugucon.shopping.stat.infrastructure;
+
+import com.gugucon.shopping.member.domain.vo.BirthYearRange;
+import com.gugucon.shopping.member.domain.vo.Gender;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 최근 1시간, 24시간, 7일 동안의 (상품, 연령대, 성별) 별 주문 수를 시간 버킷의 고리로 유지한다.
+ * <p>
+ * 기간마다 버킷별 주문 수와 기간 전체의 합계를 함께 두고, 시간이 지나면 지나간 버킷 수만큼만 비우면서 그 버킷의 주문 수를 합계에서 뺀다.
+ * 합계를 바로 읽을 수 있어 정렬할 때 버킷을 모두 더하지 않는다.
+ */
+@Component
+public class TrendingStatWindow implements MeterBinder {
+
+    private static final int COHORT_SIZE = BirthYearRange.values().length * Gender.values().length;
+    // 상품마다 연령대 x 성별 칸 뒤에, 모든 연령대와 성별을 합친 칸을 하나 더 둔다.
+    private static final int SLOT_SIZE = COHORT_SIZE + 1;
+    private static final int TOTAL_SLOT = COHORT_SIZE;
+
+    private final Clock clock;
+    private final Map<Span, Ring> rings = new EnumMap<>(Span.class);
+    private final ReentrantReadWriteLock rotationLock = new ReentrantReadWriteLock();
+    private volatile boolean ready = false;
+
+    public TrendingStatWindow() {
+        this(Clock.systemDefaultZone());
+    }
+
+    TrendingStatWindow(final Clock clock) {
+        this.clock = clock;
+        for (final Span span : Span.values()) {
+            rings.put(span, new Ring(span, clock.millis()));
+        }
+    }
+
+    /**
+     * 최근 주문을 불러오기 전에는 통계 이벤트를 받지 않는다. 불러온 주문의 이벤트를 다시 받으면 두 번 세게 된다.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void markReady() {
+        ready = true;
+    }
+
+    /**
+     * 기간이 지난 주문은 무시하고, 아직 오지 않은 시각의 주문은 가장 최근 버킷에 더한다.
+     */
+    public void addOrderCount(final Long productId,
+                              final BirthYearRange birthYearRange,
+                              final Gender gender,
+                              final int count,
+                              final LocalDateTime orderedAt) {
+        final long orderedAtMillis = orderedAt.atZone(clock.getZone()).toInstant().toEpochMilli();
+        rotateIfNeeded();
+        rotationLock.readLock().lock();
+        try {
+            for (final Ring ring : rings.values()) {
+                ring.add(slotOf(productId, cohortOf(birthYearRange, gender)), count, orderedAtMillis);
+                ring.add(slotOf(productId, TOTAL_SLOT), count, orderedAtMillis);
+            }
+        } finally {
+            rotationLock.readLock().unlock();
+        }
+    }
+
+    public long countOrders(final Long productId,
+                            final Span span,
+                            final BirthYearRange birthYearRange,
+                            final Gender gender) {
+        rotateIfNeeded();
+        return rings.get(span).count(slotOf(productId, cohortOf(birthYearRange, gender)));
+    }
+
+    public long countOrders(final Long productId, final Span span) {
+        rotateIfNeeded();
+        return rings.get(span).count(slotOf(productId, TOTAL_SLOT));
+    }
+
+    /**
+     * 최근 7일 동안 해당 연령대, 성별의 주문이 있는 후보 상품만 남겨 최근 24시간 주문 수 내림차순으로 정렬한다.
+     * 같으면 최근 1시간, 최근 7일 주문 수 내림차순, id 내림차순으로 정렬한다.
+     */
+    public List<Long> sortByTrending(final List<Long> candidateIds,
+                                     final BirthYearRange birthYearRange,
+                                     final Gender gender) {
+        return sortByTrending(candidateIds, cohortOf(birthYearRange, gender));
+    }
+
+    /**
+     * 연령대, 성별을 구분하지 않고 모든 주문 수로 정렬한다.
+     */
+    public List<Long> sortByTrending(final List<Long> candidateIds) {
+        return sortByTrending(candidateIds, TOTAL_SLOT);
+    }
+
+    /**
+     * 최근 7일 동안 해당 연령대, 성별의 주문이 있는 상품 id 를 순서 없이 반환한다.
+     */
+    public List<Long> findOrderedProductIds(final BirthYearRange birthYearRange, final Gender gender) {
+        return findOrderedProductIds(cohortOf(birthYearRange, gender));
+    }
+
+    /**
+     * 최근 7일 동안 주문이 있는 상품 id 를 순서 없이 반환한다.
+     */
+    public List<Long> findOrderedProductIds() {
+        return findOrderedProductIds(TOTAL_SLOT);
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        Gauge.builder("stat.trending.entries", this, window -> window.rings.get(Span.WEEK).size())
+                .description("(product, cohort) entries ordered in the widest trending window")
+                .register(registry);
+    }
+
+    private List<Long> sortByTrending(final List<Long> candidateIds, final int cohort) {
+        rotateIfNeeded();
+        final Ring hour = rings.get(Span.HOUR);
+        final Ring day = rings.get(Span.DAY);
+        final Ring week = rings.get(Span.WEEK);
+        final List<TrendScore> scores = new ArrayList<>();
+        for (final Long productId : candidateIds) {
+            final long slot = slotOf(productId, cohort);
+            final long weekCount = week.count(slot);
+            if (weekCount > 0) {
+                scores.add(new TrendScore(productId, hour.count(slot), day.count(slot), weekCount));
+            }
+        }
+        return scores.stream()
+                .sorted(Comparator.comparingLong((TrendScore score) -> score.dayCount).reversed()
+                                .thenComparing(Comparator.comparingLong((TrendScore score) -> score.hourCount)
+                                                       .reversed())
+                                .thenComparing(Comparator.comparingLong((TrendScore score) -> score.weekCount)
+                                                       .reversed())
+                                .thenComparing(Comparator.comparingLong((TrendScore score) -> score.productId)
+                                                       .reversed()))
+                .map(score -> score.productId)
+                .toList();
+    }
+
+    private List<Long> findOrderedProductIds(final int cohort) {
+        rotateIfNeeded();
+        return rings.get(Span.WEEK).slots().stream()
+                .filter(slot -> slot % SLOT_SIZE == cohort)
+                .map(slot -> slot / SLOT_SIZE)
+                .toList();
+    }
+
+    private void rotateIfNeeded() {
+        final long now = clock.millis();
+        if (rings.values().stream().noneMatch(ring -> ring.isBehind(now))) {
+            return;
+        }
+        rotationLock.writeLock().lock();
+        try {
+            rings.values().forEach(ring -> ring.rotateTo(now));
+        } finally {
+            rotationLock.writeLock().unlock();
+        }
+    }
+
+    private static int cohortOf(final BirthYearRange birthYearRange, final Gender gender) {
+        return birthYearRange.ordinal() * Gender.values().length + gender.ordinal();
+    }
+
+    private static long slotOf(final long productId, final int cohort) {
+        return productId * SLOT_SIZE + cohort;
+    }
+
+    @Getter
+    public enum Span {
+        HOUR(Duration.ofHours(1), 60),
+        DAY(Duration.ofDays(1), 24),
+        WEEK(Duration.ofDays(7), 168);
+
+        private final Duration duration;
+        private final int bucketCount;
+
+        Span(final Duration duration, final int bucketCount) {
+            this.duration = duration;
+            this.bucketCount = bucketCount;
+        }
+    }
+
+    private static final class Ring {
+
+        private final long bucketMillis;
+        private final List<Map<Long, LongAdder>> buckets;
+        private final Map<Long, LongAdder> totals = new ConcurrentHashMap<>();
+        private volatile long headBucket;
+
+        private Ring(final Span span, final long nowMillis) {
+            this.bucketMillis = span.duration.toMillis() / span.bucketCount;
+            this.buckets = new ArrayList<>(span.bucketCount);
+            for (int i = 0; i < span.bucketCount; i++) {
+                buckets.add(new ConcurrentHashMap<>());
+            }
+            this.headBucket = nowMillis / bucketMillis;
+        }
+
+        private void add(final long slot, final int count, final long atMillis) {
+            final long head = headBucket;
+            final long bucket = Math.min(atMillis / bucketMillis, head);
+            if (bucket <= head - buckets.size()) {
+                return;
+            }
+            buckets.get(indexOf(bucket)).computeIfAbsent(slot, key -> new LongAdder()).add(count);
+            totals.computeIfAbsent(slot, key -> new LongAdder()).add(count);
+        }
+
+        private long count(final long slot) {
+            final LongAdder total = totals.get(slot);
+            return total == null ? 0L : total.sum();
+        }
+
+        private int size() {
+            return totals.size();
+        }
+
+        private Set<Long> slots() {
+            return totals.keySet();
+        }
+
+        private boolean isBehind(final long nowMillis) {
+            return nowMillis / bucketMillis > headBucket;
+        }
+
+        // 쓰기 잠금 안에서 호출된다. 지나간 버킷만 비우므로 한 번에 많아야 버킷 수만큼 비운다.
+        private void rotateTo(final long nowMillis) {
+            final long newHead = nowMillis / bucketMillis;
+            final long expiredCount = Math.min(newHead - headBucket, buckets.size());
+            for (long i = 1; i <= expiredCount; i++) {
+                expire(buckets.get(indexOf(headBucket + i)));
+            }
+            if (newHead > headBucket) {
+                headBucket = newHead;
+            }
+        }
+
+        private void expire(final Map<Long, LongAdder> bucket) {
+            bucket.forEach((slot, count) -> {
+                final LongAdder total = totals.get(slot);
+                total.add(-count.sum());
+                if (total.sum() == 0L) {
+                    totals.remove(slot);
+                }
+            });
+            bucket.clear();
+        }
+
+        private int indexOf(final long bucket) {
+            return (int) Math.floorMod(bucket, (long) buckets.size());
+        }
+    }
+
+    private static final class TrendScore {
+
+        private final long productId;
+        private final long hourCount;
+        private final long dayCount;
+        private final long weekCount;
+
+        private TrendScore(final long productId, final long hourCount, final long dayCount, final long weekCount) {
+            this.productId = productId;
+            this.hourCount = hourCount;
+            this.dayCount = dayCount;
+            this.weekCount = weekCount;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.gugucon.shopping.stat.infrastructure;
+
+import com.gugucon.shopping.common.exception.ShoppingException;
+import com.gugucon.shopping.member.domain.vo.BirthYearRange;
+import com.gugucon.shopping.stat.infrastructure.TrendingStatWindow.Span;
+import com.gugucon.shopping.stat.repository.TrendingStatRepository;
+import com.gugucon.shopping.stat.repository.dto.RecentOrderStatDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 시작할 때 가장 긴 기간 동안 완료된 주문을 불러와 최근 주문 통계를 채운다.
+ * 불러오지 못하더라도 통계 이벤트가 멈추지 않도록 빈 통계로 시작한다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TrendingStatWindowLoader {
+
+    private final TrendingStatRepository trendingStatRepository;
+    private final TrendingStatWindow trendingStatWindow;
+
+    @Async("threadPoolTaskExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        final long start = System.currentTimeMillis();
+        try {
+            final List<RecentOrderStatDto> orderStats = trendingStatRepository.findRecentOrderStats(
+                    LocalDateTime.now().minus(Span.WEEK.getDuration()));
+            orderStats.forEach(this::add);
+            log.info("trending stat window loaded, order stats : {}, total elapsed time : {} ms",
+                     orderStats.size(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.warn("failed to load trending stat window, starting with empty windows", e);
+        } finally {
+            trendingStatWindow.markReady();
+        }
+    }
+
+    private void add(final RecentOrderStatDto orderStat) {
+        final BirthYearRange birthYearRange;
+        // 연령대 범위를 벗어난 회원의 주문은 이벤트로도 집계되지 않으므로 건너뛴다.
+        try {
+            birthYearRange = BirthYearRange.from(orderStat.getBirthDate());
+        } catch (ShoppingException e) {
+            return;
+        }
+        trendingStatWindow.addOrderCount(orderStat.getProductId(),
+                                         birthYearRange,
+                                         orderStat.getGender(),
+                                         Math.toIntExact(orderStat.getQuantity()),
+                                         orderStat.getCompletedAt());
+    }
+}
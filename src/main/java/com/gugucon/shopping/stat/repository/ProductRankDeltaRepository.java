@@ -0,0 +1,24 @@
+package com.gugucon.shopping.stat.repository;
+
+import com.gugucon.shopping.stat.repository.dto.ProductRankDeltaDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * 상품 랭킹 행이 없으면 만들고 있으면 더하는 것을 한 문장으로 수행해, 같은 상품을 동시에 갱신해도 행을 두 번 만들지 않는다.
+ */
+@Repository
+public class ProductRankDeltaRepository {
+
+    private final StatUpsertWriter statUpsertWriter;
+
+    public ProductRankDeltaRepository(final JdbcTemplate jdbcTemplate) {
+        this.statUpsertWriter = new StatUpsertWriter(jdbcTemplate, StatSqlDialect.of(jdbcTemplate));
+    }
+
+    public void add(final List<ProductRankDeltaDto> deltas) {
+        statUpsertWriter.upsertProductRanks(deltas);
+    }
+}
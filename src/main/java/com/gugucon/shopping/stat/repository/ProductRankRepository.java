@@ -0,0 +1,50 @@
+package com.gugucon.shopping.stat.repository;
+
+import com.gugucon.shopping.stat.domain.entity.ProductRank;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface ProductRankRepository extends JpaRepository<ProductRank, Long> {
+
+    @Query(value = "DELETE FROM product_ranks", nativeQuery = true)
+    @Modifying
+    void deleteAllRanks();
+
+    @Query(value = "INSERT INTO product_ranks (product_id, order_count, total_score, rate_count, average_score) " +
+            "SELECT p.id, " +
+            "COALESCE(os.total_count, 0), " +
+            "COALESCE(rs.total_score, 0), " +
+            "COALESCE(rs.total_count, 0), " +
+            "CASE WHEN rs.total_count > 0 THEN rs.total_score * 1.0 / rs.total_count END " +
+            "FROM products p " +
+            "LEFT JOIN (SELECT product_id, SUM(count) AS total_count " +
+            "FROM order_stats GROUP BY product_id) os ON os.product_id = p.id " +
+            "LEFT JOIN (SELECT product_id, SUM(total_score) AS total_score, SUM(count) AS total_count " +
+            "FROM rate_stats GROUP BY product_id) rs ON rs.product_id = p.id",
+            nativeQuery = true)
+    @Modifying
+    int insertAllRanksFromStats();
+
+    @Query(value = "INSERT INTO product_ranks (product_id, order_count, total_score, rate_count, average_score) " +
+            "SELECT p.id, " +
+            "COALESCE(os.total_count, 0), " +
+            "COALESCE(rs.total_score, 0), " +
+            "COALESCE(rs.total_count, 0), " +
+            "CASE WHEN rs.total_count > 0 THEN rs.total_score * 1.0 / rs.total_count END " +
+            "FROM products p " +
+            "LEFT JOIN (SELECT product_id, SUM(count) AS total_count " +
+            "FROM order_stats GROUP BY product_id) os ON os.product_id = p.id " +
+            "LEFT JOIN (SELECT product_id, SUM(total_score) AS total_score, SUM(count) AS total_count " +
+            "FROM rate_stats GROUP BY product_id) rs ON rs.product_id = p.id " +
+            "WHERE NOT EXISTS (SELECT 1 FROM product_ranks pr WHERE pr.product_id = p.id)",
+            nativeQuery = true)
+    @Modifying
+    int insertMissingRanksFromStats();
+
+    @Query(value = "UPDATE rate_stats " +
+            "SET average_score = CASE WHEN count > 0 THEN total_score * 1.0 / count END",
+            nativeQuery = true)
+    @Modifying
+    int refreshAllRateStatAverages();
+}
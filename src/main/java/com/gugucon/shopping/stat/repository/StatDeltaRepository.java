@@ -0,0 +1,145 @@
+package com.gugucon.shopping.stat.repository;
+
+import com.gugucon.shopping.stat.repository.dto.CohortOrderStatDto;
+import com.gugucon.shopping.stat.repository.dto.CohortRateStatDto;
+import com.gugucon.shopping.stat.repository.dto.ProductRankDeltaDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+@Repository
+public class StatDeltaRepository {
+
+    private static final String INSERT_APPLIED_SEGMENT =
+            "INSERT INTO stat_delta_journal_segments (journal_id, segment) VALUES (?, ?)";
+    private static final String DELETE_APPLIED_SEGMENTS_BEFORE =
+            "DELETE FROM stat_delta_journal_segments WHERE journal_id = ? AND segment < ?";
+    private static final String DELETE_OUTBOX_EVENTS =
+            "DELETE FROM stat_outbox_events WHERE id IN (%s)";
+    private static final String SELECT_OUTBOX_EVENT_IDS =
+            "SELECT id FROM stat_outbox_events WHERE id IN (%s)";
+    private static final String SELECT_REBUILD_STATUS_FOR_UPDATE =
+            "SELECT status FROM stat_rebuild_state WHERE id = 1 FOR UPDATE";
+    private static final String COUNT_APPLIED_SEGMENT =
+            "SELECT COUNT(*) FROM stat_delta_journal_segments WHERE journal_id = ? AND segment = ?";
+    private static final int EVENT_CHUNK_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StatUpsertWriter statUpsertWriter;
+
+    public StatDeltaRepository(final JdbcTemplate jdbcTemplate) {
+        StatUniqueKeyVerifier.verifyCohortKeys(jdbcTemplate, List.of(
+                StatRebuildRepository.ORDER_STATS,
+                StatRebuildRepository.RATE_STATS,
+                StatRebuildRepository.ORDER_STATS + StatSqlDialect.REBUILD_SUFFIX,
+                StatRebuildRepository.RATE_STATS + StatSqlDialect.REBUILD_SUFFIX));
+        this.jdbcTemplate = jdbcTemplate;
+        this.statUpsertWriter = new StatUpsertWriter(jdbcTemplate, StatSqlDialect.of(jdbcTemplate));
+    }
+
+    /**
+     * 통계 변화량과 상품별로 합한 랭킹 변화량을 upsert 로 한 번에 반영하고, 반영한 저널 세그먼트 기록과 outbox 이벤트 삭제를 같은 트랜잭션에서 수행한다.
+     * 세그먼트 파일을 지우기 전에 종료되더라도 기록이 남아 있고, 이벤트는 지워졌으므로 다시 반영하지 않는다.
+     * 반영한 세그먼트보다 오래된 기록은 더 이상 필요 없으므로 지운다.
+     * 통계 이벤트를 처리하는 트랜잭션 안에서 호출되더라도 그 트랜잭션과 무관하게 커밋한다.
+     * <p>
+     * 지우지 못한 이벤트가 있으면 다른 인스턴스가 이미 반영한 것이므로, 두 번 세지 않도록 예외를 던져 모두 되돌린다.
+     * <p>
+     * 통계 테이블을 다시 만드는 중에는 반영한 변화량이 새 테이블로 바뀔 때 사라지므로 반영하지 않는다.
+     * 상태 행을 잠가 두므로, 다시 만들기를 시작하는 쪽은 이 트랜잭션이 끝난 뒤의 outbox 를 보게 된다.
+     *
+     * @return 반영했다면 true, 통계 테이블을 다시 만드는 중이라 반영하지 않았다면 false
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean apply(final String journalId,
+                      final Collection<Long> segments,
+                      final List<CohortOrderStatDto> orderDeltas,
+                      final List<CohortRateStatDto> rateDeltas,
+                      final Collection<Long> eventIds) {
+        final List<String> rebuildStatus = jdbcTemplate.queryForList(SELECT_REBUILD_STATUS_FOR_UPDATE, String.class);
+        if (rebuildStatus.contains(StatRebuildRepository.RUNNING)) {
+            return false;
+        }
+        final List<Long> distinctEventIds = List.copyOf(new LinkedHashSet<>(eventIds));
+        final int deleted = deleteOutboxEvents(distinctEventIds);
+        if (deleted != distinctEventIds.size()) {
+            throw new IllegalStateException("stat outbox events are already applied, expected : "
+                                                    + distinctEventIds.size() + ", deleted : " + deleted);
+        }
+        statUpsertWriter.upsertOrderStats(StatRebuildRepository.ORDER_STATS, orderDeltas);
+        statUpsertWriter.upsertRateStats(StatRebuildRepository.RATE_STATS, rateDeltas);
+        statUpsertWriter.upsertProductRanks(toProductRankDeltas(orderDeltas, rateDeltas));
+        jdbcTemplate.update(DELETE_APPLIED_SEGMENTS_BEFORE,
+                            journalId,
+                            segments.stream().mapToLong(Long::longValue).min().orElse(0L));
+        jdbcTemplate.batchUpdate(INSERT_APPLIED_SEGMENT, segments, segments.size(), (statement, segment) -> {
+            statement.setString(1, journalId);
+            statement.setLong(2, segment);
+        });
+        return true;
+    }
+
+    /**
+     * outbox 에 남아 있지 않은 이벤트 id 를 찾는다. 반영한 트랜잭션에서 지우므로, 이미 누군가 반영한 이벤트다.
+     */
+    public Set<Long> findMissingEventIds(final Collection<Long> eventIds) {
+        final List<Long> distinctEventIds = List.copyOf(new LinkedHashSet<>(eventIds));
+        final Set<Long> missingEventIds = new HashSet<>(distinctEventIds);
+        for (int from = 0; from < distinctEventIds.size(); from += EVENT_CHUNK_SIZE) {
+            final List<Long> chunk = distinctEventIds.subList(from, Math.min(from + EVENT_CHUNK_SIZE, distinctEventIds.size()));
+            jdbcTemplate.queryForList(String.format(SELECT_OUTBOX_EVENT_IDS, placeholders(chunk.size())),
+                                      Long.class,
+                                      chunk.toArray())
+                    .forEach(missingEventIds::remove);
+        }
+        return missingEventIds;
+    }
+
+    public boolean isApplied(final String journalId, final long segment) {
+        final Integer count = jdbcTemplate.queryForObject(COUNT_APPLIED_SEGMENT, Integer.class, journalId, segment);
+        return count != null && count > 0;
+    }
+
+    private int deleteOutboxEvents(final List<Long> eventIds) {
+        int deleted = 0;
+        for (int from = 0; from < eventIds.size(); from += EVENT_CHUNK_SIZE) {
+            final List<Long> chunk = eventIds.subList(from, Math.min(from + EVENT_CHUNK_SIZE, eventIds.size()));
+            deleted += jdbcTemplate.update(String.format(DELETE_OUTBOX_EVENTS, placeholders(chunk.size())),
+                                           chunk.toArray());
+        }
+        return deleted;
+    }
+
+    private static String placeholders(final int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    // 상품 id 순으로 잠그도록 정렬해 둔다.
+    private static List<ProductRankDeltaDto> toProductRankDeltas(final List<CohortOrderStatDto> orderDeltas,
+                                                                 final List<CohortRateStatDto> rateDeltas) {
+        final Map<Long, long[]> sums = new TreeMap<>();
+        orderDeltas.forEach(delta -> sums.computeIfAbsent(delta.getProductId(), productId -> new long[3])[0]
+                += delta.getCount());
+        rateDeltas.forEach(delta -> {
+            final long[] sum = sums.computeIfAbsent(delta.getProductId(), productId -> new long[3]);
+            sum[1] += delta.getTotalScore();
+            sum[2] += delta.getCount();
+        });
+        return sums.entrySet().stream()
+                .map(entry -> new ProductRankDeltaDto(entry.getKey(),
+                                                      entry.getValue()[0],
+                                                      entry.getValue()[1],
+                                                      entry.getValue()[2]))
+                .toList();
+    }
+}
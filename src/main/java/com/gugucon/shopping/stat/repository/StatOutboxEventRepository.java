@@ -0,0 +1,63 @@
+package com.gugucon.shopping.stat.repository;
+
+import com.gugucon.shopping.stat.domain.entity.StatOutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface StatOutboxEventRepository extends JpaRepository<StatOutboxEvent, Long> {
+
+    @Query("SELECT e.id FROM StatOutboxEvent e " +
+            "WHERE e.id > :id AND e.deadLetteredAt IS NULL " +
+            "AND (e.owner IS NULL OR e.leaseExpiresAt < :now) " +
+            "ORDER BY e.id")
+    List<Long> findClaimableIds(@Param("id") final Long id,
+                                @Param("now") final LocalDateTime now,
+                                final Pageable pageable);
+
+    /**
+     * 임대한 인스턴스가 없거나 임대가 끝난 이벤트만 가져온다. 같은 행을 동시에 갱신하면 나중 쪽이 조건을 다시 확인하므로 한 인스턴스만 가져간다.
+     */
+    @Query("UPDATE StatOutboxEvent e SET e.owner = :owner, e.leaseExpiresAt = :leaseExpiresAt " +
+            "WHERE e.id IN :ids AND e.deadLetteredAt IS NULL " +
+            "AND (e.owner IS NULL OR e.leaseExpiresAt < :now)")
+    @Modifying
+    @Transactional
+    int claim(@Param("ids") final List<Long> ids,
+              @Param("owner") final String owner,
+              @Param("leaseExpiresAt") final LocalDateTime leaseExpiresAt,
+              @Param("now") final LocalDateTime now);
+
+    List<StatOutboxEvent> findAllByIdInAndOwnerOrderById(final List<Long> ids, final String owner);
+
+    @Query("UPDATE StatOutboxEvent e SET e.leaseExpiresAt = :leaseExpiresAt WHERE e.id IN :ids AND e.owner = :owner")
+    @Modifying
+    @Transactional
+    int extendLeases(@Param("ids") final List<Long> ids,
+                     @Param("owner") final String owner,
+                     @Param("leaseExpiresAt") final LocalDateTime leaseExpiresAt);
+
+    /**
+     * 실패한 이벤트는 retryAt 까지 임대해 두어 바로 다시 읽지 않게 하고, maxAttempts 번 실패하면 dead letter 로 남긴다.
+     * MariaDB 는 SET 절을 앞에서부터 반영하므로, 늘리기 전의 attempts 로 dead letter 여부를 먼저 정한다.
+     */
+    @Query(value = "UPDATE stat_outbox_events " +
+            "SET dead_lettered_at = CASE WHEN attempts + 1 >= :maxAttempts THEN :now ELSE NULL END, " +
+            "attempts = attempts + 1, lease_expires_at = :retryAt " +
+            "WHERE id = :id",
+            nativeQuery = true)
+    @Modifying
+    @Transactional
+    int recordFailure(@Param("id") final Long id,
+                      @Param("maxAttempts") final int maxAttempts,
+                      @Param("now") final LocalDateTime now,
+                      @Param("retryAt") final LocalDateTime retryAt);
+
+    long countByDeadLetteredAtIsNull();
+}
@@ -0,0 +1,264 @@
+package com.gugucon.shopping.stat.repository;
+
+import com.gugucon.shopping.member.domain.vo.Gender;
+import com.gugucon.shopping.stat.repository.dto.CohortOrderStatDto;
+import com.gugucon.shopping.stat.repository.dto.CohortRateStatDto;
+import com.gugucon.shopping.stat.repository.dto.CohortSourceStatDto;
+import com.gugucon.shopping.stat.repository.dto.StatRebuildRunDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 통계 테이블을 원본 주문, 평점 테이블로부터 다시 만드는 작업의 상태와 _rebuild 테이블을 관리한다.
+ * 상태는 id 가 1 인 행 하나에 두며, 작업 중인 인스턴스만 임대를 연장하면서 청크를 반영할 수 있다.
+ * 넘겨받은 횟수가 최대 시도 횟수에 이르면 작업을 포기하고 IDLE 로 되돌려, 통계 반영이 계속 막히지 않게 한다.
+ */
+@Repository
+public class StatRebuildRepository {
+
+    static final String IDLE = "IDLE";
+    static final String RUNNING = "RUNNING";
+    static final String ORDER_STATS = "order_stats";
+    static final String RATE_STATS = "rate_stats";
+    private static final String GENERATIONS = "stat_generations";
+
+    private static final String COUNT_STATE =
+            "SELECT COUNT(*) FROM stat_rebuild_state WHERE id = 1";
+    private static final String INSERT_STATE =
+            "INSERT INTO stat_rebuild_state (id, status) VALUES (1, '" + IDLE + "')";
+    private static final String SELECT_STATUS_FOR_UPDATE =
+            "SELECT status FROM stat_rebuild_state WHERE id = 1 FOR UPDATE";
+    private static final String SELECT_MAX_ORDER_ID =
+            "SELECT COALESCE(MAX(id), 0) FROM orders";
+    private static final String SELECT_MAX_RATE_ID =
+            "SELECT COALESCE(MAX(id), 0) FROM rates";
+    private static final String START =
+            "UPDATE stat_rebuild_state SET status = '" + RUNNING + "', run_key = ?, owner = ?, lease_expires_at = ?, " +
+                    "max_order_id = ?, max_rate_id = ?, chunk_size = ?, started_at = ?, attempts = 1 " +
+                    "WHERE id = 1 AND status = '" + IDLE + "'";
+    private static final String RESUME =
+            "UPDATE stat_rebuild_state SET owner = ?, lease_expires_at = ?, attempts = attempts + 1 " +
+                    "WHERE id = 1 AND status = '" + RUNNING + "' AND lease_expires_at < ? AND attempts < ?";
+    private static final String RELEASE_LEASE =
+            "UPDATE stat_rebuild_state SET lease_expires_at = ? " +
+                    "WHERE id = 1 AND status = '" + RUNNING + "' AND run_key = ? AND owner = ?";
+    private static final String ABORT =
+            "UPDATE stat_rebuild_state SET status = '" + IDLE + "', owner = NULL, lease_expires_at = NULL " +
+                    "WHERE id = 1 AND status = '" + RUNNING + "' AND lease_expires_at < ? AND attempts >= ?";
+    private static final String SELECT_RUN_KEY_FOR_UPDATE =
+            "SELECT run_key FROM stat_rebuild_state WHERE id = 1 FOR UPDATE";
+    private static final String DELETE_RUN_CHUNKS =
+            "DELETE FROM stat_rebuild_chunks WHERE run_key = ?";
+    private static final String EXTEND_LEASE =
+            "UPDATE stat_rebuild_state SET lease_expires_at = ? " +
+                    "WHERE id = 1 AND status = '" + RUNNING + "' AND run_key = ? AND owner = ?";
+    private static final String FINISH =
+            "UPDATE stat_rebuild_state SET status = '" + IDLE + "', owner = NULL, lease_expires_at = NULL " +
+                    "WHERE id = 1 AND status = '" + RUNNING + "' AND run_key = ? AND owner = ?";
+    private static final String SELECT_RUN =
+            "SELECT run_key, max_order_id, max_rate_id, chunk_size FROM stat_rebuild_state WHERE id = 1";
+    private static final String SELECT_DONE_CHUNKS =
+            "SELECT chunk_number FROM stat_rebuild_chunks WHERE run_key = ? AND chunk_type = ?";
+    private static final String SUM_DONE_ROWS =
+            "SELECT COALESCE(SUM(row_count), 0) FROM stat_rebuild_chunks WHERE run_key = ?";
+    private static final String INSERT_CHUNK =
+            "INSERT INTO stat_rebuild_chunks (run_key, chunk_type, chunk_number, row_count) VALUES (?, ?, ?, ?)";
+    private static final String DELETE_OTHER_RUN_CHUNKS =
+            "DELETE FROM stat_rebuild_chunks WHERE run_key <> ?";
+    private static final String COUNT_GENERATION =
+            "SELECT COUNT(*) FROM " + GENERATIONS + " WHERE run_key = ?";
+
+    // 아직 outbox 에 남은 이벤트의 주문, 평점은 작업이 끝난 뒤 write-behind 반영으로 더해지므로 제외한다.
+    private static final String SELECT_ORDER_SOURCE_STATS =
+            "SELECT oi.product_id, YEAR(m.birth_date) AS birth_year, m.gender, " +
+                    "SUM(oi.quantity) AS total, COUNT(*) AS row_count " +
+                    "FROM orders o " +
+                    "INNER JOIN order_items oi ON oi.order_id = o.id " +
+                    "INNER JOIN members m ON m.id = o.member_id " +
+                    "WHERE o.id > ? AND o.id <= ? AND o.status = 'COMPLETED' " +
+                    "AND NOT EXISTS (SELECT 1 FROM stat_outbox_events e " +
+                    "WHERE e.event_type = 'ORDER_COMPLETE' AND e.aggregate_id = o.id) " +
+                    "GROUP BY oi.product_id, YEAR(m.birth_date), m.gender";
+    private static final String SELECT_RATE_SOURCE_STATS =
+            "SELECT oi.product_id, YEAR(m.birth_date) AS birth_year, m.gender, " +
+                    "SUM(r.score) AS total, COUNT(*) AS row_count " +
+                    "FROM rates r " +
+                    "INNER JOIN order_items oi ON oi.id = r.order_item_id " +
+                    "INNER JOIN orders o ON o.id = oi.order_id " +
+                    "INNER JOIN members m ON m.id = o.member_id " +
+                    "WHERE r.id > ? AND r.id <= ? " +
+                    "AND NOT EXISTS (SELECT 1 FROM stat_outbox_events e " +
+                    "WHERE e.event_type = 'RATE_CREATE' AND e.aggregate_id = r.id) " +
+                    "GROUP BY oi.product_id, YEAR(m.birth_date), m.gender";
+
+    private static final RowMapper<CohortSourceStatDto> SOURCE_STAT_ROW_MAPPER = (resultSet, rowNum) ->
+            new CohortSourceStatDto(resultSet.getLong("product_id"),
+                                    resultSet.getInt("birth_year"),
+                                    Gender.valueOf(resultSet.getString("gender")),
+                                    resultSet.getLong("total"),
+                                    resultSet.getLong("row_count"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StatSqlDialect dialect;
+    private final StatUpsertWriter statUpsertWriter;
+
+    public StatRebuildRepository(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dialect = StatSqlDialect.of(jdbcTemplate);
+        this.statUpsertWriter = new StatUpsertWriter(jdbcTemplate, dialect);
+    }
+
+    public void createStateIfAbsent() {
+        final Integer count = jdbcTemplate.queryForObject(COUNT_STATE, Integer.class);
+        if (count == null || count == 0) {
+            jdbcTemplate.update(INSERT_STATE);
+        }
+    }
+
+    /**
+     * 상태 행을 먼저 잠가, 이 트랜잭션이 끝날 때까지 통계 변화량이 반영되지 않게 한 뒤 원본 테이블의 마지막 id 를 정한다.
+     * 그 뒤의 주문, 평점과 outbox 에 남은 이벤트는 작업이 끝난 뒤 write-behind 반영으로 더해진다.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Optional<StatRebuildRunDto> start(final String runKey,
+                                             final String owner,
+                                             final LocalDateTime leaseExpiresAt,
+                                             final long chunkSize) {
+        final List<String> status = jdbcTemplate.queryForList(SELECT_STATUS_FOR_UPDATE, String.class);
+        if (!status.contains(IDLE)) {
+            return Optional.empty();
+        }
+        final Long maxOrderId = jdbcTemplate.queryForObject(SELECT_MAX_ORDER_ID, Long.class);
+        final Long maxRateId = jdbcTemplate.queryForObject(SELECT_MAX_RATE_ID, Long.class);
+        jdbcTemplate.update(START, runKey, owner, leaseExpiresAt, maxOrderId, maxRateId, chunkSize, LocalDateTime.now());
+        return Optional.of(new StatRebuildRunDto(runKey, maxOrderId, maxRateId, chunkSize));
+    }
+
+    /**
+     * 임대가 끝난 작업을 넘겨받는다. 이미 maxAttempts 번 시도한 작업은 넘겨받지 않는다.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Optional<StatRebuildRunDto> resume(final String owner,
+                                              final LocalDateTime leaseExpiresAt,
+                                              final int maxAttempts) {
+        if (jdbcTemplate.update(RESUME, owner, leaseExpiresAt, LocalDateTime.now(), maxAttempts) != 1) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(jdbcTemplate.queryForObject(SELECT_RUN, (resultSet, rowNum) -> new StatRebuildRunDto(
+                resultSet.getString("run_key"),
+                resultSet.getLong("max_order_id"),
+                resultSet.getLong("max_rate_id"),
+                resultSet.getLong("chunk_size"))));
+    }
+
+    /**
+     * @return 여전히 임대를 가지고 있어 연장했다면 true
+     */
+    public boolean extendLease(final String runKey, final String owner, final LocalDateTime leaseExpiresAt) {
+        return jdbcTemplate.update(EXTEND_LEASE, leaseExpiresAt, runKey, owner) == 1;
+    }
+
+    /**
+     * 실패한 작업의 임대를 바로 끝내, 다음 확인 때 다시 시도하거나 포기하게 한다.
+     */
+    public void releaseLease(final String runKey, final String owner) {
+        jdbcTemplate.update(RELEASE_LEASE, LocalDateTime.now(), runKey, owner);
+    }
+
+    /**
+     * 임대가 끝났고 maxAttempts 번 시도한 작업을 IDLE 로 되돌리고, 작업이 남긴 _rebuild 테이블과 청크 기록을 지운다.
+     * 상태 행을 잠근 채 같은 트랜잭션에서 지우므로, 그 사이에 새 작업이 시작되어 지운 테이블을 쓰는 일은 없다.
+     *
+     * @return 포기한 작업의 run key
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Optional<String> abortExhausted(final int maxAttempts) {
+        final List<String> runKey = jdbcTemplate.queryForList(SELECT_RUN_KEY_FOR_UPDATE, String.class);
+        if (runKey.isEmpty() || jdbcTemplate.update(ABORT, LocalDateTime.now(), maxAttempts) != 1) {
+            return Optional.empty();
+        }
+        jdbcTemplate.update("DELETE FROM " + ORDER_STATS + StatSqlDialect.REBUILD_SUFFIX);
+        jdbcTemplate.update("DELETE FROM " + RATE_STATS + StatSqlDialect.REBUILD_SUFFIX);
+        jdbcTemplate.update("DELETE FROM " + GENERATIONS + StatSqlDialect.REBUILD_SUFFIX);
+        jdbcTemplate.update(DELETE_RUN_CHUNKS, runKey.get(0));
+        return Optional.ofNullable(runKey.get(0));
+    }
+
+    public boolean finish(final String runKey, final String owner) {
+        return jdbcTemplate.update(FINISH, runKey, owner) == 1;
+    }
+
+    public Set<Long> findDoneChunkNumbers(final String runKey, final String chunkType) {
+        return new HashSet<>(jdbcTemplate.queryForList(SELECT_DONE_CHUNKS, Long.class, runKey, chunkType));
+    }
+
+    public long sumDoneRowCount(final String runKey) {
+        final Long rowCount = jdbcTemplate.queryForObject(SUM_DONE_ROWS, Long.class, runKey);
+        return rowCount == null ? 0L : rowCount;
+    }
+
+    public List<CohortSourceStatDto> findOrderSourceStats(final long fromId, final long toId) {
+        return jdbcTemplate.query(SELECT_ORDER_SOURCE_STATS, SOURCE_STAT_ROW_MAPPER, fromId, toId);
+    }
+
+    public List<CohortSourceStatDto> findRateSourceStats(final long fromId, final long toId) {
+        return jdbcTemplate.query(SELECT_RATE_SOURCE_STATS, SOURCE_STAT_ROW_MAPPER, fromId, toId);
+    }
+
+    /**
+     * 청크의 집계를 _rebuild 테이블에 더하고 청크를 마친 것으로 기록한다.
+     * 임대를 먼저 연장하므로 상태 행이 잠겨 여러 스레드의 반영이 차례로 수행되고, _rebuild 테이블에서 서로 교착되지 않는다.
+     *
+     * @return 임대를 잃어 반영하지 않았다면 false
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean saveChunk(final String runKey,
+                             final String owner,
+                             final LocalDateTime leaseExpiresAt,
+                             final String chunkType,
+                             final long chunkNumber,
+                             final long rowCount,
+                             final List<CohortOrderStatDto> orderStats,
+                             final List<CohortRateStatDto> rateStats) {
+        if (!extendLease(runKey, owner, leaseExpiresAt)) {
+            return false;
+        }
+        statUpsertWriter.upsertOrderStats(ORDER_STATS + StatSqlDialect.REBUILD_SUFFIX, orderStats);
+        statUpsertWriter.upsertRateStats(RATE_STATS + StatSqlDialect.REBUILD_SUFFIX, rateStats);
+        jdbcTemplate.update(INSERT_CHUNK, runKey, chunkType, chunkNumber, rowCount);
+        return true;
+    }
+
+    /**
+     * 지난 작업이 남긴 _rebuild 테이블을 비우고, 이번 작업의 세대를 기록한다. 마친 청크가 없을 때만 호출한다.
+     */
+    public void prepareRebuildTables(final String runKey) {
+        jdbcTemplate.execute("TRUNCATE TABLE " + ORDER_STATS + StatSqlDialect.REBUILD_SUFFIX);
+        jdbcTemplate.execute("TRUNCATE TABLE " + RATE_STATS + StatSqlDialect.REBUILD_SUFFIX);
+        jdbcTemplate.execute("TRUNCATE TABLE " + GENERATIONS + StatSqlDialect.REBUILD_SUFFIX);
+        jdbcTemplate.update("INSERT INTO " + GENERATIONS + StatSqlDialect.REBUILD_SUFFIX + " (run_key) VALUES (?)",
+                            runKey);
+        jdbcTemplate.update(DELETE_OTHER_RUN_CHUNKS, runKey);
+    }
+
+    /**
+     * 세대 테이블도 함께 맞바꾸므로, 바꾼 직후 종료되었더라도 이번 작업의 세대가 보이면 이미 바꾼 것이다.
+     */
+    public boolean isSwapped(final String runKey) {
+        final Integer count = jdbcTemplate.queryForObject(COUNT_GENERATION, Integer.class, runKey);
+        return count != null && count > 0;
+    }
+
+    public void swap() {
+        dialect.swapTables(List.of(ORDER_STATS, RATE_STATS, GENERATIONS)).forEach(jdbcTemplate::execute);
+    }
+}
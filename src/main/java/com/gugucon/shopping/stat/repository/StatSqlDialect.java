@@ -0,0 +1,162 @@
+package com.gugucon.shopping.stat.repository;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * DB 마다 다르게 써야 하는 통계 테이블 구문.
+ * <p>
+ * upsert 는 통계 변화량 여러 개를 한 문장으로 더하며, (상품, 연령대, 성별) 행이 없으면 변화량으로 새로 만든다.
+ * 행마다 주문 통계는 [상품 id, 연령대, 성별, 주문 수], 평점 통계는 [상품 id, 연령대, 성별, 총점, 평점 수, 평균] 순서로 값을 넣는다.
+ */
+enum StatSqlDialect {
+
+    // 값을 차례대로 대입하므로 average_score 를 먼저 계산해야 갱신 전의 total_score, count 를 사용한다.
+    MARIADB {
+        @Override
+        String orderStatUpsert(final String table, final int rows) {
+            return "INSERT INTO " + table + " (product_id, birth_year_range, gender, count, created_at, last_modified_at) " +
+                    "VALUES " + repeat("(?, ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", rows) + " " +
+                    "ON DUPLICATE KEY UPDATE count = count + VALUES(count), " +
+                    "last_modified_at = VALUES(last_modified_at)";
+        }
+
+        @Override
+        String rateStatUpsert(final String table, final int rows) {
+            return "INSERT INTO " + table + " (product_id, birth_year_range, gender, total_score, count, average_score, " +
+                    "created_at, last_modified_at) " +
+                    "VALUES " + repeat("(?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", rows) + " " +
+                    "ON DUPLICATE KEY UPDATE " +
+                    "average_score = (total_score + VALUES(total_score)) * 1.0 / (count + VALUES(count)), " +
+                    "total_score = total_score + VALUES(total_score), count = count + VALUES(count), " +
+                    "last_modified_at = VALUES(last_modified_at)";
+        }
+
+        @Override
+        String productRankUpsert(final int rows) {
+            return "INSERT INTO product_ranks (product_id, order_count, total_score, rate_count, average_score) " +
+                    "VALUES " + repeat("(?, ?, ?, ?, ?)", rows) + " " +
+                    "ON DUPLICATE KEY UPDATE " +
+                    "average_score = CASE WHEN rate_count + VALUES(rate_count) > 0 " +
+                    "THEN (total_score + VALUES(total_score)) * 1.0 / (rate_count + VALUES(rate_count)) END, " +
+                    "order_count = order_count + VALUES(order_count), " +
+                    "total_score = total_score + VALUES(total_score), " +
+                    "rate_count = rate_count + VALUES(rate_count)";
+        }
+
+        // 한 문장의 RENAME TABLE 은 원자적으로 수행되어, 읽는 쪽에서는 바뀌기 전과 후의 테이블만 보인다.
+        @Override
+        List<String> swapTables(final List<String> tables) {
+            return List.of("RENAME TABLE " + String.join(", ", tables.stream()
+                    .flatMap(table -> Stream.of(table + " TO " + table + SWAP_SUFFIX,
+                                                table + REBUILD_SUFFIX + " TO " + table,
+                                                table + SWAP_SUFFIX + " TO " + table + REBUILD_SUFFIX))
+                    .toList()));
+        }
+    },
+
+    // MERGE 를 지원하는 그 밖의 DB(테스트의 H2) 용. 파라미터만으로는 타입을 알 수 없어 CAST 로 지정한다.
+    STANDARD {
+        @Override
+        String orderStatUpsert(final String table, final int rows) {
+            return "MERGE INTO " + table + " t USING (VALUES " +
+                    repeat("(CAST(? AS BIGINT), CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255)), CAST(? AS BIGINT))",
+                           rows) +
+                    ") AS d (product_id, birth_year_range, gender, count) " +
+                    "ON t.product_id = d.product_id AND t.birth_year_range = d.birth_year_range " +
+                    "AND t.gender = d.gender " +
+                    "WHEN MATCHED THEN UPDATE SET count = t.count + d.count, last_modified_at = CURRENT_TIMESTAMP " +
+                    "WHEN NOT MATCHED THEN INSERT " +
+                    "(product_id, birth_year_range, gender, count, created_at, last_modified_at) " +
+                    "VALUES (d.product_id, d.birth_year_range, d.gender, d.count, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)";
+        }
+
+        @Override
+        String rateStatUpsert(final String table, final int rows) {
+            return "MERGE INTO " + table + " t USING (VALUES " +
+                    repeat("(CAST(? AS BIGINT), CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255)), " +
+                           "CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS DOUBLE PRECISION))", rows) +
+                    ") AS d (product_id, birth_year_range, gender, total_score, count, average_score) " +
+                    "ON t.product_id = d.product_id AND t.birth_year_range = d.birth_year_range " +
+                    "AND t.gender = d.gender " +
+                    "WHEN MATCHED THEN UPDATE SET " +
+                    "average_score = (t.total_score + d.total_score) * 1.0 / (t.count + d.count), " +
+                    "total_score = t.total_score + d.total_score, count = t.count + d.count, " +
+                    "last_modified_at = CURRENT_TIMESTAMP " +
+                    "WHEN NOT MATCHED THEN INSERT " +
+                    "(product_id, birth_year_range, gender, total_score, count, average_score, " +
+                    "created_at, last_modified_at) " +
+                    "VALUES (d.product_id, d.birth_year_range, d.gender, d.total_score, d.count, d.average_score, " +
+                    "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)";
+        }
+
+        @Override
+        String productRankUpsert(final int rows) {
+            return "MERGE INTO product_ranks t USING (VALUES " +
+                    repeat("(CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS BIGINT), " +
+                           "CAST(? AS DOUBLE PRECISION))", rows) +
+                    ") AS d (product_id, order_count, total_score, rate_count, average_score) " +
+                    "ON t.product_id = d.product_id " +
+                    "WHEN MATCHED THEN UPDATE SET " +
+                    "average_score = CASE WHEN t.rate_count + d.rate_count > 0 " +
+                    "THEN (t.total_score + d.total_score) * 1.0 / (t.rate_count + d.rate_count) END, " +
+                    "order_count = t.order_count + d.order_count, " +
+                    "total_score = t.total_score + d.total_score, " +
+                    "rate_count = t.rate_count + d.rate_count " +
+                    "WHEN NOT MATCHED THEN INSERT " +
+                    "(product_id, order_count, total_score, rate_count, average_score) " +
+                    "VALUES (d.product_id, d.order_count, d.total_score, d.rate_count, d.average_score)";
+        }
+
+        // 이름을 하나씩 바꾸므로 원자적이지 않다. 테스트 용도로만 사용한다.
+        @Override
+        List<String> swapTables(final List<String> tables) {
+            return tables.stream()
+                    .flatMap(table -> Stream.of(
+                            "ALTER TABLE " + table + " RENAME TO " + table + SWAP_SUFFIX,
+                            "ALTER TABLE " + table + REBUILD_SUFFIX + " RENAME TO " + table,
+                            "ALTER TABLE " + table + SWAP_SUFFIX + " RENAME TO " + table + REBUILD_SUFFIX))
+                    .toList();
+        }
+    };
+
+    static final String REBUILD_SUFFIX = "_rebuild";
+    private static final String SWAP_SUFFIX = "_swap";
+
+    abstract String orderStatUpsert(final String table, final int rows);
+
+    abstract String rateStatUpsert(final String table, final int rows);
+
+    /**
+     * 상품 랭킹 변화량을 더하는 upsert. 행마다 [상품 id, 주문 수, 총점, 평점 수, 평균] 순서로 값을 넣는다.
+     */
+    abstract String productRankUpsert(final int rows);
+
+    /**
+     * 각 테이블과 이름 뒤에 _rebuild 가 붙은 테이블을 맞바꾸는 구문.
+     */
+    abstract List<String> swapTables(final List<String> tables);
+
+    static StatSqlDialect of(final JdbcTemplate jdbcTemplate) {
+        return from(Objects.requireNonNull(jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName())));
+    }
+
+    static StatSqlDialect from(final String databaseProductName) {
+        final String productName = databaseProductName.toLowerCase(Locale.ROOT);
+        if (productName.contains("mariadb") || productName.contains("mysql")) {
+            return MARIADB;
+        }
+        return STANDARD;
+    }
+
+    private static String repeat(final String row, final int rows) {
+        return String.join(", ", Collections.nCopies(rows, row));
+    }
+}
@@ -0,0 +1,57 @@
+package com.gugucon.shopping.stat.repository;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 통계 upsert 가 기대는 (product_id, birth_year_range, gender) unique key 가 있는지 시작할 때 확인한다.
+ * 키가 없으면 upsert 가 행을 계속 새로 만들어 통계가 나뉘므로, 반영하기 전에 실패시킨다.
+ * 기존 테이블에는 resources/migration/add_stat_cohort_unique_keys.sql 로 중복 행을 합친 뒤 키를 추가한다.
+ */
+final class StatUniqueKeyVerifier {
+
+    private static final Set<String> COHORT_KEY = Set.of("product_id", "birth_year_range", "gender");
+
+    private StatUniqueKeyVerifier() {
+    }
+
+    static void verifyCohortKeys(final JdbcTemplate jdbcTemplate, final List<String> tables) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            final DatabaseMetaData metaData = connection.getMetaData();
+            for (final String table : tables) {
+                final String storedTable = metaData.storesUpperCaseIdentifiers()
+                        ? table.toUpperCase(Locale.ROOT)
+                        : table;
+                final Map<String, Set<String>> uniqueIndexes = new HashMap<>();
+                try (ResultSet indexes = metaData.getIndexInfo(connection.getCatalog(),
+                                                               connection.getSchema(),
+                                                               storedTable,
+                                                               true,
+                                                               false)) {
+                    while (indexes.next()) {
+                        final String indexName = indexes.getString("INDEX_NAME");
+                        final String columnName = indexes.getString("COLUMN_NAME");
+                        if (indexName != null && columnName != null) {
+                            uniqueIndexes.computeIfAbsent(indexName, name -> new HashSet<>())
+                                    .add(columnName.toLowerCase(Locale.ROOT));
+                        }
+                    }
+                }
+                if (!uniqueIndexes.containsValue(COHORT_KEY)) {
+                    throw new IllegalStateException(table + " has no unique key on (product_id, birth_year_range, gender), "
+                                                            + "run migration/add_stat_cohort_unique_keys.sql first");
+                }
+            }
+            return null;
+        });
+    }
+}
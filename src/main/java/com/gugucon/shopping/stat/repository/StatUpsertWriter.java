@@ -0,0 +1,78 @@
+package com.gugucon.shopping.stat.repository;
+
+import com.gugucon.shopping.stat.repository.dto.CohortOrderStatDto;
+import com.gugucon.shopping.stat.repository.dto.CohortRateStatDto;
+import com.gugucon.shopping.stat.repository.dto.ProductRankDeltaDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * 통계 변화량을 주어진 통계 테이블에 upsert 로 더한다. 호출한 쪽의 트랜잭션에서 수행된다.
+ */
+final class StatUpsertWriter {
+
+    // 한 문장에 넣는 행 수. 파라미터 개수 제한을 넘지 않도록 나눠서 반영한다.
+    private static final int UPSERT_CHUNK_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StatSqlDialect dialect;
+
+    StatUpsertWriter(final JdbcTemplate jdbcTemplate, final StatSqlDialect dialect) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dialect = dialect;
+    }
+
+    void upsertOrderStats(final String table, final List<CohortOrderStatDto> deltas) {
+        for (int from = 0; from < deltas.size(); from += UPSERT_CHUNK_SIZE) {
+            final List<CohortOrderStatDto> chunk = deltas.subList(from, Math.min(from + UPSERT_CHUNK_SIZE, deltas.size()));
+            jdbcTemplate.update(dialect.orderStatUpsert(table, chunk.size()), statement -> {
+                int index = 1;
+                for (final CohortOrderStatDto delta : chunk) {
+                    statement.setLong(index++, delta.getProductId());
+                    statement.setString(index++, delta.getBirthYearRange().name());
+                    statement.setString(index++, delta.getGender().name());
+                    statement.setLong(index++, delta.getCount());
+                }
+            });
+        }
+    }
+
+    void upsertRateStats(final String table, final List<CohortRateStatDto> deltas) {
+        for (int from = 0; from < deltas.size(); from += UPSERT_CHUNK_SIZE) {
+            final List<CohortRateStatDto> chunk = deltas.subList(from, Math.min(from + UPSERT_CHUNK_SIZE, deltas.size()));
+            jdbcTemplate.update(dialect.rateStatUpsert(table, chunk.size()), statement -> {
+                int index = 1;
+                for (final CohortRateStatDto delta : chunk) {
+                    statement.setLong(index++, delta.getProductId());
+                    statement.setString(index++, delta.getBirthYearRange().name());
+                    statement.setString(index++, delta.getGender().name());
+                    statement.setLong(index++, delta.getTotalScore());
+                    statement.setLong(index++, delta.getCount());
+                    statement.setDouble(index++, (double) delta.getTotalScore() / delta.getCount());
+                }
+            });
+        }
+    }
+
+    void upsertProductRanks(final List<ProductRankDeltaDto> deltas) {
+        for (int from = 0; from < deltas.size(); from += UPSERT_CHUNK_SIZE) {
+            final List<ProductRankDeltaDto> chunk = deltas.subList(from, Math.min(from + UPSERT_CHUNK_SIZE, deltas.size()));
+            jdbcTemplate.update(dialect.productRankUpsert(chunk.size()), statement -> {
+                int index = 1;
+                for (final ProductRankDeltaDto delta : chunk) {
+                    statement.setLong(index++, delta.getProductId());
+                    statement.setLong(index++, delta.getOrderCount());
+                    statement.setLong(index++, delta.getTotalScore());
+                    statement.setLong(index++, delta.getRateCount());
+                    if (delta.getRateCount() > 0) {
+                        statement.setDouble(index++, (double) delta.getTotalScore() / delta.getRateCount());
+                    } else {
+                        statement.setNull(index++, Types.DOUBLE);
+                    }
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.gugucon.shopping.stat.repository;
+
+import com.gugucon.shopping.member.domain.vo.Gender;
+import com.gugucon.shopping.stat.repository.dto.RecentOrderStatDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class TrendingStatRepository {
+
+    // 주문 시각 인덱스로 범위를 좁히고, 완료 시각은 완료 처리로 마지막에 수정된 시각을 사용한다.
+    // 아직 outbox 에 남은 이벤트의 주문은 이벤트로 더해지므로 제외한다.
+    private static final String SELECT_RECENT_ORDER_STATS =
+            "SELECT oi.product_id, m.birth_date, m.gender, SUM(oi.quantity) AS quantity, " +
+                    "o.last_modified_at AS completed_at " +
+                    "FROM orders o " +
+                    "INNER JOIN order_items oi ON oi.order_id = o.id " +
+                    "INNER JOIN members m ON m.id = o.member_id " +
+                    "WHERE o.created_at >= ? AND o.status = 'COMPLETED' " +
+                    "AND NOT EXISTS (SELECT 1 FROM stat_outbox_events e " +
+                    "WHERE e.event_type = 'ORDER_COMPLETE' AND e.aggregate_id = o.id) " +
+                    "GROUP BY oi.product_id, m.birth_date, m.gender, o.last_modified_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<RecentOrderStatDto> findRecentOrderStats(final LocalDateTime from) {
+        return jdbcTemplate.query(SELECT_RECENT_ORDER_STATS, (resultSet, rowNum) -> new RecentOrderStatDto(
+                resultSet.getLong("product_id"),
+                resultSet.getObject("birth_date", LocalDate.class),
+                Gender.valueOf(resultSet.getString("gender")),
+                resultSet.getLong("quantity"),
+                resultSet.getObject("completed_at", LocalDateTime.class)), from);
+    }
+}
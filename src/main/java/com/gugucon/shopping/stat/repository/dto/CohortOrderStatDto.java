@@ -0,0 +1,15 @@
+package com.gugucon.shopping.stat.repository.dto;
+
+import com.gugucon.shopping.member.domain.vo.BirthYearRange;
+import com.gugucon.shopping.member.domain.vo.Gender;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public class CohortOrderStatDto {
+    private Long productId;
+    private BirthYearRange birthYearRange;
+    private Gender gender;
+    private Long count;
+}
@@ -0,0 +1,16 @@
+package com.gugucon.shopping.stat.repository.dto;
+
+import com.gugucon.shopping.member.domain.vo.BirthYearRange;
+import com.gugucon.shopping.member.domain.vo.Gender;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public class CohortRateStatDto {
+    private Long productId;
+    private BirthYearRange birthYearRange;
+    private Gender gender;
+    private Long totalScore;
+    private Long count;
+}
@@ -0,0 +1,18 @@
+package com.gugucon.shopping.stat.repository.dto;
+
+import com.gugucon.shopping.member.domain.vo.Gender;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 원본 주문, 평점 테이블을 (상품, 출생 연도, 성별) 별로 묶은 합계. total 은 주문 수량 또는 평점의 합이다.
+ */
+@AllArgsConstructor
+@Getter
+public class CohortSourceStatDto {
+    private Long productId;
+    private Integer birthYear;
+    private Gender gender;
+    private Long total;
+    private Long rowCount;
+}
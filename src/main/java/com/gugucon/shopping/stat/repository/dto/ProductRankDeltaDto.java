@@ -0,0 +1,13 @@
+package com.gugucon.shopping.stat.repository.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public class ProductRankDeltaDto {
+    private Long productId;
+    private Long orderCount;
+    private Long totalScore;
+    private Long rateCount;
+}
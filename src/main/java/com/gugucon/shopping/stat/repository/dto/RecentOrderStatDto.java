@@ -0,0 +1,18 @@
+package com.gugucon.shopping.stat.repository.dto;
+
+import com.gugucon.shopping.member.domain.vo.Gender;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@AllArgsConstructor
+@Getter
+public class RecentOrderStatDto {
+    private Long productId;
+    private LocalDate birthDate;
+    private Gender gender;
+    private Long quantity;
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,13 @@
+package com.gugucon.shopping.stat.repository.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public class StatRebuildRunDto {
+    private String runKey;
+    private Long maxOrderId;
+    private Long maxRateId;
+    private Long chunkSize;
+}
@@ -0,0 +1,22 @@
+package com.gugucon.shopping.stat.scheduler;
+
+import com.gugucon.shopping.stat.infrastructure.StatWriteBehindAggregator;
+import com.gugucon.shopping.stat.service.ProductRankService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class ProductRankScheduler {
+
+    private final ProductRankService productRankService;
+    private final StatWriteBehindAggregator statWriteBehindAggregator;
+
+    @Scheduled(cron = "0 30 3 * * *")
+    public void trigger() {
+        // 통계 테이블로 순위를 다시 만들기 전에, 아직 반영하지 않은 변화량을 먼저 반영한다.
+        statWriteBehindAggregator.flush();
+        productRankService.rebuild();
+    }
+}
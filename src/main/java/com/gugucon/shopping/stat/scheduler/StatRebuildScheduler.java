@@ -0,0 +1,30 @@
+package com.gugucon.shopping.stat.scheduler;
+
+import com.gugucon.shopping.stat.infrastructure.StatRebuildJob;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 통계를 다시 만드는 작업은 오래 걸리므로, 다른 예약 작업을 막지 않도록 비동기 실행기에서 수행한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class StatRebuildScheduler {
+
+    private final StatRebuildJob statRebuildJob;
+
+    @Async("threadPoolTaskExecutor")
+    @Scheduled(cron = "${stat.rebuild.cron:-}")
+    public void trigger() {
+        statRebuildJob.run();
+    }
+
+    // 작업하던 인스턴스가 죽으면 임대가 끝난 뒤 이어서 만든다.
+    @Async("threadPoolTaskExecutor")
+    @Scheduled(fixedDelayString = "${stat.rebuild.resume-interval-ms:60000}")
+    public void resume() {
+        statRebuildJob.resumeAbandoned();
+    }
+}
@@ -6,42 +6,50 @@ import com.gugucon.shopping.member.domain.entity.Member;
 import com.gugucon.shopping.member.domain.vo.BirthYearRange;
 import com.gugucon.shopping.member.repository.MemberRepository;
 import com.gugucon.shopping.order.domain.entity.Order;
-import com.gugucon.shopping.order.domain.entity.OrderItem;
-import com.gugucon.shopping.order.domain.event.OrderCompleteEvent;
 import com.gugucon.shopping.order.repository.OrderRepository;
-import com.gugucon.shopping.stat.repository.OrderStatRepository;
+import com.gugucon.shopping.stat.domain.entity.StatOutboxEvent;
+import com.gugucon.shopping.stat.infrastructure.StatWriteBehindAggregator;
+import com.gugucon.shopping.stat.infrastructure.TrendingStatWindow;
+import com.gugucon.shopping.stat.repository.dto.CohortOrderStatDto;
 import lombok.RequiredArgsConstructor;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
 
 @Service
 @Transactional
 @RequiredArgsConstructor
 public class OrderStatService {
 
-    private final OrderStatRepository orderStatRepository;
+    private final StatWriteBehindAggregator statWriteBehindAggregator;
+    private final TrendingStatWindow trendingStatWindow;
     private final OrderRepository orderRepository;
     private final MemberRepository memberRepository;
 
-    @Async("threadPoolTaskExecutor")
+    /**
+     * outbox 에 저장된 주문 완료 이벤트를 통계에 반영한다. 통계 테이블과 상품 랭킹은 저장해 둔 변화량을 모아 반영할 때 이벤트와 함께 갱신된다.
+     */
     @Transactional(propagation = Propagation.REQUIRES_NEW)
-    @TransactionalEventListener
-    public void handle(final OrderCompleteEvent orderCompleteEvent) {
-        final Order order = orderRepository.findByIdWithOrderItems(orderCompleteEvent.getOrderId())
+    public void handle(final StatOutboxEvent orderCompleteEvent) {
+        final Order order = orderRepository.findByIdWithOrderItems(orderCompleteEvent.getAggregateId())
                 .orElseThrow(() -> new ShoppingException(ErrorCode.UNKNOWN_ERROR));
         final Member member = memberRepository.findById(order.getMemberId())
                 .orElseThrow((() -> new ShoppingException(ErrorCode.UNKNOWN_ERROR)));
-        order.getOrderItems()
-                .forEach(orderItem -> updateOrderStatBy(orderItem, member));
-    }
-
-    private void updateOrderStatBy(final OrderItem orderItem, final Member member) {
-        orderStatRepository.updateOrderStatByCount(orderItem.getQuantity().getValue(),
-                orderItem.getProductId(),
-                BirthYearRange.from(member.getBirthDate()),
-                member.getGender());
+        final BirthYearRange birthYearRange = BirthYearRange.from(member.getBirthDate());
+        final List<CohortOrderStatDto> deltas = order.getOrderItems().stream()
+                .map(orderItem -> new CohortOrderStatDto(orderItem.getProductId(),
+                                                         birthYearRange,
+                                                         member.getGender(),
+                                                         (long) orderItem.getQuantity().getValue()))
+                .toList();
+        statWriteBehindAggregator.addOrderCounts(orderCompleteEvent.getId(), deltas);
+        // 변화량을 넘기기 전에 실패하면 이벤트를 다시 처리하므로, 인기 통계는 넘긴 뒤에 더한다.
+        deltas.forEach(delta -> trendingStatWindow.addOrderCount(delta.getProductId(),
+                                                                 birthYearRange,
+                                                                 member.getGender(),
+                                                                 Math.toIntExact(delta.getCount()),
+                                                                 orderCompleteEvent.getCreatedAt()));
     }
 }
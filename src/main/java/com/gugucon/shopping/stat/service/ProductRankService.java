@@ -0,0 +1,62 @@
+package com.gugucon.shopping.stat.service;
+
+import com.gugucon.shopping.item.domain.event.ProductSaveEvent;
+import com.gugucon.shopping.stat.domain.event.ProductRankRefreshEvent;
+import com.gugucon.shopping.stat.repository.ProductRankDeltaRepository;
+import com.gugucon.shopping.stat.repository.ProductRankRepository;
+import com.gugucon.shopping.stat.repository.dto.ProductRankDeltaDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+@Service
+@Transactional
+@RequiredArgsConstructor
+@Slf4j
+public class ProductRankService {
+
+    private final ProductRankRepository productRankRepository;
+    private final ProductRankDeltaRepository productRankDeltaRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handle(final ProductSaveEvent productSaveEvent) {
+        createIfAbsent(productSaveEvent.getProductId());
+    }
+
+    /**
+     * 상품 검색의 주문 수, 평점 순 정렬은 랭킹 테이블에서 시작해 상품과 내부 조인하므로, 랭킹 행이 없는 상품은 결과에서 빠진다.
+     * 저장 이벤트를 놓친 상품이 있을 수 있어 시작할 때 빠진 랭킹 행을 통계로 채운다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillMissingRanks() {
+        final int rankCount = productRankRepository.insertMissingRanksFromStats();
+        if (rankCount > 0) {
+            log.warn("product ranks were missing, backfilled ranks : {}", rankCount);
+        }
+    }
+
+    public void rebuild() {
+        log.info("product rank rebuild invoked");
+        final long start = System.currentTimeMillis();
+        productRankRepository.deleteAllRanks();
+        final int rankCount = productRankRepository.insertAllRanksFromStats();
+        productRankRepository.refreshAllRateStatAverages();
+        eventPublisher.publishEvent(ProductRankRefreshEvent.from(rankCount));
+        log.info("product rank rebuilt, ranks : {}, total elapsed time : {} ms",
+                 rankCount, System.currentTimeMillis() - start);
+    }
+
+    private void createIfAbsent(final Long productId) {
+        productRankDeltaRepository.add(List.of(new ProductRankDeltaDto(productId, 0L, 0L, 0L)));
+    }
+}
@@ -7,38 +7,39 @@ import com.gugucon.shopping.member.domain.vo.BirthYearRange;
 import com.gugucon.shopping.member.repository.MemberRepository;
 import com.gugucon.shopping.order.domain.entity.OrderItem;
 import com.gugucon.shopping.rate.domain.entity.Rate;
-import com.gugucon.shopping.rate.domain.event.RateCreateEvent;
 import com.gugucon.shopping.rate.repository.RateRepository;
-import com.gugucon.shopping.stat.repository.RateStatRepository;
+import com.gugucon.shopping.stat.domain.entity.StatOutboxEvent;
+import com.gugucon.shopping.stat.infrastructure.StatWriteBehindAggregator;
 import lombok.RequiredArgsConstructor;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.transaction.event.TransactionalEventListener;
 
 @Service
 @Transactional
 @RequiredArgsConstructor
 public class RateStatService {
 
-    private final RateStatRepository rateStatRepository;
+    private final StatWriteBehindAggregator statWriteBehindAggregator;
     private final RateRepository rateRepository;
     private final MemberRepository memberRepository;
 
-    @Async("threadPoolTaskExecutor")
+    /**
+     * outbox 에 저장된 별점 생성 이벤트를 통계에 반영한다.
+     */
     @Transactional(propagation = Propagation.REQUIRES_NEW)
-    @TransactionalEventListener
-    public void handle(final RateCreateEvent rateCreateEvent) {
-        final Rate rate = rateRepository.findByIdWithOrderItem(rateCreateEvent.getRateId())
+    public void handle(final StatOutboxEvent rateCreateEvent) {
+        final Rate rate = rateRepository.findByIdWithOrderItem(rateCreateEvent.getAggregateId())
                 .orElseThrow(() -> new ShoppingException(ErrorCode.UNKNOWN_ERROR));
         final OrderItem orderItem = rate.getOrderItem();
         final Member member = memberRepository.findById(rateCreateEvent.getMemberId())
                 .orElseThrow(() -> new ShoppingException(ErrorCode.UNKNOWN_ERROR));
 
-        rateStatRepository.updateRateStatByScore(rate.getScore(),
-                orderItem.getProductId(),
-                BirthYearRange.from(member.getBirthDate()),
-                member.getGender());
+        final BirthYearRange birthYearRange = BirthYearRange.from(member.getBirthDate());
+        statWriteBehindAggregator.addScore(rateCreateEvent.getId(),
+                                           orderItem.getProductId(),
+                                           birthYearRange,
+                                           member.getGender(),
+                                           rate.getScore());
     }
 }
@@ -0,0 +1,44 @@
+-- order_stats, rate_stats 에 (product_id, birth_year_range, gender) unique key 를 추가한다. (MariaDB)
+-- 키가 없던 테이블에는 같은 코호트의 행이 여러 개 있을 수 있으므로, id 가 가장 작은 행으로 합친 뒤 나머지를 지운다.
+-- 통계 반영과 다시 만들기를 멈춘 상태에서 한 번 실행한다.
+
+UPDATE order_stats os
+    INNER JOIN (SELECT MIN(id) AS id, SUM(count) AS total_count, MAX(last_modified_at) AS last_modified_at
+                FROM order_stats
+                GROUP BY product_id, birth_year_range, gender
+                HAVING COUNT(*) > 1) merged ON merged.id = os.id
+SET os.count            = merged.total_count,
+    os.last_modified_at = merged.last_modified_at;
+
+DELETE os
+FROM order_stats os
+         INNER JOIN order_stats kept
+                    ON kept.product_id = os.product_id
+                        AND kept.birth_year_range = os.birth_year_range
+                        AND kept.gender = os.gender
+                        AND kept.id < os.id;
+
+ALTER TABLE order_stats
+    ADD CONSTRAINT uk_cohort_order_stats UNIQUE (product_id, birth_year_range, gender);
+
+UPDATE rate_stats rs
+    INNER JOIN (SELECT MIN(id) AS id, SUM(total_score) AS total_score, SUM(count) AS total_count,
+                       MAX(last_modified_at) AS last_modified_at
+                FROM rate_stats
+                GROUP BY product_id, birth_year_range, gender
+                HAVING COUNT(*) > 1) merged ON merged.id = rs.id
+SET rs.average_score    = CASE WHEN merged.total_count > 0 THEN merged.total_score * 1.0 / merged.total_count END,
+    rs.total_score      = merged.total_score,
+    rs.count            = merged.total_count,
+    rs.last_modified_at = merged.last_modified_at;
+
+DELETE rs
+FROM rate_stats rs
+         INNER JOIN rate_stats kept
+                    ON kept.product_id = rs.product_id
+                        AND kept.birth_year_range = rs.birth_year_range
+                        AND kept.gender = rs.gender
+                        AND kept.id < rs.id;
+
+ALTER TABLE rate_stats
+    ADD CONSTRAINT uk_cohort_rate_stats UNIQUE (product_id, birth_year_range, gender);
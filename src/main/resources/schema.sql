@@ -89,8 +89,10 @@ CREATE TABLE IF NOT EXISTS rate_stats
     `gender`           varchar(255)          NOT NULL,
     `total_score`      bigint                NOT NULL,
     `count`            bigint                NOT NULL,
+    `average_score`    double                NULL,
     `created_at`       datetime              NOT NULL,
-    `last_modified_at` datetime              NOT NULL
+    `last_modified_at` datetime              NOT NULL,
+    unique (product_id, birth_year_range, gender)
 );
 
 CREATE TABLE IF NOT EXISTS order_stats
@@ -101,7 +103,130 @@ CREATE TABLE IF NOT EXISTS order_stats
     `gender`           varchar(255)          NOT NULL,
     `count`            bigint                NOT NULL,
     `created_at`       datetime              NOT NULL,
-    `last_modified_at` datetime              NOT NULL
+    `last_modified_at` datetime              NOT NULL,
+    unique (product_id, birth_year_range, gender)
+);
+
+CREATE TABLE IF NOT EXISTS product_ranks
+(
+    `id`               bigint auto_increment NOT NULL primary key,
+    `product_id`       bigint                NOT NULL unique,
+    `order_count`      bigint                NOT NULL,
+    `total_score`      bigint                NOT NULL,
+    `rate_count`       bigint                NOT NULL,
+    `average_score`    double                NULL
+);
+
+CREATE TABLE IF NOT EXISTS product_co_purchases
+(
+    `id`               bigint auto_increment NOT NULL primary key,
+    `product_id`       bigint                NOT NULL,
+    `co_product_id`    bigint                NOT NULL,
+    `count`            bigint                NOT NULL,
+    unique (product_id, co_product_id)
+);
+
+CREATE TABLE IF NOT EXISTS product_co_purchase_backfill
+(
+    `id`               bigint                NOT NULL primary key,
+    `cutoff`           datetime              NOT NULL,
+    `completed`        boolean               NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS recommendation_warm_partitions
+(
+    `id`                    bigint auto_increment NOT NULL primary key,
+    `run_key`               varchar(255)          NOT NULL,
+    `partition_number`      int                   NOT NULL,
+    `start_product_id`      bigint                NOT NULL,
+    `end_product_id`        bigint                NOT NULL,
+    `status`                varchar(255)          NOT NULL,
+    `owner`                 varchar(255)          NULL,
+    `lease_expires_at`      datetime              NULL,
+    `checkpoint_product_id` bigint                NULL,
+    `product_count`         bigint                NOT NULL,
+    unique (run_key, partition_number)
+);
+
+CREATE TABLE IF NOT EXISTS stat_delta_journal_segments
+(
+    `id`               bigint auto_increment NOT NULL primary key,
+    `journal_id`       varchar(255)          NOT NULL,
+    `segment`          bigint                NOT NULL,
+    unique (journal_id, segment)
+);
+
+CREATE TABLE IF NOT EXISTS stat_outbox_events
+(
+    `id`               bigint auto_increment NOT NULL primary key,
+    `event_type`       varchar(255)          NOT NULL,
+    `aggregate_id`     bigint                NOT NULL,
+    `member_id`        bigint                NULL,
+    `created_at`       datetime              NOT NULL,
+    `owner`            varchar(255)          NULL,
+    `lease_expires_at` datetime              NULL,
+    `attempts`         int                   NOT NULL DEFAULT 0,
+    `dead_lettered_at` datetime              NULL
+);
+
+CREATE TABLE IF NOT EXISTS order_stats_rebuild
+(
+    `id`               bigint auto_increment NOT NULL primary key,
+    `product_id`       bigint                NOT NULL,
+    `birth_year_range` varchar(255)          NOT NULL,
+    `gender`           varchar(255)          NOT NULL,
+    `count`            bigint                NOT NULL,
+    `created_at`       datetime              NOT NULL,
+    `last_modified_at` datetime              NOT NULL,
+    unique (product_id, birth_year_range, gender)
+);
+
+CREATE TABLE IF NOT EXISTS rate_stats_rebuild
+(
+    `id`               bigint auto_increment NOT NULL primary key,
+    `product_id`       bigint                NOT NULL,
+    `birth_year_range` varchar(255)          NOT NULL,
+    `gender`           varchar(255)          NOT NULL,
+    `total_score`      bigint                NOT NULL,
+    `count`            bigint                NOT NULL,
+    `average_score`    double                NULL,
+    `created_at`       datetime              NOT NULL,
+    `last_modified_at` datetime              NOT NULL,
+    unique (product_id, birth_year_range, gender)
+);
+
+CREATE TABLE IF NOT EXISTS stat_generations
+(
+    `run_key`          varchar(255)          NOT NULL primary key
+);
+
+CREATE TABLE IF NOT EXISTS stat_generations_rebuild
+(
+    `run_key`          varchar(255)          NOT NULL primary key
+);
+
+CREATE TABLE IF NOT EXISTS stat_rebuild_state
+(
+    `id`               bigint                NOT NULL primary key,
+    `status`           varchar(255)          NOT NULL,
+    `run_key`          varchar(255)          NULL,
+    `owner`            varchar(255)          NULL,
+    `lease_expires_at` datetime              NULL,
+    `max_order_id`     bigint                NULL,
+    `max_rate_id`      bigint                NULL,
+    `chunk_size`       bigint                NULL,
+    `started_at`       datetime              NULL,
+    `attempts`         int                   NULL
+);
+
+CREATE TABLE IF NOT EXISTS stat_rebuild_chunks
+(
+    `id`               bigint auto_increment NOT NULL primary key,
+    `run_key`          varchar(255)          NOT NULL,
+    `chunk_type`       varchar(255)          NOT NULL,
+    `chunk_number`     bigint                NOT NULL,
+    `row_count`        bigint                NOT NULL,
+    unique (run_key, chunk_type, chunk_number)
 );
 
 CREATE TABLE IF NOT EXISTS last_scan_time
@@ -116,6 +241,8 @@ create index idx_member_orders on orders (member_id);
 create index idx_1 on order_items (product_id, quantity);
 create index idx_order_order_items on order_items (order_id);
 
+create index idx_products_price_id on products (price, id);
+
 create index idx_member_cart_items on cart_items (member_id);
 create index idx_product_cart_items on cart_items (product_id);
 
@@ -125,3 +252,16 @@ create index idx_order_item_rates on rates (order_item_id);
 
 create index idx_product_order_stats on order_stats (product_id);
 create index idx_product_rate_stats on rate_stats (product_id);
+create index idx_cohort_count_order_stats on order_stats (birth_year_range, gender, count);
+create index idx_cohort_average_rate_stats on rate_stats (birth_year_range, gender, average_score);
+create index idx_product_order_stats_rebuild on order_stats_rebuild (product_id);
+create index idx_product_rate_stats_rebuild on rate_stats_rebuild (product_id);
+create index idx_cohort_count_order_stats_rebuild on order_stats_rebuild (birth_year_range, gender, count);
+create index idx_cohort_average_rate_stats_rebuild on rate_stats_rebuild (birth_year_range, gender, average_score);
+create index idx_aggregate_stat_outbox_events on stat_outbox_events (event_type, aggregate_id);
+create index idx_owner_stat_outbox_events on stat_outbox_events (owner);
+
+create index idx_order_count_product_ranks on product_ranks (order_count, product_id);
+create index idx_average_score_product_ranks on product_ranks (average_score, product_id);
+
+create index idx_count_product_co_purchases on product_co_purchases (product_id, count, co_product_id);
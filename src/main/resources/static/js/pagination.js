@@ -1,4 +1,4 @@
-const pagination = (currentPage, totalPage, size, className, queryParam) => {
+const pagination = (currentPage, totalPage, size, className, queryParam, hasMorePages = false) => {
     if (totalPage > 1) {
         const pageCount = 5;
         const pageGroup = Math.ceil((currentPage + 1) / pageCount);
@@ -28,7 +28,7 @@ const pagination = (currentPage, totalPage, size, className, queryParam) => {
         `;
         document.querySelector(className).innerHTML = pages;
         document.getElementById(`page-${currentPage + 1}`).classList.add("active");
-        if (last >= totalPage) {
+        if (last >= totalPage && !hasMorePages) {
             const next = document.getElementById(`page-${last + 1}`);
             next.setAttribute("disabled", true);
         }
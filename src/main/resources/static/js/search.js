@@ -8,7 +8,7 @@ form.addEventListener('submit', (event) => {
     const selectedSort = sortSelect.options[sortSelect.selectedIndex].value;
     let queryParams = `keyword=${searchInput}&sort=${selectedSort}`;
 
-    if (selectedSort === "orderCount,desc" || selectedSort === "rate,desc") {
+    if (selectedSort === "orderCount,desc" || selectedSort === "rate,desc" || selectedSort === "trending,desc") {
         const gender = document.getElementById("gender").value;
         const birthYearRange = document.getElementById("birthYearRange").value;
         if (gender && birthYearRange) {
@@ -22,3 +22,32 @@ form.addEventListener('submit', (event) => {
     window.location.href = `/search?${queryParams}`;
 });
 
+
+const searchInput = document.getElementById("searchInput");
+const suggestionList = document.createElement("datalist");
+suggestionList.id = "search-suggestions";
+searchInput.setAttribute("list", suggestionList.id);
+searchInput.setAttribute("autocomplete", "off");
+searchInput.after(suggestionList);
+
+let suggestTimer;
+searchInput.addEventListener('input', () => {
+    clearTimeout(suggestTimer);
+    const keyword = searchInput.value.trim();
+    if (keyword === "") {
+        suggestionList.replaceChildren();
+        return;
+    }
+    suggestTimer = setTimeout(() => {
+        fetch(`/api/v1/products/suggest?keyword=${encodeURIComponent(keyword)}`)
+            .then((response) => response.json())
+            .then((suggestions) => {
+                suggestionList.replaceChildren(...suggestions.map((suggestion) => {
+                    const option = document.createElement("option");
+                    option.value = suggestion.name;
+                    return option;
+                }));
+            })
+            .catch((error) => console.error(error));
+    }, 150);
+});
@@ -0,0 +1,45 @@
+package com.gugucon.shopping.common.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExpiringValueRedisSerializerTest {
+
+    private final ExpiringValueRedisSerializer expiringValueRedisSerializer =
+            new ExpiringValueRedisSerializer(RedisSerializer.java(), Duration.ofDays(3));
+
+    @Test
+    @DisplayName("저장하는 시점에 TTL 을 더한 만료 시각을 값과 함께 직렬화했다가 복원한다.")
+    void serialize() {
+        // given
+        final long before = System.currentTimeMillis();
+
+        // when
+        final byte[] bytes = expiringValueRedisSerializer.serialize("value");
+        final ExpiringValue restored = (ExpiringValue) expiringValueRedisSerializer.deserialize(bytes);
+
+        // then
+        assertThat(restored.getValue()).isEqualTo("value");
+        assertThat(restored.getExpiresAt()).isBetween(before + Duration.ofDays(3).toMillis(),
+                                                      System.currentTimeMillis() + Duration.ofDays(3).toMillis());
+    }
+
+    @Test
+    @DisplayName("만료 시각 없이 저장된 이전 값은 만료 시각을 알 수 없는 값으로 읽는다.")
+    void deserialize_legacy() {
+        // given
+        final byte[] bytes = RedisSerializer.java().serialize("value");
+
+        // when
+        final ExpiringValue restored = (ExpiringValue) expiringValueRedisSerializer.deserialize(bytes);
+
+        // then
+        assertThat(restored.getValue()).isEqualTo("value");
+        assertThat(restored.getExpiresAt()).isEqualTo(ExpiringValue.UNKNOWN_EXPIRY);
+    }
+}
@@ -0,0 +1,168 @@
+package com.gugucon.shopping.common.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TwoTierCacheTest {
+
+    private final ConcurrentMapCache remote = new ConcurrentMapCache("rec");
+    private final List<CacheInvalidationMessage> published = new ArrayList<>();
+    private final List<Runnable> refreshTasks = new ArrayList<>();
+    private final TwoTierCache twoTierCache = new TwoTierCache(remote,
+                                                               Caffeine.newBuilder().maximumSize(100).executor(Runnable::run).build(),
+                                                               "me",
+                                                               published::add,
+                                                               Duration.ofDays(3),
+                                                               Duration.ofMinutes(5),
+                                                               Duration.ofHours(1),
+                                                               Duration.ofHours(6),
+                                                               refreshTasks::add);
+
+    @Test
+    @DisplayName("L2 에서 읽은 값은 L1 에 넣어 두고, 다음 조회는 L1 에서 처리한다.")
+    void get() {
+        // given
+        remote.put(1L, "value");
+
+        // when
+        twoTierCache.get(1L);
+        remote.evict(1L);
+        final Object result = twoTierCache.get(1L).get();
+
+        // then
+        assertThat(result).isEqualTo("value");
+        assertThat(twoTierCache.getLocalHitCount()).isEqualTo(1);
+        assertThat(twoTierCache.getLocalMissCount()).isEqualTo(1);
+        assertThat(twoTierCache.getRemoteHitCount()).isEqualTo(1);
+        assertThat(twoTierCache.getRemoteMissCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("두 계층 모두 없으면 값을 불러와 두 계층에 넣는다.")
+    void get_valueLoader() {
+        // when
+        final String result = twoTierCache.get(1L, () -> "loaded");
+
+        // then
+        assertThat(result).isEqualTo("loaded");
+        assertThat(remote.get(1L).get()).isEqualTo("loaded");
+        assertThat(twoTierCache.getRemoteMissCount()).isEqualTo(1);
+        assertThat(twoTierCache.getLocalSize()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("값을 넣거나 캐시를 비우면 다른 인스턴스에 무효화 메시지를 보낸다.")
+    void put_clear() {
+        // when
+        twoTierCache.put(1L, "value");
+        twoTierCache.clear();
+
+        // then
+        assertThat(published).extracting(CacheInvalidationMessage::serialize)
+                .containsExactly("me|rec|1", "me|rec|");
+    }
+
+    @Test
+    @DisplayName("다른 인스턴스가 보낸 무효화 메시지를 받으면 L1 에서만 지운다.")
+    void invalidateLocal() {
+        // given
+        twoTierCache.put(1L, "value");
+        twoTierCache.put(2L, "value");
+
+        // when
+        twoTierCache.invalidateLocal(CacheInvalidationMessage.parse("other|rec|1"));
+        twoTierCache.invalidateLocal(CacheInvalidationMessage.parse("me|rec|2"));
+
+        // then
+        assertThat(twoTierCache.getLocalSize()).isEqualTo(1);
+        assertThat(remote.get(1L)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("캐시를 비운 뒤에도 L1 의 값을 돌려주면서 백그라운드에서 다시 계산한다.")
+    void get_staleWhileRevalidate() throws InterruptedException {
+        // given
+        final AtomicInteger version = new AtomicInteger();
+        twoTierCache.get(1L, () -> "v" + version.incrementAndGet());
+        Thread.sleep(2);
+        twoTierCache.clear();
+        Thread.sleep(2);
+
+        // when
+        final String staleValue = twoTierCache.get(1L, () -> "v" + version.incrementAndGet());
+        refreshTasks.forEach(Runnable::run);
+        final String refreshedValue = twoTierCache.get(1L, () -> "v" + version.incrementAndGet());
+
+        // then
+        assertThat(staleValue).isEqualTo("v1");
+        assertThat(refreshedValue).isEqualTo("v2");
+        assertThat(remote.get(1L).get()).isEqualTo("v2");
+        assertThat(twoTierCache.getStaleServeCount()).isEqualTo(1);
+        assertThat(twoTierCache.getRefreshCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("L2 의 만료가 얼마 남지 않은 값은 읽힐 때 미리 다시 계산한다.")
+    void get_refreshAhead() {
+        // given
+        final TwoTierCache nearExpiryCache = new TwoTierCache(remote,
+                                                              Caffeine.newBuilder().maximumSize(100).build(),
+                                                              "me",
+                                                              published::add,
+                                                              Duration.ofDays(3),
+                                                              Duration.ofMinutes(5),
+                                                              Duration.ofHours(1),
+                                                              Duration.ofHours(6),
+                                                              Runnable::run);
+        remote.put(1L, ExpiringValue.of("old", System.currentTimeMillis() + Duration.ofHours(1).toMillis()));
+        nearExpiryCache.get(1L, () -> "unused");
+
+        // when
+        final String servedValue = nearExpiryCache.get(1L, () -> "new");
+
+        // then
+        assertThat(servedValue).isEqualTo("old");
+        assertThat(remote.get(1L).get()).isEqualTo("new");
+        assertThat(nearExpiryCache.getStaleServeCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("L1 의 TTL 이 지난 값도 돌려주며, L2 의 값이 아직 유효하면 다시 계산하지 않고 L1 에 다시 넣는다.")
+    void get_softTtl() throws InterruptedException {
+        // given
+        final TwoTierCache shortLivedCache = new TwoTierCache(remote,
+                                                              Caffeine.newBuilder()
+                                                                      .maximumSize(100)
+                                                                      .expireAfter(TwoTierCache.localExpiry())
+                                                                      .build(),
+                                                              "me",
+                                                              published::add,
+                                                              Duration.ofDays(3),
+                                                              Duration.ofMillis(1),
+                                                              Duration.ofHours(1),
+                                                              Duration.ofHours(6),
+                                                              Runnable::run);
+        final AtomicInteger version = new AtomicInteger();
+        shortLivedCache.get(1L, () -> "v" + version.incrementAndGet());
+        Thread.sleep(2);
+
+        // when
+        final String servedValue = shortLivedCache.get(1L, () -> "v" + version.incrementAndGet());
+
+        // then
+        assertThat(servedValue).isEqualTo("v1");
+        assertThat(version).hasValue(1);
+        assertThat(shortLivedCache.getLocalSize()).isEqualTo(1);
+        assertThat(shortLivedCache.getStaleServeCount()).isEqualTo(1);
+        assertThat(shortLivedCache.getRefreshCount()).isEqualTo(1);
+    }
+}
@@ -47,6 +47,7 @@ import io.restassured.http.ContentType;
 import io.restassured.path.json.JsonPath;
 import io.restassured.response.ExtractableResponse;
 import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
 import java.util.Comparator;
 import java.util.List;
 import org.junit.jupiter.api.DisplayName;
@@ -695,6 +696,154 @@ class ProductIntegrationTest {
         assertThat(actualProductIds).containsExactly(안다르_바이크_5부, 젝시믹스_머슬핏);
     }
 
+    @Test
+    @DisplayName("커서를 따라가며 가격이 비싼 순으로 상품 목록을 끝까지 조회한다.")
+    void scrollProducts_sortByPriceDesc() {
+        // given
+        insertProduct("치킨", 20000);
+        insertProduct("피자", 30000);
+        insertProduct("사케", 30000);
+        insertProduct("떡볶이", 5000);
+        insertProduct("맥주", 10000);
+
+        // when
+        final JsonPath firstPage = scroll("/api/v1/products/scroll", null, "price,desc");
+        final JsonPath secondPage = scroll("/api/v1/products/scroll", firstPage.getString("nextCursor"), "price,desc");
+        final JsonPath lastPage = scroll("/api/v1/products/scroll", secondPage.getString("nextCursor"), "price,desc");
+
+        // then
+        assertThat(firstPage.getList("contents", ProductResponse.class))
+                .extracting(ProductResponse::getName)
+                .containsExactly("사케", "피자");
+        assertThat(secondPage.getList("contents", ProductResponse.class))
+                .extracting(ProductResponse::getName)
+                .containsExactly("치킨", "맥주");
+        assertThat(lastPage.getList("contents", ProductResponse.class))
+                .extracting(ProductResponse::getName)
+                .containsExactly("떡볶이");
+        assertThat(firstPage.getBoolean("hasNextPage")).isTrue();
+        assertThat(lastPage.getBoolean("hasNextPage")).isFalse();
+        assertThat(lastPage.getString("nextCursor")).isNull();
+    }
+
+    @Test
+    @DisplayName("커서를 따라가며 가격이 싼 순으로 조회하고, 가격이 같으면 먼저 등록된 상품부터 조회한다.")
+    void scrollProducts_sortByPriceAsc() {
+        // given
+        insertProduct("치킨", 20000);
+        insertProduct("피자", 10000);
+        insertProduct("사케", 10000);
+        insertProduct("떡볶이", 5000);
+
+        // when
+        final JsonPath firstPage = scroll("/api/v1/products/scroll", null, "price,asc");
+        final JsonPath lastPage = scroll("/api/v1/products/scroll", firstPage.getString("nextCursor"), "price,asc");
+
+        // then
+        assertThat(firstPage.getList("contents", ProductResponse.class))
+                .extracting(ProductResponse::getName)
+                .containsExactly("떡볶이", "피자");
+        assertThat(lastPage.getList("contents", ProductResponse.class))
+                .extracting(ProductResponse::getName)
+                .containsExactly("사케", "치킨");
+        assertThat(lastPage.getBoolean("hasNextPage")).isFalse();
+    }
+
+    @Test
+    @DisplayName("검색 결과를 커서 기반으로 최신순 조회한다.")
+    void scrollSearchedProducts() {
+        // given
+        insertProduct("사과", 10);
+        insertProduct("맛있는 사과", 10);
+        insertProduct("가나다라마바사", 10);
+        insertProduct("사과는 맛있어", 10);
+
+        // when
+        final JsonPath firstPage = RestAssured
+                .given().log().all()
+                .queryParam("keyword", "사과")
+                .queryParam("size", 2)
+                .when().get("/api/v1/products/search/scroll")
+                .then().contentType(ContentType.JSON).log().all()
+                .extract().body().jsonPath();
+        final JsonPath secondPage = RestAssured
+                .given().log().all()
+                .queryParam("keyword", "사과")
+                .queryParam("size", 2)
+                .queryParam("cursor", firstPage.getString("nextCursor"))
+                .when().get("/api/v1/products/search/scroll")
+                .then().contentType(ContentType.JSON).log().all()
+                .extract().body().jsonPath();
+
+        // then
+        assertThat(firstPage.getList("contents", ProductResponse.class))
+                .extracting(ProductResponse::getName)
+                .containsExactly("사과는 맛있어", "맛있는 사과");
+        assertThat(secondPage.getList("contents", ProductResponse.class))
+                .extracting(ProductResponse::getName)
+                .containsExactly("사과");
+        assertThat(secondPage.getBoolean("hasNextPage")).isFalse();
+    }
+
+    @Test
+    @DisplayName("정렬 기준과 맞지 않는 커서로 조회하면 예외가 발생한다.")
+    void scrollProducts_cursorOfOtherSort() {
+        // given
+        insertAllProducts(List.of("치킨", "피자", "사케"));
+        final String idCursor = scroll("/api/v1/products/scroll", null, "id,desc").getString("nextCursor");
+
+        // when
+        final ExtractableResponse<Response> response = RestAssured
+                .given().log().all()
+                .queryParam("cursor", idCursor)
+                .queryParam("size", 2)
+                .queryParam("sort", "price,asc")
+                .when().get("/api/v1/products/scroll")
+                .then().log().all()
+                .extract();
+
+        // then
+        assertThat(response.statusCode()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+        assertThat(response.as(ErrorResponse.class).getErrorCode()).isEqualTo(ErrorCode.INVALID_CURSOR);
+    }
+
+    @Test
+    @DisplayName("마지막으로 받은 id 이후의 상품을 id 오름차순으로 한 줄에 하나씩 내보낸다.")
+    void exportProducts() {
+        // given
+        final Long firstId = insertProduct("치킨", 20000);
+        insertProduct("피자", 30000);
+        insertProduct("사케", 10000);
+
+        // when
+        final ExtractableResponse<Response> response = RestAssured
+                .given().log().all()
+                .queryParam("after", firstId)
+                .when().get("/api/v1/products/export")
+                .then().log().all()
+                .extract();
+
+        // then
+        assertThat(response.statusCode()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.asString().lines().toList())
+                .extracting(line -> JsonPath.from(line).getString("name"))
+                .containsExactly("피자", "사케");
+    }
+
+    private JsonPath scroll(final String path, final String cursor, final String sort) {
+        final RequestSpecification request = RestAssured
+                .given().log().all()
+                .queryParam("size", 2)
+                .queryParam("sort", sort);
+        if (cursor != null) {
+            request.queryParam("cursor", cursor);
+        }
+        return request
+                .when().get(path)
+                .then().contentType(ContentType.JSON).log().all()
+                .extract().body().jsonPath();
+    }
+
     private Long insertProduct(final String productName, final long price) {
         final Product product = DomainUtils.createProductWithoutId(productName, price, 10);
         return productRepository.save(product).getId();
@@ -0,0 +1,69 @@
+package com.gugucon.shopping.item.infrastructure;
+
+import com.gugucon.shopping.item.repository.dto.ProductIdOrderIdPairDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CoPurchaseMatrixTest {
+
+    @Test
+    @DisplayName("함께 구매된 횟수 내림차순, 같다면 id 오름차순으로 최대 limit 개를 반환한다.")
+    void findTopCoPurchased() {
+        // given
+        final CoPurchaseMatrix coPurchaseMatrix = CoPurchaseMatrix.build(new long[]{10L, 20L, 30L, 40L, 50L}, Stream.of(
+                new ProductIdOrderIdPairDto(10L, 1L),
+                new ProductIdOrderIdPairDto(50L, 1L),
+                new ProductIdOrderIdPairDto(40L, 1L),
+                new ProductIdOrderIdPairDto(10L, 2L),
+                new ProductIdOrderIdPairDto(50L, 2L),
+                new ProductIdOrderIdPairDto(30L, 2L),
+                new ProductIdOrderIdPairDto(20L, 3L),
+                new ProductIdOrderIdPairDto(10L, 3L)
+        ));
+
+        // when
+        final List<Long> topCoPurchased = coPurchaseMatrix.findTopCoPurchased(0, 3);
+
+        // then
+        assertThat(topCoPurchased).containsExactly(50L, 20L, 30L);
+        assertThat(coPurchaseMatrix.getPairCount()).isEqualTo(12L);
+    }
+
+    @Test
+    @DisplayName("상품 목록에 없는 상품은 건너뛰고, 함께 구매된 상품이 없다면 빈 목록을 반환한다.")
+    void findTopCoPurchased_unknownProduct() {
+        // given
+        final CoPurchaseMatrix coPurchaseMatrix = CoPurchaseMatrix.build(new long[]{1L, 2L}, Stream.of(
+                new ProductIdOrderIdPairDto(1L, 1L),
+                new ProductIdOrderIdPairDto(99L, 1L),
+                new ProductIdOrderIdPairDto(2L, 2L)
+        ));
+
+        // when & then
+        assertThat(coPurchaseMatrix.findTopCoPurchased(0, 30)).isEmpty();
+        assertThat(coPurchaseMatrix.findTopCoPurchased(1, 30)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("범위를 지정하면 범위 안의 상품에 대해서만 함께 구매된 횟수를 센다.")
+    void findTopCoPurchased_range() {
+        // given
+        final CoPurchaseMatrix coPurchaseMatrix = CoPurchaseMatrix.build(new long[]{10L, 20L, 30L}, 1, 2, Stream.of(
+                new ProductIdOrderIdPairDto(10L, 1L),
+                new ProductIdOrderIdPairDto(20L, 1L),
+                new ProductIdOrderIdPairDto(30L, 1L),
+                new ProductIdOrderIdPairDto(20L, 2L),
+                new ProductIdOrderIdPairDto(30L, 2L)
+        ));
+
+        // when & then
+        assertThat(coPurchaseMatrix.findTopCoPurchased(1, 30)).containsExactly(30L, 10L);
+        assertThat(coPurchaseMatrix.findTopCoPurchased(0, 30)).isEmpty();
+        assertThat(coPurchaseMatrix.findTopCoPurchased(2, 30)).isEmpty();
+    }
+}
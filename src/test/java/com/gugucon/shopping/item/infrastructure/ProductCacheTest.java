@@ -32,6 +32,9 @@ class ProductCacheTest {
     @MockBean
     ProductRepository productRepository;
 
+    @MockBean
+    RecommendationSnapshot recommendationSnapshot;
+
     @AfterEach
     void tearDown() {
         productCache.clearAll();
@@ -9,6 +9,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -20,7 +22,10 @@ class ProductCacheWarmerTest {
     ProductRepository productRepository;
 
     @Mock
-    ProductCache productCache;
+    RecommendationCacheWriter recommendationCacheWriter;
+
+    @Mock
+    RecommendationSnapshot recommendationSnapshot;
 
     @InjectMocks
     ProductCacheWarmer productCacheWarmer;
@@ -35,7 +40,7 @@ class ProductCacheWarmerTest {
     void warmRecommendationCache() {
         // given
         when(productRepository.findAllId()).thenReturn(List.of(1L, 2L, 3L, 4L));
-        when(productRepository.findAllIdWithOrderId()).thenReturn(List.of(
+        when(productRepository.streamAllIdWithOrderId()).thenReturn(Stream.of(
                 new ProductIdOrderIdPairDto(1L, 1L),
                 new ProductIdOrderIdPairDto(4L, 1L),
                 new ProductIdOrderIdPairDto(1L, 2L),
@@ -60,10 +65,50 @@ class ProductCacheWarmerTest {
         productCacheWarmer.warmRecommendationCache();
 
         // then
-        verify(productCache).setRecommendationIds(1L, List.of(4L, 3L, 2L));
-        verify(productCache).setRecommendationIds(2L, List.of(3L, 4L, 1L));
-        verify(productCache).setRecommendationIds(3L, List.of(2L, 1L, 4L));
-        verify(productCache).setRecommendationIds(4L, List.of(1L, 2L, 3L));
-        verifyNoMoreInteractions(productCache);
+        verify(recommendationCacheWriter).writeAll(Map.of(
+                1L, List.of(4L, 3L, 2L),
+                2L, List.of(3L, 4L, 1L),
+                3L, List.of(2L, 1L, 4L),
+                4L, List.of(1L, 2L, 3L)
+        ));
+        verifyNoMoreInteractions(recommendationCacheWriter);
+    }
+
+    @Test
+    void warmRecommendationCache_range() {
+        // given
+        final long[] productIds = {1L, 2L, 3L, 4L};
+        when(productRepository.streamAllIdWithOrderIdOfOrdersContaining(1L, 2L)).thenReturn(Stream.of(
+                new ProductIdOrderIdPairDto(1L, 1L),
+                new ProductIdOrderIdPairDto(4L, 1L),
+                new ProductIdOrderIdPairDto(1L, 2L),
+                new ProductIdOrderIdPairDto(4L, 2L),
+                new ProductIdOrderIdPairDto(1L, 3L),
+                new ProductIdOrderIdPairDto(3L, 3L),
+                new ProductIdOrderIdPairDto(4L, 3L),
+                new ProductIdOrderIdPairDto(2L, 4L),
+                new ProductIdOrderIdPairDto(3L, 4L),
+                new ProductIdOrderIdPairDto(2L, 5L),
+                new ProductIdOrderIdPairDto(3L, 5L),
+                new ProductIdOrderIdPairDto(1L, 6L),
+                new ProductIdOrderIdPairDto(2L, 6L),
+                new ProductIdOrderIdPairDto(3L, 6L),
+                new ProductIdOrderIdPairDto(2L, 7L),
+                new ProductIdOrderIdPairDto(4L, 7L),
+                new ProductIdOrderIdPairDto(2L, 8L),
+                new ProductIdOrderIdPairDto(4L, 8L)
+        ));
+
+        // when
+        final int warmedCount = productCacheWarmer.warmRecommendationCache(productIds, 1L, 2L, 10,
+                                                                           (lastProductId, count) -> true);
+
+        // then
+        assertEquals(2, warmedCount);
+        verify(recommendationCacheWriter).writeAll(Map.of(
+                1L, List.of(4L, 3L, 2L),
+                2L, List.of(3L, 4L, 1L)
+        ));
+        verify(productRepository, never()).findAllId();
     }
 }
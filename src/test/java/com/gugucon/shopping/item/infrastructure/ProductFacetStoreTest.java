@@ -0,0 +1,83 @@
+package com.gugucon.shopping.item.infrastructure;
+
+import com.gugucon.shopping.item.dto.response.PriceRangeFacetResponse;
+import com.gugucon.shopping.item.dto.response.ProductFacetResponse;
+import com.gugucon.shopping.item.repository.dto.ProductFacetDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class ProductFacetStoreTest {
+
+    @Test
+    @DisplayName("후보 상품의 가격 구간별 개수와 재고가 있는 상품 수를 센다.")
+    void count() {
+        // given
+        final ProductFacetStore productFacetStore = new ProductFacetStore(new long[]{30_000L, 10_000L});
+        productFacetStore.load(List.of(
+                new ProductFacetDto(1L, 5_000L, 0),
+                new ProductFacetDto(2L, 10_000L, 3),
+                new ProductFacetDto(3L, 29_999L, 1),
+                new ProductFacetDto(4L, 50_000L, 10),
+                new ProductFacetDto(5L, 1_000L, 10)
+        ));
+
+        // when
+        final ProductFacetResponse facets = productFacetStore.count(List.of(4L, 3L, 2L, 1L));
+
+        // then
+        assertThat(facets.getPriceRanges())
+                .extracting(PriceRangeFacetResponse::getMinPrice,
+                            PriceRangeFacetResponse::getMaxPrice,
+                            PriceRangeFacetResponse::getCount)
+                .containsExactly(
+                        tuple(null, 10_000L, 1L),
+                        tuple(10_000L, 30_000L, 2L),
+                        tuple(30_000L, null, 1L)
+                );
+        assertThat(facets.getInStockCount()).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("재고나 가격이 바뀐 상품을 반영하며, 적재되지 않은 상품은 세지 않는다.")
+    void put() {
+        // given
+        final ProductFacetStore productFacetStore = new ProductFacetStore(new long[]{10_000L});
+        productFacetStore.load(List.of(new ProductFacetDto(1L, 5_000L, 1)));
+        final long largeProductId = 100_000L;
+
+        // when
+        productFacetStore.put(List.of(new ProductFacetDto(1L, 5_000L, 0),
+                                      new ProductFacetDto(largeProductId, 20_000L, 1)));
+
+        // then
+        final ProductFacetResponse facets = productFacetStore.count(List.of(largeProductId, 7L, 1L));
+        assertThat(facets.getPriceRanges())
+                .extracting(PriceRangeFacetResponse::getCount)
+                .containsExactly(1L, 1L);
+        assertThat(facets.getInStockCount()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("적재한 용량보다 큰 상품 id 는 세지 않고, 같은 상품을 다시 반영하면 마지막 값으로 센다.")
+    void put_sameProductTwice() {
+        // given
+        final ProductFacetStore productFacetStore = new ProductFacetStore(new long[]{10_000L});
+        productFacetStore.load(List.of(new ProductFacetDto(1L, 5_000L, 1)));
+
+        // when
+        productFacetStore.put(List.of(new ProductFacetDto(2L, 5_000L, 1)));
+        productFacetStore.put(List.of(new ProductFacetDto(2L, 20_000L, 0)));
+
+        // then
+        final ProductFacetResponse facets = productFacetStore.count(List.of(1L, 2L, 5_000_000L));
+        assertThat(facets.getPriceRanges())
+                .extracting(PriceRangeFacetResponse::getCount)
+                .containsExactly(1L, 1L);
+        assertThat(facets.getInStockCount()).isEqualTo(1L);
+    }
+}
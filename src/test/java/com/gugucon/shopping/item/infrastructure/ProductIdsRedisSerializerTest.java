@@ -0,0 +1,70 @@
+package com.gugucon.shopping.item.infrastructure;
+
+import com.gugucon.shopping.item.dto.response.ProductIds;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProductIdsRedisSerializerTest {
+
+    private final ProductIdsRedisSerializer productIdsRedisSerializer = new ProductIdsRedisSerializer();
+
+    @Test
+    @DisplayName("정렬되지 않은 상품 id 목록을 직렬화했다가 그대로 복원한다.")
+    void serialize() {
+        // given
+        final List<Long> ids = List.of(1_000_000L, 3L, 999_999L, Long.MAX_VALUE, 1L);
+
+        // when
+        final byte[] bytes = productIdsRedisSerializer.serialize(ProductIds.from(ids));
+        final Object result = productIdsRedisSerializer.deserialize(bytes);
+
+        // then
+        assertThat(result).isInstanceOf(ProductIds.class)
+                .extracting(productIds -> ((ProductIds) productIds).getContents())
+                .isEqualTo(ids);
+    }
+
+    @Test
+    @DisplayName("JSON 으로 직렬화한 것보다 작다.")
+    void serialize_smallerThanJson() {
+        // given
+        final ProductIds productIds = ProductIds.from(List.of(101L, 57L, 230L, 12L, 98L));
+
+        // when
+        final byte[] binary = productIdsRedisSerializer.serialize(productIds);
+        final byte[] json = new GenericJackson2JsonRedisSerializer().serialize(productIds);
+
+        // then
+        assertThat(binary.length).isLessThan(json.length / 4);
+    }
+
+    @Test
+    @DisplayName("이전 형식인 JSON 값도 읽을 수 있다.")
+    void deserialize_legacyJson() {
+        // given
+        final byte[] json = new GenericJackson2JsonRedisSerializer().serialize(ProductIds.from(List.of(3L, 1L, 2L)));
+
+        // when
+        final Object result = productIdsRedisSerializer.deserialize(json);
+
+        // then
+        assertThat(result).isInstanceOf(ProductIds.class)
+                .extracting(productIds -> ((ProductIds) productIds).getContents())
+                .isEqualTo(List.of(3L, 1L, 2L));
+    }
+
+    @Test
+    @DisplayName("알 수 없는 버전이면 예외를 던진다.")
+    void deserialize_unknownVersion() {
+        // when & then
+        assertThatThrownBy(() -> productIdsRedisSerializer.deserialize(new byte[]{9, 0}))
+                .isInstanceOf(SerializationException.class);
+    }
+}
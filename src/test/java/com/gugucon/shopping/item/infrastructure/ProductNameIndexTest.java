@@ -0,0 +1,113 @@
+package com.gugucon.shopping.item.infrastructure;
+
+import com.gugucon.shopping.item.repository.dto.ProductNameDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductNameIndexTest {
+
+    @Test
+    @DisplayName("검색어를 포함하는 상품 id 를 id 내림차순으로 반환한다.")
+    void findCandidateIds() {
+        // given
+        final ProductNameIndex productNameIndex = new ProductNameIndex("index");
+        productNameIndex.rebuild(List.of(
+                new ProductNameDto(1L, "사과"),
+                new ProductNameDto(2L, "맛있는 사과"),
+                new ProductNameDto(3L, "사과는 맛있어"),
+                new ProductNameDto(4L, "가나다라마사과과"),
+                new ProductNameDto(5L, "가나다라마바사"),
+                new ProductNameDto(6L, "과놔돠롸")
+        ));
+
+        // when
+        final Optional<List<Long>> result = productNameIndex.findCandidateIds("사과");
+
+        // then
+        assertThat(result).contains(List.of(4L, 3L, 2L, 1L));
+    }
+
+    @Test
+    @DisplayName("3글자 이상의 검색어는 3-gram 으로 후보를 찾은 뒤 실제 포함 여부를 검증한다.")
+    void findCandidateIds_longKeyword() {
+        // given
+        final ProductNameIndex productNameIndex = new ProductNameIndex("index");
+        productNameIndex.rebuild(List.of(
+                new ProductNameDto(1L, "Fried Chicken"),
+                new ProductNameDto(2L, "chicken burger"),
+                new ProductNameDto(3L, "kitchen chic")
+        ));
+
+        // when
+        final Optional<List<Long>> result = productNameIndex.findCandidateIds("CHICKEN");
+
+        // then
+        assertThat(result).contains(List.of(2L, 1L));
+    }
+
+    @Test
+    @DisplayName("한글 한 글자 검색어는 음절 색인으로 찾는다.")
+    void findCandidateIds_singleHangulSyllable() {
+        // given
+        final ProductNameIndex productNameIndex = new ProductNameIndex("index");
+        productNameIndex.rebuild(List.of(
+                new ProductNameDto(1L, "치킨"),
+                new ProductNameDto(2L, "피자")
+        ));
+
+        // when
+        final Optional<List<Long>> result = productNameIndex.findCandidateIds("킨");
+
+        // then
+        assertThat(result).contains(List.of(1L));
+    }
+
+    @Test
+    @DisplayName("한글이 아닌 한 글자 검색어는 색인으로 찾지 않는다.")
+    void findCandidateIds_singleLatinCharacter() {
+        // given
+        final ProductNameIndex productNameIndex = new ProductNameIndex("index");
+        productNameIndex.rebuild(List.of(new ProductNameDto(1L, "pizza")));
+
+        // when
+        final Optional<List<Long>> result = productNameIndex.findCandidateIds("p");
+
+        // then
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    @DisplayName("상품 이름이 추가되거나 바뀌면 색인에 반영된다.")
+    void upsert() {
+        // given
+        final ProductNameIndex productNameIndex = new ProductNameIndex("index");
+        productNameIndex.rebuild(List.of(new ProductNameDto(1L, "사과")));
+
+        // when
+        productNameIndex.upsert(2L, "청사과");
+        productNameIndex.upsert(1L, "배");
+
+        // then
+        assertThat(productNameIndex.findCandidateIds("사과")).contains(List.of(2L));
+        assertThat(productNameIndex.findCandidateIds("배")).contains(List.of(1L));
+    }
+
+    @Test
+    @DisplayName("LIKE 검색 모드에서는 색인을 사용하지 않는다.")
+    void findCandidateIds_likeMode() {
+        // given
+        final ProductNameIndex productNameIndex = new ProductNameIndex("like");
+        productNameIndex.rebuild(List.of(new ProductNameDto(1L, "사과")));
+
+        // when
+        final Optional<List<Long>> result = productNameIndex.findCandidateIds("사과");
+
+        // then
+        assertThat(result).isEmpty();
+    }
+}
@@ -0,0 +1,94 @@
+package com.gugucon.shopping.item.infrastructure;
+
+import com.gugucon.shopping.item.dto.response.ProductSuggestionResponse;
+import com.gugucon.shopping.item.repository.dto.ProductSuggestionDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSuggestionTrieTest {
+
+    private final ProductSuggestionTrie trie = ProductSuggestionTrie.build(List.of(
+            new ProductSuggestionDto(1L, "사과", 10L),
+            new ProductSuggestionDto(2L, "사과즙", 30L),
+            new ProductSuggestionDto(3L, "맛있는 사과", 20L),
+            new ProductSuggestionDto(4L, "사랑의 과일", 5L),
+            new ProductSuggestionDto(5L, "Apple Pie", 0L),
+            new ProductSuggestionDto(6L, "사과 사과 주스", 0L)
+    ), 3);
+
+    @Test
+    @DisplayName("검색어로 시작하는 단어를 가진 상품을 주문 수가 많은 순으로 상위 K 개까지 반환한다.")
+    void suggest() {
+        // given
+
+        // when
+        final List<ProductSuggestionResponse> suggestions = trie.suggest("사과", 10);
+
+        // then
+        assertThat(suggestions)
+                .extracting(ProductSuggestionResponse::getId)
+                .containsExactly(2L, 3L, 1L);
+    }
+
+    @Test
+    @DisplayName("압축된 간선의 중간에서 끝나는 검색어도 자동완성한다.")
+    void suggest_prefixEndsInsideEdge() {
+        // given
+
+        // when
+        final List<ProductSuggestionResponse> suggestions = trie.suggest("사", 10);
+
+        // then
+        assertThat(suggestions)
+                .extracting(ProductSuggestionResponse::getId)
+                .containsExactly(2L, 3L, 1L);
+    }
+
+    @Test
+    @DisplayName("대소문자를 구분하지 않고, 요청한 개수만큼만 반환한다.")
+    void suggest_ignoreCaseAndLimit() {
+        // given
+
+        // when
+        final List<ProductSuggestionResponse> suggestions = trie.suggest("APP", 1);
+
+        // then
+        assertThat(suggestions)
+                .extracting(ProductSuggestionResponse::getName)
+                .containsExactly("Apple Pie");
+    }
+
+    @Test
+    @DisplayName("한 상품이 여러 단어로 일치하더라도 한 번만 반환하며, 주문 수가 같으면 id 가 큰 상품이 먼저 온다.")
+    void suggest_distinctProducts() {
+        // given
+        final ProductSuggestionTrie trie = ProductSuggestionTrie.build(List.of(
+                new ProductSuggestionDto(1L, "사과", 0L),
+                new ProductSuggestionDto(6L, "사과 사과 주스", 0L)
+        ), 3);
+
+        // when
+        final List<ProductSuggestionResponse> suggestions = trie.suggest("사과", 10);
+
+        // then
+        assertThat(suggestions)
+                .extracting(ProductSuggestionResponse::getId)
+                .containsExactly(6L, 1L);
+    }
+
+    @Test
+    @DisplayName("일치하는 상품이 없으면 빈 목록을 반환한다.")
+    void suggest_noMatch() {
+        // given
+
+        // when
+        final List<ProductSuggestionResponse> suggestions = trie.suggest("사과나무", 10);
+
+        // then
+        assertThat(suggestions).isEmpty();
+    }
+}
@@ -0,0 +1,60 @@
+package com.gugucon.shopping.item.infrastructure;
+
+import com.gugucon.shopping.item.domain.entity.Product;
+import com.gugucon.shopping.item.dto.response.ProductDetailResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.gugucon.shopping.utils.DomainUtils.createProduct;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSummaryCacheTest {
+
+    private final ProductSummaryCache productSummaryCache = new ProductSummaryCache(100, 30, new SimpleMeterRegistry());
+
+    @Test
+    @DisplayName("캐시에 없는 상품만 한 번에 불러오고, 존재하지 않는 상품은 결과에서 뺀다.")
+    void getAll() {
+        // given
+        final Product apple = createProduct("apple", 1000);
+        final Product banana = createProduct("banana", 2000);
+        final List<Set<? extends Long>> requestedIds = new ArrayList<>();
+        final Function<Set<? extends Long>, Map<Long, ProductDetailResponse>> loader = ids -> {
+            requestedIds.add(Set.copyOf(ids));
+            return List.of(apple, banana).stream()
+                    .filter(product -> ids.contains(product.getId()))
+                    .collect(Collectors.toMap(Product::getId, ProductDetailResponse::from));
+        };
+        productSummaryCache.getAll(List.of(apple.getId()), loader);
+
+        // when
+        final Map<Long, ProductDetailResponse> result = productSummaryCache.getAll(
+                List.of(apple.getId(), banana.getId(), -1L), loader);
+
+        // then
+        assertThat(result).containsOnlyKeys(apple.getId(), banana.getId());
+        assertThat(requestedIds).containsExactly(Set.of(apple.getId()), Set.of(banana.getId(), -1L));
+    }
+
+    @Test
+    @DisplayName("캐시에 있는 상품 id 만 찾는다.")
+    void findCachedIds() {
+        // given
+        final Product apple = createProduct("apple", 1000);
+        productSummaryCache.putAll(List.of(ProductDetailResponse.from(apple)));
+
+        // when
+        final List<Long> cachedIds = productSummaryCache.findCachedIds(List.of(apple.getId(), -1L));
+
+        // then
+        assertThat(cachedIds).containsExactly(apple.getId());
+    }
+}
@@ -0,0 +1,93 @@
+package com.gugucon.shopping.item.infrastructure;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecommendationSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("범위 안의 상품 추천 목록을 파일에 쓰고, 재시작한 뒤에도 읽을 수 있다.")
+    void write() {
+        // given
+        final long[] productIds = {1L, 5L, 9L, 12L};
+        final RecommendationSnapshot recommendationSnapshot = new RecommendationSnapshot(directory.toString(), 36);
+        recommendationSnapshot.write(productIds, 1, 3, index -> List.of(productIds[index] * 10, productIds[index] * 100));
+
+        // when
+        final RecommendationSnapshot restarted = new RecommendationSnapshot(directory.toString(), 36);
+        restarted.loadOnStartup();
+
+        // then
+        assertThat(recommendationSnapshot.find(5L)).contains(List.of(50L, 500L));
+        assertThat(restarted.find(9L)).contains(List.of(90L, 900L));
+        assertThat(restarted.find(1L)).isEmpty();
+        assertThat(restarted.find(12L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("체크섬이 맞지 않는 파일은 읽지 않는다.")
+    void loadOnStartup_corrupted() throws IOException {
+        // given
+        final long[] productIds = {1L, 2L};
+        new RecommendationSnapshot(directory.toString(), 36).write(productIds, 0, 2, index -> List.of(3L));
+        try (Stream<Path> files = Files.list(directory)) {
+            final Path file = files.findFirst().orElseThrow();
+            final byte[] bytes = Files.readAllBytes(file);
+            bytes[12] ^= 1;
+            Files.write(file, bytes);
+        }
+
+        // when
+        final RecommendationSnapshot restarted = new RecommendationSnapshot(directory.toString(), 36);
+        restarted.loadOnStartup();
+
+        // then
+        assertThat(restarted.find(1L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("상품 id 범위가 겹치는 새 세그먼트를 쓰면 이전 세그먼트 파일을 지운다.")
+    void write_supersede() throws IOException {
+        // given
+        final long[] productIds = {1L, 5L, 9L};
+        final RecommendationSnapshot recommendationSnapshot = new RecommendationSnapshot(directory.toString(), 36);
+        recommendationSnapshot.write(productIds, 0, 2, index -> List.of(100L));
+
+        // when
+        recommendationSnapshot.write(productIds, 0, 3, index -> List.of(200L));
+
+        // then
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.map(file -> file.getFileName().toString()))
+                    .containsExactly("recommendations-1-9.rsnap");
+        }
+        assertThat(recommendationSnapshot.find(1L)).contains(List.of(200L));
+    }
+
+    @Test
+    @DisplayName("max-age 보다 오래된 세그먼트는 읽지 않는다.")
+    void find_expired() throws InterruptedException {
+        // given
+        final long[] productIds = {1L, 2L};
+        final RecommendationSnapshot recommendationSnapshot = new RecommendationSnapshot(directory.toString(), 0);
+
+        // when
+        recommendationSnapshot.write(productIds, 0, 2, index -> List.of(3L));
+        Thread.sleep(10);
+
+        // then
+        assertThat(recommendationSnapshot.find(1L)).isEmpty();
+    }
+}
@@ -0,0 +1,94 @@
+package com.gugucon.shopping.item.infrastructure;
+
+import com.gugucon.shopping.common.config.JpaConfig;
+import com.gugucon.shopping.item.domain.entity.RecommendationWarmPartition;
+import com.gugucon.shopping.item.domain.entity.RecommendationWarmPartition.WarmStatus;
+import com.gugucon.shopping.item.repository.RecommendationWarmPartitionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({RecommendationWarmLease.class, JpaConfig.class})
+class RecommendationWarmLeaseTest {
+
+    private static final String RUN_KEY = "2023-09-01";
+
+    @Autowired
+    private RecommendationWarmLease recommendationWarmLease;
+
+    @Autowired
+    private RecommendationWarmPartitionRepository recommendationWarmPartitionRepository;
+
+    @AfterEach
+    void tearDown() {
+        recommendationWarmPartitionRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("최대 상품 id 를 파티션 크기로 나눠 파티션을 한 번만 만든다.")
+    void createPartitionsIfAbsent() {
+        // when
+        recommendationWarmLease.createPartitionsIfAbsent(RUN_KEY, 250L, 100L);
+        recommendationWarmLease.createPartitionsIfAbsent(RUN_KEY, 250L, 100L);
+
+        // then
+        final List<RecommendationWarmPartition> partitions = recommendationWarmPartitionRepository
+                .findAllByRunKeyAndStatusNotOrderByPartitionNumber(RUN_KEY, WarmStatus.DONE);
+        assertThat(partitions).extracting(RecommendationWarmPartition::getStartProductId)
+                .containsExactly(1L, 101L, 201L);
+        assertThat(partitions).extracting(RecommendationWarmPartition::getEndProductId)
+                .containsExactly(100L, 200L, 300L);
+    }
+
+    @Test
+    @DisplayName("이미 임대된 파티션은 다른 인스턴스가 가져가지 못한다.")
+    void claimNext() {
+        // given
+        recommendationWarmLease.createPartitionsIfAbsent(RUN_KEY, 200L, 100L);
+
+        // when
+        final Optional<RecommendationWarmPartition> first = recommendationWarmLease.claimNext(RUN_KEY, "a", Duration.ofMinutes(10));
+        final Optional<RecommendationWarmPartition> second = recommendationWarmLease.claimNext(RUN_KEY, "b", Duration.ofMinutes(10));
+        final Optional<RecommendationWarmPartition> third = recommendationWarmLease.claimNext(RUN_KEY, "c", Duration.ofMinutes(10));
+
+        // then
+        assertThat(first).get().extracting(RecommendationWarmPartition::getPartitionNumber).isEqualTo(0);
+        assertThat(second).get().extracting(RecommendationWarmPartition::getPartitionNumber).isEqualTo(1);
+        assertThat(third).isEmpty();
+    }
+
+    @Test
+    @DisplayName("임대가 끝난 파티션은 다른 인스턴스가 마지막 checkpoint 부터 이어서 처리한다.")
+    void claimNext_expiredLease() {
+        // given
+        recommendationWarmLease.createPartitionsIfAbsent(RUN_KEY, 100L, 100L);
+        final Long partitionId = recommendationWarmLease.claimNext(RUN_KEY, "a", Duration.ofMinutes(10))
+                .orElseThrow()
+                .getId();
+        recommendationWarmLease.checkpoint(partitionId, "a", 40L, 40L, Duration.ofMinutes(-1));
+
+        // when
+        final Optional<RecommendationWarmPartition> reclaimed = recommendationWarmLease.claimNext(RUN_KEY, "b", Duration.ofMinutes(10));
+
+        // then
+        assertThat(reclaimed).get().extracting(RecommendationWarmPartition::getResumeProductId).isEqualTo(41L);
+        assertThat(reclaimed).get().extracting(RecommendationWarmPartition::getProductCount).isEqualTo(40L);
+        assertThat(recommendationWarmLease.checkpoint(partitionId, "a", 50L, 50L, Duration.ofMinutes(10))).isFalse();
+        assertThat(recommendationWarmLease.complete(partitionId, "a")).isFalse();
+        assertThat(recommendationWarmLease.complete(partitionId, "b")).isTrue();
+        assertThat(recommendationWarmLease.claimNext(RUN_KEY, "c", Duration.ofMinutes(10))).isEmpty();
+    }
+}
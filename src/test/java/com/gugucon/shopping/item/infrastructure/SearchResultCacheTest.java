@@ -0,0 +1,121 @@
+package com.gugucon.shopping.item.infrastructure;
+
+import com.gugucon.shopping.common.dto.response.PagedResponse;
+import com.gugucon.shopping.item.domain.entity.Product;
+import com.gugucon.shopping.item.dto.response.ProductResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static com.gugucon.shopping.utils.DomainUtils.createProduct;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchResultCacheTest {
+
+    private final SearchResultCache searchResultCache = new SearchResultCache(2, 100, 60, new SimpleMeterRegistry());
+
+    @Test
+    @DisplayName("같은 검색 조건의 결과는 캐시에서 반환한다.")
+    void get() {
+        // given
+        final AtomicInteger loadCount = new AtomicInteger();
+        final Supplier<PagedResponse<ProductResponse>> loader = countingLoader(loadCount, createProduct("apple", 1000));
+
+        // when
+        searchResultCache.get(createSearchCondition("apple", 0), loader);
+        searchResultCache.get(createSearchCondition("apple", 0), loader);
+
+        // then
+        assertThat(loadCount.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("검색어의 대소문자가 다르면 다른 검색 조건으로 보고 따로 캐시한다.")
+    void get_differentKeywordCase() {
+        // given
+        final AtomicInteger loadCount = new AtomicInteger();
+        final Supplier<PagedResponse<ProductResponse>> loader = countingLoader(loadCount, createProduct("apple", 1000));
+
+        // when
+        searchResultCache.get(createSearchCondition("Apple", 0), loader);
+        searchResultCache.get(createSearchCondition("apple", 0), loader);
+
+        // then
+        assertThat(loadCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("최대 캐시 페이지 이후의 검색 결과는 캐시하지 않는다.")
+    void get_pageOverMaxPage() {
+        // given
+        final AtomicInteger loadCount = new AtomicInteger();
+        final Supplier<PagedResponse<ProductResponse>> loader = countingLoader(loadCount, createProduct("apple", 1000));
+
+        // when
+        searchResultCache.get(createSearchCondition("apple", 2), loader);
+        searchResultCache.get(createSearchCondition("apple", 2), loader);
+
+        // then
+        assertThat(loadCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("재고가 변경된 상품을 포함하는 검색 결과만 캐시에서 제거한다.")
+    void evictByProductIds() {
+        // given
+        final Product apple = createProduct("apple", 1000);
+        final Product banana = createProduct("banana", 1000);
+        final AtomicInteger appleLoadCount = new AtomicInteger();
+        final AtomicInteger bananaLoadCount = new AtomicInteger();
+        final Supplier<PagedResponse<ProductResponse>> appleLoader = countingLoader(appleLoadCount, apple);
+        final Supplier<PagedResponse<ProductResponse>> bananaLoader = countingLoader(bananaLoadCount, banana);
+        searchResultCache.get(createSearchCondition("apple", 0), appleLoader);
+        searchResultCache.get(createSearchCondition("banana", 0), bananaLoader);
+
+        // when
+        searchResultCache.evictByProductIds(List.of(apple.getId()));
+        searchResultCache.get(createSearchCondition("apple", 0), appleLoader);
+        searchResultCache.get(createSearchCondition("banana", 0), bananaLoader);
+
+        // then
+        assertThat(appleLoadCount.get()).isEqualTo(2);
+        assertThat(bananaLoadCount.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("캐시를 비우면 모든 검색 결과를 다시 조회한다.")
+    void clearAll() {
+        // given
+        final AtomicInteger loadCount = new AtomicInteger();
+        final Supplier<PagedResponse<ProductResponse>> loader = countingLoader(loadCount, createProduct("apple", 1000));
+        searchResultCache.get(createSearchCondition("apple", 0), loader);
+
+        // when
+        searchResultCache.clearAll();
+        searchResultCache.get(createSearchCondition("apple", 0), loader);
+
+        // then
+        assertThat(loadCount.get()).isEqualTo(2);
+    }
+
+    private SearchCondition createSearchCondition(final String keyword, final int page) {
+        return SearchCondition.builder()
+                .keyword(keyword)
+                .pageable(Pageable.ofSize(20).withPage(page).withSort(Sort.by(Sort.Direction.DESC, "id")))
+                .build();
+    }
+
+    private Supplier<PagedResponse<ProductResponse>> countingLoader(final AtomicInteger loadCount,
+                                                                   final Product product) {
+        return () -> {
+            loadCount.incrementAndGet();
+            return new PagedResponse<>(List.of(ProductResponse.from(product)), 1, 0, 20);
+        };
+    }
+}
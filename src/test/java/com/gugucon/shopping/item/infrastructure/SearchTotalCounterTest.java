@@ -0,0 +1,100 @@
+package com.gugucon.shopping.item.infrastructure;
+
+import com.gugucon.shopping.item.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SearchTotalCounterTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Test
+    @DisplayName("추정 모드에서는 최대 페이지를 넘는 검색 결과의 개수를 최대 페이지까지로 제한한다.")
+    void count_estimated() {
+        // given
+        final SearchTotalCounter searchTotalCounter = createCounter("estimated");
+        when(productRepository.countByNameUpTo("사과", 201)).thenReturn(201L);
+
+        // when
+        final SearchTotal total = searchTotalCounter.count(createSearchCondition("사과"));
+
+        // then
+        assertThat(total.getCount()).isEqualTo(200);
+        assertThat(total.isCapped()).isTrue();
+    }
+
+    @Test
+    @DisplayName("추정 모드에서 검색 결과가 최대 페이지 이하라면 정확한 개수를 반환한다.")
+    void count_estimatedUnderCap() {
+        // given
+        final SearchTotalCounter searchTotalCounter = createCounter("estimated");
+        when(productRepository.countByNameUpTo("사과", 201)).thenReturn(150L);
+
+        // when
+        final SearchTotal total = searchTotalCounter.count(createSearchCondition("사과"));
+
+        // then
+        assertThat(total.getCount()).isEqualTo(150);
+        assertThat(total.isCapped()).isFalse();
+    }
+
+    @Test
+    @DisplayName("캐시 모드에서는 같은 검색어의 개수를 한 번만 센다.")
+    void count_cached() {
+        // given
+        final SearchTotalCounter searchTotalCounter = createCounter("cached");
+        when(productRepository.countByName("사과")).thenReturn(150L);
+
+        // when
+        searchTotalCounter.count(createSearchCondition("사과"));
+        final SearchTotal total = searchTotalCounter.count(createSearchCondition("사과"));
+
+        // then
+        assertThat(total.getCount()).isEqualTo(150);
+        verify(productRepository, times(1)).countByName("사과");
+    }
+
+    @Test
+    @DisplayName("필터 없이 주문 수 순으로 검색하면 검색과 같은 조건으로 개수를 센다.")
+    void count_sortedByOrderCount() {
+        // given
+        final SearchTotalCounter searchTotalCounter = createCounter("exact");
+        when(productRepository.countByNameCaseSensitive("사과")).thenReturn(30L);
+
+        // when
+        final SearchTotal total = searchTotalCounter.count(SearchCondition.builder()
+                                                                   .keyword("사과")
+                                                                   .pageable(Pageable.ofSize(20).withSort(
+                                                                           Sort.by(Sort.Direction.DESC, "orderCount")))
+                                                                   .build());
+
+        // then
+        assertThat(total.getCount()).isEqualTo(30);
+        verify(productRepository, never()).countByName("사과");
+    }
+
+    private SearchTotalCounter createCounter(final String mode) {
+        return new SearchTotalCounter(productRepository, mode, 10, 100, 60, new SimpleMeterRegistry());
+    }
+
+    private SearchCondition createSearchCondition(final String keyword) {
+        return SearchCondition.builder()
+                .keyword(keyword)
+                .pageable(Pageable.ofSize(20).withSort(Sort.by(Sort.Direction.DESC, "id")))
+                .build();
+    }
+}
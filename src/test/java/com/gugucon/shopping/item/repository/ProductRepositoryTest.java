@@ -10,6 +10,7 @@ import com.gugucon.shopping.common.config.JpaConfig;
 import com.gugucon.shopping.common.domain.vo.Quantity;
 import com.gugucon.shopping.stat.domain.entity.OrderStat;
 import com.gugucon.shopping.item.domain.entity.Product;
+import com.gugucon.shopping.item.repository.dto.ProductSummaryDto;
 import com.gugucon.shopping.member.domain.entity.Member;
 import com.gugucon.shopping.member.domain.vo.BirthYearRange;
 import com.gugucon.shopping.member.domain.vo.Gender;
@@ -20,7 +21,9 @@ import com.gugucon.shopping.order.domain.entity.Order.OrderStatus;
 import com.gugucon.shopping.order.domain.entity.OrderItem;
 import com.gugucon.shopping.order.repository.OrderItemRepository;
 import com.gugucon.shopping.order.repository.OrderRepository;
+import com.gugucon.shopping.stat.domain.entity.ProductRank;
 import com.gugucon.shopping.stat.repository.OrderStatRepository;
+import com.gugucon.shopping.stat.repository.ProductRankRepository;
 import com.gugucon.shopping.utils.DomainUtils;
 import java.time.LocalDate;
 import java.util.List;
@@ -29,8 +32,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Import;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 @Import(JpaConfig.class)
 @DataJpaTest
@@ -52,8 +55,11 @@ class ProductRepositoryTest {
     @Autowired
     private OrderStatRepository orderStatRepository;
 
+    @Autowired
+    private ProductRankRepository productRankRepository;
+
     @Test
-    @DisplayName("해당 키워드를 이름에 포함하는 product를 주문이 많은 순으로 조회한다.")
+    @DisplayName("해당 키워드를 이름에 포함하는 product를 랭킹 테이블의 주문이 많은 순으로 조회한다.")
     void findAllByNameSortByOrderCountDesc() {
         // given
         final Member member = createMemberWithoutId("test@email.com", LocalDate.now(), Gender.FEMALE);
@@ -78,16 +84,42 @@ class ProductRepositoryTest {
             사과_주문상품, 맛있는사과_주문상품, 사과는맛있어_주문상품, 가나다라마사과과_주문상품, 가나다라마바사_주문상품
         );
         orderItemRepository.saveAll(orderItems);
-        updateOrderStats(member, orderItems);
+        orderItems.stream()
+                .filter(orderItem -> !orderItem.equals(맛있는사과_주문상품))
+                .forEach(orderItem -> insertProductRank(orderItem.getProductId(),
+                                                        orderItem.getQuantity().getValue()));
+        insertProductRank(맛있는사과.getId(), 0L);
+
+        final String keyword = "사과";
+
+        // when
+        final Slice<ProductSummaryDto> products = productRepository.findAllByNameSortByOrderCountDesc(keyword,
+                                                                                                      Pageable.ofSize(20));
+
+        // then
+        assertThat(products.getContent())
+                .extracting(ProductSummaryDto::getId)
+                .containsExactly(사과.getId(), 사과는맛있어.getId(), 가나다라마사과과.getId(), 맛있는사과.getId());
+    }
+
+    @Test
+    @DisplayName("해당 키워드를 이름에 포함하는 product의 개수를 최대 개수까지만 센다.")
+    void countByNameUpTo() {
+        // given
+        insertProduct("사과", 1000);
+        insertProduct("맛있는 사과", 1000);
+        insertProduct("사과는 맛있어", 1000);
+        insertProduct("가나다라마바사", 1000);
 
         final String keyword = "사과";
 
         // when
-        final Page<Product> products = productRepository.findAllByNameSortByOrderCountDesc(keyword,
-                                                                                           Pageable.ofSize(20));
+        final long cappedCount = productRepository.countByNameUpTo(keyword, 2);
+        final long count = productRepository.countByNameUpTo(keyword, 10);
 
         // then
-        assertThat(products.getContent()).containsExactly(사과, 사과는맛있어, 가나다라마사과과, 맛있는사과);
+        assertThat(cappedCount).isEqualTo(2);
+        assertThat(count).isEqualTo(3);
     }
 
     private Product insertProduct(final String productName, final long price) {
@@ -103,12 +135,12 @@ class ProductRepositoryTest {
         return product;
     }
 
-    private void updateOrderStats(final Member member, final List<OrderItem> orderItems) {
-        orderItems.forEach(oi -> {
-            orderStatRepository.updateOrderStatByCount(oi.getQuantity().getValue(),
-                                                       oi.getProductId(),
-                                                       BirthYearRange.from(member.getBirthDate()),
-                                                       member.getGender());
-        });
+    private void insertProductRank(final Long productId, final long orderCount) {
+        productRankRepository.save(ProductRank.builder()
+                                           .productId(productId)
+                                           .orderCount(orderCount)
+                                           .totalScore(0L)
+                                           .rateCount(0L)
+                                           .build());
     }
 }
@@ -0,0 +1,98 @@
+package com.gugucon.shopping.item.service;
+
+import com.gugucon.shopping.common.config.JpaConfig;
+import com.gugucon.shopping.item.domain.entity.CartItem;
+import com.gugucon.shopping.item.domain.entity.ProductCoPurchase;
+import com.gugucon.shopping.item.domain.entity.Product;
+import com.gugucon.shopping.item.infrastructure.ProductCache;
+import com.gugucon.shopping.item.repository.CartItemRepository;
+import com.gugucon.shopping.item.repository.ProductCoPurchaseCountRepository;
+import com.gugucon.shopping.item.repository.ProductCoPurchaseRepository;
+import com.gugucon.shopping.item.repository.ProductRepository;
+import com.gugucon.shopping.member.domain.entity.Member;
+import com.gugucon.shopping.member.domain.vo.Gender;
+import com.gugucon.shopping.member.repository.MemberRepository;
+import com.gugucon.shopping.order.domain.PayType;
+import com.gugucon.shopping.order.domain.entity.Order;
+import com.gugucon.shopping.order.domain.event.OrderCompleteEvent;
+import com.gugucon.shopping.order.repository.OrderRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.gugucon.shopping.utils.DomainUtils.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ProductCoPurchaseService.class, ProductCoPurchaseCountRepository.class, JpaConfig.class})
+class ProductCoPurchaseServiceTest {
+
+    @Autowired
+    private ProductCoPurchaseService productCoPurchaseService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductCoPurchaseRepository productCoPurchaseRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @MockBean
+    private ProductCache productCache;
+
+    @Test
+    @DisplayName("기존 완료 주문으로 함께 구매된 횟수를 채운 뒤, 주문 완료 이벤트를 처리해서 횟수를 올리고 주문한 상품의 추천 목록을 갱신한다.")
+    void handle() {
+        // given
+        final Member member = memberRepository.save(createMemberWithoutId("test@gmail.com", LocalDate.of(2000, 1, 1), Gender.MALE));
+        final Product productA = productRepository.save(createProductWithoutId("test_product_A", 10000L, 10));
+        final Product productB = productRepository.save(createProductWithoutId("test_product_B", 20000L, 10));
+        final Product productC = productRepository.save(createProductWithoutId("test_product_C", 30000L, 10));
+        final Order firstOrder = saveOrder(member, List.of(productA, productB));
+        firstOrder.startPay(PayType.POINT);
+        firstOrder.completePay();
+        orderRepository.save(firstOrder);
+        productCoPurchaseService.initializeIfEmpty();
+        final Order secondOrder = saveOrder(member, List.of(productA, productB, productC));
+
+        // when
+        productCoPurchaseService.handle(OrderCompleteEvent.from(firstOrder));
+        productCoPurchaseService.handle(OrderCompleteEvent.from(secondOrder));
+
+        // then
+        verify(productCache).setRecommendationIds(productA.getId(), List.of(productB.getId(), productC.getId()));
+        verify(productCache).setRecommendationIds(productC.getId(), List.of(productB.getId(), productA.getId()));
+        assertThat(productCoPurchaseRepository.findAll())
+                .filteredOn(coPurchase -> coPurchase.getProductId().equals(productA.getId())
+                        && coPurchase.getCoProductId().equals(productB.getId()))
+                .extracting(ProductCoPurchase::getCount)
+                .containsExactly(2L);
+    }
+
+    private Order saveOrder(final Member member, final List<Product> products) {
+        final List<CartItem> cartItems = products.stream()
+                .map(product -> cartItemRepository.save(createCartItemWithoutId(member.getId(), product)))
+                .toList();
+        final Order order = orderRepository.save(Order.from(member.getId(), cartItems));
+        cartItemRepository.deleteAll(cartItems);
+        return order;
+    }
+}
@@ -1,13 +1,15 @@
 package com.gugucon.shopping.item.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.when;
 
 import com.gugucon.shopping.common.dto.response.PagedResponse;
-import com.gugucon.shopping.item.domain.entity.Product;
+import com.gugucon.shopping.common.exception.ErrorCode;
+import com.gugucon.shopping.common.exception.ShoppingException;
 import com.gugucon.shopping.item.dto.response.ProductResponse;
 import com.gugucon.shopping.item.repository.ProductRepository;
-import com.gugucon.shopping.utils.DomainUtils;
+import com.gugucon.shopping.item.repository.dto.ProductSummaryDto;
 import java.util.List;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -35,12 +37,12 @@ class ProductServiceTest {
         /* given */
         final Pageable pageable = PageRequest.of(0, 20, Direction.DESC, "createdAt");
 
-        final List<Product> products = List.of(
-            DomainUtils.createProduct("치킨", 20000),
-            DomainUtils.createProduct("피자", 20000),
-            DomainUtils.createProduct("사케", 30000)
+        final List<ProductSummaryDto> products = List.of(
+            new ProductSummaryDto(1L, "치킨", "image_file_name_1", 100, 20000),
+            new ProductSummaryDto(2L, "피자", "image_file_name_2", 100, 20000),
+            new ProductSummaryDto(3L, "사케", "image_file_name_3", 100, 30000)
         );
-        when(productRepository.findAll(pageable)).thenReturn(new PageImpl<>(products));
+        when(productRepository.findAllSummaries(pageable)).thenReturn(new PageImpl<>(products));
 
         /* when */
         final PagedResponse<ProductResponse> productResponses = productService.readAllProducts(pageable);
@@ -57,4 +59,16 @@ class ProductServiceTest {
         assertThat(productResponses.getSize()).isEqualTo(3);
         assertThat(productResponses.getTotalPage()).isEqualTo(1);
     }
+
+    @Test
+    @DisplayName("추천 검색어를 1개 미만으로 요청하면 예외가 발생한다.")
+    void suggestProducts_invalidSize() {
+        /* given */
+        final int size = -1;
+
+        /* when & then */
+        assertThatThrownBy(() -> productService.suggestProducts("사과", size))
+            .isInstanceOf(ShoppingException.class)
+            .hasMessage(ErrorCode.INVALID_SIZE.getMessage());
+    }
 }
@@ -3,14 +3,19 @@ package com.gugucon.shopping.order.service;
 import com.gugucon.shopping.common.config.JpaConfig;
 import com.gugucon.shopping.common.exception.ErrorCode;
 import com.gugucon.shopping.common.exception.ShoppingException;
-import com.gugucon.shopping.stat.service.OrderStatService;
 import com.gugucon.shopping.member.domain.entity.Member;
 import com.gugucon.shopping.member.repository.MemberRepository;
 import com.gugucon.shopping.order.domain.PayType;
 import com.gugucon.shopping.order.domain.entity.Order;
 import com.gugucon.shopping.order.dto.request.OrderPayRequest;
 import com.gugucon.shopping.order.repository.OrderRepository;
+import com.gugucon.shopping.stat.infrastructure.CohortStatCube;
+import com.gugucon.shopping.stat.infrastructure.StatWriteBehindAggregator;
+import com.gugucon.shopping.stat.infrastructure.TrendingStatWindow;
+import com.gugucon.shopping.stat.repository.StatDeltaRepository;
+import com.gugucon.shopping.stat.service.OrderStatService;
 import com.gugucon.shopping.utils.DomainUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,7 +28,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @DataJpaTest
-@Import(value = {OrderService.class, JpaConfig.class, OrderStatService.class})
+@Import(value = {OrderService.class, JpaConfig.class, OrderStatService.class, CohortStatCube.class,
+        TrendingStatWindow.class, StatWriteBehindAggregator.class, StatDeltaRepository.class, SimpleMeterRegistry.class})
 @DisplayName("OrderService 통합 테스트")
 class OrderServiceTest {
 
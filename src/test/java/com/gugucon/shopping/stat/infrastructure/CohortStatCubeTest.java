@@ -0,0 +1,106 @@
+package com.gugucon.shopping.stat.infrastructure;
+
+import com.gugucon.shopping.member.domain.vo.BirthYearRange;
+import com.gugucon.shopping.member.domain.vo.Gender;
+import com.gugucon.shopping.stat.repository.dto.CohortOrderStatDto;
+import com.gugucon.shopping.stat.repository.dto.CohortRateStatDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.gugucon.shopping.member.domain.vo.BirthYearRange.MID_TWENTIES;
+import static com.gugucon.shopping.member.domain.vo.BirthYearRange.THIRTIES;
+import static com.gugucon.shopping.member.domain.vo.Gender.FEMALE;
+import static com.gugucon.shopping.member.domain.vo.Gender.MALE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CohortStatCubeTest {
+
+    @Test
+    @DisplayName("해당 연령대, 성별의 주문 통계가 있는 후보만 주문 수 내림차순으로 정렬한다.")
+    void sortByOrderCount() {
+        // given
+        final CohortStatCube cohortStatCube = new CohortStatCube();
+        cohortStatCube.load(List.of(
+                orderStat(1L, MID_TWENTIES, MALE, 5),
+                orderStat(2L, MID_TWENTIES, MALE, 10),
+                orderStat(3L, MID_TWENTIES, MALE, 5),
+                orderStat(4L, THIRTIES, FEMALE, 100)
+        ), List.of());
+
+        // when
+        final List<Long> sortedIds = cohortStatCube.sortByOrderCount(List.of(4L, 3L, 2L, 1L), MID_TWENTIES, MALE);
+
+        // then
+        assertThat(sortedIds).containsExactly(2L, 3L, 1L);
+    }
+
+    @Test
+    @DisplayName("평균 평점 내림차순으로 정렬하며, 평점이 없는 상품은 마지막에 온다.")
+    void sortByRate() {
+        // given
+        final CohortStatCube cohortStatCube = new CohortStatCube();
+        cohortStatCube.load(List.of(), List.of(
+                rateStat(1L, MID_TWENTIES, FEMALE, 8, 2),
+                rateStat(2L, MID_TWENTIES, FEMALE, 0, 0),
+                rateStat(3L, MID_TWENTIES, FEMALE, 5, 1)
+        ));
+
+        // when
+        final List<Long> sortedIds = cohortStatCube.sortByRate(List.of(3L, 2L, 1L), MID_TWENTIES, FEMALE);
+
+        // then
+        assertThat(sortedIds).containsExactly(3L, 1L, 2L);
+    }
+
+    @Test
+    @DisplayName("통계가 갱신되면 정렬에 반영되며, 배열보다 큰 상품 id 도 저장할 수 있다.")
+    void increase() {
+        // given
+        final CohortStatCube cohortStatCube = new CohortStatCube();
+        final long largeProductId = 100_000L;
+        cohortStatCube.load(List.of(orderStat(1L, THIRTIES, MALE, 3)), List.of());
+        cohortStatCube.putOrderStat(largeProductId, THIRTIES, MALE, 0);
+
+        // when
+        cohortStatCube.increaseOrderCount(largeProductId, THIRTIES, MALE, 5);
+
+        // then
+        assertThat(cohortStatCube.sortByOrderCount(List.of(largeProductId, 1L), THIRTIES, MALE))
+                .containsExactly(largeProductId, 1L);
+        assertThat(cohortStatCube.getMemoryBytes()).isGreaterThan(largeProductId);
+    }
+
+    @Test
+    @DisplayName("불러오기 시작한 뒤 갱신된 통계는 불러온 값에 다시 더해진다.")
+    void load_replaysIncreasesDuringLoad() {
+        // given
+        final CohortStatCube cohortStatCube = new CohortStatCube();
+        cohortStatCube.load(List.of(orderStat(1L, THIRTIES, MALE, 3)), List.of());
+        cohortStatCube.beginLoad();
+        cohortStatCube.increaseOrderCount(2L, THIRTIES, MALE, 5);
+
+        // when
+        cohortStatCube.load(List.of(orderStat(1L, THIRTIES, MALE, 3), orderStat(2L, THIRTIES, MALE, 1)), List.of());
+
+        // then
+        assertThat(cohortStatCube.sortByOrderCount(List.of(1L, 2L), THIRTIES, MALE))
+                .containsExactly(2L, 1L);
+    }
+
+    private CohortOrderStatDto orderStat(final Long productId,
+                                         final BirthYearRange birthYearRange,
+                                         final Gender gender,
+                                         final long count) {
+        return new CohortOrderStatDto(productId, birthYearRange, gender, count);
+    }
+
+    private CohortRateStatDto rateStat(final Long productId,
+                                       final BirthYearRange birthYearRange,
+                                       final Gender gender,
+                                       final long totalScore,
+                                       final long count) {
+        return new CohortRateStatDto(productId, birthYearRange, gender, totalScore, count);
+    }
+}
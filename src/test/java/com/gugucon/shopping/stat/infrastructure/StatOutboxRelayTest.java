@@ -0,0 +1,148 @@
+package com.gugucon.shopping.stat.infrastructure;
+
+import com.gugucon.shopping.common.config.JpaConfig;
+import com.gugucon.shopping.item.domain.entity.CartItem;
+import com.gugucon.shopping.item.domain.entity.Product;
+import com.gugucon.shopping.item.repository.CartItemRepository;
+import com.gugucon.shopping.item.repository.ProductRepository;
+import com.gugucon.shopping.member.domain.entity.Member;
+import com.gugucon.shopping.member.domain.vo.Gender;
+import com.gugucon.shopping.member.repository.MemberRepository;
+import com.gugucon.shopping.order.domain.entity.Order;
+import com.gugucon.shopping.order.domain.event.OrderCompleteEvent;
+import com.gugucon.shopping.order.repository.OrderRepository;
+import com.gugucon.shopping.stat.domain.entity.OrderStat;
+import com.gugucon.shopping.stat.domain.entity.StatOutboxEvent;
+import com.gugucon.shopping.stat.domain.entity.StatOutboxEvent.EventType;
+import com.gugucon.shopping.stat.repository.OrderStatRepository;
+import com.gugucon.shopping.stat.repository.StatDeltaRepository;
+import com.gugucon.shopping.stat.repository.StatOutboxEventRepository;
+import com.gugucon.shopping.stat.repository.TrendingStatRepository;
+import com.gugucon.shopping.stat.service.OrderStatService;
+import com.gugucon.shopping.stat.service.RateStatService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.gugucon.shopping.utils.DomainUtils.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({StatOutboxRelay.class, OrderStatService.class, RateStatService.class, CohortStatCube.class,
+         StatWriteBehindAggregator.class, StatDeltaRepository.class, TrendingStatWindow.class,
+         TrendingStatWindowLoader.class, TrendingStatRepository.class, SimpleMeterRegistry.class, JpaConfig.class})
+class StatOutboxRelayTest {
+
+    @Autowired
+    private StatOutboxRelay statOutboxRelay;
+
+    @Autowired
+    private StatWriteBehindAggregator statWriteBehindAggregator;
+
+    @Autowired
+    private StatOutboxEventRepository statOutboxEventRepository;
+
+    @Autowired
+    private OrderStatRepository orderStatRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @AfterEach
+    void tearDown() {
+        statOutboxEventRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("outbox 의 이벤트는 통계에 반영되기 전에 여러 번 읽혀도 한 번만 반영되고, 반영된 뒤 지워진다.")
+    void drain() {
+        // given
+        final Member member = memberRepository.save(createMemberWithoutId("test@gmail.com", LocalDate.of(2000, 1, 1), Gender.MALE));
+        final Product product = productRepository.save(createProduct("test_product", 10000L));
+        final CartItem cartItem = cartItemRepository.save(createCartItemWithoutId(member.getId(), product));
+        final Order order = orderRepository.save(Order.from(member.getId(), List.of(cartItem)));
+        final OrderStat orderStat = orderStatRepository.save(createOrderStatWithoutId(member, product.getId()));
+        statOutboxRelay.record(OrderCompleteEvent.from(order));
+
+        // when
+        statOutboxRelay.drain();
+        statOutboxRelay.drain();
+        statWriteBehindAggregator.flush();
+        statOutboxRelay.drain();
+        statWriteBehindAggregator.flush();
+
+        // then
+        final OrderStat updatedOrderStat = orderStatRepository.findById(orderStat.getId())
+                .orElseThrow(IllegalArgumentException::new);
+        assertThat(updatedOrderStat.getCount()).isEqualTo(Long.valueOf(cartItem.getQuantity().getValue()));
+        assertThat(statOutboxEventRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("다른 인스턴스가 임대한 이벤트는 임대가 끝나기 전에는 반영하지 않는다.")
+    void drain_leasedByOtherInstance() {
+        // given
+        final Member member = memberRepository.save(createMemberWithoutId("leased@gmail.com", LocalDate.of(2000, 1, 1), Gender.MALE));
+        final Product product = productRepository.save(createProduct("leased_product", 10000L));
+        final CartItem cartItem = cartItemRepository.save(createCartItemWithoutId(member.getId(), product));
+        final Order order = orderRepository.save(Order.from(member.getId(), List.of(cartItem)));
+        final StatOutboxEvent leasedEvent = statOutboxEventRepository.save(StatOutboxEvent.builder()
+                .eventType(EventType.ORDER_COMPLETE)
+                .aggregateId(order.getId())
+                .createdAt(LocalDateTime.now())
+                .owner("other-instance")
+                .leaseExpiresAt(LocalDateTime.now().plusHours(1))
+                .attempts(0)
+                .build());
+
+        // when
+        statOutboxRelay.drain();
+        statWriteBehindAggregator.flush();
+
+        // then
+        assertThat(statWriteBehindAggregator.isPending(leasedEvent.getId())).isFalse();
+        assertThat(statOutboxEventRepository.existsById(leasedEvent.getId())).isTrue();
+    }
+
+    @Test
+    @DisplayName("max-attempts 번 실패한 이벤트는 dead letter 로 남기고 다시 읽지 않는다.")
+    void drain_deadLetter() {
+        // given
+        final StatOutboxEvent poisonEvent = statOutboxEventRepository.save(StatOutboxEvent.builder()
+                .eventType(EventType.ORDER_COMPLETE)
+                .aggregateId(Long.MAX_VALUE)
+                .createdAt(LocalDateTime.now())
+                .attempts(9)
+                .build());
+
+        // when
+        statOutboxRelay.drain();
+        statOutboxRelay.drain();
+
+        // then
+        final StatOutboxEvent deadLetter = statOutboxEventRepository.findById(poisonEvent.getId())
+                .orElseThrow(IllegalArgumentException::new);
+        assertThat(deadLetter.getAttempts()).isEqualTo(10);
+        assertThat(deadLetter.getDeadLetteredAt()).isNotNull();
+    }
+}
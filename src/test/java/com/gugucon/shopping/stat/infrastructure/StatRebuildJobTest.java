@@ -0,0 +1,155 @@
+package com.gugucon.shopping.stat.infrastructure;
+
+import com.gugucon.shopping.common.config.JpaConfig;
+import com.gugucon.shopping.item.domain.entity.CartItem;
+import com.gugucon.shopping.item.domain.entity.Product;
+import com.gugucon.shopping.item.repository.CartItemRepository;
+import com.gugucon.shopping.item.repository.ProductRepository;
+import com.gugucon.shopping.member.domain.entity.Member;
+import com.gugucon.shopping.member.domain.vo.BirthYearRange;
+import com.gugucon.shopping.member.domain.vo.Gender;
+import com.gugucon.shopping.member.repository.MemberRepository;
+import com.gugucon.shopping.order.domain.PayType;
+import com.gugucon.shopping.order.domain.entity.Order;
+import com.gugucon.shopping.order.repository.OrderRepository;
+import com.gugucon.shopping.rate.repository.RateRepository;
+import com.gugucon.shopping.stat.domain.entity.OrderStat;
+import com.gugucon.shopping.stat.domain.entity.RateStat;
+import com.gugucon.shopping.stat.domain.entity.StatOutboxEvent;
+import com.gugucon.shopping.stat.repository.OrderStatRepository;
+import com.gugucon.shopping.stat.repository.ProductRankDeltaRepository;
+import com.gugucon.shopping.stat.repository.RateStatRepository;
+import com.gugucon.shopping.stat.repository.StatDeltaRepository;
+import com.gugucon.shopping.stat.repository.StatOutboxEventRepository;
+import com.gugucon.shopping.stat.repository.StatRebuildRepository;
+import com.gugucon.shopping.stat.service.ProductRankService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.gugucon.shopping.utils.DomainUtils.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({StatRebuildJob.class, StatRebuildRepository.class, StatWriteBehindAggregator.class, CohortStatCube.class,
+         StatDeltaRepository.class, ProductRankService.class, ProductRankDeltaRepository.class,
+         SimpleMeterRegistry.class, JpaConfig.class})
+@TestPropertySource(properties = {"stat.rebuild.chunk-size=1", "stat.rebuild.parallelism=2", "stat.rebuild.max-attempts=3"})
+class StatRebuildJobTest {
+
+    @Autowired
+    private StatRebuildJob statRebuildJob;
+
+    @Autowired
+    private OrderStatRepository orderStatRepository;
+
+    @Autowired
+    private RateStatRepository rateStatRepository;
+
+    @Autowired
+    private StatOutboxEventRepository statOutboxEventRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private RateRepository rateRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private StatRebuildRepository statRebuildRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("완료된 주문과 평점으로 통계 테이블을 다시 만들고, 아직 반영되지 않은 이벤트의 주문은 제외한다.")
+    void run() {
+        // given
+        final Member member = memberRepository.save(createMemberWithoutId("test@gmail.com", LocalDate.of(2000, 1, 1), Gender.MALE));
+        final Product product = productRepository.save(createProduct("test_product", 10000L));
+        final CartItem cartItem = cartItemRepository.save(createCartItemWithoutId(member.getId(), product));
+        final Order completedOrderA = orderRepository.save(completedOrder(member, cartItem));
+        orderRepository.save(completedOrder(member, cartItem));
+        final Order pendingOrder = orderRepository.save(completedOrder(member, cartItem));
+        orderRepository.save(Order.from(member.getId(), List.of(cartItem)));
+        rateRepository.save(createRate(completedOrderA.getOrderItems().get(0), (short) 4));
+        statOutboxEventRepository.save(StatOutboxEvent.orderCompleted(pendingOrder.getId()));
+        orderStatRepository.save(OrderStat.builder()
+                                         .productId(product.getId())
+                                         .birthYearRange(BirthYearRange.from(member.getBirthDate()))
+                                         .gender(member.getGender())
+                                         .count(100L)
+                                         .build());
+        rateStatRepository.save(createRateStatWithoutId(member, product.getId()));
+
+        // when
+        statRebuildJob.run();
+
+        // then
+        final BirthYearRange birthYearRange = BirthYearRange.from(member.getBirthDate());
+        final List<OrderStat> orderStats = orderStatRepository.findAll();
+        assertThat(orderStats).hasSize(1);
+        assertThat(orderStats.get(0).getBirthYearRange()).isEqualTo(birthYearRange);
+        assertThat(orderStats.get(0).getCount()).isEqualTo(2L * cartItem.getQuantity().getValue());
+        final List<RateStat> rateStats = rateStatRepository.findAll();
+        assertThat(rateStats).hasSize(1);
+        assertThat(rateStats.get(0).getCount()).isEqualTo(1L);
+        assertThat(rateStats.get(0).getTotalScore()).isEqualTo(4L);
+        assertThat(jdbcTemplate.queryForObject("SELECT status FROM stat_rebuild_state WHERE id = 1", String.class))
+                .isEqualTo("IDLE");
+    }
+
+    @Test
+    @DisplayName("최대 시도 횟수만큼 넘겨받은 작업은 포기하고, IDLE 로 되돌린 뒤 _rebuild 테이블과 청크 기록을 지운다.")
+    void resumeAbandoned_abortsExhaustedRun() {
+        // given
+        statRebuildRepository.createStateIfAbsent();
+        jdbcTemplate.update("UPDATE stat_rebuild_state SET status = 'RUNNING', run_key = 'exhausted-run', " +
+                                    "owner = 'dead-instance', lease_expires_at = ?, attempts = 3 WHERE id = 1",
+                            LocalDateTime.now().minusMinutes(1));
+        jdbcTemplate.update("INSERT INTO order_stats_rebuild " +
+                                    "(product_id, birth_year_range, gender, count, created_at, last_modified_at) " +
+                                    "VALUES (1, 'THIRTIES', 'MALE', 3, ?, ?)",
+                            LocalDateTime.now(), LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO stat_rebuild_chunks (run_key, chunk_type, chunk_number, row_count) " +
+                                    "VALUES ('exhausted-run', 'ORDER', 0, 1)");
+
+        // when
+        statRebuildJob.resumeAbandoned();
+
+        // then
+        assertThat(jdbcTemplate.queryForObject("SELECT status FROM stat_rebuild_state WHERE id = 1", String.class))
+                .isEqualTo("IDLE");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_stats_rebuild", Integer.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM stat_rebuild_chunks WHERE run_key = 'exhausted-run'",
+                                               Integer.class)).isZero();
+    }
+
+    private Order completedOrder(final Member member, final CartItem cartItem) {
+        final Order order = Order.from(member.getId(), List.of(cartItem));
+        order.startPay(PayType.POINT);
+        order.completePay();
+        return order;
+    }
+}
@@ -0,0 +1,130 @@
+package com.gugucon.shopping.stat.infrastructure;
+
+import com.gugucon.shopping.stat.infrastructure.TrendingStatWindow.Span;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static com.gugucon.shopping.member.domain.vo.BirthYearRange.MID_TWENTIES;
+import static com.gugucon.shopping.member.domain.vo.BirthYearRange.THIRTIES;
+import static com.gugucon.shopping.member.domain.vo.Gender.FEMALE;
+import static com.gugucon.shopping.member.domain.vo.Gender.MALE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrendingStatWindowTest {
+
+    private static final Instant NOW = Instant.parse("2023-09-01T12:00:00Z");
+
+    @Test
+    @DisplayName("최근 24시간 주문 수 내림차순으로 정렬하고, 같으면 최근 1시간 주문 수가 많은 상품이 먼저 온다.")
+    void sortByTrending() {
+        // given
+        final MutableClock clock = new MutableClock(NOW);
+        final TrendingStatWindow trendingStatWindow = new TrendingStatWindow(clock);
+        final LocalDateTime now = LocalDateTime.now(clock);
+        trendingStatWindow.addOrderCount(1L, MID_TWENTIES, MALE, 3, now.minusHours(5));
+        trendingStatWindow.addOrderCount(2L, MID_TWENTIES, MALE, 3, now.minusMinutes(5));
+        trendingStatWindow.addOrderCount(3L, MID_TWENTIES, MALE, 5, now.minusHours(10));
+        trendingStatWindow.addOrderCount(4L, MID_TWENTIES, MALE, 100, now.minusDays(3));
+        trendingStatWindow.addOrderCount(5L, THIRTIES, FEMALE, 100, now);
+
+        // when
+        final List<Long> sortedIds = trendingStatWindow.sortByTrending(List.of(5L, 4L, 3L, 2L, 1L),
+                                                                       MID_TWENTIES,
+                                                                       MALE);
+
+        // then
+        assertThat(sortedIds).containsExactly(3L, 2L, 1L, 4L);
+        assertThat(trendingStatWindow.sortByTrending(List.of(5L, 4L, 3L, 2L, 1L))).startsWith(5L);
+    }
+
+    @Test
+    @DisplayName("최근 7일 동안 해당 연령대, 성별의 주문이 있는 상품 id 만 찾는다.")
+    void findOrderedProductIds() {
+        // given
+        final MutableClock clock = new MutableClock(NOW);
+        final TrendingStatWindow trendingStatWindow = new TrendingStatWindow(clock);
+        final LocalDateTime now = LocalDateTime.now(clock);
+        trendingStatWindow.addOrderCount(1L, MID_TWENTIES, MALE, 1, now.minusDays(1));
+        trendingStatWindow.addOrderCount(2L, THIRTIES, FEMALE, 1, now);
+        trendingStatWindow.addOrderCount(3L, MID_TWENTIES, MALE, 1, now.minusDays(8));
+
+        // when
+        final List<Long> cohortIds = trendingStatWindow.findOrderedProductIds(MID_TWENTIES, MALE);
+        final List<Long> allIds = trendingStatWindow.findOrderedProductIds();
+
+        // then
+        assertThat(cohortIds).containsExactly(1L);
+        assertThat(allIds).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("시간이 지나면 기간을 벗어난 버킷의 주문 수가 합계에서 빠진다.")
+    void rotate() {
+        // given
+        final MutableClock clock = new MutableClock(NOW);
+        final TrendingStatWindow trendingStatWindow = new TrendingStatWindow(clock);
+        trendingStatWindow.addOrderCount(1L, MID_TWENTIES, MALE, 2, LocalDateTime.now(clock));
+
+        // when
+        clock.advance(Duration.ofHours(2));
+        final long hourCount = trendingStatWindow.countOrders(1L, Span.HOUR);
+        final long dayCount = trendingStatWindow.countOrders(1L, Span.DAY);
+        clock.advance(Duration.ofDays(8));
+        final long weekCount = trendingStatWindow.countOrders(1L, Span.WEEK, MID_TWENTIES, MALE);
+
+        // then
+        assertThat(hourCount).isZero();
+        assertThat(dayCount).isEqualTo(2L);
+        assertThat(weekCount).isZero();
+        assertThat(trendingStatWindow.sortByTrending(List.of(1L), MID_TWENTIES, MALE)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("가장 긴 기간보다 오래된 주문은 더하지 않는다.")
+    void addOrderCount_expired() {
+        // given
+        final MutableClock clock = new MutableClock(NOW);
+        final TrendingStatWindow trendingStatWindow = new TrendingStatWindow(clock);
+
+        // when
+        trendingStatWindow.addOrderCount(1L, MID_TWENTIES, MALE, 2, LocalDateTime.now(clock).minusDays(8));
+
+        // then
+        assertThat(trendingStatWindow.countOrders(1L, Span.WEEK)).isZero();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(final Instant instant) {
+            this.instant = instant;
+        }
+
+        private void advance(final Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -9,10 +9,18 @@ import com.gugucon.shopping.member.domain.entity.Member;
 import com.gugucon.shopping.member.domain.vo.Gender;
 import com.gugucon.shopping.member.repository.MemberRepository;
 import com.gugucon.shopping.order.domain.entity.Order;
-import com.gugucon.shopping.order.domain.event.OrderCompleteEvent;
 import com.gugucon.shopping.order.repository.OrderRepository;
 import com.gugucon.shopping.stat.domain.entity.OrderStat;
+import com.gugucon.shopping.stat.domain.entity.ProductRank;
+import com.gugucon.shopping.stat.domain.entity.StatOutboxEvent;
+import com.gugucon.shopping.stat.infrastructure.CohortStatCube;
+import com.gugucon.shopping.stat.infrastructure.StatWriteBehindAggregator;
+import com.gugucon.shopping.stat.infrastructure.TrendingStatWindow;
 import com.gugucon.shopping.stat.repository.OrderStatRepository;
+import com.gugucon.shopping.stat.repository.ProductRankRepository;
+import com.gugucon.shopping.stat.repository.StatDeltaRepository;
+import com.gugucon.shopping.stat.repository.StatOutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,7 +37,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 @DataJpaTest
 @Transactional(propagation = Propagation.NOT_SUPPORTED)
-@Import({OrderStatService.class, JpaConfig.class})
+@Import({OrderStatService.class, CohortStatCube.class, TrendingStatWindow.class, StatWriteBehindAggregator.class,
+         StatDeltaRepository.class, SimpleMeterRegistry.class, JpaConfig.class})
 class OrderStatServiceTest {
 
     @Autowired
@@ -38,6 +47,15 @@ class OrderStatServiceTest {
     @Autowired
     private OrderStatRepository orderStatRepository;
 
+    @Autowired
+    private ProductRankRepository productRankRepository;
+
+    @Autowired
+    private StatWriteBehindAggregator statWriteBehindAggregator;
+
+    @Autowired
+    private StatOutboxEventRepository statOutboxEventRepository;
+
     @Autowired
     private OrderRepository orderRepository;
 
@@ -62,10 +80,12 @@ class OrderStatServiceTest {
         final Order order = orderRepository.save(Order.from(member.getId(), List.of(cartItemA, cartItemB)));
         final OrderStat orderStatA = orderStatRepository.save(createOrderStatWithoutId(member, productA.getId()));
         final OrderStat orderStatB = orderStatRepository.save(createOrderStatWithoutId(member, productB.getId()));
-        final OrderCompleteEvent orderCompleteEvent = OrderCompleteEvent.from(order);
+        final StatOutboxEvent orderCompleteEvent = statOutboxEventRepository.save(
+                StatOutboxEvent.orderCompleted(order.getId()));
 
         // when
         orderStatService.handle(orderCompleteEvent);
+        statWriteBehindAggregator.flush();
 
         // then
         final OrderStat updatedOrderStatA = orderStatRepository.findById(orderStatA.getId())
@@ -74,5 +94,56 @@ class OrderStatServiceTest {
                 .orElseThrow(IllegalArgumentException::new);
         assertThat(updatedOrderStatA.getCount()).isEqualTo(Long.valueOf(cartItemA.getQuantity().getValue()));
         assertThat(updatedOrderStatB.getCount()).isEqualTo(Long.valueOf(cartItemB.getQuantity().getValue()));
+        assertThat(statOutboxEventRepository.existsById(orderCompleteEvent.getId())).isFalse();
+    }
+
+    @Test
+    @DisplayName("주문 통계 행이 없으면 주문 수로 새로 만든다.")
+    void handle_withoutOrderStat() {
+        // given
+        final Member member = memberRepository.save(createMemberWithoutId("new_stat@gmail.com", LocalDate.of(1990, 1, 1), Gender.FEMALE));
+        final Product product = productRepository.save(createProduct("test_product_C", 10000L));
+        final CartItem cartItem = cartItemRepository.save(createCartItemWithoutId(member.getId(), product));
+        final Order order = orderRepository.save(Order.from(member.getId(), List.of(cartItem)));
+        final StatOutboxEvent orderCompleteEvent = statOutboxEventRepository.save(
+                StatOutboxEvent.orderCompleted(order.getId()));
+
+        // when
+        orderStatService.handle(orderCompleteEvent);
+        statWriteBehindAggregator.flush();
+
+        // then
+        final List<OrderStat> orderStats = orderStatRepository.findAll().stream()
+                .filter(orderStat -> orderStat.getProductId().equals(product.getId()))
+                .toList();
+        assertThat(orderStats).hasSize(1);
+        assertThat(orderStats.get(0).getCount()).isEqualTo(Long.valueOf(cartItem.getQuantity().getValue()));
+        assertThat(orderStats.get(0).getGender()).isEqualTo(Gender.FEMALE);
+    }
+
+    @Test
+    @DisplayName("모아 둔 주문 수를 반영할 때 상품 랭킹의 주문 수도 함께 늘린다.")
+    void handle_increasesProductRank() {
+        // given
+        final Member member = memberRepository.save(createMemberWithoutId("rank@gmail.com", LocalDate.of(1995, 1, 1), Gender.MALE));
+        final Product product = productRepository.save(createProduct("test_product_D", 10000L));
+        final CartItem cartItem = cartItemRepository.save(createCartItemWithoutId(member.getId(), product));
+        final Order order = orderRepository.save(Order.from(member.getId(), List.of(cartItem)));
+        final StatOutboxEvent orderCompleteEvent = statOutboxEventRepository.save(
+                StatOutboxEvent.orderCompleted(order.getId()));
+
+        // when
+        orderStatService.handle(orderCompleteEvent);
+        final boolean rankedBeforeFlush = productRankRepository.findAll().stream()
+                .anyMatch(productRank -> productRank.getProductId().equals(product.getId()));
+        statWriteBehindAggregator.flush();
+
+        // then
+        final List<ProductRank> productRanks = productRankRepository.findAll().stream()
+                .filter(productRank -> productRank.getProductId().equals(product.getId()))
+                .toList();
+        assertThat(rankedBeforeFlush).isFalse();
+        assertThat(productRanks).hasSize(1);
+        assertThat(productRanks.get(0).getOrderCount()).isEqualTo(Long.valueOf(cartItem.getQuantity().getValue()));
     }
 }
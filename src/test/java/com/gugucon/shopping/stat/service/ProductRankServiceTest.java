@@ -0,0 +1,136 @@
+package com.gugucon.shopping.stat.service;
+
+import com.gugucon.shopping.common.config.JpaConfig;
+import com.gugucon.shopping.item.domain.entity.Product;
+import com.gugucon.shopping.item.domain.event.ProductSaveEvent;
+import com.gugucon.shopping.item.repository.ProductRepository;
+import com.gugucon.shopping.member.domain.vo.BirthYearRange;
+import com.gugucon.shopping.member.domain.vo.Gender;
+import com.gugucon.shopping.stat.domain.entity.OrderStat;
+import com.gugucon.shopping.stat.domain.entity.ProductRank;
+import com.gugucon.shopping.stat.domain.entity.RateStat;
+import com.gugucon.shopping.stat.repository.OrderStatRepository;
+import com.gugucon.shopping.stat.repository.ProductRankDeltaRepository;
+import com.gugucon.shopping.stat.repository.ProductRankRepository;
+import com.gugucon.shopping.stat.repository.RateStatRepository;
+import com.gugucon.shopping.stat.repository.dto.ProductRankDeltaDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static com.gugucon.shopping.utils.DomainUtils.createProductWithoutId;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ProductRankService.class, ProductRankDeltaRepository.class, JpaConfig.class})
+class ProductRankServiceTest {
+
+    @Autowired
+    private ProductRankService productRankService;
+
+    @Autowired
+    private ProductRankRepository productRankRepository;
+
+    @Autowired
+    private ProductRankDeltaRepository productRankDeltaRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderStatRepository orderStatRepository;
+
+    @Autowired
+    private RateStatRepository rateStatRepository;
+
+    @Test
+    @DisplayName("이미 랭킹 행이 있는 상품이 다시 저장되어도 랭킹 행을 하나만 두고 누적한 값을 그대로 유지한다.")
+    void handle_existingRank() {
+        // given
+        final Product product = productRepository.save(createProductWithoutId("test_product", 1000L, 10));
+        productRankDeltaRepository.add(List.of(new ProductRankDeltaDto(product.getId(), 3L, 0L, 0L)));
+
+        // when
+        productRankService.handle(ProductSaveEvent.from(product));
+
+        // then
+        assertThat(productRankRepository.findAll())
+                .filteredOn(rank -> rank.getProductId().equals(product.getId()))
+                .singleElement()
+                .extracting(ProductRank::getOrderCount)
+                .isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("주문 통계와 별점 통계로부터 랭킹 테이블을 다시 계산한다.")
+    void rebuild() {
+        // given
+        final Product product = productRepository.save(createProductWithoutId("test_product", 1000L, 10));
+        orderStatRepository.save(OrderStat.builder()
+                                         .productId(product.getId())
+                                         .birthYearRange(BirthYearRange.THIRTIES)
+                                         .gender(Gender.MALE)
+                                         .count(7L)
+                                         .build());
+        orderStatRepository.save(OrderStat.builder()
+                                         .productId(product.getId())
+                                         .birthYearRange(BirthYearRange.THIRTIES)
+                                         .gender(Gender.FEMALE)
+                                         .count(5L)
+                                         .build());
+        rateStatRepository.save(RateStat.builder()
+                                        .productId(product.getId())
+                                        .birthYearRange(BirthYearRange.THIRTIES)
+                                        .gender(Gender.MALE)
+                                        .totalScore(9L)
+                                        .count(2L)
+                                        .build());
+
+        // when
+        productRankService.rebuild();
+
+        // then
+        final ProductRank productRank = findRankOf(product.getId());
+        assertThat(productRank.getOrderCount()).isEqualTo(12L);
+        assertThat(productRank.getTotalScore()).isEqualTo(9L);
+        assertThat(productRank.getRateCount()).isEqualTo(2L);
+        assertThat(productRank.getAverageScore()).isEqualTo(4.5);
+    }
+
+    @Test
+    @DisplayName("랭킹 행이 없는 상품에 통계로 계산한 랭킹 행을 채운다.")
+    void backfillMissingRanks() {
+        // given
+        final Product product = productRepository.save(createProductWithoutId("test_product", 1000L, 10));
+        productRankRepository.deleteAll();
+        orderStatRepository.save(OrderStat.builder()
+                                         .productId(product.getId())
+                                         .birthYearRange(BirthYearRange.THIRTIES)
+                                         .gender(Gender.MALE)
+                                         .count(4L)
+                                         .build());
+
+        // when
+        productRankService.backfillMissingRanks();
+
+        // then
+        final ProductRank productRank = findRankOf(product.getId());
+        assertThat(productRank.getOrderCount()).isEqualTo(4L);
+        assertThat(productRank.getRateCount()).isZero();
+        assertThat(productRank.getAverageScore()).isNull();
+    }
+
+    private ProductRank findRankOf(final Long productId) {
+        return productRankRepository.findAll().stream()
+                .filter(rank -> rank.getProductId().equals(productId))
+                .findAny()
+                .orElseThrow(IllegalArgumentException::new);
+    }
+}
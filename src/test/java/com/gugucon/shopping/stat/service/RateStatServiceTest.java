@@ -11,10 +11,15 @@ import com.gugucon.shopping.member.repository.MemberRepository;
 import com.gugucon.shopping.order.domain.entity.Order;
 import com.gugucon.shopping.order.repository.OrderRepository;
 import com.gugucon.shopping.rate.domain.entity.Rate;
-import com.gugucon.shopping.rate.domain.event.RateCreateEvent;
 import com.gugucon.shopping.rate.repository.RateRepository;
 import com.gugucon.shopping.stat.domain.entity.RateStat;
+import com.gugucon.shopping.stat.domain.entity.StatOutboxEvent;
+import com.gugucon.shopping.stat.infrastructure.CohortStatCube;
+import com.gugucon.shopping.stat.infrastructure.StatWriteBehindAggregator;
 import com.gugucon.shopping.stat.repository.RateStatRepository;
+import com.gugucon.shopping.stat.repository.StatDeltaRepository;
+import com.gugucon.shopping.stat.repository.StatOutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,7 +36,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 @DataJpaTest
 @Transactional(propagation = Propagation.NOT_SUPPORTED)
-@Import({RateStatService.class, JpaConfig.class})
+@Import({RateStatService.class, CohortStatCube.class,
+         StatWriteBehindAggregator.class, StatDeltaRepository.class, SimpleMeterRegistry.class, JpaConfig.class})
 class RateStatServiceTest {
 
     @Autowired
@@ -43,6 +49,12 @@ class RateStatServiceTest {
     @Autowired
     private RateRepository rateRepository;
 
+    @Autowired
+    private StatWriteBehindAggregator statWriteBehindAggregator;
+
+    @Autowired
+    private StatOutboxEventRepository statOutboxEventRepository;
+
     @Autowired
     private OrderRepository orderRepository;
 
@@ -65,15 +77,19 @@ class RateStatServiceTest {
         final Order order = orderRepository.save(Order.from(member.getId(), List.of(cartItem)));
         final Rate rate = rateRepository.save(createRate(order.getOrderItems().get(0), (short) 5));
         final RateStat rateStat = rateStatRepository.save(createRateStatWithoutId(member, product.getId()));
-        final RateCreateEvent rateCreateEvent = RateCreateEvent.of(rate, member.getId());
+        final StatOutboxEvent rateCreateEvent = statOutboxEventRepository.save(
+                StatOutboxEvent.rateCreated(rate.getId(), member.getId()));
 
         // when
         rateStatService.handle(rateCreateEvent);
+        statWriteBehindAggregator.flush();
 
         // then
         final RateStat updatedRateStat = rateStatRepository.findById(rateStat.getId())
                 .orElseThrow(IllegalArgumentException::new);
         assertThat(updatedRateStat.getCount()).isEqualTo(1L);
         assertThat(updatedRateStat.getTotalScore()).isEqualTo(Long.valueOf(rate.getScore()));
+        assertThat(updatedRateStat.getAverageScore()).isEqualTo(5.0);
+        assertThat(statOutboxEventRepository.existsById(rateCreateEvent.getId())).isFalse();
     }
 }